@@ -10,6 +10,8 @@ import org.teavm.gdx.files.TeaVMFiles;
 import org.teavm.gdx.graphics.DebugTeaVMGraphics;
 import org.teavm.gdx.graphics.TeaVMGraphics;
 import org.teavm.gdx.graphics.resizing.ResizeListener;
+import org.teavm.gdx.graphics.webgl.GPUTimer;
+import org.teavm.gdx.graphics.webgl.ProfilingGL20;
 import org.teavm.gdx.input.ResettableInput;
 import org.teavm.gdx.input.TeaVMInput;
 import org.teavm.gdx.lifecycle.DebugTeaVMRenderer;
@@ -294,6 +296,20 @@ public class TeaVMApplication implements Application {
 		return renderer;
 	}
 
+	/** @return counts GL usage of each frame and keeps a history of finished frames. Null if GL profiling was not turned on
+	 *         with {@link TeaVMApplicationConfiguration#setGlProfiled(boolean)} or if custom {@link Graphics} are used. Call
+	 *         {@link ProfilingGL20#reset()} to clear the counters. */
+	public ProfilingGL20 getGlProfiler () {
+		return graphics instanceof TeaVMGraphics ? ((TeaVMGraphics)graphics).getGlProfiler() : null;
+	}
+
+	/** @return measures GPU time of frames and named scopes. Null if GPU timing was not turned on with
+	 *         {@link TeaVMApplicationConfiguration#setGpuTimed(boolean)}, if the browser does not support timer queries or if
+	 *         custom {@link Graphics} are used. */
+	public GPUTimer getGPUTimer () {
+		return graphics instanceof TeaVMGraphics ? ((TeaVMGraphics)graphics).getGPUTimer() : null;
+	}
+
 	/** @return application's main canvas used to render graphics. */
 	public HTMLCanvasElement getCanvas () {
 		return canvas;
@@ -332,10 +348,9 @@ public class TeaVMApplication implements Application {
 		Gdx.files = files;
 		Gdx.input = input;
 		Gdx.graphics = graphics;
-		if (configuration.isUsingGl30() && graphics.isGL30Available()) { // Should never happen, but we allow
-			Gdx.gl = Gdx.gl20 = Gdx.gl30 = graphics.getGL30(); // the users to simulate/implement GL30.
-		} else {
-			Gdx.gl = Gdx.gl20 = graphics.getGL20();
+		Gdx.gl = Gdx.gl20 = graphics.getGL20(); // Might be a profiling wrapper of the GL30 implementation.
+		if (configuration.isUsingGl30() && graphics.isGL30Available()) { // WebGL2 context was obtained.
+			Gdx.gl30 = graphics.getGL30();
 		}
 	}
 
@@ -2,6 +2,7 @@
 package org.teavm.gdx;
 
 import org.teavm.gdx.graphics.TeaVMGraphics.OrientationLockType;
+import org.teavm.gdx.graphics.webgl.TextureCompression;
 
 import com.badlogic.gdx.Graphics;
 
@@ -17,6 +18,20 @@ public class TeaVMApplicationConfiguration {
 	private boolean alphaEnabled;
 	private boolean premultipliedAlpha;
 	private boolean drawingBufferPreserved;
+	private boolean glStateCached;
+	private boolean uniformValuesCached;
+	private boolean glCommandsBuffered;
+	private boolean glProfiled;
+	private int glProfilingHistorySize = 60;
+	private boolean gpuTimed;
+	private boolean vertexStreamingEnabled;
+	private int vertexStreamingRingArrays = 4;
+	private int vertexStreamingRingSize = 1 << 20;
+	private boolean vertexArrayObjectsUsed;
+	private boolean shadersCached;
+	private long textureMemoryBudget;
+	private boolean pixmapPixelBuffered;
+	private TextureCompression[] textureCompressions = {};
 
 	/** @return true if antialias should be enabled. */
 	public boolean isAntialiasEnabled () {
@@ -91,15 +106,188 @@ public class TeaVMApplicationConfiguration {
 		this.canvasId = canvasId;
 	}
 
-	/** @return true if GL30 should be used instead of GL20. Most likely not supported. */
+	/** @return true if GL30 should be used if WebGL2 is supported by the browser. */
 	public boolean isUsingGl30 () {
 		return useGl30;
 	}
 
-	/** @param useGl30 if true, GL30 will be used where available. Defaults to false. WebGL currently seems to support only GL20,
-	 *           so this value is mostly ignored by default. Set to true if you added custom GL30 implementation to
-	 *           {@link Graphics}. */
+	/** @param useGl30 if true, a WebGL2 context will be requested and GL30 will be backed by
+	 *           {@link org.teavm.gdx.graphics.webgl.TeaVMGL30}. Falls back to WebGL1 and GL20 if WebGL2 is not supported by the
+	 *           browser. Defaults to false. */
 	public void setUseGl30 (final boolean useGl30) {
 		this.useGl30 = useGl30;
 	}
+
+	/** @return true if GL state should be shadowed to skip redundant WebGL calls. */
+	public boolean isGlStateCached () {
+		return glStateCached;
+	}
+
+	/** @param glStateCached if true, {@link org.teavm.gdx.graphics.webgl.StateCachingTeaVMGL20} will be used, skipping WebGL
+	 *           calls that would not change current GL state. Defaults to false. Note that WebGL context should not be
+	 *           modified directly when this setting is on. Ignored if a WebGL2 context is used - see
+	 *           {@link #setUseGl30(boolean)}. */
+	public void setGlStateCached (final boolean glStateCached) {
+		this.glStateCached = glStateCached;
+	}
+
+	/** @return true if last values of shader uniforms should be cached. */
+	public boolean isUniformValuesCached () {
+		return uniformValuesCached;
+	}
+
+	/** @param uniformValuesCached if true, {@link org.teavm.gdx.graphics.webgl.TeaVMGL20} will cache the last value set for
+	 *           each uniform location and skip uploading unchanged values. Defaults to false. */
+	public void setUniformValuesCached (final boolean uniformValuesCached) {
+		this.uniformValuesCached = uniformValuesCached;
+	}
+
+	/** @return true if GL calls should be recorded and executed in batches. */
+	public boolean isGlCommandsBuffered () {
+		return glCommandsBuffered;
+	}
+
+	/** @param glCommandsBuffered if true, {@link org.teavm.gdx.graphics.webgl.CommandBufferGL20} will be used, recording common
+	 *           GL calls and executing them in batches at flush points. Takes precedence over {@link #setGlStateCached(boolean)}.
+	 *           Defaults to false. Ignored if a WebGL2 context is used - see {@link #setUseGl30(boolean)}. */
+	public void setGlCommandsBuffered (final boolean glCommandsBuffered) {
+		this.glCommandsBuffered = glCommandsBuffered;
+	}
+
+	/** @return true if GL usage should be counted each frame. */
+	public boolean isGlProfiled () {
+		return glProfiled;
+	}
+
+	/** @param glProfiled if true, GL implementation will be wrapped with {@link org.teavm.gdx.graphics.webgl.ProfilingGL20}
+	 *           - or {@link org.teavm.gdx.graphics.webgl.ProfilingGL30} with WebGL2 - counting draw calls, uploads and calls of
+	 *           each GL method per frame. Counters can be read with {@link TeaVMApplication#getGlProfiler()}. Defaults to
+	 *           false. */
+	public void setGlProfiled (final boolean glProfiled) {
+		this.glProfiled = glProfiled;
+	}
+
+	/** @return amount of finished frames kept in the GL profiler history. */
+	public int getGlProfilingHistorySize () {
+		return glProfilingHistorySize;
+	}
+
+	/** @param glProfilingHistorySize amount of finished frames kept in the GL profiler history. Defaults to 60. */
+	public void setGlProfilingHistorySize (final int glProfilingHistorySize) {
+		this.glProfilingHistorySize = glProfilingHistorySize;
+	}
+
+	/** @return true if GPU time of each frame should be measured. */
+	public boolean isGpuTimed () {
+		return gpuTimed;
+	}
+
+	/** @param gpuTimed if true, GPU time of each rendered frame will be measured with timer queries, if the browser supports
+	 *           them. Results can be read with {@link TeaVMApplication#getGPUTimer()}, which also allows to measure named
+	 *           scopes. Defaults to false. */
+	public void setGpuTimed (final boolean gpuTimed) {
+		this.gpuTimed = gpuTimed;
+	}
+
+	/** @return true if dynamic vertex arrays should stream their data through ring buffers. */
+	public boolean isVertexStreamingEnabled () {
+		return vertexStreamingEnabled;
+	}
+
+	/** @param vertexStreamingEnabled if true, non-static vertex arrays (for example the ones used by SpriteBatch) will append
+	 *           their data to a larger GL buffer at an advancing offset instead of re-specifying the whole buffer on each
+	 *           change. The buffer is orphaned once it is full. Defaults to false. */
+	public void setVertexStreamingEnabled (final boolean vertexStreamingEnabled) {
+		this.vertexStreamingEnabled = vertexStreamingEnabled;
+	}
+
+	/** @return amount of full vertex array contents that fit in the GL buffer of each streaming vertex array. */
+	public int getVertexStreamingRingArrays () {
+		return vertexStreamingRingArrays;
+	}
+
+	/** @param vertexStreamingRingArrays amount of full vertex array contents that fit in the GL buffer of each streaming vertex
+	 *           array. The buffer is orphaned after this many uploads of the whole array, or after more uploads of smaller
+	 *           batches. Limited by {@link #setVertexStreamingRingSize(int)}. At least 1. Defaults to 4. */
+	public void setVertexStreamingRingArrays (final int vertexStreamingRingArrays) {
+		this.vertexStreamingRingArrays = vertexStreamingRingArrays;
+	}
+
+	/** @return highest size of the GL buffer used by each streaming vertex array in bytes. */
+	public int getVertexStreamingRingSize () {
+		return vertexStreamingRingSize;
+	}
+
+	/** @param vertexStreamingRingSize highest size of the GL buffer used by each streaming vertex array in bytes. Buffers are
+	 *           sized with {@link #setVertexStreamingRingArrays(int)}, so small vertex arrays use less memory. Never smaller
+	 *           than the vertex array itself. Defaults to 1 MiB. */
+	public void setVertexStreamingRingSize (final int vertexStreamingRingSize) {
+		this.vertexStreamingRingSize = vertexStreamingRingSize;
+	}
+
+	/** @return true if vertex arrays should record their attribute setup in vertex array objects. */
+	public boolean isVertexArrayObjectsUsed () {
+		return vertexArrayObjectsUsed;
+	}
+
+	/** @param vertexArrayObjectsUsed if true, vertex arrays will keep a vertex array object per GL program with recorded
+	 *           attribute setup and element array buffer binding, turning most binds into a single call. Objects are deleted
+	 *           along with their vertex arrays or programs. Used only if WebGL2 or OES_vertex_array_object extension is
+	 *           available. Defaults to false. */
+	public void setVertexArrayObjectsUsed (final boolean vertexArrayObjectsUsed) {
+		this.vertexArrayObjectsUsed = vertexArrayObjectsUsed;
+	}
+
+	/** @return true if shaders and programs with identical sources should share compiled WebGL objects. */
+	public boolean isShadersCached () {
+		return shadersCached;
+	}
+
+	/** @param shadersCached if true, {@link org.teavm.gdx.graphics.webgl.TeaVMGL20} will compile each distinct shader source
+	 *           and link each distinct program once, sharing the results between shader programs with the same sources. Shader
+	 *           programs with the same sources then share a single WebGL program and its uniform values: a uniform set through
+	 *           one of them changes it for all of them. Turn it on only if such shader programs set all their uniforms after
+	 *           binding. Defaults to false. */
+	public void setShadersCached (final boolean shadersCached) {
+		this.shadersCached = shadersCached;
+	}
+
+	/** @return estimated amount of bytes that textures should use at most. 0 if textures are not limited. */
+	public long getTextureMemoryBudget () {
+		return textureMemoryBudget;
+	}
+
+	/** @param textureMemoryBudget estimated amount of bytes that textures should use at most. Once it is exceeded, the least
+	 *           recently bound textures uploaded from preloaded images are evicted from the GPU and uploaded again when they
+	 *           are bound. Usage is reported by {@link org.teavm.gdx.graphics.webgl.TeaVMGL20#getTextureMemory()}. Defaults
+	 *           to 0, which turns the budget off. */
+	public void setTextureMemoryBudget (final long textureMemoryBudget) {
+		this.textureMemoryBudget = textureMemoryBudget;
+	}
+
+	/** @return true if pixmaps should write pixels directly to a cached pixel array instead of drawing on their canvas. */
+	public boolean isPixmapPixelBuffered () {
+		return pixmapPixelBuffered;
+	}
+
+	/** @param pixmapPixelBuffered if true, drawn pixels and filled rectangles are written straight to pixmap pixels read once
+	 *           from the canvas, which makes drawing many single pixels and reading them back much faster. Modified area is
+	 *           put back on the canvas at once when it is needed, for example when the pixmap is uploaded to a texture or
+	 *           drawn with shapes. Blending follows the native libGDX implementation. Defaults to false. */
+	public void setPixmapPixelBuffered (final boolean pixmapPixelBuffered) {
+		this.pixmapPixelBuffered = pixmapPixelBuffered;
+	}
+
+	/** @return families of compressed texture formats, in the order of preference, which variants of loaded textures are
+	 *         looked for in. Empty if variants are not used. */
+	public TextureCompression[] getTextureCompressions () {
+		return textureCompressions;
+	}
+
+	/** @param textureCompressions families of compressed texture formats in the order of preference. When a texture file (for
+	 *           example "atlas.png") is loaded, the first existing variant named after a family supported by the browser
+	 *           (for example "atlas.astc.ktx" or "atlas.s3tc.dds") is loaded instead. Defaults to none. */
+	public void setTextureCompressions (final TextureCompression... textureCompressions) {
+		this.textureCompressions = textureCompressions;
+	}
 }
@@ -18,10 +18,24 @@ package org.teavm.gdx.emu;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+import org.teavm.gdx.graphics.webgl.TypedArrays;
+import org.teavm.jso.typedarrays.ArrayBufferView;
+
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
-/** @author Alexey Andreev */
+/** Replaces natives of {@link com.badlogic.gdx.utils.BufferUtils}. New buffers are backed by Java arrays, which TeaVM keeps in
+ * typed arrays: {@link org.teavm.gdx.graphics.webgl.TeaVMGL20} passes views over them straight to WebGL instead of staging
+ * their content, and copies into them are done with a single bulk typed array set. Byte buffers are little-endian, matching
+ * the way WebGL reads raw bytes.
+ * @author Alexey Andreev */
 public class BufferUtilsEmulator {
 	@SuppressWarnings("unused")
 	private static void freeMemory (ByteBuffer buffer) {
@@ -29,23 +43,291 @@ public class BufferUtilsEmulator {
 
 	@SuppressWarnings("unused")
 	private static ByteBuffer newDisposableByteBuffer (int numBytes) {
-		return ByteBuffer.wrap(new byte[numBytes]);
+		return ByteBuffer.wrap(new byte[numBytes]).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public static ByteBuffer newByteBuffer (int numBytes) {
+		return ByteBuffer.wrap(new byte[numBytes]).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	public static FloatBuffer newFloatBuffer (int numFloats) {
+		return FloatBuffer.wrap(new float[numFloats]);
+	}
+
+	public static ShortBuffer newShortBuffer (int numShorts) {
+		return ShortBuffer.wrap(new short[numShorts]);
+	}
+
+	public static IntBuffer newIntBuffer (int numInts) {
+		return IntBuffer.wrap(new int[numInts]);
 	}
 
 	@SuppressWarnings("unused")
 	private static void copyJni (float[] src, Buffer dst, int numFloats, int offset) {
-		dst.position(0);
-		dst.limit(dst.capacity());
-		FloatBuffer floatDst;
-		if (dst instanceof FloatBuffer) {
-			floatDst = (FloatBuffer)dst;
-			floatDst = floatDst.duplicate();
+		copyJni(src, offset, dst, 0, numFloats << 2);
+	}
+
+	private static void copyJni (float[] src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final int length = numBytes >> 2;
+		final ArrayBufferView target = view(dst, dstOffset, numBytes);
+		if (target != null) {
+			TypedArrays.copy(TypedArrays.floats(src, srcOffset, srcOffset + length), target);
+		} else if (dst instanceof FloatBuffer) {
+			final FloatBuffer floatDst = ((FloatBuffer)dst).duplicate();
+			floatDst.position(dstOffset >> 2);
+			floatDst.put(src, srcOffset, length);
+		} else if (dst instanceof ByteBuffer) {
+			final FloatBuffer floatDst = byteView(dst, dstOffset).asFloatBuffer();
+			floatDst.put(src, srcOffset, length);
+		} else {
+			throw unsupported(dst);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static void copyJni (short[] src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final int length = numBytes >> 1;
+		final ArrayBufferView target = view(dst, dstOffset, numBytes);
+		if (target != null) {
+			TypedArrays.copy(TypedArrays.shorts(src, srcOffset, srcOffset + length), target);
+		} else if (dst instanceof ShortBuffer) {
+			final ShortBuffer shortDst = ((ShortBuffer)dst).duplicate();
+			shortDst.position(dstOffset >> 1);
+			shortDst.put(src, srcOffset, length);
+		} else if (dst instanceof ByteBuffer) {
+			final ShortBuffer shortDst = byteView(dst, dstOffset).asShortBuffer();
+			shortDst.put(src, srcOffset, length);
+		} else {
+			throw unsupported(dst);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static void copyJni (int[] src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final int length = numBytes >> 2;
+		final ArrayBufferView target = view(dst, dstOffset, numBytes);
+		if (target != null) {
+			TypedArrays.copy(TypedArrays.ints(src, srcOffset, srcOffset + length), target);
+		} else if (dst instanceof IntBuffer) {
+			final IntBuffer intDst = ((IntBuffer)dst).duplicate();
+			intDst.position(dstOffset >> 2);
+			intDst.put(src, srcOffset, length);
+		} else if (dst instanceof ByteBuffer) {
+			final IntBuffer intDst = byteView(dst, dstOffset).asIntBuffer();
+			intDst.put(src, srcOffset, length);
+		} else {
+			throw unsupported(dst);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static void copyJni (byte[] src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final ArrayBufferView target = view(dst, dstOffset, numBytes);
+		if (target != null) {
+			TypedArrays.copy(TypedArrays.bytes(src, srcOffset, srcOffset + numBytes), target);
+		} else if (dst instanceof ByteBuffer) {
+			byteView(dst, dstOffset).put(src, srcOffset, numBytes);
+		} else {
+			throw unsupported(dst);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static void copyJni (char[] src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final int length = numBytes >> 1;
+		final ArrayBufferView target = view(dst, dstOffset, numBytes);
+		if (target != null) {
+			TypedArrays.copy(TypedArrays.chars(src, srcOffset, srcOffset + length), target);
+		} else if (dst instanceof CharBuffer) {
+			final CharBuffer charDst = ((CharBuffer)dst).duplicate();
+			charDst.position(dstOffset >> 1);
+			charDst.put(src, srcOffset, length);
+		} else if (dst instanceof ByteBuffer) {
+			final CharBuffer charDst = byteView(dst, dstOffset).asCharBuffer();
+			charDst.put(src, srcOffset, length);
+		} else {
+			throw unsupported(dst);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static void copyJni (long[] src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		// TeaVM does not keep long arrays in typed arrays, so they are always copied with NIO puts.
+		final int length = numBytes >> 3;
+		if (dst instanceof LongBuffer) {
+			final LongBuffer longDst = ((LongBuffer)dst).duplicate();
+			longDst.position(dstOffset >> 3);
+			longDst.put(src, srcOffset, length);
+		} else if (dst instanceof ByteBuffer) {
+			final LongBuffer longDst = byteView(dst, dstOffset).asLongBuffer();
+			longDst.put(src, srcOffset, length);
+		} else {
+			throw unsupported(dst);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static void copyJni (double[] src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final int length = numBytes >> 3;
+		final ArrayBufferView target = view(dst, dstOffset, numBytes);
+		if (target != null) {
+			TypedArrays.copy(TypedArrays.doubles(src, srcOffset, srcOffset + length), target);
+		} else if (dst instanceof DoubleBuffer) {
+			final DoubleBuffer doubleDst = ((DoubleBuffer)dst).duplicate();
+			doubleDst.position(dstOffset >> 3);
+			doubleDst.put(src, srcOffset, length);
 		} else if (dst instanceof ByteBuffer) {
-			ByteBuffer byteDst = (ByteBuffer)dst;
-			floatDst = byteDst.asFloatBuffer();
+			final DoubleBuffer doubleDst = byteView(dst, dstOffset).asDoubleBuffer();
+			doubleDst.put(src, srcOffset, length);
+		} else {
+			throw unsupported(dst);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	private static void copyJni (Buffer src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final ArrayBufferView source = view(src, srcOffset, numBytes);
+		final ArrayBufferView target = view(dst, dstOffset, numBytes);
+		if (source != null && target != null) {
+			TypedArrays.copy(source, target);
 		} else {
-			throw new GdxRuntimeException("Target buffer of type " + dst.getClass().getName() + " is not supported");
+			put(src, srcOffset, dst, dstOffset, numBytes);
 		}
-		floatDst.put(src, offset, numFloats);
+	}
+
+	/** Copies elements with an NIO bulk put, used for buffers that cannot be viewed as typed arrays: buffers without arrays and
+	 * big-endian byte buffers. Copying between byte buffers does not depend on their byte order. A byte buffer copied to or
+	 * from a buffer of another type is read or written through a view of that type in its own byte order.
+	 * @param src copied buffer.
+	 * @param srcOffset index of the first copied byte, relative to the start of the source buffer.
+	 * @param dst written buffer.
+	 * @param dstOffset index of the first written byte, relative to the start of the target buffer.
+	 * @param numBytes amount of copied bytes. */
+	static void put (Buffer src, int srcOffset, Buffer dst, int dstOffset, int numBytes) {
+		final Buffer type = dst instanceof ByteBuffer ? src : dst;
+		final Buffer source = slice(src, srcOffset, numBytes, type);
+		final Buffer target = slice(dst, dstOffset, numBytes, type);
+		if (source == null || target == null) {
+			throw new GdxRuntimeException("Buffers of type " + src.getClass().getName() + " and " + dst.getClass().getName()
+				+ " cannot be copied");
+		}
+		if (target instanceof ByteBuffer) {
+			((ByteBuffer)target).put((ByteBuffer)source);
+		} else if (target instanceof FloatBuffer) {
+			((FloatBuffer)target).put((FloatBuffer)source);
+		} else if (target instanceof ShortBuffer) {
+			((ShortBuffer)target).put((ShortBuffer)source);
+		} else if (target instanceof IntBuffer) {
+			((IntBuffer)target).put((IntBuffer)source);
+		} else if (target instanceof CharBuffer) {
+			((CharBuffer)target).put((CharBuffer)source);
+		} else if (target instanceof LongBuffer) {
+			((LongBuffer)target).put((LongBuffer)source);
+		} else if (target instanceof DoubleBuffer) {
+			((DoubleBuffer)target).put((DoubleBuffer)source);
+		}
+	}
+
+	/** @param buffer will be read or written.
+	 * @param offset index of the first byte, relative to the start of the buffer.
+	 * @param numBytes amount of bytes.
+	 * @param type buffer with the required element type.
+	 * @return buffer over the range with elements of the required type, or null if the buffer holds different elements and
+	 *         is not a byte buffer. */
+	static Buffer slice (Buffer buffer, int offset, int numBytes, Buffer type) {
+		if (buffer instanceof ByteBuffer) {
+			final ByteBuffer bytes = byteView(buffer, offset);
+			bytes.limit(offset + numBytes);
+			if (type instanceof ByteBuffer) {
+				return bytes;
+			} else if (type instanceof FloatBuffer) {
+				return bytes.asFloatBuffer();
+			} else if (type instanceof ShortBuffer) {
+				return bytes.asShortBuffer();
+			} else if (type instanceof IntBuffer) {
+				return bytes.asIntBuffer();
+			} else if (type instanceof CharBuffer) {
+				return bytes.asCharBuffer();
+			} else if (type instanceof LongBuffer) {
+				return bytes.asLongBuffer();
+			} else if (type instanceof DoubleBuffer) {
+				return bytes.asDoubleBuffer();
+			}
+			return null;
+		}
+		final Buffer view;
+		if (buffer instanceof FloatBuffer && type instanceof FloatBuffer) {
+			view = ((FloatBuffer)buffer).duplicate();
+		} else if (buffer instanceof ShortBuffer && type instanceof ShortBuffer) {
+			view = ((ShortBuffer)buffer).duplicate();
+		} else if (buffer instanceof IntBuffer && type instanceof IntBuffer) {
+			view = ((IntBuffer)buffer).duplicate();
+		} else if (buffer instanceof CharBuffer && type instanceof CharBuffer) {
+			view = ((CharBuffer)buffer).duplicate();
+		} else if (buffer instanceof LongBuffer && type instanceof LongBuffer) {
+			view = ((LongBuffer)buffer).duplicate();
+		} else if (buffer instanceof DoubleBuffer && type instanceof DoubleBuffer) {
+			view = ((DoubleBuffer)buffer).duplicate();
+		} else {
+			return null;
+		}
+		final int elementSize = buffer instanceof ShortBuffer || buffer instanceof CharBuffer ? 2
+			: buffer instanceof LongBuffer || buffer instanceof DoubleBuffer ? 8 : 4;
+		view.limit(view.capacity());
+		view.position(offset / elementSize);
+		view.limit(view.position() + numBytes / elementSize);
+		return view;
+	}
+
+	/** @param buffer will be read or written.
+	 * @param offset index of the first byte, relative to the start of the buffer.
+	 * @param numBytes amount of bytes.
+	 * @return view over the range of the array backing the buffer, or null if the buffer has no array or stores bytes
+	 *         in a different order than typed arrays. */
+	static ArrayBufferView view (Buffer buffer, int offset, int numBytes) {
+		if (!buffer.hasArray()) {
+			return null;
+		}
+		if (buffer instanceof ByteBuffer) {
+			final ByteBuffer bytes = (ByteBuffer)buffer;
+			if (bytes.order() != ByteOrder.LITTLE_ENDIAN) {
+				return null;
+			}
+			final int start = bytes.arrayOffset() + offset;
+			return TypedArrays.unsignedBytes(bytes.array(), start, start + numBytes);
+		} else if (buffer instanceof FloatBuffer) {
+			final FloatBuffer floats = (FloatBuffer)buffer;
+			final int start = floats.arrayOffset() + (offset >> 2);
+			return TypedArrays.floats(floats.array(), start, start + (numBytes + 3 >> 2));
+		} else if (buffer instanceof ShortBuffer) {
+			final ShortBuffer shorts = (ShortBuffer)buffer;
+			final int start = shorts.arrayOffset() + (offset >> 1);
+			return TypedArrays.shorts(shorts.array(), start, start + (numBytes + 1 >> 1));
+		} else if (buffer instanceof IntBuffer) {
+			final IntBuffer ints = (IntBuffer)buffer;
+			final int start = ints.arrayOffset() + (offset >> 2);
+			return TypedArrays.ints(ints.array(), start, start + (numBytes + 3 >> 2));
+		} else if (buffer instanceof CharBuffer) {
+			final CharBuffer chars = (CharBuffer)buffer;
+			final int start = chars.arrayOffset() + (offset >> 1);
+			return TypedArrays.chars(chars.array(), start, start + (numBytes + 1 >> 1));
+		} else if (buffer instanceof DoubleBuffer) {
+			final DoubleBuffer doubles = (DoubleBuffer)buffer;
+			final int start = doubles.arrayOffset() + (offset >> 3);
+			return TypedArrays.doubles(doubles.array(), start, start + (numBytes + 7 >> 3));
+		}
+		return null;
+	}
+
+	static ByteBuffer byteView (Buffer buffer, int offset) {
+		final ByteBuffer bytes = (ByteBuffer)buffer;
+		final ByteBuffer view = bytes.duplicate().order(bytes.order());
+		view.limit(view.capacity());
+		view.position(offset);
+		return view;
+	}
+
+	static GdxRuntimeException unsupported (Buffer dst) {
+		return new GdxRuntimeException("Target buffer of type " + dst.getClass().getName() + " is not supported");
 	}
 }
@@ -2,6 +2,9 @@
 package org.teavm.gdx.emu;
 
 import java.nio.ShortBuffer;
+
+import org.teavm.gdx.graphics.webgl.VertexArrayObjectCache;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.glutils.IndexData;
@@ -14,6 +17,8 @@ public class IndexArrayEmulator implements IndexData {
 	final boolean isDirect;
 	boolean isDirty = true;
 	boolean isBound = false;
+	/** True if the buffer is bound through the element array buffer binding of a vertex array object. */
+	boolean isBoundToVertexArray = false;
 	final int usage;
 
 	/** Creates a new IndexBufferObject.
@@ -121,7 +126,10 @@ public class IndexArrayEmulator implements IndexData {
 	public void bind () {
 		if (bufferHandle == 0) throw new GdxRuntimeException("No buffer allocated!");
 
-		Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, bufferHandle);
+		isBoundToVertexArray = VertexArrayObjectCache.bindElementArrayBuffer(bufferHandle);
+		if (!isBoundToVertexArray) {
+			Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, bufferHandle);
+		}
 		if (isDirty) {
 			Gdx.gl20.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, buffer.limit(), buffer, usage);
 			isDirty = false;
@@ -132,8 +140,11 @@ public class IndexArrayEmulator implements IndexData {
 	/** Unbinds this IndexBufferObject. */
 	@Override
 	public void unbind () {
-		Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+		if (!isBoundToVertexArray) {
+			Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+		}
 		isBound = false;
+		isBoundToVertexArray = false;
 	}
 
 	/** Invalidates the IndexBufferObject so a new OpenGL buffer handle is created. Use this in case of a context loss. */
@@ -20,83 +20,101 @@ public class Matrix4Emulator {
 	public static final int M33 = 15;
 
 	public static boolean inv (float[] val) {
-		float tmp[] = new float[16];
-		float l_det = matrix4_det(val);
+		final float l_det = matrix4_det(val);
 		if (l_det == 0) {
 			return false;
 		}
-		tmp[M00] = val[M12] * val[M23] * val[M31] - val[M13] * val[M22] * val[M31] + val[M13] * val[M21] * val[M32]
-			- val[M11] * val[M23] * val[M32] - val[M12] * val[M21] * val[M33] + val[M11] * val[M22] * val[M33];
-		tmp[M01] = val[M03] * val[M22] * val[M31] - val[M02] * val[M23] * val[M31] - val[M03] * val[M21] * val[M32]
-			+ val[M01] * val[M23] * val[M32] + val[M02] * val[M21] * val[M33] - val[M01] * val[M22] * val[M33];
-		tmp[M02] = val[M02] * val[M13] * val[M31] - val[M03] * val[M12] * val[M31] + val[M03] * val[M11] * val[M32]
-			- val[M01] * val[M13] * val[M32] - val[M02] * val[M11] * val[M33] + val[M01] * val[M12] * val[M33];
-		tmp[M03] = val[M03] * val[M12] * val[M21] - val[M02] * val[M13] * val[M21] - val[M03] * val[M11] * val[M22]
-			+ val[M01] * val[M13] * val[M22] + val[M02] * val[M11] * val[M23] - val[M01] * val[M12] * val[M23];
-		tmp[M10] = val[M13] * val[M22] * val[M30] - val[M12] * val[M23] * val[M30] - val[M13] * val[M20] * val[M32]
-			+ val[M10] * val[M23] * val[M32] + val[M12] * val[M20] * val[M33] - val[M10] * val[M22] * val[M33];
-		tmp[M11] = val[M02] * val[M23] * val[M30] - val[M03] * val[M22] * val[M30] + val[M03] * val[M20] * val[M32]
-			- val[M00] * val[M23] * val[M32] - val[M02] * val[M20] * val[M33] + val[M00] * val[M22] * val[M33];
-		tmp[M12] = val[M03] * val[M12] * val[M30] - val[M02] * val[M13] * val[M30] - val[M03] * val[M10] * val[M32]
-			+ val[M00] * val[M13] * val[M32] + val[M02] * val[M10] * val[M33] - val[M00] * val[M12] * val[M33];
-		tmp[M13] = val[M02] * val[M13] * val[M20] - val[M03] * val[M12] * val[M20] + val[M03] * val[M10] * val[M22]
-			- val[M00] * val[M13] * val[M22] - val[M02] * val[M10] * val[M23] + val[M00] * val[M12] * val[M23];
-		tmp[M20] = val[M11] * val[M23] * val[M30] - val[M13] * val[M21] * val[M30] + val[M13] * val[M20] * val[M31]
-			- val[M10] * val[M23] * val[M31] - val[M11] * val[M20] * val[M33] + val[M10] * val[M21] * val[M33];
-		tmp[M21] = val[M03] * val[M21] * val[M30] - val[M01] * val[M23] * val[M30] - val[M03] * val[M20] * val[M31]
-			+ val[M00] * val[M23] * val[M31] + val[M01] * val[M20] * val[M33] - val[M00] * val[M21] * val[M33];
-		tmp[M22] = val[M01] * val[M13] * val[M30] - val[M03] * val[M11] * val[M30] + val[M03] * val[M10] * val[M31]
-			- val[M00] * val[M13] * val[M31] - val[M01] * val[M10] * val[M33] + val[M00] * val[M11] * val[M33];
-		tmp[M23] = val[M03] * val[M11] * val[M20] - val[M01] * val[M13] * val[M20] - val[M03] * val[M10] * val[M21]
-			+ val[M00] * val[M13] * val[M21] + val[M01] * val[M10] * val[M23] - val[M00] * val[M11] * val[M23];
-		tmp[M30] = val[M12] * val[M21] * val[M30] - val[M11] * val[M22] * val[M30] - val[M12] * val[M20] * val[M31]
-			+ val[M10] * val[M22] * val[M31] + val[M11] * val[M20] * val[M32] - val[M10] * val[M21] * val[M32];
-		tmp[M31] = val[M01] * val[M22] * val[M30] - val[M02] * val[M21] * val[M30] + val[M02] * val[M20] * val[M31]
-			- val[M00] * val[M22] * val[M31] - val[M01] * val[M20] * val[M32] + val[M00] * val[M21] * val[M32];
-		tmp[M32] = val[M02] * val[M11] * val[M30] - val[M01] * val[M12] * val[M30] - val[M02] * val[M10] * val[M31]
-			+ val[M00] * val[M12] * val[M31] + val[M01] * val[M10] * val[M32] - val[M00] * val[M11] * val[M32];
-		tmp[M33] = val[M01] * val[M12] * val[M20] - val[M02] * val[M11] * val[M20] + val[M02] * val[M10] * val[M21]
-			- val[M00] * val[M12] * val[M21] - val[M01] * val[M10] * val[M22] + val[M00] * val[M11] * val[M22];
-
-		float inv_det = 1.0f / l_det;
-		val[M00] = tmp[M00] * inv_det;
-		val[M01] = tmp[M01] * inv_det;
-		val[M02] = tmp[M02] * inv_det;
-		val[M03] = tmp[M03] * inv_det;
-		val[M10] = tmp[M10] * inv_det;
-		val[M11] = tmp[M11] * inv_det;
-		val[M12] = tmp[M12] * inv_det;
-		val[M13] = tmp[M13] * inv_det;
-		val[M20] = tmp[M20] * inv_det;
-		val[M21] = tmp[M21] * inv_det;
-		val[M22] = tmp[M22] * inv_det;
-		val[M23] = tmp[M23] * inv_det;
-		val[M30] = tmp[M30] * inv_det;
-		val[M31] = tmp[M31] * inv_det;
-		val[M32] = tmp[M32] * inv_det;
-		val[M33] = tmp[M33] * inv_det;
+		final float m00 = val[M00];
+		final float m01 = val[M01];
+		final float m02 = val[M02];
+		final float m03 = val[M03];
+		final float m10 = val[M10];
+		final float m11 = val[M11];
+		final float m12 = val[M12];
+		final float m13 = val[M13];
+		final float m20 = val[M20];
+		final float m21 = val[M21];
+		final float m22 = val[M22];
+		final float m23 = val[M23];
+		final float m30 = val[M30];
+		final float m31 = val[M31];
+		final float m32 = val[M32];
+		final float m33 = val[M33];
+		final float t00 = m12 * m23 * m31 - m13 * m22 * m31 + m13 * m21 * m32 - m11 * m23 * m32 - m12 * m21 * m33 + m11 * m22 * m33;
+		final float t01 = m03 * m22 * m31 - m02 * m23 * m31 - m03 * m21 * m32 + m01 * m23 * m32 + m02 * m21 * m33 - m01 * m22 * m33;
+		final float t02 = m02 * m13 * m31 - m03 * m12 * m31 + m03 * m11 * m32 - m01 * m13 * m32 - m02 * m11 * m33 + m01 * m12 * m33;
+		final float t03 = m03 * m12 * m21 - m02 * m13 * m21 - m03 * m11 * m22 + m01 * m13 * m22 + m02 * m11 * m23 - m01 * m12 * m23;
+		final float t10 = m13 * m22 * m30 - m12 * m23 * m30 - m13 * m20 * m32 + m10 * m23 * m32 + m12 * m20 * m33 - m10 * m22 * m33;
+		final float t11 = m02 * m23 * m30 - m03 * m22 * m30 + m03 * m20 * m32 - m00 * m23 * m32 - m02 * m20 * m33 + m00 * m22 * m33;
+		final float t12 = m03 * m12 * m30 - m02 * m13 * m30 - m03 * m10 * m32 + m00 * m13 * m32 + m02 * m10 * m33 - m00 * m12 * m33;
+		final float t13 = m02 * m13 * m20 - m03 * m12 * m20 + m03 * m10 * m22 - m00 * m13 * m22 - m02 * m10 * m23 + m00 * m12 * m23;
+		final float t20 = m11 * m23 * m30 - m13 * m21 * m30 + m13 * m20 * m31 - m10 * m23 * m31 - m11 * m20 * m33 + m10 * m21 * m33;
+		final float t21 = m03 * m21 * m30 - m01 * m23 * m30 - m03 * m20 * m31 + m00 * m23 * m31 + m01 * m20 * m33 - m00 * m21 * m33;
+		final float t22 = m01 * m13 * m30 - m03 * m11 * m30 + m03 * m10 * m31 - m00 * m13 * m31 - m01 * m10 * m33 + m00 * m11 * m33;
+		final float t23 = m03 * m11 * m20 - m01 * m13 * m20 - m03 * m10 * m21 + m00 * m13 * m21 + m01 * m10 * m23 - m00 * m11 * m23;
+		final float t30 = m12 * m21 * m30 - m11 * m22 * m30 - m12 * m20 * m31 + m10 * m22 * m31 + m11 * m20 * m32 - m10 * m21 * m32;
+		final float t31 = m01 * m22 * m30 - m02 * m21 * m30 + m02 * m20 * m31 - m00 * m22 * m31 - m01 * m20 * m32 + m00 * m21 * m32;
+		final float t32 = m02 * m11 * m30 - m01 * m12 * m30 - m02 * m10 * m31 + m00 * m12 * m31 + m01 * m10 * m32 - m00 * m11 * m32;
+		final float t33 = m01 * m12 * m20 - m02 * m11 * m20 + m02 * m10 * m21 - m00 * m12 * m21 - m01 * m10 * m22 + m00 * m11 * m22;
+
+		final float inv_det = 1.0f / l_det;
+		val[M00] = t00 * inv_det;
+		val[M01] = t01 * inv_det;
+		val[M02] = t02 * inv_det;
+		val[M03] = t03 * inv_det;
+		val[M10] = t10 * inv_det;
+		val[M11] = t11 * inv_det;
+		val[M12] = t12 * inv_det;
+		val[M13] = t13 * inv_det;
+		val[M20] = t20 * inv_det;
+		val[M21] = t21 * inv_det;
+		val[M22] = t22 * inv_det;
+		val[M23] = t23 * inv_det;
+		val[M30] = t30 * inv_det;
+		val[M31] = t31 * inv_det;
+		val[M32] = t32 * inv_det;
+		val[M33] = t33 * inv_det;
 		return true;
 	}
 
 	public static void mul (float[] mata, float[] matb) {
-		float tmp[] = new float[16];
-		tmp[M00] = mata[M00] * matb[M00] + mata[M01] * matb[M10] + mata[M02] * matb[M20] + mata[M03] * matb[M30];
-		tmp[M01] = mata[M00] * matb[M01] + mata[M01] * matb[M11] + mata[M02] * matb[M21] + mata[M03] * matb[M31];
-		tmp[M02] = mata[M00] * matb[M02] + mata[M01] * matb[M12] + mata[M02] * matb[M22] + mata[M03] * matb[M32];
-		tmp[M03] = mata[M00] * matb[M03] + mata[M01] * matb[M13] + mata[M02] * matb[M23] + mata[M03] * matb[M33];
-		tmp[M10] = mata[M10] * matb[M00] + mata[M11] * matb[M10] + mata[M12] * matb[M20] + mata[M13] * matb[M30];
-		tmp[M11] = mata[M10] * matb[M01] + mata[M11] * matb[M11] + mata[M12] * matb[M21] + mata[M13] * matb[M31];
-		tmp[M12] = mata[M10] * matb[M02] + mata[M11] * matb[M12] + mata[M12] * matb[M22] + mata[M13] * matb[M32];
-		tmp[M13] = mata[M10] * matb[M03] + mata[M11] * matb[M13] + mata[M12] * matb[M23] + mata[M13] * matb[M33];
-		tmp[M20] = mata[M20] * matb[M00] + mata[M21] * matb[M10] + mata[M22] * matb[M20] + mata[M23] * matb[M30];
-		tmp[M21] = mata[M20] * matb[M01] + mata[M21] * matb[M11] + mata[M22] * matb[M21] + mata[M23] * matb[M31];
-		tmp[M22] = mata[M20] * matb[M02] + mata[M21] * matb[M12] + mata[M22] * matb[M22] + mata[M23] * matb[M32];
-		tmp[M23] = mata[M20] * matb[M03] + mata[M21] * matb[M13] + mata[M22] * matb[M23] + mata[M23] * matb[M33];
-		tmp[M30] = mata[M30] * matb[M00] + mata[M31] * matb[M10] + mata[M32] * matb[M20] + mata[M33] * matb[M30];
-		tmp[M31] = mata[M30] * matb[M01] + mata[M31] * matb[M11] + mata[M32] * matb[M21] + mata[M33] * matb[M31];
-		tmp[M32] = mata[M30] * matb[M02] + mata[M31] * matb[M12] + mata[M32] * matb[M22] + mata[M33] * matb[M32];
-		tmp[M33] = mata[M30] * matb[M03] + mata[M31] * matb[M13] + mata[M32] * matb[M23] + mata[M33] * matb[M33];
-		System.arraycopy(tmp, 0, mata, 0, 16);
+		matrix4_mul(mata, 0, matb, 0, mata, 0);
+	}
+
+	/** Multiplies matrices stored one after another in arrays, for example bone transforms. A stride of 0 reuses the same
+	 * matrix for every product. Results may overwrite the multiplied matrices.
+	 * @param mata left matrices.
+	 * @param offsetA index of the first left matrix.
+	 * @param strideA distance between left matrices.
+	 * @param matb right matrices.
+	 * @param offsetB index of the first right matrix.
+	 * @param strideB distance between right matrices.
+	 * @param result products.
+	 * @param offset index of the first product.
+	 * @param count amount of products. */
+	public static void mul (float[] mata, int offsetA, int strideA, float[] matb, int offsetB, int strideB, float[] result,
+		int offset, int count) {
+		for (int i = 0; i < count; i++) {
+			matrix4_mul(mata, offsetA, matb, offsetB, result, offset);
+			offsetA += strideA;
+			offsetB += strideB;
+			offset += 16;
+		}
+	}
+
+	public static void mulVec (float[] mat, float[] vec) {
+		matrix4_mulVec(mat, vec, 0);
+	}
+
+	public static void mulVec (float[] mat, float[] vecs, int offset, int numVecs, int stride) {
+		for (int i = 0; i < numVecs; i++) {
+			matrix4_mulVec(mat, vecs, offset);
+			offset += stride;
+		}
+	}
+
+	public static void prj (float[] mat, float[] vec) {
+		matrix4_proj(mat, vec, 0);
 	}
 
 	public static void prj (float[] mat, float[] vecs, int offset, int numVecs, int stride) {
@@ -106,6 +124,72 @@ public class Matrix4Emulator {
 		}
 	}
 
+	public static void rot (float[] mat, float[] vec) {
+		matrix4_rot(mat, vec, 0);
+	}
+
+	public static void rot (float[] mat, float[] vecs, int offset, int numVecs, int stride) {
+		for (int i = 0; i < numVecs; i++) {
+			matrix4_rot(mat, vecs, offset);
+			offset += stride;
+		}
+	}
+
+	public static float det (float[] val) {
+		return matrix4_det(val);
+	}
+
+	static void matrix4_mul (float[] mata, int offsetA, float[] matb, int offsetB, float[] result, int offset) {
+		final float a00 = mata[offsetA + M00];
+		final float a01 = mata[offsetA + M01];
+		final float a02 = mata[offsetA + M02];
+		final float a03 = mata[offsetA + M03];
+		final float a10 = mata[offsetA + M10];
+		final float a11 = mata[offsetA + M11];
+		final float a12 = mata[offsetA + M12];
+		final float a13 = mata[offsetA + M13];
+		final float a20 = mata[offsetA + M20];
+		final float a21 = mata[offsetA + M21];
+		final float a22 = mata[offsetA + M22];
+		final float a23 = mata[offsetA + M23];
+		final float a30 = mata[offsetA + M30];
+		final float a31 = mata[offsetA + M31];
+		final float a32 = mata[offsetA + M32];
+		final float a33 = mata[offsetA + M33];
+		final float b00 = matb[offsetB + M00];
+		final float b01 = matb[offsetB + M01];
+		final float b02 = matb[offsetB + M02];
+		final float b03 = matb[offsetB + M03];
+		final float b10 = matb[offsetB + M10];
+		final float b11 = matb[offsetB + M11];
+		final float b12 = matb[offsetB + M12];
+		final float b13 = matb[offsetB + M13];
+		final float b20 = matb[offsetB + M20];
+		final float b21 = matb[offsetB + M21];
+		final float b22 = matb[offsetB + M22];
+		final float b23 = matb[offsetB + M23];
+		final float b30 = matb[offsetB + M30];
+		final float b31 = matb[offsetB + M31];
+		final float b32 = matb[offsetB + M32];
+		final float b33 = matb[offsetB + M33];
+		result[offset + M00] = a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30;
+		result[offset + M01] = a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31;
+		result[offset + M02] = a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32;
+		result[offset + M03] = a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33;
+		result[offset + M10] = a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30;
+		result[offset + M11] = a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31;
+		result[offset + M12] = a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32;
+		result[offset + M13] = a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33;
+		result[offset + M20] = a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30;
+		result[offset + M21] = a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31;
+		result[offset + M22] = a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32;
+		result[offset + M23] = a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33;
+		result[offset + M30] = a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30;
+		result[offset + M31] = a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31;
+		result[offset + M32] = a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32;
+		result[offset + M33] = a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33;
+	}
+
 	static void matrix4_proj (float[] mat, float[] vec, int offset) {
 		float inv_w = 1.0f / (vec[offset + 0] * mat[M30] + vec[offset + 1] * mat[M31] + vec[offset + 2] * mat[M32] + mat[M33]);
 		float x = (vec[offset + 0] * mat[M00] + vec[offset + 1] * mat[M01] + vec[offset + 2] * mat[M02] + mat[M03]) * inv_w;
@@ -116,6 +200,24 @@ public class Matrix4Emulator {
 		vec[offset + 2] = z;
 	}
 
+	static void matrix4_mulVec (float[] mat, float[] vec, int offset) {
+		float x = vec[offset + 0] * mat[M00] + vec[offset + 1] * mat[M01] + vec[offset + 2] * mat[M02] + mat[M03];
+		float y = vec[offset + 0] * mat[M10] + vec[offset + 1] * mat[M11] + vec[offset + 2] * mat[M12] + mat[M13];
+		float z = vec[offset + 0] * mat[M20] + vec[offset + 1] * mat[M21] + vec[offset + 2] * mat[M22] + mat[M23];
+		vec[offset + 0] = x;
+		vec[offset + 1] = y;
+		vec[offset + 2] = z;
+	}
+
+	static void matrix4_rot (float[] mat, float[] vec, int offset) {
+		float x = vec[offset + 0] * mat[M00] + vec[offset + 1] * mat[M01] + vec[offset + 2] * mat[M02];
+		float y = vec[offset + 0] * mat[M10] + vec[offset + 1] * mat[M11] + vec[offset + 2] * mat[M12];
+		float z = vec[offset + 0] * mat[M20] + vec[offset + 1] * mat[M21] + vec[offset + 2] * mat[M22];
+		vec[offset + 0] = x;
+		vec[offset + 1] = y;
+		vec[offset + 2] = z;
+	}
+
 	static float matrix4_det (float[] val) {
 		return val[M30] * val[M21] * val[M12] * val[M03] - val[M20] * val[M31] * val[M12] * val[M03]
 			- val[M30] * val[M11] * val[M22] * val[M03] + val[M10] * val[M31] * val[M22] * val[M03]
@@ -18,18 +18,21 @@ package org.teavm.gdx.emu;
 
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
-import java.util.HashMap;
-import java.util.Map;
 
+import org.teavm.gdx.TeaVMApplication;
+import org.teavm.gdx.TeaVMApplicationConfiguration;
 import org.teavm.gdx.files.TeaVMFileHandle;
+import org.teavm.gdx.graphics.CanvasPool;
+import org.teavm.gdx.graphics.webgl.PixelSources;
 import org.teavm.javascript.spi.GeneratedBy;
 import org.teavm.jso.canvas.CanvasRenderingContext2D;
+import org.teavm.jso.canvas.ImageData;
 import org.teavm.jso.dom.html.HTMLCanvasElement;
-import org.teavm.jso.dom.html.HTMLDocument;
 import org.teavm.jso.dom.html.HTMLImageElement;
 import org.teavm.jso.typedarrays.ArrayBuffer;
 import org.teavm.jso.typedarrays.Uint8ClampedArray;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
@@ -42,22 +45,27 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
 
 /** @author Alexey Andreev */
 public class PixmapEmulator implements Disposable {
-	public static Map<Integer, PixmapEmulator> pixmaps = new HashMap<>();
-	static int nextId = 0;
 	int width;
 	int height;
 	Format format;
 	HTMLCanvasElement canvas;
 	CanvasRenderingContext2D context;
-	int id;
 	IntBuffer buffer;
 	int r = 255, g = 255, b = 255;
 	float a;
 	String color = make(r, g, b, a);
 	static String clearColor = make(255, 255, 255, 1.0f);
 	static Blending blending;
+	boolean styleChanged;
+	ImageData imageData;
 	Uint8ClampedArray pixels;
 	private ByteBuffer pixelsBuffer;
+	/** If true, pixels and filled rectangles are written to {@link #pixels} instead of being drawn on the canvas. */
+	boolean pixelBuffered;
+	int dirtyLeft = Integer.MAX_VALUE;
+	int dirtyTop = Integer.MAX_VALUE;
+	int dirtyRight;
+	int dirtyBottom;
 
 	public PixmapEmulator (final FileHandle file) {
 		final TeaVMFileHandle teavmFile = (TeaVMFileHandle)file;
@@ -85,15 +93,12 @@ public class PixmapEmulator implements Disposable {
 		this.width = width;
 		this.height = height;
 		format = Format.RGBA8888;
-		canvas = (HTMLCanvasElement)HTMLDocument.current().createElement("canvas");
-		canvas.getStyle().setProperty("display", "none");
-		HTMLDocument.current().getBody().appendChild(canvas);
-		canvas.setWidth(width);
-		canvas.setHeight(height);
+		canvas = CanvasPool.obtain(width, height);
 		context = (CanvasRenderingContext2D)canvas.getContext("2d");
 		context.setGlobalCompositeOperation("source-over");
-		id = nextId++;
-		pixmaps.put(id, this);
+		final TeaVMApplicationConfiguration configuration = Gdx.app instanceof TeaVMApplication
+			? ((TeaVMApplication)Gdx.app).getConfiguration() : null;
+		pixelBuffered = configuration != null && configuration.isPixmapPixelBuffered();
 	}
 
 	public static String make (final int r2, final int g2, final int b2, final float a2) {
@@ -101,10 +106,8 @@ public class PixmapEmulator implements Disposable {
 	}
 
 	public static void setBlending (final Blending blending) {
+		// Applied by each drawing operation, so live pixmaps do not need to be updated.
 		PixmapEmulator.blending = blending;
-		for (final PixmapEmulator pixmap : pixmaps.values()) {
-			pixmap.context.setGlobalCompositeOperation("source-over");
-		}
 	}
 
 	public static Blending getBlending () {
@@ -140,9 +143,13 @@ public class PixmapEmulator implements Disposable {
 
 	@Override
 	public void dispose () {
-		final PixmapEmulator pixmap = pixmaps.remove(id);
-		if (pixmap.canvas != null) {
-			pixmap.canvas.getParentNode().removeChild(pixmap.canvas);
+		invalidatePixels();
+		dirtyLeft = Integer.MAX_VALUE;
+		dirtyRight = 0;
+		if (canvas != null) {
+			CanvasPool.free(canvas);
+			canvas = null;
+			context = null;
 		}
 	}
 
@@ -151,9 +158,7 @@ public class PixmapEmulator implements Disposable {
 		g = color >>> 16 & 0xff;
 		b = color >>> 8 & 0xff;
 		a = (color & 0xff) / 255f;
-		this.color = make(r, g, b, a);
-		context.setFillStyle(this.color);
-		context.setStrokeStyle(this.color);
+		styleChanged = true;
 	}
 
 	public void setColor (final float r, final float g, final float b, final float a) {
@@ -161,9 +166,18 @@ public class PixmapEmulator implements Disposable {
 		this.g = (int)(g * 255);
 		this.b = (int)(b * 255);
 		this.a = a;
-		color = make(this.r, this.g, this.b, this.a);
-		context.setFillStyle(color);
-		context.setStrokeStyle(color);
+		styleChanged = true;
+	}
+
+	/** Applies the current color to the canvas context. Deferred until something is drawn on the canvas, as pixel-buffered
+	 * drawing does not need it. */
+	private void applyStyle () {
+		if (styleChanged) {
+			styleChanged = false;
+			color = make(r, g, b, a);
+			context.setFillStyle(color);
+			context.setStrokeStyle(color);
+		}
 	}
 
 	public void setColor (final Color color) {
@@ -183,18 +197,21 @@ public class PixmapEmulator implements Disposable {
 	}
 
 	public void drawPixmap (final PixmapEmulator pixmap, final int x, final int y) {
+		pixmap.flushPixels();
 		final HTMLCanvasElement image = pixmap.canvas;
 		image(image, 0, 0, image.getWidth(), image.getHeight(), x, y, image.getWidth(), image.getHeight());
 	}
 
 	public void drawPixmap (final PixmapEmulator pixmap, final int x, final int y, final int srcx, final int srcy,
 		final int srcWidth, final int srcHeight) {
+		pixmap.flushPixels();
 		final HTMLCanvasElement image = pixmap.canvas;
 		image(image, srcx, srcy, srcWidth, srcHeight, x, y, srcWidth, srcHeight);
 	}
 
 	public void drawPixmap (final PixmapEmulator pixmap, final int srcx, final int srcy, final int srcWidth, final int srcHeight,
 		final int dstx, final int dsty, final int dstWidth, final int dstHeight) {
+		pixmap.flushPixels();
 		image(pixmap.canvas, srcx, srcy, srcWidth, srcHeight, dstx, dsty, dstWidth, dstHeight);
 	}
 
@@ -215,9 +232,7 @@ public class PixmapEmulator implements Disposable {
 	}
 
 	public int getPixel (final int x, final int y) {
-		if (pixels == null) {
-			pixels = context.getImageData(0, 0, width, height).getData();
-		}
+		loadPixels();
 		final int i = x * 4 + y * width * 4;
 		final int r = pixels.get(i + 0) & 0xff;
 		final int g = pixels.get(i + 1) & 0xff;
@@ -226,18 +241,109 @@ public class PixmapEmulator implements Disposable {
 		return r << 24 | g << 16 | b << 8 | a;
 	}
 
+	/** @return pixels read from the canvas. The buffer shares memory with the read image data and is reused until the pixmap is
+	 *         drawn on. It is registered in {@link PixelSources}, so uploading it to a texture puts the pixels back on the canvas
+	 *         and copies the canvas directly. */
 	public ByteBuffer getPixels () {
+		loadPixels();
+		flushPixels();
+		if (pixelsBuffer == null) {
+			pixelsBuffer = ByteBuffer.wrap(bufferAsArray(pixels.getBuffer()));
+		}
+		PixelSources.register(pixelsBuffer, canvas, context, imageData);
+		pixelsBuffer.clear();
+		return pixelsBuffer;
+	}
+
+	private void loadPixels () {
 		if (pixels == null) {
-			pixels = context.getImageData(0, 0, width, height).getData();
+			imageData = context.getImageData(0, 0, width, height);
+			pixels = imageData.getData();
+		}
+	}
+
+	/** Puts the pixels written in pixel-buffered mode back on the canvas. Only the modified area is copied. */
+	private void flushPixels () {
+		if (dirtyLeft < dirtyRight) {
+			context.putImageData(imageData, 0, 0, dirtyLeft, dirtyTop, dirtyRight - dirtyLeft, dirtyBottom - dirtyTop);
+			dirtyLeft = Integer.MAX_VALUE;
+			dirtyTop = Integer.MAX_VALUE;
+			dirtyRight = 0;
+			dirtyBottom = 0;
 		}
-		return ByteBuffer.wrap(bufferAsArray(pixels.getBuffer()));
+	}
+
+	private void invalidatePixels () {
+		pixels = null;
+		imageData = null;
+		PixelSources.unregister(pixelsBuffer);
+		pixelsBuffer = null;
 	}
 
 	@GeneratedBy(PixmapNativeGenerator.class)
 	private native byte[] bufferAsArray (ArrayBuffer array);
 
 	public void drawPixel (final int x, final int y) {
-		rectangle(x, y, 1, 1, DrawType.FILL);
+		if (pixelBuffered) {
+			fillPixels(x, y, 1, 1);
+		} else {
+			rectangle(x, y, 1, 1, DrawType.FILL);
+		}
+	}
+
+	/** Writes the current color directly to the cached pixels, blending it like the native pixmap implementation does. The
+	 * canvas is updated once it is needed.
+	 * @param x left edge of the filled area.
+	 * @param y top edge of the filled area.
+	 * @param width width of the filled area.
+	 * @param height height of the filled area. */
+	private void fillPixels (int x, int y, int width, int height) {
+		if (x < 0) {
+			width += x;
+			x = 0;
+		}
+		if (y < 0) {
+			height += y;
+			y = 0;
+		}
+		width = Math.min(width, this.width - x);
+		height = Math.min(height, this.height - y);
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+		final int alpha = Math.round(a * 255);
+		final boolean replace = blending == Blending.None || alpha == 255;
+		if (!replace && alpha == 0) {
+			return;
+		}
+		loadPixels();
+		if (dirtyLeft >= dirtyRight) {
+			PixelSources.unregister(pixelsBuffer); // The canvas no longer matches the pixels.
+		}
+		dirtyLeft = Math.min(dirtyLeft, x);
+		dirtyTop = Math.min(dirtyTop, y);
+		dirtyRight = Math.max(dirtyRight, x + width);
+		dirtyBottom = Math.max(dirtyBottom, y + height);
+		final Uint8ClampedArray pixels = this.pixels;
+		for (int row = y; row < y + height; row++) {
+			int i = (row * this.width + x) * 4;
+			for (final int end = i + width * 4; i < end; i += 4) {
+				if (replace) {
+					pixels.set(i, r);
+					pixels.set(i + 1, g);
+					pixels.set(i + 2, b);
+					pixels.set(i + 3, alpha);
+				} else {
+					final int dstAlpha = pixels.get(i + 3);
+					final int dstWeight = dstAlpha - dstAlpha * alpha / 255;
+					final int outAlpha = dstWeight + alpha;
+					pixels.set(i, (r * alpha + pixels.get(i) * dstWeight) / outAlpha);
+					pixels.set(i + 1, (g * alpha + pixels.get(i + 1) * dstWeight) / outAlpha);
+					pixels.set(i + 2, (b * alpha + pixels.get(i + 2) * dstWeight) / outAlpha);
+					pixels.set(i + 3, outAlpha);
+				}
+			}
+		}
 	}
 
 	public void drawPixel (final int x, final int y, final int color) {
@@ -246,6 +352,8 @@ public class PixmapEmulator implements Disposable {
 	}
 
 	private void circle (final int x, final int y, final int radius, final DrawType drawType) {
+		flushPixels();
+		applyStyle();
 		if (blending == Blending.None) {
 			context.setFillStyle(clearColor);
 			context.setStrokeStyle(clearColor);
@@ -262,10 +370,12 @@ public class PixmapEmulator implements Disposable {
 		context.arc(x, y, radius, 0, 2 * Math.PI, false);
 		fillOrStrokePath(drawType);
 		context.closePath();
-		pixels = null;
+		invalidatePixels();
 	}
 
 	private void line (final int x, final int y, final int x2, final int y2, final DrawType drawType) {
+		flushPixels();
+		applyStyle();
 		if (blending == Blending.None) {
 			context.setFillStyle(clearColor);
 			context.setStrokeStyle(clearColor);
@@ -284,9 +394,16 @@ public class PixmapEmulator implements Disposable {
 		context.lineTo(x2, y2);
 		fillOrStrokePath(drawType);
 		context.closePath();
+		invalidatePixels();
 	}
 
 	private void rectangle (final int x, final int y, final int width, final int height, final DrawType drawType) {
+		if (pixelBuffered && drawType == DrawType.FILL) {
+			fillPixels(x, y, width, height);
+			return;
+		}
+		flushPixels();
+		applyStyle();
 		if (blending == Blending.None) {
 			context.setFillStyle(clearColor);
 			context.setStrokeStyle(clearColor);
@@ -303,11 +420,13 @@ public class PixmapEmulator implements Disposable {
 		context.rect(x, y, width, height);
 		fillOrStrokePath(drawType);
 		context.closePath();
-		pixels = null;
+		invalidatePixels();
 	}
 
 	private void triangle (final int x1, final int y1, final int x2, final int y2, final int x3, final int y3,
 		final DrawType drawType) {
+		flushPixels();
+		applyStyle();
 		if (blending == Blending.None) {
 			context.setFillStyle(clearColor);
 			context.setStrokeStyle(clearColor);
@@ -330,11 +449,13 @@ public class PixmapEmulator implements Disposable {
 		context.lineTo(x1, y1);
 		fillOrStrokePath(drawType);
 		context.closePath();
-		pixels = null;
+		invalidatePixels();
 	}
 
 	private void image (final HTMLCanvasElement image, final int srcX, final int srcY, final int srcWidth, final int srcHeight,
 		final int dstX, final int dstY, final int dstWidth, final int dstHeight) {
+		flushPixels();
+		applyStyle();
 		if (blending == Blending.None) {
 			context.setFillStyle(clearColor);
 			context.setStrokeStyle(clearColor);
@@ -348,7 +469,7 @@ public class PixmapEmulator implements Disposable {
 			context.setGlobalCompositeOperation("source-over");
 		}
 		context.drawImage(image, srcX, srcY, srcWidth, srcHeight, dstX, dstY, dstWidth, dstHeight);
-		pixels = null;
+		invalidatePixels();
 	}
 
 	private void fillOrStrokePath (final DrawType drawType) {
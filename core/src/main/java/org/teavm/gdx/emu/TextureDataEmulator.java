@@ -16,6 +16,9 @@
 
 package org.teavm.gdx.emu;
 
+import org.teavm.gdx.graphics.CompressedTextureData;
+import org.teavm.gdx.graphics.ImageTextureData;
+
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Format;
@@ -28,6 +31,17 @@ public class TextureDataEmulator {
 		if (file == null) {
 			return null;
 		}
+		if (CompressedTextureData.isSupported(file)) {
+			return new CompressedTextureData(file, useMipMaps);
+		}
+		final FileHandle variant = CompressedTextureData.findVariant(file);
+		if (variant != null) {
+			return new CompressedTextureData(variant, useMipMaps);
+		}
+		// Images are uploaded as RGBA, other formats need the conversion done by the pixmap.
+		if ((format == null || format == Format.RGBA8888) && ImageTextureData.isSupported(file)) {
+			return new ImageTextureData(file, useMipMaps);
+		}
 		return new FileTextureData(file, new Pixmap(file), format, useMipMaps);
 	}
 }
@@ -2,6 +2,11 @@
 package org.teavm.gdx.emu;
 
 import java.nio.FloatBuffer;
+
+import org.teavm.gdx.TeaVMApplication;
+import org.teavm.gdx.TeaVMApplicationConfiguration;
+import org.teavm.gdx.graphics.webgl.VertexArrayObjectCache;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.VertexAttribute;
@@ -17,8 +22,25 @@ public class VertexArrayEmulator implements VertexData {
 	int bufferHandle;
 	final boolean isStatic;
 	final int usage;
-	boolean isDirty = false;
 	boolean isBound = false;
+	/** Range of floats modified since the last upload: [dirtyStart, dirtyEnd). Empty if dirtyStart >= dirtyEnd. */
+	int dirtyStart = Integer.MAX_VALUE;
+	int dirtyEnd = 0;
+	/** Amount of floats the GL buffer was allocated with. 0 if it was not allocated yet. */
+	int allocatedSize = 0;
+	/** If true, data is appended to a larger GL buffer at an advancing offset. See
+	 * {@link TeaVMApplicationConfiguration#setVertexStreamingEnabled(boolean)}. */
+	final boolean isStreaming;
+	/** Size of the streaming GL buffer in bytes. */
+	final int ringSize;
+	/** Offset in bytes at which the next data will be appended to the streaming GL buffer. */
+	int ringOffset = 0;
+	/** Offset in bytes of the current data in the streaming GL buffer. Added to attribute offsets. */
+	int streamOffset = 0;
+	ShaderProgram boundShader;
+	int[] boundLocations;
+	/** Vertex array objects with recorded attribute setup. Null if they are not supported or turned off. */
+	final VertexArrayObjectCache vertexArrayObjects;
 
 	public VertexArrayEmulator (int numVertices, VertexAttribute... attributes) {
 		this(numVertices, new VertexAttributes(attributes));
@@ -53,7 +75,21 @@ public class VertexArrayEmulator implements VertexData {
 		buffer = BufferUtils.newFloatBuffer(this.attributes.vertexSize / 4 * numVertices);
 		buffer.flip();
 		bufferHandle = Gdx.gl20.glGenBuffer();
-		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
+		final TeaVMApplicationConfiguration configuration = Gdx.app instanceof TeaVMApplication
+			? ((TeaVMApplication)Gdx.app).getConfiguration() : null;
+		isStreaming = !isStatic && configuration != null && configuration.isVertexStreamingEnabled();
+		ringSize = isStreaming ? getRingSize(configuration, buffer.capacity() * 4) : 0;
+		usage = isStatic ? GL20.GL_STATIC_DRAW : isStreaming ? GL20.GL_STREAM_DRAW : GL20.GL_DYNAMIC_DRAW;
+		vertexArrayObjects = VertexArrayObjectCache.create();
+	}
+
+	/** @param configuration contains streaming settings.
+	 * @param bytes size of the vertex array in bytes.
+	 * @return size of the streaming GL buffer in bytes: the configured amount of vertex arrays, limited by the configured
+	 *         highest ring size, but never smaller than the vertex array. */
+	private static int getRingSize (final TeaVMApplicationConfiguration configuration, final int bytes) {
+		final long arrays = (long)bytes * Math.max(configuration.getVertexStreamingRingArrays(), 1);
+		return (int)Math.max(bytes, Math.min(arrays, configuration.getVertexStreamingRingSize()));
 	}
 
 	@Override
@@ -73,20 +109,83 @@ public class VertexArrayEmulator implements VertexData {
 
 	@Override
 	public FloatBuffer getBuffer () {
-		isDirty = true;
+		markDirty(0, buffer.capacity());
 		return buffer;
 	}
 
+	private void markDirty (final int start, final int end) {
+		dirtyStart = Math.min(dirtyStart, start);
+		dirtyEnd = Math.max(dirtyEnd, end);
+	}
+
 	private void bufferChanged () {
 		if (isBound) {
-			Gdx.gl20.glBufferData(GL20.GL_ARRAY_BUFFER, buffer.limit(), buffer, usage);
-			isDirty = false;
+			if (vertexArrayObjects != null) {
+				Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+			}
+			if (isStreaming) {
+				stream(Gdx.gl20);
+				if (vertexArrayObjects == null || !vertexArrayObjects.bind(boundLocations, streamOffset)) {
+					setVertexAttributes(boundShader, boundLocations);
+				}
+			} else {
+				upload(Gdx.gl20);
+			}
+		}
+	}
+
+	/** Appends current vertices to the currently bound streaming GL buffer. Orphans the GL buffer once it is full, so the driver
+	 * can allocate new storage instead of waiting for draw calls still using the old data.
+	 * @param gl used to upload the data. */
+	private void stream (final GL20 gl) {
+		final int limit = buffer.limit();
+		final int position = buffer.position();
+		final int bytes = limit * 4;
+		if (allocatedSize == 0 || ringOffset + bytes > ringSize) {
+			gl.glBufferData(GL20.GL_ARRAY_BUFFER, ringSize, null, usage);
+			allocatedSize = ringSize / 4;
+			ringOffset = 0;
+		}
+		if (bytes > 0) {
+			buffer.position(0);
+			gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, ringOffset, bytes, buffer);
+			buffer.position(position);
+		}
+		streamOffset = ringOffset;
+		ringOffset += bytes;
+		dirtyStart = Integer.MAX_VALUE;
+		dirtyEnd = 0;
+	}
+
+	/** Uploads modified floats to the currently bound GL buffer. The buffer is allocated with full capacity on the first upload
+	 * and then only the dirty range is sent with glBufferSubData.
+	 * @param gl used to upload the data. */
+	private void upload (final GL20 gl) {
+		final int limit = buffer.limit();
+		final int position = buffer.position();
+		if (allocatedSize < limit) {
+			allocatedSize = buffer.capacity();
+			buffer.limit(allocatedSize);
+			buffer.position(0);
+			gl.glBufferData(GL20.GL_ARRAY_BUFFER, allocatedSize * 4, buffer, usage);
+		} else {
+			final int start = dirtyStart;
+			final int end = Math.min(dirtyEnd, limit);
+			if (start < end) {
+				buffer.limit(end);
+				buffer.position(start);
+				gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, start * 4, (end - start) * 4, buffer);
+			}
 		}
+		buffer.limit(limit);
+		buffer.position(position);
+		dirtyStart = Integer.MAX_VALUE;
+		dirtyEnd = 0;
 	}
 
 	@Override
 	public void setVertices (float[] vertices, int offset, int count) {
-		isDirty = true;
+		markDirty(0, count);
 		BufferUtils.copy(vertices, buffer, count, offset);
 		buffer.position(0);
 		buffer.limit(count);
@@ -95,7 +194,7 @@ public class VertexArrayEmulator implements VertexData {
 
 	@Override
 	public void updateVertices (int targetOffset, float[] vertices, int sourceOffset, int count) {
-		isDirty = true;
+		markDirty(targetOffset, targetOffset + count);
 		final int pos = buffer.position();
 		buffer.position(targetOffset);
 		BufferUtils.copy(vertices, sourceOffset, count, buffer);
@@ -117,13 +216,33 @@ public class VertexArrayEmulator implements VertexData {
 	@Override
 	public void bind (ShaderProgram shader, int[] locations) {
 		final GL20 gl = Gdx.gl20;
+		final boolean isDirty = dirtyStart < dirtyEnd;
 
-		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
-		if (isDirty) {
-			gl.glBufferData(GL20.GL_ARRAY_BUFFER, buffer.limit(), buffer, usage);
-			isDirty = false;
+		// With a recorded vertex array object, the GL buffer has to be bound only to upload data.
+		if (isDirty || vertexArrayObjects == null) {
+			gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+			if (isDirty) {
+				if (isStreaming) {
+					stream(gl);
+				} else {
+					upload(gl);
+				}
+			}
+		}
+		if (vertexArrayObjects == null) {
+			setVertexAttributes(shader, locations);
+		} else if (!vertexArrayObjects.bind(locations, streamOffset)) {
+			if (!isDirty) {
+				gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+			}
+			setVertexAttributes(shader, locations);
 		}
+		boundShader = shader;
+		boundLocations = locations;
+		isBound = true;
+	}
 
+	private void setVertexAttributes (final ShaderProgram shader, final int[] locations) {
 		final int numAttributes = attributes.size();
 		if (locations == null) {
 			for (int i = 0; i < numAttributes; i++) {
@@ -136,10 +255,10 @@ public class VertexArrayEmulator implements VertexData {
 
 			if (attribute.usage == Usage.ColorPacked)
 				shader.setVertexAttribute(location, attribute.numComponents, GL20.GL_UNSIGNED_BYTE, true, attributes.vertexSize,
-					attribute.offset);
+					attribute.offset + streamOffset);
 			else
 				shader.setVertexAttribute(location, attribute.numComponents, GL20.GL_FLOAT, false, attributes.vertexSize,
-					attribute.offset);
+					attribute.offset + streamOffset);
 			}
 		} else {
 			for (int i = 0; i < numAttributes; i++) {
@@ -152,13 +271,12 @@ public class VertexArrayEmulator implements VertexData {
 
 			if (attribute.usage == Usage.ColorPacked)
 				shader.setVertexAttribute(location, attribute.numComponents, GL20.GL_UNSIGNED_BYTE, true, attributes.vertexSize,
-					attribute.offset);
+					attribute.offset + streamOffset);
 			else
 				shader.setVertexAttribute(location, attribute.numComponents, GL20.GL_FLOAT, false, attributes.vertexSize,
-					attribute.offset);
+					attribute.offset + streamOffset);
 			}
 		}
-		isBound = true;
 	}
 
 	/** Unbinds this VertexBufferObject.
@@ -171,6 +289,14 @@ public class VertexArrayEmulator implements VertexData {
 
 	@Override
 	public void unbind (final ShaderProgram shader, final int[] locations) {
+		if (vertexArrayObjects != null) {
+			// Attributes stay enabled in the vertex array object.
+			vertexArrayObjects.unbind();
+			boundShader = null;
+			boundLocations = null;
+			isBound = false;
+			return;
+		}
 		final GL20 gl = Gdx.gl20;
 		final int numAttributes = attributes.size();
 		if (locations == null) {
@@ -186,6 +312,8 @@ public class VertexArrayEmulator implements VertexData {
 			}
 		}
 		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		boundShader = null;
+		boundLocations = null;
 		isBound = false;
 	}
 
@@ -193,7 +321,12 @@ public class VertexArrayEmulator implements VertexData {
 	@Override
 	public void invalidate () {
 		bufferHandle = Gdx.gl20.glGenBuffer();
-		isDirty = true;
+		allocatedSize = 0;
+		ringOffset = 0;
+		if (vertexArrayObjects != null) {
+			vertexArrayObjects.dispose();
+		}
+		markDirty(0, buffer.capacity());
 	}
 
 	/** Disposes of all resources this VertexBufferObject uses. */
@@ -203,5 +336,8 @@ public class VertexArrayEmulator implements VertexData {
 		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
 		gl.glDeleteBuffer(bufferHandle);
 		bufferHandle = 0;
+		if (vertexArrayObjects != null) {
+			vertexArrayObjects.dispose();
+		}
 	}
 }
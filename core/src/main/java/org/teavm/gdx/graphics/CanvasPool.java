@@ -0,0 +1,94 @@
+package org.teavm.gdx.graphics;
+
+import org.teavm.jso.canvas.CanvasRenderingContext2D;
+import org.teavm.jso.dom.html.HTMLCanvasElement;
+import org.teavm.jso.dom.html.HTMLDocument;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/** Pools canvases used by pixmaps. Canvases are never attached to the document, so creating them does not trigger layout.
+ * Changing size of a canvas allocates a new backing store, so released canvases are reused only by pixmaps of exactly the same
+ * size. A released canvas is cleared and its 2D context is reset to the default state. */
+public class CanvasPool {
+	/** Default value of {@link #setMaxPooledBytes(int)}. */
+	public static final int DEFAULT_MAX_POOLED_BYTES = 16 << 20;
+
+	private static final LongMap<Array<HTMLCanvasElement>> canvases = new LongMap<>();
+	private static int maxPooledBytes = DEFAULT_MAX_POOLED_BYTES;
+	private static int pooledBytes;
+
+	private CanvasPool () {
+	}
+
+	/** @param width width of the canvas.
+	 * @param height height of the canvas.
+	 * @return a cleared, detached canvas with the given size. */
+	public static HTMLCanvasElement obtain (final int width, final int height) {
+		final Array<HTMLCanvasElement> pooled = canvases.get(getKey(width, height));
+		if (pooled != null && pooled.size > 0) {
+			pooledBytes -= getBytes(width, height);
+			return pooled.pop();
+		}
+		final HTMLCanvasElement canvas = (HTMLCanvasElement)HTMLDocument.current().createElement("canvas");
+		canvas.setWidth(width);
+		canvas.setHeight(height);
+		return canvas;
+	}
+
+	/** @param canvas no longer used canvas obtained from the pool. Dropped if the pool is full. */
+	public static void free (final HTMLCanvasElement canvas) {
+		final int width = canvas.getWidth();
+		final int height = canvas.getHeight();
+		final int bytes = getBytes(width, height);
+		if (pooledBytes + bytes > maxPooledBytes) {
+			return;
+		}
+		final CanvasRenderingContext2D context = (CanvasRenderingContext2D)canvas.getContext("2d");
+		context.setGlobalCompositeOperation("source-over");
+		context.clearRect(0, 0, width, height);
+		context.setFillStyle("#000000");
+		context.setStrokeStyle("#000000");
+		final long key = getKey(width, height);
+		Array<HTMLCanvasElement> pooled = canvases.get(key);
+		if (pooled == null) {
+			pooled = new Array<>();
+			canvases.put(key, pooled);
+		}
+		pooled.add(canvas);
+		pooledBytes += bytes;
+	}
+
+	/** Drops all pooled canvases, letting the browser reclaim their memory. */
+	public static void clear () {
+		canvases.clear();
+		pooledBytes = 0;
+	}
+
+	/** @param maxPooledBytes highest amount of pixel memory kept by released canvases, assuming 4 bytes per pixel. 0 turns
+	 *           pooling off. */
+	public static void setMaxPooledBytes (final int maxPooledBytes) {
+		CanvasPool.maxPooledBytes = maxPooledBytes;
+		if (pooledBytes > maxPooledBytes) {
+			clear();
+		}
+	}
+
+	/** @return highest amount of pixel memory kept by released canvases. */
+	public static int getMaxPooledBytes () {
+		return maxPooledBytes;
+	}
+
+	/** @return amount of pixel memory currently kept by released canvases. */
+	public static int getPooledBytes () {
+		return pooledBytes;
+	}
+
+	private static long getKey (final int width, final int height) {
+		return (long)width << 32 | height & 0xffffffffL;
+	}
+
+	private static int getBytes (final int width, final int height) {
+		return width * height * 4;
+	}
+}
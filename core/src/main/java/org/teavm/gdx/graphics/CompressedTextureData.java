@@ -0,0 +1,255 @@
+package org.teavm.gdx.graphics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.teavm.gdx.TeaVMApplication;
+import org.teavm.gdx.graphics.webgl.TextureCompression;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** {@link TextureData} loaded from KTX or DDS containers. Compressed mipmap levels are passed to glCompressedTexImage2D as they
+ * are, skipping image decoding. Supports 2D textures only: KTX files with any compressed or uncompressed format, DDS files with
+ * DXT1, DXT3 or DXT5 data. */
+public class CompressedTextureData implements TextureData {
+	private static final byte[] KTX_IDENTIFIER = {(byte)0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte)0xBB, '\r', '\n', 0x1A, '\n'};
+	private static final int KTX_HEADER_SIZE = 64;
+	private static final int KTX_ENDIANNESS = 0x04030201;
+	private static final int DDS_MAGIC = 0x20534444; // "DDS "
+	private static final int DDS_HEADER_SIZE = 128;
+	private static final int DDSD_MIPMAPCOUNT = 0x20000;
+	private static final int DDPF_ALPHAPIXELS = 0x1;
+	private static final int DDPF_FOURCC = 0x4;
+	private static final int DDSCAPS2_CUBEMAP = 0x200;
+	private static final int FOURCC_DXT1 = 0x31545844;
+	private static final int FOURCC_DXT3 = 0x33545844;
+	private static final int FOURCC_DXT5 = 0x35545844;
+
+	private final FileHandle file;
+	private final boolean useMipMaps;
+	private int width;
+	private int height;
+	private ByteBuffer data;
+	private int internalFormat;
+	/** Pixel format and type of uncompressed KTX data. 0 if the data is compressed. */
+	private int format;
+	private int type;
+	private int[] levelOffsets;
+	private int[] levelSizes;
+
+	/** @param file KTX or DDS file.
+	 * @param useMipMaps if true and the file contains a single level of uncompressed data, mipmaps are generated. */
+	public CompressedTextureData (final FileHandle file, final boolean useMipMaps) {
+		this.file = file;
+		this.useMipMaps = useMipMaps;
+	}
+
+	/** @param file texture file.
+	 * @return true if the file is a KTX or DDS container that should be loaded by this class. */
+	public static boolean isSupported (final FileHandle file) {
+		final String extension = file.extension();
+		return "ktx".equalsIgnoreCase(extension) || "dds".equalsIgnoreCase(extension);
+	}
+
+	/** @param file texture file, for example "atlas.png".
+	 * @return the first existing variant of the file, for example "atlas.astc.ktx" or "atlas.s3tc.dds", named after a family of
+	 *         compressed formats chosen in the application configuration and supported by the browser. Null if there is
+	 *         none. */
+	public static FileHandle findVariant (final FileHandle file) {
+		if (!(Gdx.app instanceof TeaVMApplication) || !(Gdx.graphics instanceof TeaVMGraphics)) {
+			return null;
+		}
+		final TeaVMGraphics graphics = (TeaVMGraphics)Gdx.graphics;
+		for (final TextureCompression compression : ((TeaVMApplication)Gdx.app).getConfiguration().getTextureCompressions()) {
+			if (!graphics.isTextureCompressionSupported(compression)) {
+				continue;
+			}
+			final String prefix = file.nameWithoutExtension() + "." + compression.name().toLowerCase() + ".";
+			FileHandle variant = file.sibling(prefix + "ktx");
+			if (variant.exists()) {
+				return variant;
+			}
+			variant = file.sibling(prefix + "dds");
+			if (variant.exists()) {
+				return variant;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public TextureDataType getType () {
+		return TextureDataType.Custom;
+	}
+
+	@Override
+	public boolean isPrepared () {
+		return data != null;
+	}
+
+	@Override
+	public void prepare () {
+		if (data != null) {
+			throw new GdxRuntimeException("Already prepared");
+		}
+		final ByteBuffer buffer = ByteBuffer.wrap(file.readBytes());
+		if (isKtx(buffer)) {
+			readKtx(buffer);
+		} else if (buffer.remaining() >= DDS_HEADER_SIZE && buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(0) == DDS_MAGIC) {
+			readDds(buffer);
+		} else {
+			throw new GdxRuntimeException("Not a KTX or DDS file: " + file);
+		}
+		data = buffer;
+	}
+
+	private static boolean isKtx (final ByteBuffer buffer) {
+		if (buffer.remaining() < KTX_HEADER_SIZE) {
+			return false;
+		}
+		for (int i = 0; i < KTX_IDENTIFIER.length; i++) {
+			if (buffer.get(i) != KTX_IDENTIFIER[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void readKtx (final ByteBuffer buffer) {
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (buffer.getInt(12) != KTX_ENDIANNESS) {
+			buffer.order(ByteOrder.BIG_ENDIAN);
+		}
+		type = buffer.getInt(16);
+		format = buffer.getInt(24);
+		internalFormat = buffer.getInt(28);
+		width = buffer.getInt(36);
+		height = buffer.getInt(40);
+		if (buffer.getInt(44) > 0 || buffer.getInt(48) > 0 || buffer.getInt(52) != 1) {
+			throw new GdxRuntimeException("Only 2D KTX textures are supported: " + file);
+		}
+		final int levels = Math.max(1, buffer.getInt(56));
+		levelOffsets = new int[levels];
+		levelSizes = new int[levels];
+		int offset = KTX_HEADER_SIZE + buffer.getInt(60);
+		for (int level = 0; level < levels; level++) {
+			final int size = buffer.getInt(offset);
+			levelOffsets[level] = offset + 4;
+			levelSizes[level] = size;
+			offset += 4 + (size + 3 & ~3);
+		}
+		if (type != 0) {
+			// WebGL1 requires the internal format of uncompressed textures to match their pixel format.
+			internalFormat = format;
+		}
+	}
+
+	private void readDds (final ByteBuffer buffer) {
+		height = buffer.getInt(12);
+		width = buffer.getInt(16);
+		final int levels = (buffer.getInt(8) & DDSD_MIPMAPCOUNT) != 0 ? Math.max(1, buffer.getInt(28)) : 1;
+		final int pixelFormatFlags = buffer.getInt(80);
+		if ((pixelFormatFlags & DDPF_FOURCC) == 0 || (buffer.getInt(112) & DDSCAPS2_CUBEMAP) != 0) {
+			throw new GdxRuntimeException("Only compressed 2D DDS textures are supported: " + file);
+		}
+		final int blockSize;
+		switch (buffer.getInt(84)) {
+		case FOURCC_DXT1:
+			internalFormat = (pixelFormatFlags & DDPF_ALPHAPIXELS) != 0 ? TextureCompression.GL_COMPRESSED_RGBA_S3TC_DXT1_EXT
+				: TextureCompression.GL_COMPRESSED_RGB_S3TC_DXT1_EXT;
+			blockSize = 8;
+			break;
+		case FOURCC_DXT3:
+			internalFormat = TextureCompression.GL_COMPRESSED_RGBA_S3TC_DXT3_EXT;
+			blockSize = 16;
+			break;
+		case FOURCC_DXT5:
+			internalFormat = TextureCompression.GL_COMPRESSED_RGBA_S3TC_DXT5_EXT;
+			blockSize = 16;
+			break;
+		default:
+			throw new GdxRuntimeException("Unsupported DDS compression: " + file);
+		}
+		levelOffsets = new int[levels];
+		levelSizes = new int[levels];
+		int offset = DDS_HEADER_SIZE;
+		for (int level = 0; level < levels; level++) {
+			final int levelWidth = Math.max(1, width >> level);
+			final int levelHeight = Math.max(1, height >> level);
+			final int size = (levelWidth + 3 >> 2) * (levelHeight + 3 >> 2) * blockSize;
+			levelOffsets[level] = offset;
+			levelSizes[level] = size;
+			offset += size;
+		}
+	}
+
+	@Override
+	public void consumeCustomData (final int target) {
+		if (data == null) {
+			throw new GdxRuntimeException("Call prepare() before calling consumeCustomData()");
+		}
+		for (int level = 0; level < levelOffsets.length; level++) {
+			final int levelWidth = Math.max(1, width >> level);
+			final int levelHeight = Math.max(1, height >> level);
+			data.limit(levelOffsets[level] + levelSizes[level]);
+			data.position(levelOffsets[level]);
+			if (format == 0 || type == 0) {
+				Gdx.gl.glCompressedTexImage2D(target, level, internalFormat, levelWidth, levelHeight, 0, levelSizes[level], data);
+			} else {
+				Gdx.gl.glTexImage2D(target, level, internalFormat, levelWidth, levelHeight, 0, format, type, data);
+			}
+		}
+		if (useMipMaps && levelOffsets.length == 1 && type != 0) {
+			Gdx.gl.glGenerateMipmap(target);
+		}
+		// Managed textures read the file again after a context loss.
+		data = null;
+		levelOffsets = null;
+		levelSizes = null;
+	}
+
+	@Override
+	public Pixmap consumePixmap () {
+		throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+	}
+
+	@Override
+	public boolean disposePixmap () {
+		throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+	}
+
+	@Override
+	public int getWidth () {
+		return width;
+	}
+
+	@Override
+	public int getHeight () {
+		return height;
+	}
+
+	/** @return GL internal format of the texture. Valid after {@link #prepare()}. */
+	public int getInternalFormat () {
+		return internalFormat;
+	}
+
+	@Override
+	public Format getFormat () {
+		return Format.RGB565;
+	}
+
+	@Override
+	public boolean useMipMaps () {
+		return useMipMaps;
+	}
+
+	@Override
+	public boolean isManaged () {
+		return true;
+	}
+}
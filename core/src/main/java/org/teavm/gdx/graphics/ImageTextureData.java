@@ -0,0 +1,118 @@
+package org.teavm.gdx.graphics;
+
+import org.teavm.gdx.files.TeaVMFileHandle;
+import org.teavm.gdx.graphics.webgl.TeaVMGLExtensions;
+import org.teavm.jso.dom.html.HTMLImageElement;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** {@link TextureData} uploading a preloaded image element directly with WebGL, skipping the {@link Pixmap} canvas, pixel
+ * readback and the copies between typed arrays and Java arrays. Images are always uploaded as RGBA. */
+public class ImageTextureData implements TextureData {
+	private final FileHandle file;
+	private final boolean useMipMaps;
+	private HTMLImageElement image;
+	private boolean isPrepared;
+
+	/** @param file preloaded image file.
+	 * @param useMipMaps whether mipmaps should be generated. Cube maps generate them after their last face is uploaded. */
+	public ImageTextureData (final FileHandle file, final boolean useMipMaps) {
+		this.file = file;
+		this.useMipMaps = useMipMaps;
+	}
+
+	/** @param file texture file.
+	 * @return true if the file was preloaded as an image and the current GL implementation can upload it directly. */
+	public static boolean isSupported (final FileHandle file) {
+		if (!(file instanceof TeaVMFileHandle) || !(Gdx.graphics instanceof TeaVMGraphics)
+			|| ((TeaVMGraphics)Gdx.graphics).getGLExtensions() == null) {
+			return false;
+		}
+		final TeaVMFileHandle.FSEntry entry = ((TeaVMFileHandle)file).entry();
+		return entry != null && entry.imageElem != null;
+	}
+
+	@Override
+	public TextureDataType getType () {
+		return TextureDataType.Custom;
+	}
+
+	@Override
+	public boolean isPrepared () {
+		return isPrepared;
+	}
+
+	@Override
+	public void prepare () {
+		if (isPrepared) {
+			throw new GdxRuntimeException("Already prepared");
+		}
+		if (image == null) {
+			final TeaVMFileHandle.FSEntry entry = ((TeaVMFileHandle)file).entry();
+			if (entry == null || entry.imageElem == null) {
+				throw new GdxRuntimeException("Couldn't load image '" + file.path() + "', file does not exist");
+			}
+			image = entry.imageElem;
+		}
+		isPrepared = true;
+	}
+
+	@Override
+	public void consumeCustomData (final int target) {
+		if (!isPrepared) {
+			throw new GdxRuntimeException("Call prepare() before calling consumeCustomData()");
+		}
+		final TeaVMGLExtensions gl = ((TeaVMGraphics)Gdx.graphics).getGLExtensions();
+		gl.glTexImage2D(target, 0, GL20.GL_RGBA, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, image);
+		if (useMipMaps) {
+			if (target == GL20.GL_TEXTURE_2D) {
+				Gdx.gl.glGenerateMipmap(target);
+			} else if (target == GL20.GL_TEXTURE_CUBE_MAP_NEGATIVE_Z) {
+				// Cube map faces are consumed in order, so every face is specified once the last one is.
+				Gdx.gl.glGenerateMipmap(GL20.GL_TEXTURE_CUBE_MAP);
+			}
+		}
+		isPrepared = false;
+	}
+
+	@Override
+	public Pixmap consumePixmap () {
+		throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+	}
+
+	@Override
+	public boolean disposePixmap () {
+		throw new GdxRuntimeException("This TextureData implementation does not return a Pixmap");
+	}
+
+	@Override
+	public int getWidth () {
+		return image == null ? 0 : image.getWidth();
+	}
+
+	@Override
+	public int getHeight () {
+		return image == null ? 0 : image.getHeight();
+	}
+
+	@Override
+	public Format getFormat () {
+		return Format.RGBA8888;
+	}
+
+	@Override
+	public boolean useMipMaps () {
+		return useMipMaps;
+	}
+
+	@Override
+	public boolean isManaged () {
+		return true;
+	}
+}
@@ -6,7 +6,16 @@ import com.badlogic.gdx.graphics.glutils.GLVersion;
 import org.teavm.gdx.TeaVMApplication;
 import org.teavm.gdx.TeaVMApplicationConfiguration;
 import org.teavm.gdx.graphics.resizing.Resizer;
+import org.teavm.gdx.graphics.webgl.CommandBufferGL20;
+import org.teavm.gdx.graphics.webgl.GPUTimer;
+import org.teavm.gdx.graphics.webgl.ProfilingGL20;
+import org.teavm.gdx.graphics.webgl.ProfilingGL30;
+import org.teavm.gdx.graphics.webgl.StateCachingTeaVMGL20;
 import org.teavm.gdx.graphics.webgl.TeaVMGL20;
+import org.teavm.gdx.graphics.webgl.TeaVMGL30;
+import org.teavm.gdx.graphics.webgl.TeaVMGLExtensions;
+import org.teavm.gdx.graphics.webgl.TextureCompression;
+import org.teavm.gdx.graphics.webgl.WebGL2RenderingContext;
 import org.teavm.gdx.lifecycle.Renderer;
 import org.teavm.jso.JSBody;
 import org.teavm.jso.JSObject;
@@ -30,9 +39,10 @@ import com.badlogic.gdx.graphics.GL30;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 
-/** Default implementation of {@link Graphics} for TeaVM applications. Wraps around a HTML canvas element and WebGL. Does not
- * support GL30. Allows to go to fullscreen mode only if chosen display mode matches current screen size. Allows to change cursors
- * and current page title. Always reports only one {@link Monitor} and {@link DisplayMode}. Does not support vSync settings.
+/** Default implementation of {@link Graphics} for TeaVM applications. Wraps around a HTML canvas element and WebGL. Supports
+ * GL30 through WebGL2 if it is turned on in the configuration and available in the browser. Allows to go to fullscreen mode
+ * only if chosen display mode matches current screen size. Allows to change cursors and current page title. Always reports
+ * only one {@link Monitor} and {@link DisplayMode}. Does not support vSync settings.
  * @author MJ
  * @author Alexey Andreev */
 public class TeaVMGraphics implements Graphics {
@@ -51,6 +61,9 @@ public class TeaVMGraphics implements Graphics {
 	private final WebGLRenderingContext context;
 	private final Renderer renderer;
 	private final GL20 gl20;
+	private final GL20 glImplementation;
+	private final GL30 gl30;
+	private GPUTimer gpuTimer;
 	// Cache:
 	private final Monitor monitor = new TeaVMMonitor(0, 0, TeaVMApplication.LOGGING_TAG);
 	private final DisplayMode displayMode = new TeaVMDisplayMode(getScreenWidth(), getScreenHeight(), REFRESH_RATE, BPP);
@@ -65,9 +78,17 @@ public class TeaVMGraphics implements Graphics {
 		renderer = application.getRenderer();
 		oldWidth = canvas.getWidth();
 		oldHeight = canvas.getHeight();
-		context = (WebGLRenderingContext)canvas.getContext("webgl", getWebGlAttributes());
+		context = createContext();
 		context.viewport(0, 0, oldWidth, oldHeight);
-		gl20 = createGL20(context);
+		final GL20 gl = isWebGL2(context) ? createGL30((WebGL2RenderingContext)context)
+			: createGL20(context);
+		glImplementation = gl;
+		if (gl instanceof GL30 && (configuration.isGlCommandsBuffered() || configuration.isGlStateCached())) {
+			application.log(TeaVMApplication.LOGGING_TAG,
+				"GL command buffering and GL state caching are unsupported on WebGL2. Ignoring the settings.");
+		}
+		gl20 = configuration.isGlProfiled() ? createProfilingGL20(gl) : gl;
+		gl30 = gl20 instanceof GL30 ? (GL30)gl20 : null;
 		glVersion = createGlVersion(gl20);
 		addFullscreenModeListener();
 	}
@@ -100,10 +121,101 @@ public class TeaVMGraphics implements Graphics {
 		return attributes;
 	}
 
+	/** @return WebGL2 context if GL30 is turned on in the configuration and WebGL2 is supported by the browser, WebGL1 context
+	 *         otherwise. */
+	protected WebGLRenderingContext createContext () {
+		if (configuration.isUsingGl30()) {
+			final JSObject context = canvas.getContext("webgl2", getWebGlAttributes());
+			if (context != null) {
+				return (WebGL2RenderingContext)context;
+			}
+		}
+		return (WebGLRenderingContext)canvas.getContext("webgl", getWebGlAttributes());
+	}
+
+	/** @param context current WebGL2 rendering context obtained from the canvas.
+	 * @return a new instance of {@link TeaVMGL30}. Used if GL30 is turned on in the configuration and supported by the
+	 *         browser. GL command buffering and GL state caching settings are ignored, as there are no GL30 variants of
+	 *         {@link CommandBufferGL20} and {@link StateCachingTeaVMGL20}. */
+	protected GL20 createGL30 (final WebGL2RenderingContext context) {
+		final TeaVMGL30 gl30 = new TeaVMGL30(context);
+		gl30.setUniformValuesCached(configuration.isUniformValuesCached());
+		gl30.setShadersCached(configuration.isShadersCached());
+		gl30.getTextureMemory().setBudget(configuration.getTextureMemoryBudget());
+		return gl30;
+	}
+
 	/** @param context current WebGL rendering context obtained from the canvas.
-	 * @return a new instance of {@link GL20}. */
+	 * @return a new instance of {@link GL20}. {@link CommandBufferGL20} if GL command buffering is turned on in the
+	 *         configuration, {@link StateCachingTeaVMGL20} if GL state caching is turned on, {@link TeaVMGL20} otherwise. */
 	protected GL20 createGL20 (final WebGLRenderingContext context) {
-		return new TeaVMGL20(context);
+		final TeaVMGL20 gl20;
+		if (configuration.isGlCommandsBuffered()) {
+			gl20 = new CommandBufferGL20(context);
+		} else if (configuration.isGlStateCached()) {
+			gl20 = new StateCachingTeaVMGL20(context);
+		} else {
+			gl20 = new TeaVMGL20(context);
+		}
+		gl20.setUniformValuesCached(configuration.isUniformValuesCached());
+		gl20.setShadersCached(configuration.isShadersCached());
+		gl20.getTextureMemory().setBudget(configuration.getTextureMemoryBudget());
+		return gl20;
+	}
+
+	/** @param gl20 GL implementation created by {@link #createGL20(WebGLRenderingContext)}.
+	 * @return a new instance of {@link ProfilingGL20} wrapping the passed implementation or {@link ProfilingGL30} if it
+	 *         implements {@link GL30}. Used if GL profiling is turned on in the configuration. */
+	protected ProfilingGL20 createProfilingGL20 (final GL20 gl20) {
+		if (gl20 instanceof GL30) {
+			return new ProfilingGL30((GL30)gl20, configuration.getGlProfilingHistorySize());
+		}
+		return new ProfilingGL20(gl20, configuration.getGlProfilingHistorySize());
+	}
+
+	/** @return GL profiler counting GL usage per frame or null if GL profiling is not turned on in the configuration. */
+	public ProfilingGL20 getGlProfiler () {
+		return gl20 instanceof ProfilingGL20 ? (ProfilingGL20)gl20 : null;
+	}
+
+	/** @return measures GPU time of frames and named scopes. Created on first call. Null if GPU timing is not turned on in the
+	 *         configuration or if the GL implementation does not support timer queries. */
+	public GPUTimer getGPUTimer () {
+		final TeaVMGLExtensions extensions = getGLExtensions();
+		if (gpuTimer == null && configuration.isGpuTimed() && extensions != null && extensions.isTimerQuerySupported()) {
+			gpuTimer = new GPUTimer(extensions);
+		}
+		return gpuTimer;
+	}
+
+	/** @return GL implementation returned by {@link #getGL20()} as {@link TeaVMGLExtensions}, so that calls of the extensions
+	 *         are counted by the profiler. Null if the GL implementation is not provided by TeaVM. */
+	public TeaVMGLExtensions getGLExtensions () {
+		return glImplementation instanceof TeaVMGLExtensions ? (TeaVMGLExtensions)gl20 : null;
+	}
+
+	/** @return GL implementation created by {@link #createGL20(WebGLRenderingContext)} or
+	 *         {@link #createGL30(WebGL2RenderingContext)}. Unlike {@link #getGL20()}, never wrapped by the profiler. Calls
+	 *         made through it are not counted by the profiler; prefer {@link #getGLExtensions()} to access TeaVM GL calls. */
+	public GL20 getGLImplementation () {
+		return glImplementation;
+	}
+
+	/** @param compression family of compressed texture formats.
+	 * @return true if textures compressed with the family formats can be uploaded. */
+	public boolean isTextureCompressionSupported (final TextureCompression compression) {
+		return glImplementation instanceof TeaVMGL20 && ((TeaVMGL20)glImplementation).isTextureCompressionSupported(compression);
+	}
+
+	/** @param preferred families of compressed texture formats in the order of preference.
+	 * @return first supported family or null if none of them is supported. */
+	public TextureCompression getTextureCompression (final TextureCompression... preferred) {
+		for (final TextureCompression compression : preferred) {
+			if (isTextureCompressionSupported(compression)) {
+				return compression;
+			}
+		}
+		return null;
 	}
 
 	/** @return current WebGL rendering context obtained from the canvas. */
@@ -113,13 +225,15 @@ public class TeaVMGraphics implements Graphics {
 
 	@Override
 	public boolean isGL30Available () {
-		return false;
+		return gl30 != null;
 	}
 
 	@Override
 	public GL30 getGL30 () {
-		TeaVMApplication.logUnsupported("GL30");
-		return null;
+		if (gl30 == null) {
+			TeaVMApplication.logUnsupported("GL30");
+		}
+		return gl30;
 	}
 
 	@Override
@@ -271,6 +385,12 @@ public class TeaVMGraphics implements Graphics {
         TeaVMApplication.logUnsupported("Graphics#setResizable");
 	}
 
+	/** @param context WebGL rendering context.
+	 * @return true if the context is a WebGL2 context. */
+	@JSBody(params = "context",
+		script = "return typeof WebGL2RenderingContext!=='undefined'&&context instanceof WebGL2RenderingContext;")
+	protected static native boolean isWebGL2 (JSObject context);
+
 	/** @param newTitle will become the title of the current HTML document. */
 	@JSBody(params = "newTitle", script = "document.title=newTitle")
 	protected static native void setDocumentTitle (String newTitle);
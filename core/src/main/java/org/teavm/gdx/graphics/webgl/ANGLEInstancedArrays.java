@@ -0,0 +1,12 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+
+/** ANGLE_instanced_arrays WebGL1 extension, obtained with getExtension("ANGLE_instanced_arrays"). */
+public interface ANGLEInstancedArrays extends JSObject {
+	void vertexAttribDivisorANGLE (int index, int divisor);
+
+	void drawArraysInstancedANGLE (int mode, int first, int count, int primcount);
+
+	void drawElementsInstancedANGLE (int mode, int count, int type, int offset, int primcount);
+}
@@ -0,0 +1,274 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.Buffer;
+
+import org.teavm.jso.typedarrays.ArrayBufferView;
+import org.teavm.jso.webgl.WebGLBuffer;
+import org.teavm.jso.webgl.WebGLRenderingContext;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Emulates client-side vertex and index arrays, which WebGL does not support. Vertex attribute pointers set with a
+ * {@link Buffer} are remembered and their data is uploaded at draw time to an internally managed GL buffer; client-side indices
+ * go to another one, as WebGL does not allow a buffer to hold both. Each GL buffer is filled at an advancing offset and orphaned
+ * once full, so uploads do not wait for previous draws. Keeps track of the bound buffers and enabled attributes to restore the
+ * bindings and to skip all work while no client-side attribute is in use. */
+public class ClientArrays {
+	/** Initial size of each streaming GL buffer in bytes. Grows for larger draws. */
+	public static final int INITIAL_RING_SIZE = 1 << 18;
+	/** Highest amount of vertex attributes that can use client-side arrays. */
+	public static final int MAX_ATTRIBUTES = 32;
+	private static final int UNKNOWN = -1;
+
+	private final TeaVMGL20 owner;
+	private final WebGLRenderingContext gl;
+	/** State of the default vertex array object, kept while other vertex array objects are bound. */
+	private final VertexArrayState defaultState = new VertexArrayState();
+	/** State of a bound vertex array object other than the default one. Not kept after it is unbound. */
+	private final VertexArrayState objectState = new VertexArrayState();
+	private VertexArrayState state = defaultState;
+	/** Offsets of the uploaded buffers in the vertex ring during the current draw. */
+	private final int[] uploadOffsets = new int[MAX_ATTRIBUTES];
+	private int arrayBuffer;
+	private final Ring vertexRing = new Ring();
+	private final Ring indexRing = new Ring();
+	private int uploadedBytes;
+
+	public ClientArrays (final TeaVMGL20 owner, final WebGLRenderingContext gl) {
+		this.owner = owner;
+		this.gl = gl;
+	}
+
+	/** @param target buffer target.
+	 * @param buffer ID of the buffer bound to the target. */
+	public void bufferBound (final int target, final int buffer) {
+		if (target == GL20.GL_ARRAY_BUFFER) {
+			arrayBuffer = buffer;
+		} else if (target == GL20.GL_ELEMENT_ARRAY_BUFFER) {
+			state.elementArrayBuffer = buffer;
+		}
+	}
+
+	/** @param buffer ID of a deleted buffer. WebGL unbinds deleted buffers from the context and the bound vertex array object. */
+	public void bufferDeleted (final int buffer) {
+		if (arrayBuffer == buffer) {
+			arrayBuffer = 0;
+		}
+		if (state.elementArrayBuffer == buffer) {
+			state.elementArrayBuffer = 0;
+		}
+	}
+
+	/** @param index vertex attribute index.
+	 * @param enabled true if the attribute array is enabled. */
+	public void setEnabled (final int index, final boolean enabled) {
+		if (index < MAX_ATTRIBUTES) {
+			state.enabled[index] = enabled;
+		}
+	}
+
+	/** Remembers a client-side attribute pointer. The data is read at draw time.
+	 * @param index vertex attribute index.
+	 * @param size amount of components.
+	 * @param type component type.
+	 * @param normalized whether fixed-point values are normalized.
+	 * @param stride byte stride between vertices. 0 if the vertices are tightly packed.
+	 * @param data vertex data starting at its current position. */
+	public void setPointer (final int index, final int size, final int type, final boolean normalized, final int stride,
+		final Buffer data) {
+		if (index >= MAX_ATTRIBUTES) {
+			throw new GdxRuntimeException("Client-side arrays are supported only for the first " + MAX_ATTRIBUTES + " attributes.");
+		}
+		final VertexArrayState state = this.state;
+		if (state.pointers[index] == null) {
+			state.clientAttributes++;
+		}
+		state.pointers[index] = data;
+		state.sizes[index] = size;
+		state.types[index] = type;
+		state.normalized[index] = normalized;
+		state.strides[index] = stride == 0 ? size * getTypeSize(type) : stride;
+		state.offsets[index] = data.position() * TeaVMGL20.getElementSize(data);
+	}
+
+	/** @param index vertex attribute index that was pointed to a GL buffer. */
+	public void clearPointer (final int index) {
+		if (index < MAX_ATTRIBUTES && state.pointers[index] != null) {
+			state.pointers[index] = null;
+			state.clientAttributes--;
+		}
+	}
+
+	/** Switches the tracked attribute and element array buffer state, which belongs to the bound vertex array object. State of the
+	 * default vertex array object is restored once it is bound again. State of other objects is not kept: their client-side
+	 * pointers are forgotten and their element array buffer binding is marked as unknown.
+	 * @param array ID of the bound vertex array object. 0 for the default one. */
+	public void vertexArrayBound (final int array) {
+		if (array == 0) {
+			state = defaultState;
+		} else {
+			state = objectState;
+			objectState.reset();
+		}
+	}
+
+	/** @return true if any vertex attribute uses a client-side array. */
+	public boolean isActive () {
+		return state.clientAttributes > 0;
+	}
+
+	/** @return true if an element array buffer might be bound, in which case index buffers passed to draw calls are treated as
+	 *         offsets into it. */
+	public boolean isElementArrayBufferBound () {
+		return state.elementArrayBuffer != 0;
+	}
+
+	/** @return amount of bytes uploaded from client-side arrays since the object was created. */
+	public int getUploadedBytes () {
+		return uploadedBytes;
+	}
+
+	/** Uploads the data of enabled client-side attributes and points the attributes at it. Attributes sharing a buffer upload
+	 * it once.
+	 * @param vertexCount amount of vertices read by the draw, counting from the first one, or -1 if unknown. Limits the uploaded
+	 *           range. */
+	public void prepare (final int vertexCount) {
+		gl.bindBuffer(GL20.GL_ARRAY_BUFFER, vertexRing.bind(gl, GL20.GL_ARRAY_BUFFER));
+		for (int index = 0; index < MAX_ATTRIBUTES; index++) {
+			uploadOffsets[index] = UNKNOWN;
+		}
+		final VertexArrayState state = this.state;
+		for (int index = 0; index < MAX_ATTRIBUTES; index++) {
+			final Buffer data = state.pointers[index];
+			if (data == null || !state.enabled[index]) {
+				continue;
+			}
+			if (uploadOffsets[index] == UNKNOWN) {
+				upload(data, index, vertexCount);
+			}
+			gl.vertexAttribPointer(index, state.sizes[index], state.types[index], state.normalized[index], state.strides[index],
+				uploadOffsets[index] + state.offsets[index]);
+		}
+		gl.bindBuffer(GL20.GL_ARRAY_BUFFER, owner.getWebGLBuffer(arrayBuffer));
+	}
+
+	private void upload (final Buffer data, final int first, final int vertexCount) {
+		final int elementSize = TeaVMGL20.getElementSize(data);
+		final int available = data.limit() * elementSize;
+		int bytes = vertexCount < 0 ? available : 0;
+		final VertexArrayState state = this.state;
+		for (int index = first; index < MAX_ATTRIBUTES; index++) {
+			if (state.pointers[index] == data && state.enabled[index] && vertexCount >= 0) {
+				bytes = Math.max(bytes, state.offsets[index] + vertexCount * state.strides[index]);
+			}
+		}
+		bytes = Math.min(bytes, available);
+		final int position = data.position();
+		final int limit = data.limit();
+		data.position(0);
+		data.limit((bytes + elementSize - 1) / elementSize);
+		final int offset = vertexRing.append(gl, GL20.GL_ARRAY_BUFFER, owner.toArrayBufferView(data), bytes);
+		data.limit(limit);
+		data.position(position);
+		for (int index = first; index < MAX_ATTRIBUTES; index++) {
+			if (state.pointers[index] == data) {
+				uploadOffsets[index] = offset;
+			}
+		}
+		uploadedBytes += bytes;
+	}
+
+	/** Uploads client-side indices and leaves the streaming index buffer bound. Call {@link #restoreElementArrayBuffer()} after
+	 * the draw.
+	 * @param indices indices starting at the current position.
+	 * @param count amount of indices.
+	 * @param type type of the indices.
+	 * @return byte offset of the indices in the bound element array buffer. */
+	public int uploadIndices (final Buffer indices, final int count, final int type) {
+		gl.bindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexRing.bind(gl, GL20.GL_ELEMENT_ARRAY_BUFFER));
+		final int bytes = count * getTypeSize(type);
+		final int limit = indices.limit();
+		indices.limit(Math.min(limit, indices.position() + bytes / TeaVMGL20.getElementSize(indices)));
+		final int offset = indexRing.append(gl, GL20.GL_ELEMENT_ARRAY_BUFFER, owner.toArrayBufferView(indices), bytes);
+		indices.limit(limit);
+		uploadedBytes += bytes;
+		return offset;
+	}
+
+	/** Binds back the element array buffer that was bound before {@link #uploadIndices(Buffer, int, int)}. */
+	public void restoreElementArrayBuffer () {
+		gl.bindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, owner.getWebGLBuffer(state.elementArrayBuffer));
+	}
+
+	private static int getTypeSize (final int type) {
+		switch (type) {
+		case GL20.GL_BYTE:
+		case GL20.GL_UNSIGNED_BYTE:
+			return 1;
+		case GL20.GL_SHORT:
+		case GL20.GL_UNSIGNED_SHORT:
+			return 2;
+		default:
+			return 4;
+		}
+	}
+
+	/** Client-side pointers, enabled attributes and element array buffer binding of a vertex array object. */
+	private static class VertexArrayState {
+		private final Buffer[] pointers = new Buffer[MAX_ATTRIBUTES];
+		private final int[] sizes = new int[MAX_ATTRIBUTES];
+		private final int[] types = new int[MAX_ATTRIBUTES];
+		private final boolean[] normalized = new boolean[MAX_ATTRIBUTES];
+		private final int[] strides = new int[MAX_ATTRIBUTES];
+		/** Byte offsets of the first elements: positions of the buffers when the pointers were set. */
+		private final int[] offsets = new int[MAX_ATTRIBUTES];
+		private final boolean[] enabled = new boolean[MAX_ATTRIBUTES];
+		private int clientAttributes;
+		private int elementArrayBuffer;
+
+		/** Forgets all client-side pointers and marks the element array buffer binding as unknown. */
+		void reset () {
+			for (int index = 0; index < MAX_ATTRIBUTES; index++) {
+				pointers[index] = null;
+				enabled[index] = false;
+			}
+			clientAttributes = 0;
+			elementArrayBuffer = UNKNOWN;
+		}
+	}
+
+	/** GL buffer filled at an advancing offset and orphaned once full. */
+	private static class Ring {
+		private WebGLBuffer buffer;
+		private int size;
+		private int offset;
+
+		WebGLBuffer bind (final WebGLRenderingContext gl, final int target) {
+			if (buffer == null) {
+				buffer = gl.createBuffer();
+			}
+			return buffer;
+		}
+
+		/** @return offset of the appended data. The buffer has to be bound to the target. */
+		int append (final WebGLRenderingContext gl, final int target, final ArrayBufferView data, final int bytes) {
+			if (bytes > size) {
+				size = Math.max(size, INITIAL_RING_SIZE);
+				while (size < bytes) {
+					size <<= 1;
+				}
+				offset = size;
+			}
+			if (offset + bytes > size) {
+				gl.bufferData(target, size, GL20.GL_STREAM_DRAW);
+				offset = 0;
+			}
+			final int result = offset;
+			gl.bufferSubData(target, result, data);
+			// Keeps offsets aligned for all attribute types.
+			offset += bytes + 3 & ~3;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,1157 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import org.teavm.javascript.spi.GeneratedBy;
+import org.teavm.jso.JSBody;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.dom.html.HTMLImageElement;
+import org.teavm.jso.webgl.WebGLRenderingContext;
+
+/** Records the most common state, draw and uniform calls into a {@link GLCommandBuffer} instead of calling WebGL right away.
+ * The whole stream is dispatched by a single generated JavaScript function at flush points, so draw call heavy frames cross
+ * the boundary between compiled Java and the WebGL context once per flush rather than once per call. Any other call - queries,
+ * uploads, object creation, {@link #glFinish()} and {@link #glFlush()} - flushes recorded commands first, so calls are always
+ * executed in order. Recorded commands are also flushed at the end of each frame.
+ * <p>
+ * Uniform values are cached by the program uniform tables just like in {@link TeaVMGL20}; recorded uniform calls do not
+ * return to Java, so their locations are resolved when they are recorded. */
+public class CommandBufferGL20 extends TeaVMGL20 {
+	private final GLCommandBuffer commands = new GLCommandBuffer();
+	private JSObject scratch;
+	private int flushes;
+	private int commandsFlushed;
+	private int lastFrameFlushes;
+	private int lastFrameCommands;
+
+	public CommandBufferGL20 (final WebGLRenderingContext gl) {
+		super(gl);
+	}
+
+	/** @param gl WebGL rendering context.
+	 * @param debugged see {@link TeaVMGL20#TeaVMGL20(WebGLRenderingContext, boolean)}. */
+	protected CommandBufferGL20 (final WebGLRenderingContext gl, final boolean debugged) {
+		super(gl, debugged);
+	}
+
+	@JSBody(params = {}, script = "return [];")
+	private static native JSObject createScratch ();
+
+	@GeneratedBy(CommandBufferNativeGenerator.class)
+	private static native void execute (WebGLRenderingContext gl, int[] ints, float[] floats, Object[] objects, int length,
+		JSObject scratch);
+
+	/** @return stores commands recorded since the last flush. */
+	public GLCommandBuffer getCommands () {
+		return commands;
+	}
+
+	/** Executes all recorded commands. */
+	public void flush () {
+		if (commands.isEmpty()) {
+			return;
+		}
+		flushes++;
+		commandsFlushed += commands.getCommandCount();
+		execute(commands);
+		commands.clear();
+	}
+
+	/** Executes the recorded commands on the WebGL context with the generated dispatch function. Invoked by {@link #flush()}
+	 * if any commands were recorded; the buffer is cleared afterwards.
+	 * @param commands recorded commands. */
+	protected void execute (final GLCommandBuffer commands) {
+		if (scratch == null) {
+			scratch = createScratch();
+		}
+		execute(gl, commands.getInts(), commands.getFloats(), commands.getObjects(), commands.getIntCount(), scratch);
+	}
+
+	/** @return amount of non-empty flushes in the previous frame. */
+	public int getLastFrameFlushes () {
+		return lastFrameFlushes;
+	}
+
+	/** @return amount of commands executed through the command buffer in the previous frame. */
+	public int getLastFrameCommands () {
+		return lastFrameCommands;
+	}
+
+	@Override
+	public void onFrameEnd () {
+		flush();
+		lastFrameFlushes = flushes;
+		lastFrameCommands = commandsFlushed;
+		flushes = 0;
+		commandsFlushed = 0;
+		super.onFrameEnd();
+	}
+
+	@Override
+	public void glActiveTexture (final int texture) {
+		commands.activeTexture(texture);
+		getTextureMemory().activeTexture(texture - GL_TEXTURE0);
+	}
+
+	@Override
+	public void glBindTexture (final int target, final int texture) {
+		if (getTextureMemory().isEvicted(texture)) {
+			flush();
+			super.glBindTexture(target, texture);
+			return;
+		}
+		commands.bindTexture(target, texture, getWebGLTexture(texture));
+		getTextureMemory().textureBound(target, texture);
+	}
+
+	@Override
+	public void glBindBuffer (final int target, final int buffer) {
+		commands.bindBuffer(target, buffer, getWebGLBuffer(buffer));
+		getClientArrays().bufferBound(target, buffer);
+	}
+
+	@Override
+	public void glUseProgram (final int program) {
+		setCurrentProgram(program);
+		commands.useProgram(program, getWebGLProgram(program));
+	}
+
+	@Override
+	public void glEnable (final int cap) {
+		commands.enable(cap);
+	}
+
+	@Override
+	public void glDisable (final int cap) {
+		commands.disable(cap);
+	}
+
+	@Override
+	public void glBlendFunc (final int sfactor, final int dfactor) {
+		commands.blendFunc(sfactor, dfactor);
+	}
+
+	@Override
+	public void glBlendFuncSeparate (final int srcRGB, final int dstRGB, final int srcAlpha, final int dstAlpha) {
+		commands.blendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+	}
+
+	@Override
+	public void glBlendEquation (final int mode) {
+		commands.blendEquation(mode);
+	}
+
+	@Override
+	public void glDepthMask (final boolean flag) {
+		commands.depthMask(flag);
+	}
+
+	@Override
+	public void glDepthFunc (final int func) {
+		commands.depthFunc(func);
+	}
+
+	@Override
+	public void glCullFace (final int mode) {
+		commands.cullFace(mode);
+	}
+
+	@Override
+	public void glColorMask (final boolean red, final boolean green, final boolean blue, final boolean alpha) {
+		commands.colorMask(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glViewport (final int x, final int y, final int width, final int height) {
+		commands.viewport(x, y, width, height);
+	}
+
+	@Override
+	public void glScissor (final int x, final int y, final int width, final int height) {
+		commands.scissor(x, y, width, height);
+	}
+
+	@Override
+	public void glClear (final int mask) {
+		commands.clear(mask);
+	}
+
+	@Override
+	public void glClearColor (final float red, final float green, final float blue, final float alpha) {
+		commands.clearColor(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glEnableVertexAttribArray (final int index) {
+		commands.enableVertexAttribArray(index);
+		getClientArrays().setEnabled(index, true);
+	}
+
+	@Override
+	public void glDisableVertexAttribArray (final int index) {
+		commands.disableVertexAttribArray(index);
+		getClientArrays().setEnabled(index, false);
+	}
+
+	@Override
+	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
+		final int ptr) {
+		commands.vertexAttribPointer(indx, size, type, normalized, stride, ptr);
+		getClientArrays().clearPointer(indx);
+	}
+
+	@Override
+	public void glDrawArrays (final int mode, final int first, final int count) {
+		if (getClientArrays().isActive()) {
+			flush();
+			super.glDrawArrays(mode, first, count);
+		} else {
+			commands.drawArrays(mode, first, count);
+		}
+	}
+
+	@Override
+	public void glDrawElements (final int mode, final int count, final int type, final int indices) {
+		if (getClientArrays().isActive()) {
+			flush();
+			super.glDrawElements(mode, count, type, indices);
+		} else {
+			commands.drawElements(mode, count, type, indices);
+		}
+	}
+
+	@Override
+	public void glTexParameteri (final int target, final int pname, final int param) {
+		commands.texParameteri(target, pname, param);
+		getTextureMemory().parameterSet(target, pname, param);
+	}
+
+	@Override
+	public void glLineWidth (final float width) {
+		commands.lineWidth(width);
+	}
+
+	@Override
+	public void glUniform1i (final int location, final int x) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.update(location, x)) {
+			commands.uniform1i(location, uniforms.get(location), x);
+		}
+	}
+
+	@Override
+	public void glUniform1f (final int location, final float x) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.update(location, x)) {
+			commands.uniform1f(location, uniforms.get(location), x);
+		}
+	}
+
+	@Override
+	public void glUniform2f (final int location, final float x, final float y) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.update(location, x, y)) {
+			commands.uniform2f(location, uniforms.get(location), x, y);
+		}
+	}
+
+	@Override
+	public void glUniform3f (final int location, final float x, final float y, final float z) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.update(location, x, y, z)) {
+			commands.uniform3f(location, uniforms.get(location), x, y, z);
+		}
+	}
+
+	@Override
+	public void glUniform4f (final int location, final float x, final float y, final float z, final float w) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.update(location, x, y, z, w)) {
+			commands.uniform4f(location, uniforms.get(location), x, y, z, w);
+		}
+	}
+
+	@Override
+	public void glUniformMatrix3fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.updateMatrix(location, transpose, value)) {
+			commands.uniformMatrixfv(GLCommandBuffer.UNIFORM_MATRIX_3FV, location, uniforms.get(location), transpose, value);
+		}
+	}
+
+	@Override
+	public void glUniformMatrix3fv (final int location, final int count, final boolean transpose, final float[] value,
+		final int offset) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.updateMatrix(location, transpose, value, offset, count * 9)) {
+			commands.uniformMatrixfv(GLCommandBuffer.UNIFORM_MATRIX_3FV, location, uniforms.get(location), transpose, value,
+				offset, count * 9);
+		}
+	}
+
+	@Override
+	public void glUniformMatrix4fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.updateMatrix(location, transpose, value)) {
+			commands.uniformMatrixfv(GLCommandBuffer.UNIFORM_MATRIX_4FV, location, uniforms.get(location), transpose, value);
+		}
+	}
+
+	@Override
+	public void glUniformMatrix4fv (final int location, final int count, final boolean transpose, final float[] value,
+		final int offset) {
+		final UniformTable uniforms = getCurrentUniforms();
+		if (uniforms != null && uniforms.updateMatrix(location, transpose, value, offset, count * 16)) {
+			commands.uniformMatrixfv(GLCommandBuffer.UNIFORM_MATRIX_4FV, location, uniforms.get(location), transpose, value,
+				offset, count * 16);
+		}
+	}
+
+	// Calls below need the results of recorded commands or must not be reordered with them.
+
+	@Override
+	public void glClearDepthf (final float depth) {
+		flush();
+		super.glClearDepthf(depth);
+	}
+
+	@Override
+	public void glClearStencil (final int s) {
+		flush();
+		super.glClearStencil(s);
+	}
+
+	@Override
+	public void glCompressedTexImage2D (final int target, final int level, final int internalformat, final int width,
+		final int height, final int border, final int imageSize, final Buffer data) {
+		flush();
+		super.glCompressedTexImage2D(target, level, internalformat, width, height, border, imageSize, data);
+	}
+
+	@Override
+	public void glCompressedTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset,
+		final int width, final int height, final int format, final int imageSize, final Buffer data) {
+		flush();
+		super.glCompressedTexSubImage2D(target, level, xoffset, yoffset, width, height, format, imageSize, data);
+	}
+
+	@Override
+	public void glCopyTexImage2D (final int target, final int level, final int internalformat, final int x, final int y,
+		final int width, final int height, final int border) {
+		flush();
+		super.glCopyTexImage2D(target, level, internalformat, x, y, width, height, border);
+	}
+
+	@Override
+	public void glCopyTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset, final int x,
+		final int y, final int width, final int height) {
+		flush();
+		super.glCopyTexSubImage2D(target, level, xoffset, yoffset, x, y, width, height);
+	}
+
+	@Override
+	public void glDeleteTextures (final int n, final IntBuffer textures) {
+		flush();
+		super.glDeleteTextures(n, textures);
+	}
+
+	@Override
+	public void glDeleteTexture (final int id) {
+		flush();
+		super.glDeleteTexture(id);
+	}
+
+	@Override
+	public void glDepthRangef (final float zNear, final float zFar) {
+		flush();
+		super.glDepthRangef(zNear, zFar);
+	}
+
+	@Override
+	public void glDrawElements (final int mode, final int count, final int type, final Buffer indices) {
+		flush();
+		super.glDrawElements(mode, count, type, indices);
+	}
+
+	@Override
+	public void glFinish () {
+		flush();
+		super.glFinish();
+	}
+
+	@Override
+	public void glFlush () {
+		flush();
+		super.glFlush();
+	}
+
+	@Override
+	public void glFrontFace (final int mode) {
+		flush();
+		super.glFrontFace(mode);
+	}
+
+	@Override
+	public void glGenTextures (final int n, final IntBuffer textures) {
+		flush();
+		super.glGenTextures(n, textures);
+	}
+
+	@Override
+	public int glGenTexture () {
+		flush();
+		return super.glGenTexture();
+	}
+
+	@Override
+	public int glGetError () {
+		flush();
+		return super.glGetError();
+	}
+
+	@Override
+	public void glGetIntegerv (final int pname, final IntBuffer params) {
+		flush();
+		super.glGetIntegerv(pname, params);
+	}
+
+	@Override
+	public String glGetString (final int name) {
+		flush();
+		return super.glGetString(name);
+	}
+
+	@Override
+	public void glHint (final int target, final int mode) {
+		flush();
+		super.glHint(target, mode);
+	}
+
+	@Override
+	public void glPixelStorei (final int pname, final int param) {
+		flush();
+		super.glPixelStorei(pname, param);
+	}
+
+	@Override
+	public void glPolygonOffset (final float factor, final float units) {
+		flush();
+		super.glPolygonOffset(factor, units);
+	}
+
+	@Override
+	public void glReadPixels (final int x, final int y, final int width, final int height, final int format, final int type,
+		final Buffer pixels) {
+		flush();
+		super.glReadPixels(x, y, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glStencilFunc (final int func, final int ref, final int mask) {
+		flush();
+		super.glStencilFunc(func, ref, mask);
+	}
+
+	@Override
+	public void glStencilMask (final int mask) {
+		flush();
+		super.glStencilMask(mask);
+	}
+
+	@Override
+	public void glStencilOp (final int fail, final int zfail, final int zpass) {
+		flush();
+		super.glStencilOp(fail, zfail, zpass);
+	}
+
+	@Override
+	public void glTexImage2D (final int target, final int level, final int internalformat, final int width, final int height,
+		final int border, final int format, final int type, final Buffer pixels) {
+		flush();
+		super.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage2D (final int target, final int level, final int internalformat, final int format, final int type,
+		final HTMLImageElement image) {
+		flush();
+		super.glTexImage2D(target, level, internalformat, format, type, image);
+	}
+
+	@Override
+	public void glTexParameterf (final int target, final int pname, final float param) {
+		flush();
+		super.glTexParameterf(target, pname, param);
+	}
+
+	@Override
+	public void glTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset, final int width,
+		final int height, final int format, final int type, final Buffer pixels) {
+		flush();
+		super.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glAttachShader (final int program, final int shader) {
+		flush();
+		super.glAttachShader(program, shader);
+	}
+
+	@Override
+	public void glBindAttribLocation (final int program, final int index, final String name) {
+		flush();
+		super.glBindAttribLocation(program, index, name);
+	}
+
+	@Override
+	public void glBindFramebuffer (final int target, final int framebuffer) {
+		flush();
+		super.glBindFramebuffer(target, framebuffer);
+	}
+
+	@Override
+	public void glBindRenderbuffer (final int target, final int renderbuffer) {
+		flush();
+		super.glBindRenderbuffer(target, renderbuffer);
+	}
+
+	@Override
+	public void glBlendColor (final float red, final float green, final float blue, final float alpha) {
+		flush();
+		super.glBlendColor(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glBlendEquationSeparate (final int modeRGB, final int modeAlpha) {
+		flush();
+		super.glBlendEquationSeparate(modeRGB, modeAlpha);
+	}
+
+	@Override
+	public void glBufferData (final int target, final int size, final Buffer data, final int usage) {
+		flush();
+		super.glBufferData(target, size, data, usage);
+	}
+
+	@Override
+	public void glBufferSubData (final int target, final int offset, final int size, final Buffer data) {
+		flush();
+		super.glBufferSubData(target, offset, size, data);
+	}
+
+	@Override
+	public int glCheckFramebufferStatus (final int target) {
+		flush();
+		return super.glCheckFramebufferStatus(target);
+	}
+
+	@Override
+	public void glCompileShader (final int shader) {
+		flush();
+		super.glCompileShader(shader);
+	}
+
+	@Override
+	public int glCreateProgram () {
+		flush();
+		return super.glCreateProgram();
+	}
+
+	@Override
+	public int glCreateShader (final int type) {
+		flush();
+		return super.glCreateShader(type);
+	}
+
+	@Override
+	public void glDeleteBuffers (final int n, final IntBuffer buffers) {
+		flush();
+		super.glDeleteBuffers(n, buffers);
+	}
+
+	@Override
+	public void glDeleteBuffer (final int id) {
+		flush();
+		super.glDeleteBuffer(id);
+	}
+
+	@Override
+	public void glDeleteFramebuffers (final int n, final IntBuffer framebuffers) {
+		flush();
+		super.glDeleteFramebuffers(n, framebuffers);
+	}
+
+	@Override
+	public void glDeleteFramebuffer (final int id) {
+		flush();
+		super.glDeleteFramebuffer(id);
+	}
+
+	@Override
+	public void glDeleteProgram (final int program) {
+		flush();
+		super.glDeleteProgram(program);
+	}
+
+	@Override
+	public void glDeleteRenderbuffers (final int n, final IntBuffer renderbuffers) {
+		flush();
+		super.glDeleteRenderbuffers(n, renderbuffers);
+	}
+
+	@Override
+	public void glDeleteRenderbuffer (final int id) {
+		flush();
+		super.glDeleteRenderbuffer(id);
+	}
+
+	@Override
+	public void glDeleteShader (final int shader) {
+		flush();
+		super.glDeleteShader(shader);
+	}
+
+	@Override
+	public void glDetachShader (final int program, final int shader) {
+		flush();
+		super.glDetachShader(program, shader);
+	}
+
+	@Override
+	public void glFramebufferRenderbuffer (final int target, final int attachment, final int renderbuffertarget,
+		final int renderbuffer) {
+		flush();
+		super.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+	}
+
+	@Override
+	public void glFramebufferTexture2D (final int target, final int attachment, final int textarget, final int texture,
+		final int level) {
+		flush();
+		super.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+
+	@Override
+	public void glGenBuffers (final int n, final IntBuffer buffers) {
+		flush();
+		super.glGenBuffers(n, buffers);
+	}
+
+	@Override
+	public int glGenBuffer () {
+		flush();
+		return super.glGenBuffer();
+	}
+
+	@Override
+	public void glGenerateMipmap (final int target) {
+		flush();
+		super.glGenerateMipmap(target);
+	}
+
+	@Override
+	public void glGenFramebuffers (final int n, final IntBuffer framebuffers) {
+		flush();
+		super.glGenFramebuffers(n, framebuffers);
+	}
+
+	@Override
+	public int glGenFramebuffer () {
+		flush();
+		return super.glGenFramebuffer();
+	}
+
+	@Override
+	public void glGenRenderbuffers (final int n, final IntBuffer renderbuffers) {
+		flush();
+		super.glGenRenderbuffers(n, renderbuffers);
+	}
+
+	@Override
+	public int glGenRenderbuffer () {
+		flush();
+		return super.glGenRenderbuffer();
+	}
+
+	@Override
+	public String glGetActiveAttrib (final int program, final int index, final IntBuffer size, final Buffer type) {
+		flush();
+		return super.glGetActiveAttrib(program, index, size, type);
+	}
+
+	@Override
+	public String glGetActiveUniform (final int program, final int index, final IntBuffer size, final Buffer type) {
+		flush();
+		return super.glGetActiveUniform(program, index, size, type);
+	}
+
+	@Override
+	public void glGetAttachedShaders (final int program, final int maxcount, final Buffer count, final IntBuffer shaders) {
+		flush();
+		super.glGetAttachedShaders(program, maxcount, count, shaders);
+	}
+
+	@Override
+	public int glGetAttribLocation (final int program, final String name) {
+		flush();
+		return super.glGetAttribLocation(program, name);
+	}
+
+	@Override
+	public void glGetBooleanv (final int pname, final Buffer params) {
+		flush();
+		super.glGetBooleanv(pname, params);
+	}
+
+	@Override
+	public void glGetBufferParameteriv (final int target, final int pname, final IntBuffer params) {
+		flush();
+		super.glGetBufferParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glGetFloatv (final int pname, final FloatBuffer params) {
+		flush();
+		super.glGetFloatv(pname, params);
+	}
+
+	@Override
+	public void glGetFramebufferAttachmentParameteriv (final int target, final int attachment, final int pname,
+		final IntBuffer params) {
+		flush();
+		super.glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
+	}
+
+	@Override
+	public void glGetProgramiv (final int program, final int pname, final IntBuffer params) {
+		flush();
+		super.glGetProgramiv(program, pname, params);
+	}
+
+	@Override
+	public String glGetProgramInfoLog (final int program) {
+		flush();
+		return super.glGetProgramInfoLog(program);
+	}
+
+	@Override
+	public void glGetRenderbufferParameteriv (final int target, final int pname, final IntBuffer params) {
+		flush();
+		super.glGetRenderbufferParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glGetShaderiv (final int shader, final int pname, final IntBuffer params) {
+		flush();
+		super.glGetShaderiv(shader, pname, params);
+	}
+
+	@Override
+	public String glGetShaderInfoLog (final int shader) {
+		flush();
+		return super.glGetShaderInfoLog(shader);
+	}
+
+	@Override
+	public void glGetShaderPrecisionFormat (final int shadertype, final int precisiontype, final IntBuffer range,
+		final IntBuffer precision) {
+		flush();
+		super.glGetShaderPrecisionFormat(shadertype, precisiontype, range, precision);
+	}
+
+	@Override
+	public void glGetTexParameterfv (final int target, final int pname, final FloatBuffer params) {
+		flush();
+		super.glGetTexParameterfv(target, pname, params);
+	}
+
+	@Override
+	public void glGetTexParameteriv (final int target, final int pname, final IntBuffer params) {
+		flush();
+		super.glGetTexParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glGetUniformfv (final int program, final int location, final FloatBuffer params) {
+		flush();
+		super.glGetUniformfv(program, location, params);
+	}
+
+	@Override
+	public void glGetUniformiv (final int program, final int location, final IntBuffer params) {
+		flush();
+		super.glGetUniformiv(program, location, params);
+	}
+
+	@Override
+	public int glGetUniformLocation (final int program, final String name) {
+		flush();
+		return super.glGetUniformLocation(program, name);
+	}
+
+	@Override
+	public void glGetVertexAttribfv (final int index, final int pname, final FloatBuffer params) {
+		flush();
+		super.glGetVertexAttribfv(index, pname, params);
+	}
+
+	@Override
+	public void glGetVertexAttribiv (final int index, final int pname, final IntBuffer params) {
+		flush();
+		super.glGetVertexAttribiv(index, pname, params);
+	}
+
+	@Override
+	public void glGetVertexAttribPointerv (final int index, final int pname, final Buffer pointer) {
+		flush();
+		super.glGetVertexAttribPointerv(index, pname, pointer);
+	}
+
+	@Override
+	public boolean glIsBuffer (final int buffer) {
+		flush();
+		return super.glIsBuffer(buffer);
+	}
+
+	@Override
+	public boolean glIsEnabled (final int cap) {
+		flush();
+		return super.glIsEnabled(cap);
+	}
+
+	@Override
+	public boolean glIsFramebuffer (final int framebuffer) {
+		flush();
+		return super.glIsFramebuffer(framebuffer);
+	}
+
+	@Override
+	public boolean glIsProgram (final int program) {
+		flush();
+		return super.glIsProgram(program);
+	}
+
+	@Override
+	public boolean glIsRenderbuffer (final int renderbuffer) {
+		flush();
+		return super.glIsRenderbuffer(renderbuffer);
+	}
+
+	@Override
+	public boolean glIsShader (final int shader) {
+		flush();
+		return super.glIsShader(shader);
+	}
+
+	@Override
+	public boolean glIsTexture (final int texture) {
+		flush();
+		return super.glIsTexture(texture);
+	}
+
+	@Override
+	public void glLinkProgram (final int program) {
+		flush();
+		super.glLinkProgram(program);
+	}
+
+	@Override
+	public void glReleaseShaderCompiler () {
+		flush();
+		super.glReleaseShaderCompiler();
+	}
+
+	@Override
+	public void glRenderbufferStorage (final int target, final int internalformat, final int width, final int height) {
+		flush();
+		super.glRenderbufferStorage(target, internalformat, width, height);
+	}
+
+	@Override
+	public void glSampleCoverage (final float value, final boolean invert) {
+		flush();
+		super.glSampleCoverage(value, invert);
+	}
+
+	@Override
+	public void glShaderBinary (final int n, final IntBuffer shaders, final int binaryformat, final Buffer binary,
+		final int length) {
+		flush();
+		super.glShaderBinary(n, shaders, binaryformat, binary, length);
+	}
+
+	@Override
+	public void glShaderSource (final int shader, final String source) {
+		flush();
+		super.glShaderSource(shader, source);
+	}
+
+	@Override
+	public void glStencilFuncSeparate (final int face, final int func, final int ref, final int mask) {
+		flush();
+		super.glStencilFuncSeparate(face, func, ref, mask);
+	}
+
+	@Override
+	public void glStencilMaskSeparate (final int face, final int mask) {
+		flush();
+		super.glStencilMaskSeparate(face, mask);
+	}
+
+	@Override
+	public void glStencilOpSeparate (final int face, final int fail, final int zfail, final int zpass) {
+		flush();
+		super.glStencilOpSeparate(face, fail, zfail, zpass);
+	}
+
+	@Override
+	public void glTexParameterfv (final int target, final int pname, final FloatBuffer params) {
+		flush();
+		super.glTexParameterfv(target, pname, params);
+	}
+
+	@Override
+	public void glTexParameteriv (final int target, final int pname, final IntBuffer params) {
+		flush();
+		super.glTexParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glUniform1fv (final int location, final int count, final FloatBuffer v) {
+		flush();
+		super.glUniform1fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform1fv (final int location, final int count, final float[] v, final int offset) {
+		flush();
+		super.glUniform1fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform1iv (final int location, final int count, final IntBuffer v) {
+		flush();
+		super.glUniform1iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform1iv (final int location, final int count, final int[] v, final int offset) {
+		flush();
+		super.glUniform1iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform2fv (final int location, final int count, final FloatBuffer v) {
+		flush();
+		super.glUniform2fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform2fv (final int location, final int count, final float[] v, final int offset) {
+		flush();
+		super.glUniform2fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform2i (final int location, final int x, final int y) {
+		flush();
+		super.glUniform2i(location, x, y);
+	}
+
+	@Override
+	public void glUniform2iv (final int location, final int count, final IntBuffer v) {
+		flush();
+		super.glUniform2iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform2iv (final int location, final int count, final int[] v, final int offset) {
+		flush();
+		super.glUniform2iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform3fv (final int location, final int count, final FloatBuffer v) {
+		flush();
+		super.glUniform3fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform3fv (final int location, final int count, final float[] v, final int offset) {
+		flush();
+		super.glUniform3fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform3i (final int location, final int x, final int y, final int z) {
+		flush();
+		super.glUniform3i(location, x, y, z);
+	}
+
+	@Override
+	public void glUniform3iv (final int location, final int count, final IntBuffer v) {
+		flush();
+		super.glUniform3iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform3iv (final int location, final int count, final int[] v, final int offset) {
+		flush();
+		super.glUniform3iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform4fv (final int location, final int count, final FloatBuffer v) {
+		flush();
+		super.glUniform4fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform4fv (final int location, final int count, final float[] v, final int offset) {
+		flush();
+		super.glUniform4fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform4i (final int location, final int x, final int y, final int z, final int w) {
+		flush();
+		super.glUniform4i(location, x, y, z, w);
+	}
+
+	@Override
+	public void glUniform4iv (final int location, final int count, final IntBuffer v) {
+		flush();
+		super.glUniform4iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform4iv (final int location, final int count, final int[] v, final int offset) {
+		flush();
+		super.glUniform4iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniformMatrix2fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		flush();
+		super.glUniformMatrix2fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix2fv (final int location, final int count, final boolean transpose, final float[] value,
+		final int offset) {
+		flush();
+		super.glUniformMatrix2fv(location, count, transpose, value, offset);
+	}
+
+	@Override
+	public void glValidateProgram (final int program) {
+		flush();
+		super.glValidateProgram(program);
+	}
+
+	@Override
+	public void glVertexAttrib1f (final int indx, final float x) {
+		flush();
+		super.glVertexAttrib1f(indx, x);
+	}
+
+	@Override
+	public void glVertexAttrib1fv (final int indx, final FloatBuffer values) {
+		flush();
+		super.glVertexAttrib1fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttrib2f (final int indx, final float x, final float y) {
+		flush();
+		super.glVertexAttrib2f(indx, x, y);
+	}
+
+	@Override
+	public void glVertexAttrib2fv (final int indx, final FloatBuffer values) {
+		flush();
+		super.glVertexAttrib2fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttrib3f (final int indx, final float x, final float y, final float z) {
+		flush();
+		super.glVertexAttrib3f(indx, x, y, z);
+	}
+
+	@Override
+	public void glVertexAttrib3fv (final int indx, final FloatBuffer values) {
+		flush();
+		super.glVertexAttrib3fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttrib4f (final int indx, final float x, final float y, final float z, final float w) {
+		flush();
+		super.glVertexAttrib4f(indx, x, y, z, w);
+	}
+
+	@Override
+	public void glVertexAttrib4fv (final int indx, final FloatBuffer values) {
+		flush();
+		super.glVertexAttrib4fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
+		final Buffer ptr) {
+		flush();
+		super.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+	}
+
+	@Override
+	public int glGenVertexArray () {
+		flush();
+		return super.glGenVertexArray();
+	}
+
+	@Override
+	public void glBindVertexArray (final int array) {
+		flush();
+		super.glBindVertexArray(array);
+	}
+
+	@Override
+	public void glDeleteVertexArray (final int array) {
+		flush();
+		super.glDeleteVertexArray(array);
+	}
+
+	@Override
+	public void glVertexAttribDivisor (final int index, final int divisor) {
+		flush();
+		super.glVertexAttribDivisor(index, divisor);
+	}
+
+	@Override
+	public void glDrawArraysInstanced (final int mode, final int first, final int count, final int instanceCount) {
+		flush();
+		super.glDrawArraysInstanced(mode, first, count, instanceCount);
+	}
+
+	@Override
+	public void glDrawElementsInstanced (final int mode, final int count, final int type, final int indicesOffset,
+		final int instanceCount) {
+		flush();
+		super.glDrawElementsInstanced(mode, count, type, indicesOffset, instanceCount);
+	}
+
+	@Override
+	public void beginTimerQuery (final JSObject query) {
+		flush();
+		super.beginTimerQuery(query);
+	}
+
+	@Override
+	public void endTimerQuery () {
+		flush();
+		super.endTimerQuery();
+	}
+}
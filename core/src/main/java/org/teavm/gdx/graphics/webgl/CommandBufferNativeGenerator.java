@@ -0,0 +1,71 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.io.IOException;
+
+import org.teavm.codegen.SourceWriter;
+import org.teavm.javascript.spi.Generator;
+import org.teavm.javascript.spi.GeneratorContext;
+import org.teavm.model.MethodReference;
+
+/** Generates the decoder of {@link GLCommandBuffer} streams used by {@link CommandBufferGL20}: a single loop dispatching all
+ * recorded commands to the WebGL context. Streams are read directly from the "data" arrays TeaVM keeps primitive and object
+ * array content in, so nothing is copied. Matrix uniforms are uploaded through reused Float32Arrays kept in the scratch
+ * object. */
+public class CommandBufferNativeGenerator implements Generator {
+	@Override
+	public void generate (final GeneratorContext context, final SourceWriter writer, final MethodReference methodRef)
+		throws IOException {
+		final String gl = context.getParameterName(1);
+		writer.append("var i = " + context.getParameterName(2) + ".data, f = " + context.getParameterName(3) + ".data, o = "
+			+ context.getParameterName(4) + ".data, n = " + context.getParameterName(5) + ", s = "
+			+ context.getParameterName(6) + ";").softNewLine();
+		writer.append("var p = 0, q = 0, r = 0, k, m, a;").softNewLine();
+		writer.append("while (p < n) {").indent().softNewLine();
+		writer.append("switch (i[p++]) {").softNewLine();
+		command(writer, GLCommandBuffer.ACTIVE_TEXTURE, gl + ".activeTexture(i[p++]);");
+		command(writer, GLCommandBuffer.BIND_TEXTURE, gl + ".bindTexture(i[p], o[r++]); p += 2;");
+		command(writer, GLCommandBuffer.BIND_BUFFER, gl + ".bindBuffer(i[p], o[r++]); p += 2;");
+		command(writer, GLCommandBuffer.USE_PROGRAM, gl + ".useProgram(o[r++]); p++;");
+		command(writer, GLCommandBuffer.ENABLE, gl + ".enable(i[p++]);");
+		command(writer, GLCommandBuffer.DISABLE, gl + ".disable(i[p++]);");
+		command(writer, GLCommandBuffer.BLEND_FUNC, gl + ".blendFunc(i[p], i[p + 1]); p += 2;");
+		command(writer, GLCommandBuffer.BLEND_FUNC_SEPARATE,
+			gl + ".blendFuncSeparate(i[p], i[p + 1], i[p + 2], i[p + 3]); p += 4;");
+		command(writer, GLCommandBuffer.BLEND_EQUATION, gl + ".blendEquation(i[p++]);");
+		command(writer, GLCommandBuffer.DEPTH_MASK, gl + ".depthMask(i[p++] !== 0);");
+		command(writer, GLCommandBuffer.DEPTH_FUNC, gl + ".depthFunc(i[p++]);");
+		command(writer, GLCommandBuffer.CULL_FACE, gl + ".cullFace(i[p++]);");
+		command(writer, GLCommandBuffer.COLOR_MASK,
+			gl + ".colorMask(i[p] !== 0, i[p + 1] !== 0, i[p + 2] !== 0, i[p + 3] !== 0); p += 4;");
+		command(writer, GLCommandBuffer.VIEWPORT, gl + ".viewport(i[p], i[p + 1], i[p + 2], i[p + 3]); p += 4;");
+		command(writer, GLCommandBuffer.SCISSOR, gl + ".scissor(i[p], i[p + 1], i[p + 2], i[p + 3]); p += 4;");
+		command(writer, GLCommandBuffer.CLEAR, gl + ".clear(i[p++]);");
+		command(writer, GLCommandBuffer.CLEAR_COLOR, gl + ".clearColor(f[q], f[q + 1], f[q + 2], f[q + 3]); q += 4;");
+		command(writer, GLCommandBuffer.ENABLE_VERTEX_ATTRIB_ARRAY, gl + ".enableVertexAttribArray(i[p++]);");
+		command(writer, GLCommandBuffer.DISABLE_VERTEX_ATTRIB_ARRAY, gl + ".disableVertexAttribArray(i[p++]);");
+		command(writer, GLCommandBuffer.VERTEX_ATTRIB_POINTER,
+			gl + ".vertexAttribPointer(i[p], i[p + 1], i[p + 2], i[p + 3] !== 0, i[p + 4], i[p + 5]); p += 6;");
+		command(writer, GLCommandBuffer.DRAW_ARRAYS, gl + ".drawArrays(i[p], i[p + 1], i[p + 2]); p += 3;");
+		command(writer, GLCommandBuffer.DRAW_ELEMENTS, gl + ".drawElements(i[p], i[p + 1], i[p + 2], i[p + 3]); p += 4;");
+		command(writer, GLCommandBuffer.TEX_PARAMETERI, gl + ".texParameteri(i[p], i[p + 1], i[p + 2]); p += 3;");
+		command(writer, GLCommandBuffer.LINE_WIDTH, gl + ".lineWidth(f[q++]);");
+		command(writer, GLCommandBuffer.UNIFORM_1I, gl + ".uniform1i(o[r++], i[p + 1]); p += 2;");
+		command(writer, GLCommandBuffer.UNIFORM_1F, gl + ".uniform1f(o[r++], f[q]); p++; q++;");
+		command(writer, GLCommandBuffer.UNIFORM_2F, gl + ".uniform2f(o[r++], f[q], f[q + 1]); p++; q += 2;");
+		command(writer, GLCommandBuffer.UNIFORM_3F, gl + ".uniform3f(o[r++], f[q], f[q + 1], f[q + 2]); p++; q += 3;");
+		command(writer, GLCommandBuffer.UNIFORM_4F, gl + ".uniform4f(o[r++], f[q], f[q + 1], f[q + 2], f[q + 3]); p++; q += 4;");
+		command(writer, GLCommandBuffer.UNIFORM_MATRIX_3FV, matrix(gl, "uniformMatrix3fv"));
+		command(writer, GLCommandBuffer.UNIFORM_MATRIX_4FV, matrix(gl, "uniformMatrix4fv"));
+		writer.append("}").softNewLine();
+		writer.outdent().append("}").softNewLine();
+	}
+
+	private static void command (final SourceWriter writer, final int opcode, final String body) throws IOException {
+		writer.append("case " + opcode + ": " + body + " break;").softNewLine();
+	}
+
+	private static String matrix (final String gl, final String method) {
+		return "m = i[p + 2]; a = s[m] || (s[m] = new Float32Array(m)); for (k = 0; k < m; k++) { a[k] = f[q++]; } " + gl + "."
+			+ method + "(o[r++], i[p + 1] !== 0, a); p += 3;";
+	}
+}
@@ -0,0 +1,27 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSMethod;
+import org.teavm.jso.JSObject;
+
+/** EXT_disjoint_timer_query WebGL1 extension, obtained with getExtension("EXT_disjoint_timer_query"). With WebGL2,
+ * EXT_disjoint_timer_query_webgl2 extension enables the same constants for the native query functions. */
+public interface EXTDisjointTimerQuery extends JSObject {
+	int QUERY_RESULT_EXT = 0x8866;
+	int QUERY_RESULT_AVAILABLE_EXT = 0x8867;
+	int TIME_ELAPSED_EXT = 0x88BF;
+	int GPU_DISJOINT_EXT = 0x8FBB;
+
+	JSObject createQueryEXT ();
+
+	void deleteQueryEXT (JSObject query);
+
+	void beginQueryEXT (int target, JSObject query);
+
+	void endQueryEXT (int target);
+
+	@JSMethod("getQueryObjectEXT")
+	boolean getQueryObjectb (JSObject query, int pname);
+
+	@JSMethod("getQueryObjectEXT")
+	double getQueryObjectd (JSObject query, int pname);
+}
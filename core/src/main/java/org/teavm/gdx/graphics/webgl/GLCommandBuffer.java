@@ -0,0 +1,610 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Records GL calls into a primitive command stream. Each command is an opcode followed by its integer arguments in the int
+ * stream; float arguments go to the float stream and WebGL objects (programs, buffers, textures, uniform locations) to the
+ * object side table. Commands referencing objects also keep their integer IDs, so the stream can be replayed either on a
+ * WebGL context - see {@link CommandBufferNativeGenerator} - or on any {@link GL20} implementation with {@link #replay(GL20)}.
+ * <p>
+ * Does not depend on the browser: it can be filled and replayed on the JVM with a recording stand-in for the context. */
+public class GLCommandBuffer {
+	/** Initial size of the int stream. Float stream and side table start at a quarter of this size. */
+	public static final int INITIAL_CAPACITY = 1024;
+
+	/** Opcode. Ints: texture. */
+	public static final int ACTIVE_TEXTURE = 1;
+	/** Opcode. Ints: target, texture ID. Objects: texture. */
+	public static final int BIND_TEXTURE = 2;
+	/** Opcode. Ints: target, buffer ID. Objects: buffer. */
+	public static final int BIND_BUFFER = 3;
+	/** Opcode. Ints: program ID. Objects: program. */
+	public static final int USE_PROGRAM = 4;
+	/** Opcode. Ints: capability. */
+	public static final int ENABLE = 5;
+	/** Opcode. Ints: capability. */
+	public static final int DISABLE = 6;
+	/** Opcode. Ints: source factor, destination factor. */
+	public static final int BLEND_FUNC = 7;
+	/** Opcode. Ints: RGB source factor, RGB destination factor, alpha source factor, alpha destination factor. */
+	public static final int BLEND_FUNC_SEPARATE = 8;
+	/** Opcode. Ints: mode. */
+	public static final int BLEND_EQUATION = 9;
+	/** Opcode. Ints: flag (0 or 1). */
+	public static final int DEPTH_MASK = 10;
+	/** Opcode. Ints: function. */
+	public static final int DEPTH_FUNC = 11;
+	/** Opcode. Ints: mode. */
+	public static final int CULL_FACE = 12;
+	/** Opcode. Ints: red, green, blue, alpha flags (0 or 1). */
+	public static final int COLOR_MASK = 13;
+	/** Opcode. Ints: x, y, width, height. */
+	public static final int VIEWPORT = 14;
+	/** Opcode. Ints: x, y, width, height. */
+	public static final int SCISSOR = 15;
+	/** Opcode. Ints: mask. */
+	public static final int CLEAR = 16;
+	/** Opcode. Floats: red, green, blue, alpha. */
+	public static final int CLEAR_COLOR = 17;
+	/** Opcode. Ints: attribute index. */
+	public static final int ENABLE_VERTEX_ATTRIB_ARRAY = 18;
+	/** Opcode. Ints: attribute index. */
+	public static final int DISABLE_VERTEX_ATTRIB_ARRAY = 19;
+	/** Opcode. Ints: attribute index, size, type, normalized flag (0 or 1), stride, offset. */
+	public static final int VERTEX_ATTRIB_POINTER = 20;
+	/** Opcode. Ints: mode, first, count. */
+	public static final int DRAW_ARRAYS = 21;
+	/** Opcode. Ints: mode, count, type, offset. */
+	public static final int DRAW_ELEMENTS = 22;
+	/** Opcode. Ints: target, parameter name, value. */
+	public static final int TEX_PARAMETERI = 23;
+	/** Opcode. Floats: width. */
+	public static final int LINE_WIDTH = 24;
+	/** Opcode. Ints: location ID, value. Objects: location. */
+	public static final int UNIFORM_1I = 25;
+	/** Opcode. Ints: location ID. Floats: x. Objects: location. */
+	public static final int UNIFORM_1F = 26;
+	/** Opcode. Ints: location ID. Floats: x, y. Objects: location. */
+	public static final int UNIFORM_2F = 27;
+	/** Opcode. Ints: location ID. Floats: x, y, z. Objects: location. */
+	public static final int UNIFORM_3F = 28;
+	/** Opcode. Ints: location ID. Floats: x, y, z, w. Objects: location. */
+	public static final int UNIFORM_4F = 29;
+	/** Opcode. Ints: location ID, transpose flag (0 or 1), amount of floats. Floats: matrix values. Objects: location. */
+	public static final int UNIFORM_MATRIX_3FV = 30;
+	/** Opcode. Ints: location ID, transpose flag (0 or 1), amount of floats. Floats: matrix values. Objects: location. */
+	public static final int UNIFORM_MATRIX_4FV = 31;
+
+	private int[] ints = new int[INITIAL_CAPACITY];
+	private float[] floats = new float[INITIAL_CAPACITY >> 2];
+	private Object[] objects = new Object[INITIAL_CAPACITY >> 2];
+	private int intCount;
+	private int floatCount;
+	private int objectCount;
+	private int commandCount;
+
+	/** @return stream of opcodes and integer arguments. Valid up to {@link #getIntCount()}. Replaced when the stream grows. */
+	public int[] getInts () {
+		return ints;
+	}
+
+	/** @return stream of float arguments. Valid up to {@link #getFloatCount()}. Replaced when the stream grows. */
+	public float[] getFloats () {
+		return floats;
+	}
+
+	/** @return side table of referenced objects. Valid up to {@link #getObjectCount()}. Replaced when the table grows. */
+	public Object[] getObjects () {
+		return objects;
+	}
+
+	/** @return amount of used elements in the int stream. */
+	public int getIntCount () {
+		return intCount;
+	}
+
+	/** @return amount of used elements in the float stream. */
+	public int getFloatCount () {
+		return floatCount;
+	}
+
+	/** @return amount of used elements in the object side table. */
+	public int getObjectCount () {
+		return objectCount;
+	}
+
+	/** @return amount of commands recorded since the last {@link #clear()}. */
+	public int getCommandCount () {
+		return commandCount;
+	}
+
+	/** @return true if no commands were recorded since the last {@link #clear()}. */
+	public boolean isEmpty () {
+		return commandCount == 0;
+	}
+
+	/** Removes all recorded commands. Clears references to the recorded objects. */
+	public void clear () {
+		Arrays.fill(objects, 0, objectCount, null);
+		intCount = 0;
+		floatCount = 0;
+		objectCount = 0;
+		commandCount = 0;
+	}
+
+	private void begin (final int opcode, final int intArguments) {
+		final int required = intCount + intArguments + 1;
+		if (required > ints.length) {
+			ints = Arrays.copyOf(ints, Math.max(ints.length << 1, required));
+		}
+		ints[intCount++] = opcode;
+		commandCount++;
+	}
+
+	private void ensureFloats (final int amount) {
+		final int required = floatCount + amount;
+		if (required > floats.length) {
+			floats = Arrays.copyOf(floats, Math.max(floats.length << 1, required));
+		}
+	}
+
+	private void putObject (final Object object) {
+		if (objectCount == objects.length) {
+			objects = Arrays.copyOf(objects, objects.length << 1);
+		}
+		objects[objectCount++] = object;
+	}
+
+	private static int toInt (final boolean flag) {
+		return flag ? 1 : 0;
+	}
+
+	/** @param texture texture unit. */
+	public void activeTexture (final int texture) {
+		begin(ACTIVE_TEXTURE, 1);
+		ints[intCount++] = texture;
+	}
+
+	/** @param target texture target.
+	 * @param textureId ID of the texture.
+	 * @param texture resolved texture object. */
+	public void bindTexture (final int target, final int textureId, final Object texture) {
+		begin(BIND_TEXTURE, 2);
+		ints[intCount++] = target;
+		ints[intCount++] = textureId;
+		putObject(texture);
+	}
+
+	/** @param target buffer target.
+	 * @param bufferId ID of the buffer.
+	 * @param buffer resolved buffer object. */
+	public void bindBuffer (final int target, final int bufferId, final Object buffer) {
+		begin(BIND_BUFFER, 2);
+		ints[intCount++] = target;
+		ints[intCount++] = bufferId;
+		putObject(buffer);
+	}
+
+	/** @param programId ID of the program.
+	 * @param program resolved program object. */
+	public void useProgram (final int programId, final Object program) {
+		begin(USE_PROGRAM, 1);
+		ints[intCount++] = programId;
+		putObject(program);
+	}
+
+	/** @param cap capability. */
+	public void enable (final int cap) {
+		begin(ENABLE, 1);
+		ints[intCount++] = cap;
+	}
+
+	/** @param cap capability. */
+	public void disable (final int cap) {
+		begin(DISABLE, 1);
+		ints[intCount++] = cap;
+	}
+
+	/** @param sfactor source factor.
+	 * @param dfactor destination factor. */
+	public void blendFunc (final int sfactor, final int dfactor) {
+		begin(BLEND_FUNC, 2);
+		ints[intCount++] = sfactor;
+		ints[intCount++] = dfactor;
+	}
+
+	/** @param srcRGB RGB source factor.
+	 * @param dstRGB RGB destination factor.
+	 * @param srcAlpha alpha source factor.
+	 * @param dstAlpha alpha destination factor. */
+	public void blendFuncSeparate (final int srcRGB, final int dstRGB, final int srcAlpha, final int dstAlpha) {
+		begin(BLEND_FUNC_SEPARATE, 4);
+		ints[intCount++] = srcRGB;
+		ints[intCount++] = dstRGB;
+		ints[intCount++] = srcAlpha;
+		ints[intCount++] = dstAlpha;
+	}
+
+	/** @param mode blend equation. */
+	public void blendEquation (final int mode) {
+		begin(BLEND_EQUATION, 1);
+		ints[intCount++] = mode;
+	}
+
+	/** @param flag true to enable writing to the depth buffer. */
+	public void depthMask (final boolean flag) {
+		begin(DEPTH_MASK, 1);
+		ints[intCount++] = toInt(flag);
+	}
+
+	/** @param func depth comparison function. */
+	public void depthFunc (final int func) {
+		begin(DEPTH_FUNC, 1);
+		ints[intCount++] = func;
+	}
+
+	/** @param mode culled faces. */
+	public void cullFace (final int mode) {
+		begin(CULL_FACE, 1);
+		ints[intCount++] = mode;
+	}
+
+	/** @param red true to enable writing of the red component.
+	 * @param green true to enable writing of the green component.
+	 * @param blue true to enable writing of the blue component.
+	 * @param alpha true to enable writing of the alpha component. */
+	public void colorMask (final boolean red, final boolean green, final boolean blue, final boolean alpha) {
+		begin(COLOR_MASK, 4);
+		ints[intCount++] = toInt(red);
+		ints[intCount++] = toInt(green);
+		ints[intCount++] = toInt(blue);
+		ints[intCount++] = toInt(alpha);
+	}
+
+	/** @param x left edge.
+	 * @param y bottom edge.
+	 * @param width viewport width.
+	 * @param height viewport height. */
+	public void viewport (final int x, final int y, final int width, final int height) {
+		begin(VIEWPORT, 4);
+		ints[intCount++] = x;
+		ints[intCount++] = y;
+		ints[intCount++] = width;
+		ints[intCount++] = height;
+	}
+
+	/** @param x left edge.
+	 * @param y bottom edge.
+	 * @param width scissor box width.
+	 * @param height scissor box height. */
+	public void scissor (final int x, final int y, final int width, final int height) {
+		begin(SCISSOR, 4);
+		ints[intCount++] = x;
+		ints[intCount++] = y;
+		ints[intCount++] = width;
+		ints[intCount++] = height;
+	}
+
+	/** @param mask cleared buffers. */
+	public void clear (final int mask) {
+		begin(CLEAR, 1);
+		ints[intCount++] = mask;
+	}
+
+	/** @param red red component.
+	 * @param green green component.
+	 * @param blue blue component.
+	 * @param alpha alpha component. */
+	public void clearColor (final float red, final float green, final float blue, final float alpha) {
+		begin(CLEAR_COLOR, 0);
+		ensureFloats(4);
+		floats[floatCount++] = red;
+		floats[floatCount++] = green;
+		floats[floatCount++] = blue;
+		floats[floatCount++] = alpha;
+	}
+
+	/** @param index attribute index. */
+	public void enableVertexAttribArray (final int index) {
+		begin(ENABLE_VERTEX_ATTRIB_ARRAY, 1);
+		ints[intCount++] = index;
+	}
+
+	/** @param index attribute index. */
+	public void disableVertexAttribArray (final int index) {
+		begin(DISABLE_VERTEX_ATTRIB_ARRAY, 1);
+		ints[intCount++] = index;
+	}
+
+	/** @param indx attribute index.
+	 * @param size amount of components.
+	 * @param type component type.
+	 * @param normalized true if values should be normalized.
+	 * @param stride distance between attributes in bytes.
+	 * @param ptr offset in the bound array buffer. */
+	public void vertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
+		final int ptr) {
+		begin(VERTEX_ATTRIB_POINTER, 6);
+		ints[intCount++] = indx;
+		ints[intCount++] = size;
+		ints[intCount++] = type;
+		ints[intCount++] = toInt(normalized);
+		ints[intCount++] = stride;
+		ints[intCount++] = ptr;
+	}
+
+	/** @param mode primitive type.
+	 * @param first index of the first vertex.
+	 * @param count amount of vertices. */
+	public void drawArrays (final int mode, final int first, final int count) {
+		begin(DRAW_ARRAYS, 3);
+		ints[intCount++] = mode;
+		ints[intCount++] = first;
+		ints[intCount++] = count;
+	}
+
+	/** @param mode primitive type.
+	 * @param count amount of indices.
+	 * @param type index type.
+	 * @param indices offset in the bound element array buffer. */
+	public void drawElements (final int mode, final int count, final int type, final int indices) {
+		begin(DRAW_ELEMENTS, 4);
+		ints[intCount++] = mode;
+		ints[intCount++] = count;
+		ints[intCount++] = type;
+		ints[intCount++] = indices;
+	}
+
+	/** @param target texture target.
+	 * @param pname parameter name.
+	 * @param param parameter value. */
+	public void texParameteri (final int target, final int pname, final int param) {
+		begin(TEX_PARAMETERI, 3);
+		ints[intCount++] = target;
+		ints[intCount++] = pname;
+		ints[intCount++] = param;
+	}
+
+	/** @param width line width. */
+	public void lineWidth (final float width) {
+		begin(LINE_WIDTH, 0);
+		ensureFloats(1);
+		floats[floatCount++] = width;
+	}
+
+	/** @param locationId ID of the uniform location.
+	 * @param location resolved uniform location.
+	 * @param x uniform value. */
+	public void uniform1i (final int locationId, final Object location, final int x) {
+		begin(UNIFORM_1I, 2);
+		ints[intCount++] = locationId;
+		ints[intCount++] = x;
+		putObject(location);
+	}
+
+	/** @param locationId ID of the uniform location.
+	 * @param location resolved uniform location.
+	 * @param x uniform value. */
+	public void uniform1f (final int locationId, final Object location, final float x) {
+		begin(UNIFORM_1F, 1);
+		ints[intCount++] = locationId;
+		ensureFloats(1);
+		floats[floatCount++] = x;
+		putObject(location);
+	}
+
+	/** @param locationId ID of the uniform location.
+	 * @param location resolved uniform location.
+	 * @param x first component.
+	 * @param y second component. */
+	public void uniform2f (final int locationId, final Object location, final float x, final float y) {
+		begin(UNIFORM_2F, 1);
+		ints[intCount++] = locationId;
+		ensureFloats(2);
+		floats[floatCount++] = x;
+		floats[floatCount++] = y;
+		putObject(location);
+	}
+
+	/** @param locationId ID of the uniform location.
+	 * @param location resolved uniform location.
+	 * @param x first component.
+	 * @param y second component.
+	 * @param z third component. */
+	public void uniform3f (final int locationId, final Object location, final float x, final float y, final float z) {
+		begin(UNIFORM_3F, 1);
+		ints[intCount++] = locationId;
+		ensureFloats(3);
+		floats[floatCount++] = x;
+		floats[floatCount++] = y;
+		floats[floatCount++] = z;
+		putObject(location);
+	}
+
+	/** @param locationId ID of the uniform location.
+	 * @param location resolved uniform location.
+	 * @param x first component.
+	 * @param y second component.
+	 * @param z third component.
+	 * @param w fourth component. */
+	public void uniform4f (final int locationId, final Object location, final float x, final float y, final float z,
+		final float w) {
+		begin(UNIFORM_4F, 1);
+		ints[intCount++] = locationId;
+		ensureFloats(4);
+		floats[floatCount++] = x;
+		floats[floatCount++] = y;
+		floats[floatCount++] = z;
+		floats[floatCount++] = w;
+		putObject(location);
+	}
+
+	/** @param opcode {@link #UNIFORM_MATRIX_3FV} or {@link #UNIFORM_MATRIX_4FV}.
+	 * @param locationId ID of the uniform location.
+	 * @param location resolved uniform location.
+	 * @param transpose transpose flag.
+	 * @param value contains matrix values.
+	 * @param offset index of the first value.
+	 * @param length amount of values. */
+	public void uniformMatrixfv (final int opcode, final int locationId, final Object location, final boolean transpose,
+		final float[] value, final int offset, final int length) {
+		beginUniformMatrix(opcode, locationId, location, transpose, length);
+		System.arraycopy(value, offset, floats, floatCount, length);
+		floatCount += length;
+	}
+
+	/** @param opcode {@link #UNIFORM_MATRIX_3FV} or {@link #UNIFORM_MATRIX_4FV}.
+	 * @param locationId ID of the uniform location.
+	 * @param location resolved uniform location.
+	 * @param transpose transpose flag.
+	 * @param value its remaining elements are matrix values. Position is not modified. */
+	public void uniformMatrixfv (final int opcode, final int locationId, final Object location, final boolean transpose,
+		final FloatBuffer value) {
+		final int position = value.position();
+		final int length = value.limit() - position;
+		beginUniformMatrix(opcode, locationId, location, transpose, length);
+		for (int index = 0; index < length; index++) {
+			floats[floatCount++] = value.get(position + index);
+		}
+	}
+
+	private void beginUniformMatrix (final int opcode, final int locationId, final Object location, final boolean transpose,
+		final int length) {
+		begin(opcode, 3);
+		ints[intCount++] = locationId;
+		ints[intCount++] = toInt(transpose);
+		ints[intCount++] = length;
+		ensureFloats(length);
+		putObject(location);
+	}
+
+	/** Replays recorded commands using integer IDs instead of the resolved objects. Does not clear the buffer.
+	 * @param gl receives the recorded calls. */
+	public void replay (final GL20 gl) {
+		int i = 0;
+		int f = 0;
+		while (i < intCount) {
+			switch (ints[i++]) {
+			case ACTIVE_TEXTURE:
+				gl.glActiveTexture(ints[i++]);
+				break;
+			case BIND_TEXTURE:
+				gl.glBindTexture(ints[i], ints[i + 1]);
+				i += 2;
+				break;
+			case BIND_BUFFER:
+				gl.glBindBuffer(ints[i], ints[i + 1]);
+				i += 2;
+				break;
+			case USE_PROGRAM:
+				gl.glUseProgram(ints[i++]);
+				break;
+			case ENABLE:
+				gl.glEnable(ints[i++]);
+				break;
+			case DISABLE:
+				gl.glDisable(ints[i++]);
+				break;
+			case BLEND_FUNC:
+				gl.glBlendFunc(ints[i], ints[i + 1]);
+				i += 2;
+				break;
+			case BLEND_FUNC_SEPARATE:
+				gl.glBlendFuncSeparate(ints[i], ints[i + 1], ints[i + 2], ints[i + 3]);
+				i += 4;
+				break;
+			case BLEND_EQUATION:
+				gl.glBlendEquation(ints[i++]);
+				break;
+			case DEPTH_MASK:
+				gl.glDepthMask(ints[i++] != 0);
+				break;
+			case DEPTH_FUNC:
+				gl.glDepthFunc(ints[i++]);
+				break;
+			case CULL_FACE:
+				gl.glCullFace(ints[i++]);
+				break;
+			case COLOR_MASK:
+				gl.glColorMask(ints[i] != 0, ints[i + 1] != 0, ints[i + 2] != 0, ints[i + 3] != 0);
+				i += 4;
+				break;
+			case VIEWPORT:
+				gl.glViewport(ints[i], ints[i + 1], ints[i + 2], ints[i + 3]);
+				i += 4;
+				break;
+			case SCISSOR:
+				gl.glScissor(ints[i], ints[i + 1], ints[i + 2], ints[i + 3]);
+				i += 4;
+				break;
+			case CLEAR:
+				gl.glClear(ints[i++]);
+				break;
+			case CLEAR_COLOR:
+				gl.glClearColor(floats[f], floats[f + 1], floats[f + 2], floats[f + 3]);
+				f += 4;
+				break;
+			case ENABLE_VERTEX_ATTRIB_ARRAY:
+				gl.glEnableVertexAttribArray(ints[i++]);
+				break;
+			case DISABLE_VERTEX_ATTRIB_ARRAY:
+				gl.glDisableVertexAttribArray(ints[i++]);
+				break;
+			case VERTEX_ATTRIB_POINTER:
+				gl.glVertexAttribPointer(ints[i], ints[i + 1], ints[i + 2], ints[i + 3] != 0, ints[i + 4], ints[i + 5]);
+				i += 6;
+				break;
+			case DRAW_ARRAYS:
+				gl.glDrawArrays(ints[i], ints[i + 1], ints[i + 2]);
+				i += 3;
+				break;
+			case DRAW_ELEMENTS:
+				gl.glDrawElements(ints[i], ints[i + 1], ints[i + 2], ints[i + 3]);
+				i += 4;
+				break;
+			case TEX_PARAMETERI:
+				gl.glTexParameteri(ints[i], ints[i + 1], ints[i + 2]);
+				i += 3;
+				break;
+			case LINE_WIDTH:
+				gl.glLineWidth(floats[f++]);
+				break;
+			case UNIFORM_1I:
+				gl.glUniform1i(ints[i], ints[i + 1]);
+				i += 2;
+				break;
+			case UNIFORM_1F:
+				gl.glUniform1f(ints[i++], floats[f++]);
+				break;
+			case UNIFORM_2F:
+				gl.glUniform2f(ints[i++], floats[f], floats[f + 1]);
+				f += 2;
+				break;
+			case UNIFORM_3F:
+				gl.glUniform3f(ints[i++], floats[f], floats[f + 1], floats[f + 2]);
+				f += 3;
+				break;
+			case UNIFORM_4F:
+				gl.glUniform4f(ints[i++], floats[f], floats[f + 1], floats[f + 2], floats[f + 3]);
+				f += 4;
+				break;
+			case UNIFORM_MATRIX_3FV:
+				gl.glUniformMatrix3fv(ints[i], ints[i + 2] / 9, ints[i + 1] != 0, floats, f);
+				f += ints[i + 2];
+				i += 3;
+				break;
+			case UNIFORM_MATRIX_4FV:
+				gl.glUniformMatrix4fv(ints[i], ints[i + 2] / 16, ints[i + 1] != 0, floats, f);
+				f += ints[i + 2];
+				i += 3;
+				break;
+			default:
+				throw new GdxRuntimeException("Unknown opcode: " + ints[i - 1]);
+			}
+		}
+	}
+}
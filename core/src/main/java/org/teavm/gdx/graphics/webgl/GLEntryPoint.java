@@ -0,0 +1,258 @@
+package org.teavm.gdx.graphics.webgl;
+
+/** Entry points of {@link com.badlogic.gdx.graphics.GL20}, {@link com.badlogic.gdx.graphics.GL30} and {@link TeaVMGLExtensions}
+ * counted by {@link ProfilingGL20} and {@link ProfilingGL30}. Constants are named after the methods; overloads share a single
+ * entry point. */
+public enum GLEntryPoint {
+	beginTimerQuery,
+	createTimerQuery,
+	deleteTimerQuery,
+	endTimerQuery,
+	getTimerQueryResult,
+	glActiveTexture,
+	glAttachShader,
+	glBeginQuery,
+	glBeginTransformFeedback,
+	glBindAttribLocation,
+	glBindBuffer,
+	glBindBufferBase,
+	glBindBufferRange,
+	glBindFramebuffer,
+	glBindRenderbuffer,
+	glBindSampler,
+	glBindTexture,
+	glBindTransformFeedback,
+	glBindVertexArray,
+	glBlendColor,
+	glBlendEquation,
+	glBlendEquationSeparate,
+	glBlendFunc,
+	glBlendFuncSeparate,
+	glBlitFramebuffer,
+	glBufferData,
+	glBufferSubData,
+	glCheckFramebufferStatus,
+	glClear,
+	glClearBufferfi,
+	glClearBufferfv,
+	glClearBufferiv,
+	glClearBufferuiv,
+	glClearColor,
+	glClearDepthf,
+	glClearStencil,
+	glColorMask,
+	glCompileShader,
+	glCompressedTexImage2D,
+	glCompressedTexSubImage2D,
+	glCopyBufferSubData,
+	glCopyTexImage2D,
+	glCopyTexSubImage2D,
+	glCopyTexSubImage3D,
+	glCreateProgram,
+	glCreateShader,
+	glCullFace,
+	glDeleteBuffer,
+	glDeleteBuffers,
+	glDeleteFramebuffer,
+	glDeleteFramebuffers,
+	glDeleteProgram,
+	glDeleteQueries,
+	glDeleteRenderbuffer,
+	glDeleteRenderbuffers,
+	glDeleteSamplers,
+	glDeleteShader,
+	glDeleteTexture,
+	glDeleteTextures,
+	glDeleteTransformFeedbacks,
+	glDeleteVertexArray,
+	glDeleteVertexArrays,
+	glDepthFunc,
+	glDepthMask,
+	glDepthRangef,
+	glDetachShader,
+	glDisable,
+	glDisableVertexAttribArray,
+	glDrawArrays,
+	glDrawArraysInstanced,
+	glDrawBuffers,
+	glDrawElements,
+	glDrawElementsInstanced,
+	glDrawRangeElements,
+	glEnable,
+	glEnableVertexAttribArray,
+	glEndQuery,
+	glEndTransformFeedback,
+	glFinish,
+	glFlush,
+	glFlushMappedBufferRange,
+	glFramebufferRenderbuffer,
+	glFramebufferTexture2D,
+	glFramebufferTextureLayer,
+	glFrontFace,
+	glGenBuffer,
+	glGenBuffers,
+	glGenFramebuffer,
+	glGenFramebuffers,
+	glGenQueries,
+	glGenRenderbuffer,
+	glGenRenderbuffers,
+	glGenSamplers,
+	glGenTexture,
+	glGenTextures,
+	glGenTransformFeedbacks,
+	glGenVertexArray,
+	glGenVertexArrays,
+	glGenerateMipmap,
+	glGetActiveAttrib,
+	glGetActiveUniform,
+	glGetActiveUniformBlockName,
+	glGetActiveUniformBlockiv,
+	glGetActiveUniformsiv,
+	glGetAttachedShaders,
+	glGetAttribLocation,
+	glGetBooleanv,
+	glGetBufferParameteri64v,
+	glGetBufferParameteriv,
+	glGetBufferPointerv,
+	glGetError,
+	glGetFloatv,
+	glGetFragDataLocation,
+	glGetFramebufferAttachmentParameteriv,
+	glGetInteger64v,
+	glGetIntegerv,
+	glGetProgramInfoLog,
+	glGetProgramiv,
+	glGetQueryObjectuiv,
+	glGetQueryiv,
+	glGetRenderbufferParameteriv,
+	glGetSamplerParameterfv,
+	glGetSamplerParameteriv,
+	glGetShaderInfoLog,
+	glGetShaderPrecisionFormat,
+	glGetShaderiv,
+	glGetString,
+	glGetStringi,
+	glGetTexParameterfv,
+	glGetTexParameteriv,
+	glGetUniformBlockIndex,
+	glGetUniformIndices,
+	glGetUniformLocation,
+	glGetUniformfv,
+	glGetUniformiv,
+	glGetUniformuiv,
+	glGetVertexAttribIiv,
+	glGetVertexAttribIuiv,
+	glGetVertexAttribPointerv,
+	glGetVertexAttribfv,
+	glGetVertexAttribiv,
+	glHint,
+	glInvalidateFramebuffer,
+	glInvalidateSubFramebuffer,
+	glIsBuffer,
+	glIsEnabled,
+	glIsFramebuffer,
+	glIsProgram,
+	glIsQuery,
+	glIsRenderbuffer,
+	glIsSampler,
+	glIsShader,
+	glIsTexture,
+	glIsTransformFeedback,
+	glIsVertexArray,
+	glLineWidth,
+	glLinkProgram,
+	glPauseTransformFeedback,
+	glPixelStorei,
+	glPolygonOffset,
+	glProgramParameteri,
+	glReadBuffer,
+	glReadPixels,
+	glReleaseShaderCompiler,
+	glRenderbufferStorage,
+	glRenderbufferStorageMultisample,
+	glResumeTransformFeedback,
+	glSampleCoverage,
+	glSamplerParameterf,
+	glSamplerParameterfv,
+	glSamplerParameteri,
+	glSamplerParameteriv,
+	glScissor,
+	glShaderBinary,
+	glShaderSource,
+	glStencilFunc,
+	glStencilFuncSeparate,
+	glStencilMask,
+	glStencilMaskSeparate,
+	glStencilOp,
+	glStencilOpSeparate,
+	glTexImage2D,
+	glTexImage3D,
+	glTexParameterf,
+	glTexParameterfv,
+	glTexParameteri,
+	glTexParameteriv,
+	glTexSubImage2D,
+	glTexSubImage3D,
+	glTransformFeedbackVaryings,
+	glUniform1f,
+	glUniform1fv,
+	glUniform1i,
+	glUniform1iv,
+	glUniform1uiv,
+	glUniform2f,
+	glUniform2fv,
+	glUniform2i,
+	glUniform2iv,
+	glUniform3f,
+	glUniform3fv,
+	glUniform3i,
+	glUniform3iv,
+	glUniform3uiv,
+	glUniform4f,
+	glUniform4fv,
+	glUniform4i,
+	glUniform4iv,
+	glUniform4uiv,
+	glUniformBlockBinding,
+	glUniformMatrix2fv,
+	glUniformMatrix2x3fv,
+	glUniformMatrix2x4fv,
+	glUniformMatrix3fv,
+	glUniformMatrix3x2fv,
+	glUniformMatrix3x4fv,
+	glUniformMatrix4fv,
+	glUniformMatrix4x2fv,
+	glUniformMatrix4x3fv,
+	glUnmapBuffer,
+	glUseProgram,
+	glValidateProgram,
+	glVertexAttrib1f,
+	glVertexAttrib1fv,
+	glVertexAttrib2f,
+	glVertexAttrib2fv,
+	glVertexAttrib3f,
+	glVertexAttrib3fv,
+	glVertexAttrib4f,
+	glVertexAttrib4fv,
+	glVertexAttribDivisor,
+	glVertexAttribI4i,
+	glVertexAttribI4ui,
+	glVertexAttribIPointer,
+	glVertexAttribPointer,
+	glViewport,
+	isGPUDisjoint,
+	isTimerQueryAvailable;
+
+	private static final GLEntryPoint[] VALUES = values();
+
+	/** @param ordinal ordinal of an entry point.
+	 * @return entry point with the given ordinal. Does not create a copy of constants array. */
+	public static GLEntryPoint get (final int ordinal) {
+		return VALUES[ordinal];
+	}
+
+	/** @return amount of entry points. */
+	public static int count () {
+		return VALUES.length;
+	}
+}
@@ -0,0 +1,124 @@
+package org.teavm.gdx.graphics.webgl;
+
+import com.badlogic.gdx.utils.IntIntMap;
+
+/** GL usage counters of a single frame gathered by {@link ProfilingGL20} and {@link ProfilingGL30}. */
+public class GLFrameStats {
+	// Updated directly by ProfilingGL20 and ProfilingGL30 to keep the profiled calls cheap.
+	final int[] calls = new int[GLEntryPoint.count()];
+	int drawCalls;
+	int vertices;
+	int indices;
+	int textureBinds;
+	int shaderSwitches;
+	int bufferUploads;
+	int textureUploads;
+	private final IntIntMap bytesUploadedPerTarget = new IntIntMap();
+	private long bytesUploaded;
+	private long frameId;
+
+	/** @param target GL target of the upload, for example {@link com.badlogic.gdx.graphics.GL20#GL_ARRAY_BUFFER} or
+	 *           {@link com.badlogic.gdx.graphics.GL20#GL_TEXTURE_2D}.
+	 * @param bytes amount of uploaded bytes. */
+	void addBytesUploaded (final int target, final int bytes) {
+		bytesUploadedPerTarget.getAndIncrement(target, 0, bytes);
+		bytesUploaded += bytes;
+	}
+
+	/** Clears all counters.
+	 * @param frameId ID of the frame that the counters will be gathered for. */
+	void reset (final long frameId) {
+		this.frameId = frameId;
+		for (int index = 0; index < calls.length; index++) {
+			calls[index] = 0;
+		}
+		drawCalls = 0;
+		vertices = 0;
+		indices = 0;
+		textureBinds = 0;
+		shaderSwitches = 0;
+		bufferUploads = 0;
+		textureUploads = 0;
+		bytesUploadedPerTarget.clear();
+		bytesUploaded = 0L;
+	}
+
+	/** @return ID of the frame, starting with 0 for the first profiled frame. */
+	public long getFrameId () {
+		return frameId;
+	}
+
+	/** @return amount of draw calls, including instanced and range draws. */
+	public int getDrawCalls () {
+		return drawCalls;
+	}
+
+	/** @return amount of vertices submitted with glDrawArrays and glDrawArraysInstanced, counted once per instance. */
+	public int getVertices () {
+		return vertices;
+	}
+
+	/** @return amount of indices submitted with glDrawElements, glDrawRangeElements and glDrawElementsInstanced, counted once
+	 *         per instance. */
+	public int getIndices () {
+		return indices;
+	}
+
+	/** @return amount of glBindTexture calls. */
+	public int getTextureBinds () {
+		return textureBinds;
+	}
+
+	/** @return amount of glUseProgram calls. */
+	public int getShaderSwitches () {
+		return shaderSwitches;
+	}
+
+	/** @return amount of glBufferData and glBufferSubData calls. */
+	public int getBufferUploads () {
+		return bufferUploads;
+	}
+
+	/** @return amount of glTexImage2D, glTexSubImage2D and compressed texture upload calls. */
+	public int getTextureUploads () {
+		return textureUploads;
+	}
+
+	/** @return total amount of bytes uploaded to buffers and textures. */
+	public long getBytesUploaded () {
+		return bytesUploaded;
+	}
+
+	/** @param target GL target, for example {@link com.badlogic.gdx.graphics.GL20#GL_ELEMENT_ARRAY_BUFFER}.
+	 * @return amount of bytes uploaded to the target. */
+	public int getBytesUploaded (final int target) {
+		return bytesUploadedPerTarget.get(target, 0);
+	}
+
+	/** @return amount of uploaded bytes mapped by GL targets. Should not be modified. */
+	public IntIntMap getBytesUploadedPerTarget () {
+		return bytesUploadedPerTarget;
+	}
+
+	/** @param entryPoint GL method.
+	 * @return amount of calls of the method, including all of its overloads. */
+	public int getCalls (final GLEntryPoint entryPoint) {
+		return calls[entryPoint.ordinal()];
+	}
+
+	/** @return total amount of GL calls. */
+	public int getCalls () {
+		int total = 0;
+		for (final int count : calls) {
+			total += count;
+		}
+		return total;
+	}
+
+	@Override
+	public String toString () {
+		return "frame " + frameId + ": " + getCalls() + " calls, " + drawCalls + " draw calls, " + vertices + " vertices, "
+			+ indices + " indices, " + textureBinds + " texture binds, " + shaderSwitches + " shader switches, " + bufferUploads
+			+ " buffer uploads, " + textureUploads + " texture uploads, " + bytesUploaded + " bytes uploaded";
+	}
+}
@@ -0,0 +1,196 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+
+/** Measures GPU time of whole frames and of named scopes within them using timer queries. Only one timer query can be active at
+ * a time, so each frame is split into segments: opening or closing a scope ends the current query and begins a new one. Time
+ * of a scope includes its nested scopes.
+ * <p>
+ * Results are read asynchronously, usually a few frames later, once all queries of a frame are available. Frames affected by
+ * GPU disjoint events, like frequency changes, are dropped, as their results are unreliable. Timer queries are supported with
+ * EXT_disjoint_timer_query extension on WebGL1 and EXT_disjoint_timer_query_webgl2 on WebGL2. */
+public class GPUTimer implements Disposable {
+	private final TeaVMGLExtensions gl;
+	private final Array<JSObject> freeQueries = new Array<>();
+	private final Array<Frame> pendingFrames = new Array<>();
+	private final Array<Frame> freeFrames = new Array<>();
+	private final ObjectFloatMap<String> scopeTimes = new ObjectFloatMap<>();
+	private Frame frame;
+	private Scope scope;
+	private long nextFrameId;
+	private long frameId = -1L;
+	private float frameTime = -1f;
+	private int droppedFrames;
+
+	/** @param gl GL implementation with {@link TeaVMGLExtensions#isTimerQuerySupported() timer query support}. */
+	public GPUTimer (final TeaVMGLExtensions gl) {
+		if (!gl.isTimerQuerySupported()) {
+			throw new GdxRuntimeException("GPU timer queries are not supported by the browser.");
+		}
+		this.gl = gl;
+	}
+
+	/** Starts measuring a frame. Called by the renderer before the application listener renders. */
+	public void beginFrame () {
+		if (frame != null) {
+			throw new GdxRuntimeException("GPU frame measurement already started.");
+		}
+		frame = freeFrames.size > 0 ? freeFrames.pop() : new Frame();
+		frame.id = nextFrameId++;
+		beginSegment();
+	}
+
+	/** Opens a named scope. Ignored outside of measured frames.
+	 * @param name name of the scope. Times of scopes sharing a name are summed up.
+	 * @see #end() */
+	public void begin (final String name) {
+		if (frame == null) {
+			return;
+		}
+		gl.endTimerQuery();
+		scope = new Scope(name, scope);
+		beginSegment();
+	}
+
+	/** Closes the most recently opened scope. Ignored outside of measured frames. */
+	public void end () {
+		if (frame == null) {
+			return;
+		}
+		if (scope == null) {
+			throw new GdxRuntimeException("No GPU timing scope to end.");
+		}
+		gl.endTimerQuery();
+		scope = scope.parent;
+		beginSegment();
+	}
+
+	/** Finishes measuring the current frame, closing any scopes left open, and reads results of previous frames that became
+	 * available. Called by the renderer after the application listener renders. */
+	public void endFrame () {
+		if (frame == null) {
+			return;
+		}
+		gl.endTimerQuery();
+		scope = null;
+		pendingFrames.add(frame);
+		frame = null;
+		readResults();
+	}
+
+	private void beginSegment () {
+		final JSObject query = freeQueries.size > 0 ? freeQueries.pop() : gl.createTimerQuery();
+		gl.beginTimerQuery(query);
+		frame.queries.add(query);
+		frame.scopes.add(scope);
+	}
+
+	private void readResults () {
+		if (gl.isGPUDisjoint()) {
+			droppedFrames += pendingFrames.size;
+			for (final Frame pending : pendingFrames) {
+				free(pending);
+			}
+			pendingFrames.clear();
+			return;
+		}
+		// Queries finish in order, so the last query of the oldest frame is checked first.
+		while (pendingFrames.size > 0 && gl.isTimerQueryAvailable(pendingFrames.first().queries.peek())) {
+			final Frame pending = pendingFrames.removeIndex(0);
+			read(pending);
+			free(pending);
+		}
+	}
+
+	private void read (final Frame measured) {
+		scopeTimes.clear();
+		double total = 0.0;
+		for (int index = 0; index < measured.queries.size; index++) {
+			final double nanoseconds = gl.getTimerQueryResult(measured.queries.get(index));
+			total += nanoseconds;
+			final float milliseconds = (float)(nanoseconds / 1000000.0);
+			for (Scope open = measured.scopes.get(index); open != null; open = open.parent) {
+				scopeTimes.getAndIncrement(open.name, 0f, milliseconds);
+			}
+		}
+		frameTime = (float)(total / 1000000.0);
+		frameId = measured.id;
+	}
+
+	private void free (final Frame measured) {
+		freeQueries.addAll(measured.queries);
+		measured.queries.clear();
+		measured.scopes.clear();
+		freeFrames.add(measured);
+	}
+
+	/** @return ID of the frame with the latest results, counting from 0 for the first measured frame. -1 if no results are
+	 *         available yet. */
+	public long getFrameId () {
+		return frameId;
+	}
+
+	/** @return GPU time of the frame with the latest results in milliseconds. -1 if no results are available yet. */
+	public float getFrameTime () {
+		return frameTime;
+	}
+
+	/** @param name name of a scope.
+	 * @return GPU time of the scope in the frame with the latest results in milliseconds. 0 if the scope was not opened. */
+	public float getScopeTime (final String name) {
+		return scopeTimes.get(name, 0f);
+	}
+
+	/** @return GPU times of all scopes opened in the frame with the latest results in milliseconds. Reused by the timer. */
+	public ObjectFloatMap<String> getScopeTimes () {
+		return scopeTimes;
+	}
+
+	/** @return amount of frames whose results were dropped because of GPU disjoint events. */
+	public int getDroppedFrames () {
+		return droppedFrames;
+	}
+
+	/** @return amount of measured frames waiting for their results. */
+	public int getPendingFrames () {
+		return pendingFrames.size;
+	}
+
+	@Override
+	public void dispose () {
+		if (frame != null) {
+			gl.endTimerQuery();
+			pendingFrames.add(frame);
+			frame = null;
+		}
+		for (final Frame pending : pendingFrames) {
+			free(pending);
+		}
+		pendingFrames.clear();
+		for (final JSObject query : freeQueries) {
+			gl.deleteTimerQuery(query);
+		}
+		freeQueries.clear();
+	}
+
+	private static class Frame {
+		final Array<JSObject> queries = new Array<>();
+		final Array<Scope> scopes = new Array<>();
+		long id;
+	}
+
+	private static class Scope {
+		final String name;
+		final Scope parent;
+
+		Scope (final String name, final Scope parent) {
+			this.name = name;
+			this.parent = parent;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.teavm.gdx.graphics.webgl;
+
+/** Maps integer GL handles to WebGL objects. Backed by a growable array indexed by handle, so lookups do not box or hash. IDs
+ * of removed objects are reused by later additions. Handle 0 is never assigned and always resolves to null, which matches
+ * the GL convention of 0 unbinding the current object.
+ * @param <T> type of stored objects. */
+public class HandleTable<T> {
+	private Object[] objects;
+	private int[] freeIds = new int[16];
+	private int freeCount;
+	private int nextId = 1;
+	private int size;
+
+	public HandleTable () {
+		this(64);
+	}
+
+	/** @param initialCapacity expected amount of simultaneously stored objects. */
+	public HandleTable (final int initialCapacity) {
+		objects = new Object[Math.max(initialCapacity, 2)];
+	}
+
+	/** @param object will be stored in the table. Should not be null.
+	 * @return new handle of the object. Might be an ID of a previously removed object. */
+	public int add (final T object) {
+		final int id;
+		if (freeCount > 0) {
+			id = freeIds[--freeCount];
+		} else {
+			id = nextId++;
+			if (id == objects.length) {
+				final Object[] grown = new Object[objects.length << 1];
+				System.arraycopy(objects, 0, grown, 0, objects.length);
+				objects = grown;
+			}
+		}
+		objects[id] = object;
+		size++;
+		return id;
+	}
+
+	/** @param id handle of the object.
+	 * @return object stored with the handle or null if the handle is unknown. */
+	@SuppressWarnings("unchecked")
+	public T get (final int id) {
+		if (id <= 0 || id >= nextId) {
+			return null;
+		}
+		return (T)objects[id];
+	}
+
+	/** @param id handle of a stored object.
+	 * @param object will be stored with the handle instead. Should not be null.
+	 * @return replaced object or null if the handle was unknown, in which case nothing is stored. */
+	public T set (final int id, final T object) {
+		final T previous = get(id);
+		if (previous != null) {
+			objects[id] = object;
+		}
+		return previous;
+	}
+
+	/** @param id handle of the object. Will be reused by the following additions.
+	 * @return removed object or null if the handle was unknown. */
+	public T remove (final int id) {
+		final T object = get(id);
+		if (object != null) {
+			objects[id] = null;
+			if (freeCount == freeIds.length) {
+				final int[] grown = new int[freeIds.length << 1];
+				System.arraycopy(freeIds, 0, grown, 0, freeIds.length);
+				freeIds = grown;
+			}
+			freeIds[freeCount++] = id;
+			size--;
+		}
+		return object;
+	}
+
+	/** @param object a stored object. Found with a linear search, so it should not be used in performance-critical code.
+	 * @return handle of the object or 0 if it is not stored in the table. */
+	public int find (final T object) {
+		if (object != null) {
+			for (int id = 1; id < nextId; id++) {
+				if (objects[id] == object) {
+					return id;
+				}
+			}
+		}
+		return 0;
+	}
+
+	/** @return amount of currently stored objects. */
+	public int size () {
+		return size;
+	}
+}
@@ -0,0 +1,195 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.FloatBuffer;
+
+import org.teavm.gdx.graphics.TeaVMGraphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Interleaved per-instance vertex attributes stored in a GL buffer. Bound along with a {@link Mesh}, its attributes advance once
+ * per instance instead of once per vertex, so the mesh can be drawn many times with a single instanced draw call. See
+ * {@link #render(Mesh, ShaderProgram, int, int, int)}. Uses ANGLE_instanced_arrays extension with WebGL1 and native calls with
+ * WebGL2. */
+public class InstanceArray implements Disposable {
+	private final TeaVMGLExtensions gl;
+	private final VertexAttributes attributes;
+	private final FloatBuffer buffer;
+	private final int usage;
+	private int bufferHandle;
+	private boolean isDirty = true;
+	private boolean isBound;
+
+	/** @param isStatic whether the instance data is static.
+	 * @param numInstances the maximum number of instances.
+	 * @param attributes per-instance {@link VertexAttribute}s. */
+	public InstanceArray (final boolean isStatic, final int numInstances, final VertexAttribute... attributes) {
+		this(isStatic, numInstances, new VertexAttributes(attributes));
+	}
+
+	/** @param isStatic whether the instance data is static.
+	 * @param numInstances the maximum number of instances.
+	 * @param attributes per-instance {@link VertexAttributes}. */
+	public InstanceArray (final boolean isStatic, final int numInstances, final VertexAttributes attributes) {
+		if (!isSupported()) {
+			throw new GdxRuntimeException("Instanced rendering is not supported by the browser.");
+		}
+		gl = ((TeaVMGraphics)Gdx.graphics).getGLExtensions();
+		this.attributes = attributes;
+		buffer = BufferUtils.newFloatBuffer(attributes.vertexSize / 4 * numInstances);
+		buffer.flip();
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
+	}
+
+	/** @return true if the current GL implementation supports instanced rendering. */
+	public static boolean isSupported () {
+		if (!(Gdx.graphics instanceof TeaVMGraphics)) {
+			return false;
+		}
+		final TeaVMGLExtensions gl = ((TeaVMGraphics)Gdx.graphics).getGLExtensions();
+		return gl != null && gl.isInstancingSupported();
+	}
+
+	/** @return per-instance attributes. */
+	public VertexAttributes getAttributes () {
+		return attributes;
+	}
+
+	/** @return current number of instances. */
+	public int getNumInstances () {
+		return buffer.limit() / (attributes.vertexSize / 4);
+	}
+
+	/** @return maximum number of instances. */
+	public int getNumMaxInstances () {
+		return buffer.capacity() / (attributes.vertexSize / 4);
+	}
+
+	/** @return the underlying buffer. Its content is uploaded on the next {@link #bind(ShaderProgram, int[])}. */
+	public FloatBuffer getBuffer () {
+		isDirty = true;
+		return buffer;
+	}
+
+	/** @param data instance data. Replaces the current data.
+	 * @param offset offset in the array.
+	 * @param count amount of floats to copy. */
+	public void setInstanceData (final float[] data, final int offset, final int count) {
+		BufferUtils.copy(data, buffer, count, offset);
+		buffer.position(0);
+		buffer.limit(count);
+		bufferChanged();
+	}
+
+	/** @param targetOffset offset in the buffer in floats.
+	 * @param data instance data.
+	 * @param sourceOffset offset in the array.
+	 * @param count amount of floats to copy. */
+	public void updateInstanceData (final int targetOffset, final float[] data, final int sourceOffset, final int count) {
+		final int position = buffer.position();
+		buffer.position(targetOffset);
+		BufferUtils.copy(data, sourceOffset, count, buffer);
+		buffer.position(position);
+		bufferChanged();
+	}
+
+	private void bufferChanged () {
+		isDirty = true;
+		if (isBound) {
+			Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+			upload();
+		}
+	}
+
+	private void upload () {
+		Gdx.gl20.glBufferData(GL20.GL_ARRAY_BUFFER, buffer.limit() * 4, buffer, usage);
+		isDirty = false;
+	}
+
+	/** Binds the mesh and this array, draws all instances and unbinds both.
+	 * @param mesh mesh drawn for each instance.
+	 * @param shader shader with both mesh and instance attributes.
+	 * @param primitiveType GL primitive type.
+	 * @param offset offset of the first index (or vertex if the mesh has no indices).
+	 * @param count amount of indices (or vertices) drawn per instance. */
+	public void render (final Mesh mesh, final ShaderProgram shader, final int primitiveType, final int offset,
+		final int count) {
+		final int numInstances = getNumInstances();
+		if (count == 0 || numInstances == 0) {
+			return;
+		}
+		mesh.bind(shader);
+		bind(shader, null);
+		if (mesh.getNumIndices() > 0) {
+			gl.glDrawElementsInstanced(primitiveType, count, GL20.GL_UNSIGNED_SHORT, offset * 2, numInstances);
+		} else {
+			gl.glDrawArraysInstanced(primitiveType, offset, count, numInstances);
+		}
+		// Instance attributes are unbound first, as they might be recorded in the vertex array object bound by the mesh.
+		unbind(shader, null);
+		mesh.unbind(shader);
+	}
+
+	/** @param shader the shader.
+	 * @param locations attribute locations or null to look them up by aliases. */
+	public void bind (final ShaderProgram shader, final int[] locations) {
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) {
+			upload();
+		}
+		final int numAttributes = attributes.size();
+		for (int i = 0; i < numAttributes; i++) {
+			final VertexAttribute attribute = attributes.get(i);
+			final int location = locations == null ? shader.getAttributeLocation(attribute.alias) : locations[i];
+			if (location < 0) {
+				continue;
+			}
+			shader.enableVertexAttribute(location);
+			if (attribute.usage == Usage.ColorPacked) {
+				shader.setVertexAttribute(location, attribute.numComponents, GL20.GL_UNSIGNED_BYTE, true, attributes.vertexSize,
+					attribute.offset);
+			} else {
+				shader.setVertexAttribute(location, attribute.numComponents, GL20.GL_FLOAT, false, attributes.vertexSize,
+					attribute.offset);
+			}
+			gl.glVertexAttribDivisor(location, 1);
+		}
+		isBound = true;
+	}
+
+	/** @param shader the shader.
+	 * @param locations attribute locations or null to look them up by aliases. */
+	public void unbind (final ShaderProgram shader, final int[] locations) {
+		final int numAttributes = attributes.size();
+		for (int i = 0; i < numAttributes; i++) {
+			final int location = locations == null ? shader.getAttributeLocation(attributes.get(i).alias) : locations[i];
+			if (location >= 0) {
+				gl.glVertexAttribDivisor(location, 0);
+				shader.disableVertexAttribute(location);
+			}
+		}
+		isBound = false;
+	}
+
+	/** Creates a new GL buffer. Use this in case of a context loss. */
+	public void invalidate () {
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		isDirty = true;
+	}
+
+	@Override
+	public void dispose () {
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		Gdx.gl20.glDeleteBuffer(bufferHandle);
+		bufferHandle = 0;
+	}
+}
@@ -0,0 +1,14 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+
+/** OES_vertex_array_object WebGL1 extension, obtained with getExtension("OES_vertex_array_object"). */
+public interface OESVertexArrayObject extends JSObject {
+	WebGLVertexArrayObject createVertexArrayOES ();
+
+	void deleteVertexArrayOES (WebGLVertexArrayObject vertexArray);
+
+	boolean isVertexArrayOES (WebGLVertexArrayObject vertexArray);
+
+	void bindVertexArrayOES (WebGLVertexArrayObject vertexArray);
+}
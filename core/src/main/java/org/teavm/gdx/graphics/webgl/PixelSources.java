@@ -0,0 +1,116 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.Buffer;
+
+import org.teavm.jso.canvas.CanvasRenderingContext2D;
+import org.teavm.jso.canvas.ImageData;
+import org.teavm.jso.dom.html.HTMLCanvasElement;
+
+import com.badlogic.gdx.utils.IntMap;
+
+/** Keeps track of canvases that pixel buffers were read from. {@link TeaVMGL20} uploads a registered buffer by passing its
+ * canvas to WebGL. Used by pixmaps: their pixels are read from a canvas and the returned buffer is usually passed straight to
+ * glTexImage2D or glTexSubImage2D. Buffers are compared by identity.
+ * <p>
+ * A registered buffer has to share its memory with the image data read from the canvas. As the buffer might have been
+ * modified since, for example by glReadPixels, the image data is put back on the canvas before the canvas is uploaded. A buffer
+ * should be unregistered once its canvas is drawn on. */
+public class PixelSources {
+	/** Sources keyed by identity hash codes of their buffers. Sources with colliding hash codes are chained. */
+	private static final IntMap<Source> sources = new IntMap<>();
+
+	private PixelSources () {
+	}
+
+	/** @param pixels RGBA pixels read from the whole canvas, sharing memory with the image data.
+	 * @param canvas source of the pixels.
+	 * @param context 2D context of the canvas.
+	 * @param imageData image data read from the whole canvas. */
+	public static void register (final Buffer pixels, final HTMLCanvasElement canvas, final CanvasRenderingContext2D context,
+		final ImageData imageData) {
+		final int key = System.identityHashCode(pixels);
+		final Source first = sources.get(key);
+		for (Source source = first; source != null; source = source.next) {
+			if (source.pixels == pixels) {
+				source.canvas = canvas;
+				source.context = context;
+				source.imageData = imageData;
+				return;
+			}
+		}
+		sources.put(key, new Source(pixels, canvas, context, imageData, first));
+	}
+
+	/** @param pixels previously registered buffer. Ignored if null or not registered. */
+	public static void unregister (final Buffer pixels) {
+		if (pixels == null || sources.size == 0) {
+			return;
+		}
+		final int key = System.identityHashCode(pixels);
+		Source previous = null;
+		for (Source source = sources.get(key); source != null; source = source.next) {
+			if (source.pixels == pixels) {
+				if (previous != null) {
+					previous.next = source.next;
+				} else if (source.next != null) {
+					sources.put(key, source.next);
+				} else {
+					sources.remove(key);
+				}
+				return;
+			}
+			previous = source;
+		}
+	}
+
+	/** @param pixels texture data.
+	 * @param width width of the uploaded image.
+	 * @param height height of the uploaded image.
+	 * @return canvas that the buffer was read from if it was registered and the whole canvas with the given size is uploaded
+	 *         starting from the first pixel. Null otherwise. The current content of the buffer is put on the canvas first. */
+	public static HTMLCanvasElement getCanvas (final Buffer pixels, final int width, final int height) {
+		if (pixels == null || pixels.position() != 0 || sources.size == 0) {
+			return null;
+		}
+		for (Source source = sources.get(System.identityHashCode(pixels)); source != null; source = source.next) {
+			if (source.pixels == pixels) {
+				final HTMLCanvasElement canvas = source.canvas;
+				if (canvas.getWidth() != width || canvas.getHeight() != height) {
+					return null;
+				}
+				source.context.putImageData(source.imageData, 0, 0);
+				return canvas;
+			}
+		}
+		return null;
+	}
+
+	/** @return amount of registered buffers. */
+	public static int getSize () {
+		int size = 0;
+		for (final Source first : sources.values()) {
+			for (Source source = first; source != null; source = source.next) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/** Registered buffer with the canvas it was read from. */
+	private static class Source {
+		private final Buffer pixels;
+		private HTMLCanvasElement canvas;
+		private CanvasRenderingContext2D context;
+		private ImageData imageData;
+		private Source next;
+
+		Source (final Buffer pixels, final HTMLCanvasElement canvas, final CanvasRenderingContext2D context,
+			final ImageData imageData, final Source next) {
+			this.pixels = pixels;
+			this.canvas = canvas;
+			this.context = context;
+			this.imageData = imageData;
+			this.next = next;
+		}
+	}
+}
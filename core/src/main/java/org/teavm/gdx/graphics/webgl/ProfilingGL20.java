@@ -0,0 +1,1249 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+
+import org.teavm.gdx.lifecycle.FrameListener;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.dom.html.HTMLImageElement;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Decorates another {@link GL20} implementation, counting draw calls, submitted vertices and indices, texture binds, shader
+ * switches, uploads and calls of each entry point in the current frame. Unlike {@link DebugTeaVMGL20}, it never queries the
+ * context, so it does not stall the pipeline and can be used in production builds.
+ * <p>
+ * Frame boundaries are marked by the renderer through {@link FrameListener}; the wrapped implementation is notified as well.
+ * Counters of finished frames are kept in a rolling history. History entries are reused once they become older than the
+ * history size, so they should not be stored.
+ * <p>
+ * {@link TeaVMGLExtensions} calls are counted as well if the wrapped implementation provides them. Otherwise the extensions are
+ * reported as unsupported. Use {@link ProfilingGL30} to count GL30 calls. */
+public class ProfilingGL20 implements GL20, FrameListener, TeaVMGLExtensions {
+	/** Default amount of finished frames kept in the history. */
+	public static final int DEFAULT_HISTORY_SIZE = 60;
+
+	private final GL20 gl;
+	private final GLFrameStats[] history;
+	GLFrameStats stats;
+	private int historyIndex;
+	private int historyLength;
+	private long frameId;
+
+	/** @param gl will receive all GL calls. Uses default history size. */
+	public ProfilingGL20 (final GL20 gl) {
+		this(gl, DEFAULT_HISTORY_SIZE);
+	}
+
+	/** @param gl will receive all GL calls.
+	 * @param historySize amount of finished frames kept in the history. At least 1. */
+	public ProfilingGL20 (final GL20 gl, final int historySize) {
+		this.gl = gl;
+		history = new GLFrameStats[Math.max(historySize, 1)];
+		for (int index = 0; index < history.length; index++) {
+			history[index] = new GLFrameStats();
+		}
+		stats = new GLFrameStats();
+	}
+
+	/** @return decorated GL implementation. */
+	public GL20 getWrapped () {
+		return gl;
+	}
+
+	/** @return counters of the frame that is currently rendered. */
+	public GLFrameStats getCurrentFrame () {
+		return stats;
+	}
+
+	/** @return counters of the last finished frame. Empty if no frame was finished yet. */
+	public GLFrameStats getLastFrame () {
+		return getHistory(0);
+	}
+
+	/** @param framesAgo 0 for the last finished frame, 1 for the one before it and so on. Must be lower than
+	 *           {@link #getHistoryLength()}, unless no frames were finished yet.
+	 * @return counters of the chosen finished frame. */
+	public GLFrameStats getHistory (final int framesAgo) {
+		return history[(historyIndex - 1 - framesAgo + (history.length << 1)) % history.length];
+	}
+
+	/** @return amount of finished frames currently stored in the history. */
+	public int getHistoryLength () {
+		return historyLength;
+	}
+
+	/** @return maximum amount of finished frames stored in the history. */
+	public int getHistorySize () {
+		return history.length;
+	}
+
+	/** Clears counters of the current frame and the whole history. */
+	public void reset () {
+		for (final GLFrameStats frame : history) {
+			frame.reset(0L);
+		}
+		historyIndex = 0;
+		historyLength = 0;
+		frameId = 0L;
+		stats.reset(frameId);
+	}
+
+	@Override
+	public void onFrameEnd () {
+		if (gl instanceof FrameListener) {
+			((FrameListener)gl).onFrameEnd();
+		}
+		final GLFrameStats oldest = history[historyIndex];
+		history[historyIndex] = stats;
+		historyIndex = (historyIndex + 1) % history.length;
+		historyLength = Math.min(historyLength + 1, history.length);
+		stats = oldest;
+		stats.reset(++frameId);
+	}
+
+	static int getByteSize (final Buffer buffer) {
+		if (buffer == null) {
+			return 0;
+		} else if (buffer instanceof ByteBuffer) {
+			return buffer.remaining();
+		} else if (buffer instanceof ShortBuffer || buffer instanceof CharBuffer) {
+			return buffer.remaining() << 1;
+		} else if (buffer instanceof IntBuffer || buffer instanceof FloatBuffer) {
+			return buffer.remaining() << 2;
+		} else if (buffer instanceof DoubleBuffer || buffer instanceof LongBuffer) {
+			return buffer.remaining() << 3;
+		}
+		return buffer.remaining();
+	}
+
+	@Override
+	public void glActiveTexture (final int texture) {
+		stats.calls[GLEntryPoint.glActiveTexture.ordinal()]++;
+		gl.glActiveTexture(texture);
+	}
+
+	@Override
+	public void glBindTexture (final int target, final int texture) {
+		stats.calls[GLEntryPoint.glBindTexture.ordinal()]++;
+		stats.textureBinds++;
+		gl.glBindTexture(target, texture);
+	}
+
+	@Override
+	public void glBlendFunc (final int sfactor, final int dfactor) {
+		stats.calls[GLEntryPoint.glBlendFunc.ordinal()]++;
+		gl.glBlendFunc(sfactor, dfactor);
+	}
+
+	@Override
+	public void glClear (final int mask) {
+		stats.calls[GLEntryPoint.glClear.ordinal()]++;
+		gl.glClear(mask);
+	}
+
+	@Override
+	public void glClearColor (final float red, final float green, final float blue, final float alpha) {
+		stats.calls[GLEntryPoint.glClearColor.ordinal()]++;
+		gl.glClearColor(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glClearDepthf (final float depth) {
+		stats.calls[GLEntryPoint.glClearDepthf.ordinal()]++;
+		gl.glClearDepthf(depth);
+	}
+
+	@Override
+	public void glClearStencil (final int s) {
+		stats.calls[GLEntryPoint.glClearStencil.ordinal()]++;
+		gl.glClearStencil(s);
+	}
+
+	@Override
+	public void glColorMask (final boolean red, final boolean green, final boolean blue, final boolean alpha) {
+		stats.calls[GLEntryPoint.glColorMask.ordinal()]++;
+		gl.glColorMask(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glCompressedTexImage2D (final int target, final int level, final int internalformat, final int width,
+		final int height, final int border, final int imageSize, final Buffer data) {
+		stats.calls[GLEntryPoint.glCompressedTexImage2D.ordinal()]++;
+		stats.textureUploads++;
+		stats.addBytesUploaded(target, imageSize);
+		gl.glCompressedTexImage2D(target, level, internalformat, width, height, border, imageSize, data);
+	}
+
+	@Override
+	public void glCompressedTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset,
+		final int width, final int height, final int format, final int imageSize, final Buffer data) {
+		stats.calls[GLEntryPoint.glCompressedTexSubImage2D.ordinal()]++;
+		stats.textureUploads++;
+		stats.addBytesUploaded(target, imageSize);
+		gl.glCompressedTexSubImage2D(target, level, xoffset, yoffset, width, height, format, imageSize, data);
+	}
+
+	@Override
+	public void glCopyTexImage2D (final int target, final int level, final int internalformat, final int x, final int y,
+		final int width, final int height, final int border) {
+		stats.calls[GLEntryPoint.glCopyTexImage2D.ordinal()]++;
+		gl.glCopyTexImage2D(target, level, internalformat, x, y, width, height, border);
+	}
+
+	@Override
+	public void glCopyTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset, final int x,
+		final int y, final int width, final int height) {
+		stats.calls[GLEntryPoint.glCopyTexSubImage2D.ordinal()]++;
+		gl.glCopyTexSubImage2D(target, level, xoffset, yoffset, x, y, width, height);
+	}
+
+	@Override
+	public void glCullFace (final int mode) {
+		stats.calls[GLEntryPoint.glCullFace.ordinal()]++;
+		gl.glCullFace(mode);
+	}
+
+	@Override
+	public void glDeleteTextures (final int n, final IntBuffer textures) {
+		stats.calls[GLEntryPoint.glDeleteTextures.ordinal()]++;
+		gl.glDeleteTextures(n, textures);
+	}
+
+	@Override
+	public void glDeleteTexture (final int id) {
+		stats.calls[GLEntryPoint.glDeleteTexture.ordinal()]++;
+		gl.glDeleteTexture(id);
+	}
+
+	@Override
+	public void glDepthFunc (final int func) {
+		stats.calls[GLEntryPoint.glDepthFunc.ordinal()]++;
+		gl.glDepthFunc(func);
+	}
+
+	@Override
+	public void glDepthMask (final boolean flag) {
+		stats.calls[GLEntryPoint.glDepthMask.ordinal()]++;
+		gl.glDepthMask(flag);
+	}
+
+	@Override
+	public void glDepthRangef (final float zNear, final float zFar) {
+		stats.calls[GLEntryPoint.glDepthRangef.ordinal()]++;
+		gl.glDepthRangef(zNear, zFar);
+	}
+
+	@Override
+	public void glDisable (final int cap) {
+		stats.calls[GLEntryPoint.glDisable.ordinal()]++;
+		gl.glDisable(cap);
+	}
+
+	@Override
+	public void glDrawArrays (final int mode, final int first, final int count) {
+		stats.calls[GLEntryPoint.glDrawArrays.ordinal()]++;
+		stats.drawCalls++;
+		stats.vertices += count;
+		gl.glDrawArrays(mode, first, count);
+	}
+
+	@Override
+	public void glDrawElements (final int mode, final int count, final int type, final Buffer indices) {
+		stats.calls[GLEntryPoint.glDrawElements.ordinal()]++;
+		stats.drawCalls++;
+		stats.indices += count;
+		gl.glDrawElements(mode, count, type, indices);
+	}
+
+	@Override
+	public void glEnable (final int cap) {
+		stats.calls[GLEntryPoint.glEnable.ordinal()]++;
+		gl.glEnable(cap);
+	}
+
+	@Override
+	public void glFinish () {
+		stats.calls[GLEntryPoint.glFinish.ordinal()]++;
+		gl.glFinish();
+	}
+
+	@Override
+	public void glFlush () {
+		stats.calls[GLEntryPoint.glFlush.ordinal()]++;
+		gl.glFlush();
+	}
+
+	@Override
+	public void glFrontFace (final int mode) {
+		stats.calls[GLEntryPoint.glFrontFace.ordinal()]++;
+		gl.glFrontFace(mode);
+	}
+
+	@Override
+	public void glGenTextures (final int n, final IntBuffer textures) {
+		stats.calls[GLEntryPoint.glGenTextures.ordinal()]++;
+		gl.glGenTextures(n, textures);
+	}
+
+	@Override
+	public int glGenTexture () {
+		stats.calls[GLEntryPoint.glGenTexture.ordinal()]++;
+		return gl.glGenTexture();
+	}
+
+	@Override
+	public int glGetError () {
+		stats.calls[GLEntryPoint.glGetError.ordinal()]++;
+		return gl.glGetError();
+	}
+
+	@Override
+	public void glGetIntegerv (final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetIntegerv.ordinal()]++;
+		gl.glGetIntegerv(pname, params);
+	}
+
+	@Override
+	public String glGetString (final int name) {
+		stats.calls[GLEntryPoint.glGetString.ordinal()]++;
+		return gl.glGetString(name);
+	}
+
+	@Override
+	public void glHint (final int target, final int mode) {
+		stats.calls[GLEntryPoint.glHint.ordinal()]++;
+		gl.glHint(target, mode);
+	}
+
+	@Override
+	public void glLineWidth (final float width) {
+		stats.calls[GLEntryPoint.glLineWidth.ordinal()]++;
+		gl.glLineWidth(width);
+	}
+
+	@Override
+	public void glPixelStorei (final int pname, final int param) {
+		stats.calls[GLEntryPoint.glPixelStorei.ordinal()]++;
+		gl.glPixelStorei(pname, param);
+	}
+
+	@Override
+	public void glPolygonOffset (final float factor, final float units) {
+		stats.calls[GLEntryPoint.glPolygonOffset.ordinal()]++;
+		gl.glPolygonOffset(factor, units);
+	}
+
+	@Override
+	public void glReadPixels (final int x, final int y, final int width, final int height, final int format, final int type,
+		final Buffer pixels) {
+		stats.calls[GLEntryPoint.glReadPixels.ordinal()]++;
+		gl.glReadPixels(x, y, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glScissor (final int x, final int y, final int width, final int height) {
+		stats.calls[GLEntryPoint.glScissor.ordinal()]++;
+		gl.glScissor(x, y, width, height);
+	}
+
+	@Override
+	public void glStencilFunc (final int func, final int ref, final int mask) {
+		stats.calls[GLEntryPoint.glStencilFunc.ordinal()]++;
+		gl.glStencilFunc(func, ref, mask);
+	}
+
+	@Override
+	public void glStencilMask (final int mask) {
+		stats.calls[GLEntryPoint.glStencilMask.ordinal()]++;
+		gl.glStencilMask(mask);
+	}
+
+	@Override
+	public void glStencilOp (final int fail, final int zfail, final int zpass) {
+		stats.calls[GLEntryPoint.glStencilOp.ordinal()]++;
+		gl.glStencilOp(fail, zfail, zpass);
+	}
+
+	@Override
+	public void glTexImage2D (final int target, final int level, final int internalformat, final int width, final int height,
+		final int border, final int format, final int type, final Buffer pixels) {
+		stats.calls[GLEntryPoint.glTexImage2D.ordinal()]++;
+		stats.textureUploads++;
+		stats.addBytesUploaded(target, getByteSize(pixels));
+		gl.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexParameterf (final int target, final int pname, final float param) {
+		stats.calls[GLEntryPoint.glTexParameterf.ordinal()]++;
+		gl.glTexParameterf(target, pname, param);
+	}
+
+	@Override
+	public void glTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset, final int width,
+		final int height, final int format, final int type, final Buffer pixels) {
+		stats.calls[GLEntryPoint.glTexSubImage2D.ordinal()]++;
+		stats.textureUploads++;
+		stats.addBytesUploaded(target, getByteSize(pixels));
+		gl.glTexSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+	}
+
+	@Override
+	public void glViewport (final int x, final int y, final int width, final int height) {
+		stats.calls[GLEntryPoint.glViewport.ordinal()]++;
+		gl.glViewport(x, y, width, height);
+	}
+
+	@Override
+	public void glAttachShader (final int program, final int shader) {
+		stats.calls[GLEntryPoint.glAttachShader.ordinal()]++;
+		gl.glAttachShader(program, shader);
+	}
+
+	@Override
+	public void glBindAttribLocation (final int program, final int index, final String name) {
+		stats.calls[GLEntryPoint.glBindAttribLocation.ordinal()]++;
+		gl.glBindAttribLocation(program, index, name);
+	}
+
+	@Override
+	public void glBindBuffer (final int target, final int buffer) {
+		stats.calls[GLEntryPoint.glBindBuffer.ordinal()]++;
+		gl.glBindBuffer(target, buffer);
+	}
+
+	@Override
+	public void glBindFramebuffer (final int target, final int framebuffer) {
+		stats.calls[GLEntryPoint.glBindFramebuffer.ordinal()]++;
+		gl.glBindFramebuffer(target, framebuffer);
+	}
+
+	@Override
+	public void glBindRenderbuffer (final int target, final int renderbuffer) {
+		stats.calls[GLEntryPoint.glBindRenderbuffer.ordinal()]++;
+		gl.glBindRenderbuffer(target, renderbuffer);
+	}
+
+	@Override
+	public void glBlendColor (final float red, final float green, final float blue, final float alpha) {
+		stats.calls[GLEntryPoint.glBlendColor.ordinal()]++;
+		gl.glBlendColor(red, green, blue, alpha);
+	}
+
+	@Override
+	public void glBlendEquation (final int mode) {
+		stats.calls[GLEntryPoint.glBlendEquation.ordinal()]++;
+		gl.glBlendEquation(mode);
+	}
+
+	@Override
+	public void glBlendEquationSeparate (final int modeRGB, final int modeAlpha) {
+		stats.calls[GLEntryPoint.glBlendEquationSeparate.ordinal()]++;
+		gl.glBlendEquationSeparate(modeRGB, modeAlpha);
+	}
+
+	@Override
+	public void glBlendFuncSeparate (final int srcRGB, final int dstRGB, final int srcAlpha, final int dstAlpha) {
+		stats.calls[GLEntryPoint.glBlendFuncSeparate.ordinal()]++;
+		gl.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+	}
+
+	@Override
+	public void glBufferData (final int target, final int size, final Buffer data, final int usage) {
+		stats.calls[GLEntryPoint.glBufferData.ordinal()]++;
+		stats.bufferUploads++;
+		stats.addBytesUploaded(target, data == null ? 0 : size);
+		gl.glBufferData(target, size, data, usage);
+	}
+
+	@Override
+	public void glBufferSubData (final int target, final int offset, final int size, final Buffer data) {
+		stats.calls[GLEntryPoint.glBufferSubData.ordinal()]++;
+		stats.bufferUploads++;
+		stats.addBytesUploaded(target, size);
+		gl.glBufferSubData(target, offset, size, data);
+	}
+
+	@Override
+	public int glCheckFramebufferStatus (final int target) {
+		stats.calls[GLEntryPoint.glCheckFramebufferStatus.ordinal()]++;
+		return gl.glCheckFramebufferStatus(target);
+	}
+
+	@Override
+	public void glCompileShader (final int shader) {
+		stats.calls[GLEntryPoint.glCompileShader.ordinal()]++;
+		gl.glCompileShader(shader);
+	}
+
+	@Override
+	public int glCreateProgram () {
+		stats.calls[GLEntryPoint.glCreateProgram.ordinal()]++;
+		return gl.glCreateProgram();
+	}
+
+	@Override
+	public int glCreateShader (final int type) {
+		stats.calls[GLEntryPoint.glCreateShader.ordinal()]++;
+		return gl.glCreateShader(type);
+	}
+
+	@Override
+	public void glDeleteBuffers (final int n, final IntBuffer buffers) {
+		stats.calls[GLEntryPoint.glDeleteBuffers.ordinal()]++;
+		gl.glDeleteBuffers(n, buffers);
+	}
+
+	@Override
+	public void glDeleteBuffer (final int id) {
+		stats.calls[GLEntryPoint.glDeleteBuffer.ordinal()]++;
+		gl.glDeleteBuffer(id);
+	}
+
+	@Override
+	public void glDeleteFramebuffers (final int n, final IntBuffer framebuffers) {
+		stats.calls[GLEntryPoint.glDeleteFramebuffers.ordinal()]++;
+		gl.glDeleteFramebuffers(n, framebuffers);
+	}
+
+	@Override
+	public void glDeleteFramebuffer (final int id) {
+		stats.calls[GLEntryPoint.glDeleteFramebuffer.ordinal()]++;
+		gl.glDeleteFramebuffer(id);
+	}
+
+	@Override
+	public void glDeleteProgram (final int program) {
+		stats.calls[GLEntryPoint.glDeleteProgram.ordinal()]++;
+		gl.glDeleteProgram(program);
+	}
+
+	@Override
+	public void glDeleteRenderbuffers (final int n, final IntBuffer renderbuffers) {
+		stats.calls[GLEntryPoint.glDeleteRenderbuffers.ordinal()]++;
+		gl.glDeleteRenderbuffers(n, renderbuffers);
+	}
+
+	@Override
+	public void glDeleteRenderbuffer (final int id) {
+		stats.calls[GLEntryPoint.glDeleteRenderbuffer.ordinal()]++;
+		gl.glDeleteRenderbuffer(id);
+	}
+
+	@Override
+	public void glDeleteShader (final int shader) {
+		stats.calls[GLEntryPoint.glDeleteShader.ordinal()]++;
+		gl.glDeleteShader(shader);
+	}
+
+	@Override
+	public void glDetachShader (final int program, final int shader) {
+		stats.calls[GLEntryPoint.glDetachShader.ordinal()]++;
+		gl.glDetachShader(program, shader);
+	}
+
+	@Override
+	public void glDisableVertexAttribArray (final int index) {
+		stats.calls[GLEntryPoint.glDisableVertexAttribArray.ordinal()]++;
+		gl.glDisableVertexAttribArray(index);
+	}
+
+	@Override
+	public void glDrawElements (final int mode, final int count, final int type, final int indices) {
+		stats.calls[GLEntryPoint.glDrawElements.ordinal()]++;
+		stats.drawCalls++;
+		stats.indices += count;
+		gl.glDrawElements(mode, count, type, indices);
+	}
+
+	@Override
+	public void glEnableVertexAttribArray (final int index) {
+		stats.calls[GLEntryPoint.glEnableVertexAttribArray.ordinal()]++;
+		gl.glEnableVertexAttribArray(index);
+	}
+
+	@Override
+	public void glFramebufferRenderbuffer (final int target, final int attachment, final int renderbuffertarget,
+		final int renderbuffer) {
+		stats.calls[GLEntryPoint.glFramebufferRenderbuffer.ordinal()]++;
+		gl.glFramebufferRenderbuffer(target, attachment, renderbuffertarget, renderbuffer);
+	}
+
+	@Override
+	public void glFramebufferTexture2D (final int target, final int attachment, final int textarget, final int texture,
+		final int level) {
+		stats.calls[GLEntryPoint.glFramebufferTexture2D.ordinal()]++;
+		gl.glFramebufferTexture2D(target, attachment, textarget, texture, level);
+	}
+
+	@Override
+	public void glGenBuffers (final int n, final IntBuffer buffers) {
+		stats.calls[GLEntryPoint.glGenBuffers.ordinal()]++;
+		gl.glGenBuffers(n, buffers);
+	}
+
+	@Override
+	public int glGenBuffer () {
+		stats.calls[GLEntryPoint.glGenBuffer.ordinal()]++;
+		return gl.glGenBuffer();
+	}
+
+	@Override
+	public void glGenerateMipmap (final int target) {
+		stats.calls[GLEntryPoint.glGenerateMipmap.ordinal()]++;
+		gl.glGenerateMipmap(target);
+	}
+
+	@Override
+	public void glGenFramebuffers (final int n, final IntBuffer framebuffers) {
+		stats.calls[GLEntryPoint.glGenFramebuffers.ordinal()]++;
+		gl.glGenFramebuffers(n, framebuffers);
+	}
+
+	@Override
+	public int glGenFramebuffer () {
+		stats.calls[GLEntryPoint.glGenFramebuffer.ordinal()]++;
+		return gl.glGenFramebuffer();
+	}
+
+	@Override
+	public void glGenRenderbuffers (final int n, final IntBuffer renderbuffers) {
+		stats.calls[GLEntryPoint.glGenRenderbuffers.ordinal()]++;
+		gl.glGenRenderbuffers(n, renderbuffers);
+	}
+
+	@Override
+	public int glGenRenderbuffer () {
+		stats.calls[GLEntryPoint.glGenRenderbuffer.ordinal()]++;
+		return gl.glGenRenderbuffer();
+	}
+
+	@Override
+	public String glGetActiveAttrib (final int program, final int index, final IntBuffer size, final Buffer type) {
+		stats.calls[GLEntryPoint.glGetActiveAttrib.ordinal()]++;
+		return gl.glGetActiveAttrib(program, index, size, type);
+	}
+
+	@Override
+	public String glGetActiveUniform (final int program, final int index, final IntBuffer size, final Buffer type) {
+		stats.calls[GLEntryPoint.glGetActiveUniform.ordinal()]++;
+		return gl.glGetActiveUniform(program, index, size, type);
+	}
+
+	@Override
+	public void glGetAttachedShaders (final int program, final int maxcount, final Buffer count, final IntBuffer shaders) {
+		stats.calls[GLEntryPoint.glGetAttachedShaders.ordinal()]++;
+		gl.glGetAttachedShaders(program, maxcount, count, shaders);
+	}
+
+	@Override
+	public int glGetAttribLocation (final int program, final String name) {
+		stats.calls[GLEntryPoint.glGetAttribLocation.ordinal()]++;
+		return gl.glGetAttribLocation(program, name);
+	}
+
+	@Override
+	public void glGetBooleanv (final int pname, final Buffer params) {
+		stats.calls[GLEntryPoint.glGetBooleanv.ordinal()]++;
+		gl.glGetBooleanv(pname, params);
+	}
+
+	@Override
+	public void glGetBufferParameteriv (final int target, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetBufferParameteriv.ordinal()]++;
+		gl.glGetBufferParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glGetFloatv (final int pname, final FloatBuffer params) {
+		stats.calls[GLEntryPoint.glGetFloatv.ordinal()]++;
+		gl.glGetFloatv(pname, params);
+	}
+
+	@Override
+	public void glGetFramebufferAttachmentParameteriv (final int target, final int attachment, final int pname,
+		final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetFramebufferAttachmentParameteriv.ordinal()]++;
+		gl.glGetFramebufferAttachmentParameteriv(target, attachment, pname, params);
+	}
+
+	@Override
+	public void glGetProgramiv (final int program, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetProgramiv.ordinal()]++;
+		gl.glGetProgramiv(program, pname, params);
+	}
+
+	@Override
+	public String glGetProgramInfoLog (final int program) {
+		stats.calls[GLEntryPoint.glGetProgramInfoLog.ordinal()]++;
+		return gl.glGetProgramInfoLog(program);
+	}
+
+	@Override
+	public void glGetRenderbufferParameteriv (final int target, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetRenderbufferParameteriv.ordinal()]++;
+		gl.glGetRenderbufferParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glGetShaderiv (final int shader, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetShaderiv.ordinal()]++;
+		gl.glGetShaderiv(shader, pname, params);
+	}
+
+	@Override
+	public String glGetShaderInfoLog (final int shader) {
+		stats.calls[GLEntryPoint.glGetShaderInfoLog.ordinal()]++;
+		return gl.glGetShaderInfoLog(shader);
+	}
+
+	@Override
+	public void glGetShaderPrecisionFormat (final int shadertype, final int precisiontype, final IntBuffer range,
+		final IntBuffer precision) {
+		stats.calls[GLEntryPoint.glGetShaderPrecisionFormat.ordinal()]++;
+		gl.glGetShaderPrecisionFormat(shadertype, precisiontype, range, precision);
+	}
+
+	@Override
+	public void glGetTexParameterfv (final int target, final int pname, final FloatBuffer params) {
+		stats.calls[GLEntryPoint.glGetTexParameterfv.ordinal()]++;
+		gl.glGetTexParameterfv(target, pname, params);
+	}
+
+	@Override
+	public void glGetTexParameteriv (final int target, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetTexParameteriv.ordinal()]++;
+		gl.glGetTexParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glGetUniformfv (final int program, final int location, final FloatBuffer params) {
+		stats.calls[GLEntryPoint.glGetUniformfv.ordinal()]++;
+		gl.glGetUniformfv(program, location, params);
+	}
+
+	@Override
+	public void glGetUniformiv (final int program, final int location, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetUniformiv.ordinal()]++;
+		gl.glGetUniformiv(program, location, params);
+	}
+
+	@Override
+	public int glGetUniformLocation (final int program, final String name) {
+		stats.calls[GLEntryPoint.glGetUniformLocation.ordinal()]++;
+		return gl.glGetUniformLocation(program, name);
+	}
+
+	@Override
+	public void glGetVertexAttribfv (final int index, final int pname, final FloatBuffer params) {
+		stats.calls[GLEntryPoint.glGetVertexAttribfv.ordinal()]++;
+		gl.glGetVertexAttribfv(index, pname, params);
+	}
+
+	@Override
+	public void glGetVertexAttribiv (final int index, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetVertexAttribiv.ordinal()]++;
+		gl.glGetVertexAttribiv(index, pname, params);
+	}
+
+	@Override
+	public void glGetVertexAttribPointerv (final int index, final int pname, final Buffer pointer) {
+		stats.calls[GLEntryPoint.glGetVertexAttribPointerv.ordinal()]++;
+		gl.glGetVertexAttribPointerv(index, pname, pointer);
+	}
+
+	@Override
+	public boolean glIsBuffer (final int buffer) {
+		stats.calls[GLEntryPoint.glIsBuffer.ordinal()]++;
+		return gl.glIsBuffer(buffer);
+	}
+
+	@Override
+	public boolean glIsEnabled (final int cap) {
+		stats.calls[GLEntryPoint.glIsEnabled.ordinal()]++;
+		return gl.glIsEnabled(cap);
+	}
+
+	@Override
+	public boolean glIsFramebuffer (final int framebuffer) {
+		stats.calls[GLEntryPoint.glIsFramebuffer.ordinal()]++;
+		return gl.glIsFramebuffer(framebuffer);
+	}
+
+	@Override
+	public boolean glIsProgram (final int program) {
+		stats.calls[GLEntryPoint.glIsProgram.ordinal()]++;
+		return gl.glIsProgram(program);
+	}
+
+	@Override
+	public boolean glIsRenderbuffer (final int renderbuffer) {
+		stats.calls[GLEntryPoint.glIsRenderbuffer.ordinal()]++;
+		return gl.glIsRenderbuffer(renderbuffer);
+	}
+
+	@Override
+	public boolean glIsShader (final int shader) {
+		stats.calls[GLEntryPoint.glIsShader.ordinal()]++;
+		return gl.glIsShader(shader);
+	}
+
+	@Override
+	public boolean glIsTexture (final int texture) {
+		stats.calls[GLEntryPoint.glIsTexture.ordinal()]++;
+		return gl.glIsTexture(texture);
+	}
+
+	@Override
+	public void glLinkProgram (final int program) {
+		stats.calls[GLEntryPoint.glLinkProgram.ordinal()]++;
+		gl.glLinkProgram(program);
+	}
+
+	@Override
+	public void glReleaseShaderCompiler () {
+		stats.calls[GLEntryPoint.glReleaseShaderCompiler.ordinal()]++;
+		gl.glReleaseShaderCompiler();
+	}
+
+	@Override
+	public void glRenderbufferStorage (final int target, final int internalformat, final int width, final int height) {
+		stats.calls[GLEntryPoint.glRenderbufferStorage.ordinal()]++;
+		gl.glRenderbufferStorage(target, internalformat, width, height);
+	}
+
+	@Override
+	public void glSampleCoverage (final float value, final boolean invert) {
+		stats.calls[GLEntryPoint.glSampleCoverage.ordinal()]++;
+		gl.glSampleCoverage(value, invert);
+	}
+
+	@Override
+	public void glShaderBinary (final int n, final IntBuffer shaders, final int binaryformat, final Buffer binary,
+		final int length) {
+		stats.calls[GLEntryPoint.glShaderBinary.ordinal()]++;
+		gl.glShaderBinary(n, shaders, binaryformat, binary, length);
+	}
+
+	@Override
+	public void glShaderSource (final int shader, final String source) {
+		stats.calls[GLEntryPoint.glShaderSource.ordinal()]++;
+		gl.glShaderSource(shader, source);
+	}
+
+	@Override
+	public void glStencilFuncSeparate (final int face, final int func, final int ref, final int mask) {
+		stats.calls[GLEntryPoint.glStencilFuncSeparate.ordinal()]++;
+		gl.glStencilFuncSeparate(face, func, ref, mask);
+	}
+
+	@Override
+	public void glStencilMaskSeparate (final int face, final int mask) {
+		stats.calls[GLEntryPoint.glStencilMaskSeparate.ordinal()]++;
+		gl.glStencilMaskSeparate(face, mask);
+	}
+
+	@Override
+	public void glStencilOpSeparate (final int face, final int fail, final int zfail, final int zpass) {
+		stats.calls[GLEntryPoint.glStencilOpSeparate.ordinal()]++;
+		gl.glStencilOpSeparate(face, fail, zfail, zpass);
+	}
+
+	@Override
+	public void glTexParameterfv (final int target, final int pname, final FloatBuffer params) {
+		stats.calls[GLEntryPoint.glTexParameterfv.ordinal()]++;
+		gl.glTexParameterfv(target, pname, params);
+	}
+
+	@Override
+	public void glTexParameteri (final int target, final int pname, final int param) {
+		stats.calls[GLEntryPoint.glTexParameteri.ordinal()]++;
+		gl.glTexParameteri(target, pname, param);
+	}
+
+	@Override
+	public void glTexParameteriv (final int target, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glTexParameteriv.ordinal()]++;
+		gl.glTexParameteriv(target, pname, params);
+	}
+
+	@Override
+	public void glUniform1f (final int location, final float x) {
+		stats.calls[GLEntryPoint.glUniform1f.ordinal()]++;
+		gl.glUniform1f(location, x);
+	}
+
+	@Override
+	public void glUniform1fv (final int location, final int count, final FloatBuffer v) {
+		stats.calls[GLEntryPoint.glUniform1fv.ordinal()]++;
+		gl.glUniform1fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform1fv (final int location, final int count, final float[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform1fv.ordinal()]++;
+		gl.glUniform1fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform1i (final int location, final int x) {
+		stats.calls[GLEntryPoint.glUniform1i.ordinal()]++;
+		gl.glUniform1i(location, x);
+	}
+
+	@Override
+	public void glUniform1iv (final int location, final int count, final IntBuffer v) {
+		stats.calls[GLEntryPoint.glUniform1iv.ordinal()]++;
+		gl.glUniform1iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform1iv (final int location, final int count, final int[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform1iv.ordinal()]++;
+		gl.glUniform1iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform2f (final int location, final float x, final float y) {
+		stats.calls[GLEntryPoint.glUniform2f.ordinal()]++;
+		gl.glUniform2f(location, x, y);
+	}
+
+	@Override
+	public void glUniform2fv (final int location, final int count, final FloatBuffer v) {
+		stats.calls[GLEntryPoint.glUniform2fv.ordinal()]++;
+		gl.glUniform2fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform2fv (final int location, final int count, final float[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform2fv.ordinal()]++;
+		gl.glUniform2fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform2i (final int location, final int x, final int y) {
+		stats.calls[GLEntryPoint.glUniform2i.ordinal()]++;
+		gl.glUniform2i(location, x, y);
+	}
+
+	@Override
+	public void glUniform2iv (final int location, final int count, final IntBuffer v) {
+		stats.calls[GLEntryPoint.glUniform2iv.ordinal()]++;
+		gl.glUniform2iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform2iv (final int location, final int count, final int[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform2iv.ordinal()]++;
+		gl.glUniform2iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform3f (final int location, final float x, final float y, final float z) {
+		stats.calls[GLEntryPoint.glUniform3f.ordinal()]++;
+		gl.glUniform3f(location, x, y, z);
+	}
+
+	@Override
+	public void glUniform3fv (final int location, final int count, final FloatBuffer v) {
+		stats.calls[GLEntryPoint.glUniform3fv.ordinal()]++;
+		gl.glUniform3fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform3fv (final int location, final int count, final float[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform3fv.ordinal()]++;
+		gl.glUniform3fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform3i (final int location, final int x, final int y, final int z) {
+		stats.calls[GLEntryPoint.glUniform3i.ordinal()]++;
+		gl.glUniform3i(location, x, y, z);
+	}
+
+	@Override
+	public void glUniform3iv (final int location, final int count, final IntBuffer v) {
+		stats.calls[GLEntryPoint.glUniform3iv.ordinal()]++;
+		gl.glUniform3iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform3iv (final int location, final int count, final int[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform3iv.ordinal()]++;
+		gl.glUniform3iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform4f (final int location, final float x, final float y, final float z, final float w) {
+		stats.calls[GLEntryPoint.glUniform4f.ordinal()]++;
+		gl.glUniform4f(location, x, y, z, w);
+	}
+
+	@Override
+	public void glUniform4fv (final int location, final int count, final FloatBuffer v) {
+		stats.calls[GLEntryPoint.glUniform4fv.ordinal()]++;
+		gl.glUniform4fv(location, count, v);
+	}
+
+	@Override
+	public void glUniform4fv (final int location, final int count, final float[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform4fv.ordinal()]++;
+		gl.glUniform4fv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniform4i (final int location, final int x, final int y, final int z, final int w) {
+		stats.calls[GLEntryPoint.glUniform4i.ordinal()]++;
+		gl.glUniform4i(location, x, y, z, w);
+	}
+
+	@Override
+	public void glUniform4iv (final int location, final int count, final IntBuffer v) {
+		stats.calls[GLEntryPoint.glUniform4iv.ordinal()]++;
+		gl.glUniform4iv(location, count, v);
+	}
+
+	@Override
+	public void glUniform4iv (final int location, final int count, final int[] v, final int offset) {
+		stats.calls[GLEntryPoint.glUniform4iv.ordinal()]++;
+		gl.glUniform4iv(location, count, v, offset);
+	}
+
+	@Override
+	public void glUniformMatrix2fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix2fv.ordinal()]++;
+		gl.glUniformMatrix2fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix2fv (final int location, final int count, final boolean transpose, final float[] value,
+		final int offset) {
+		stats.calls[GLEntryPoint.glUniformMatrix2fv.ordinal()]++;
+		gl.glUniformMatrix2fv(location, count, transpose, value, offset);
+	}
+
+	@Override
+	public void glUniformMatrix3fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix3fv.ordinal()]++;
+		gl.glUniformMatrix3fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix3fv (final int location, final int count, final boolean transpose, final float[] value,
+		final int offset) {
+		stats.calls[GLEntryPoint.glUniformMatrix3fv.ordinal()]++;
+		gl.glUniformMatrix3fv(location, count, transpose, value, offset);
+	}
+
+	@Override
+	public void glUniformMatrix4fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix4fv.ordinal()]++;
+		gl.glUniformMatrix4fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4fv (final int location, final int count, final boolean transpose, final float[] value,
+		final int offset) {
+		stats.calls[GLEntryPoint.glUniformMatrix4fv.ordinal()]++;
+		gl.glUniformMatrix4fv(location, count, transpose, value, offset);
+	}
+
+	@Override
+	public void glUseProgram (final int program) {
+		stats.calls[GLEntryPoint.glUseProgram.ordinal()]++;
+		stats.shaderSwitches++;
+		gl.glUseProgram(program);
+	}
+
+	@Override
+	public void glValidateProgram (final int program) {
+		stats.calls[GLEntryPoint.glValidateProgram.ordinal()]++;
+		gl.glValidateProgram(program);
+	}
+
+	@Override
+	public void glVertexAttrib1f (final int indx, final float x) {
+		stats.calls[GLEntryPoint.glVertexAttrib1f.ordinal()]++;
+		gl.glVertexAttrib1f(indx, x);
+	}
+
+	@Override
+	public void glVertexAttrib1fv (final int indx, final FloatBuffer values) {
+		stats.calls[GLEntryPoint.glVertexAttrib1fv.ordinal()]++;
+		gl.glVertexAttrib1fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttrib2f (final int indx, final float x, final float y) {
+		stats.calls[GLEntryPoint.glVertexAttrib2f.ordinal()]++;
+		gl.glVertexAttrib2f(indx, x, y);
+	}
+
+	@Override
+	public void glVertexAttrib2fv (final int indx, final FloatBuffer values) {
+		stats.calls[GLEntryPoint.glVertexAttrib2fv.ordinal()]++;
+		gl.glVertexAttrib2fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttrib3f (final int indx, final float x, final float y, final float z) {
+		stats.calls[GLEntryPoint.glVertexAttrib3f.ordinal()]++;
+		gl.glVertexAttrib3f(indx, x, y, z);
+	}
+
+	@Override
+	public void glVertexAttrib3fv (final int indx, final FloatBuffer values) {
+		stats.calls[GLEntryPoint.glVertexAttrib3fv.ordinal()]++;
+		gl.glVertexAttrib3fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttrib4f (final int indx, final float x, final float y, final float z, final float w) {
+		stats.calls[GLEntryPoint.glVertexAttrib4f.ordinal()]++;
+		gl.glVertexAttrib4f(indx, x, y, z, w);
+	}
+
+	@Override
+	public void glVertexAttrib4fv (final int indx, final FloatBuffer values) {
+		stats.calls[GLEntryPoint.glVertexAttrib4fv.ordinal()]++;
+		gl.glVertexAttrib4fv(indx, values);
+	}
+
+	@Override
+	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
+		final Buffer ptr) {
+		stats.calls[GLEntryPoint.glVertexAttribPointer.ordinal()]++;
+		gl.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+	}
+
+	@Override
+	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
+		final int ptr) {
+		stats.calls[GLEntryPoint.glVertexAttribPointer.ordinal()]++;
+		gl.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+	}
+
+	private TeaVMGLExtensions getExtensions () {
+		if (gl instanceof TeaVMGLExtensions) {
+			return (TeaVMGLExtensions)gl;
+		}
+		throw new GdxRuntimeException("Wrapped GL implementation does not support TeaVM GL extensions.");
+	}
+
+	@Override
+	public boolean isVertexArrayObjectSupported () {
+		return gl instanceof TeaVMGLExtensions && ((TeaVMGLExtensions)gl).isVertexArrayObjectSupported();
+	}
+
+	@Override
+	public int glGenVertexArray () {
+		stats.calls[GLEntryPoint.glGenVertexArray.ordinal()]++;
+		return getExtensions().glGenVertexArray();
+	}
+
+	@Override
+	public void glBindVertexArray (final int array) {
+		stats.calls[GLEntryPoint.glBindVertexArray.ordinal()]++;
+		getExtensions().glBindVertexArray(array);
+	}
+
+	@Override
+	public void glDeleteVertexArray (final int array) {
+		stats.calls[GLEntryPoint.glDeleteVertexArray.ordinal()]++;
+		getExtensions().glDeleteVertexArray(array);
+	}
+
+	@Override
+	public boolean isInstancingSupported () {
+		return gl instanceof TeaVMGLExtensions && ((TeaVMGLExtensions)gl).isInstancingSupported();
+	}
+
+	@Override
+	public void glVertexAttribDivisor (final int index, final int divisor) {
+		stats.calls[GLEntryPoint.glVertexAttribDivisor.ordinal()]++;
+		getExtensions().glVertexAttribDivisor(index, divisor);
+	}
+
+	@Override
+	public void glDrawArraysInstanced (final int mode, final int first, final int count, final int instanceCount) {
+		stats.calls[GLEntryPoint.glDrawArraysInstanced.ordinal()]++;
+		stats.drawCalls++;
+		stats.vertices += count * instanceCount;
+		getExtensions().glDrawArraysInstanced(mode, first, count, instanceCount);
+	}
+
+	@Override
+	public void glDrawElementsInstanced (final int mode, final int count, final int type, final int indicesOffset,
+		final int instanceCount) {
+		stats.calls[GLEntryPoint.glDrawElementsInstanced.ordinal()]++;
+		stats.drawCalls++;
+		stats.indices += count * instanceCount;
+		getExtensions().glDrawElementsInstanced(mode, count, type, indicesOffset, instanceCount);
+	}
+
+	@Override
+	public void glTexImage2D (final int target, final int level, final int internalformat, final int format, final int type,
+		final HTMLImageElement image) {
+		stats.calls[GLEntryPoint.glTexImage2D.ordinal()]++;
+		stats.textureUploads++;
+		stats.addBytesUploaded(target, image.getWidth() * image.getHeight() * 4);
+		getExtensions().glTexImage2D(target, level, internalformat, format, type, image);
+	}
+
+	@Override
+	public boolean isTimerQuerySupported () {
+		return gl instanceof TeaVMGLExtensions && ((TeaVMGLExtensions)gl).isTimerQuerySupported();
+	}
+
+	@Override
+	public JSObject createTimerQuery () {
+		stats.calls[GLEntryPoint.createTimerQuery.ordinal()]++;
+		return getExtensions().createTimerQuery();
+	}
+
+	@Override
+	public void deleteTimerQuery (final JSObject query) {
+		stats.calls[GLEntryPoint.deleteTimerQuery.ordinal()]++;
+		getExtensions().deleteTimerQuery(query);
+	}
+
+	@Override
+	public void beginTimerQuery (final JSObject query) {
+		stats.calls[GLEntryPoint.beginTimerQuery.ordinal()]++;
+		getExtensions().beginTimerQuery(query);
+	}
+
+	@Override
+	public void endTimerQuery () {
+		stats.calls[GLEntryPoint.endTimerQuery.ordinal()]++;
+		getExtensions().endTimerQuery();
+	}
+
+	@Override
+	public boolean isTimerQueryAvailable (final JSObject query) {
+		stats.calls[GLEntryPoint.isTimerQueryAvailable.ordinal()]++;
+		return getExtensions().isTimerQueryAvailable(query);
+	}
+
+	@Override
+	public double getTimerQueryResult (final JSObject query) {
+		stats.calls[GLEntryPoint.getTimerQueryResult.ordinal()]++;
+		return getExtensions().getTimerQueryResult(query);
+	}
+
+	@Override
+	public boolean isGPUDisjoint () {
+		stats.calls[GLEntryPoint.isGPUDisjoint.ordinal()]++;
+		return getExtensions().isGPUDisjoint();
+	}
+}
@@ -0,0 +1,618 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+import com.badlogic.gdx.graphics.GL30;
+
+/** Decorates another {@link GL30} implementation. Counts calls of GL30 entry points along with the GL20 counters gathered by
+ * {@link ProfilingGL20}. Range and instanced draws are counted as draw calls; instanced draws add their vertices or indices
+ * once per instance. 3D texture uploads are counted as texture uploads. */
+public class ProfilingGL30 extends ProfilingGL20 implements GL30 {
+	private final GL30 gl30;
+
+	/** @param gl will receive all GL calls. Uses default history size. */
+	public ProfilingGL30 (final GL30 gl) {
+		this(gl, DEFAULT_HISTORY_SIZE);
+	}
+
+	/** @param gl will receive all GL calls.
+	 * @param historySize amount of finished frames kept in the history. At least 1. */
+	public ProfilingGL30 (final GL30 gl, final int historySize) {
+		super(gl, historySize);
+		gl30 = gl;
+	}
+
+	/** Counted like {@link ProfilingGL20#glVertexAttribPointer(int, int, int, boolean, int, Buffer)}. Deprecated by
+	 * {@link GL30}, as client-side arrays are not a part of the core OpenGL ES 3.0 profile. */
+	@Deprecated
+	@Override
+	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
+		final Buffer ptr) {
+		super.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+	}
+
+	@Override
+	public void glReadBuffer (final int mode) {
+		stats.calls[GLEntryPoint.glReadBuffer.ordinal()]++;
+		gl30.glReadBuffer(mode);
+	}
+
+	@Override
+	public void glDrawRangeElements (final int mode, final int start, final int end, final int count, final int type,
+		final Buffer indices) {
+		stats.calls[GLEntryPoint.glDrawRangeElements.ordinal()]++;
+		stats.drawCalls++;
+		stats.indices += count;
+		gl30.glDrawRangeElements(mode, start, end, count, type, indices);
+	}
+
+	@Override
+	public void glDrawRangeElements (final int mode, final int start, final int end, final int count, final int type,
+		final int offset) {
+		stats.calls[GLEntryPoint.glDrawRangeElements.ordinal()]++;
+		stats.drawCalls++;
+		stats.indices += count;
+		gl30.glDrawRangeElements(mode, start, end, count, type, offset);
+	}
+
+	@Override
+	public void glTexImage3D (final int target, final int level, final int internalformat, final int width, final int height,
+		final int depth, final int border, final int format, final int type, final Buffer pixels) {
+		stats.calls[GLEntryPoint.glTexImage3D.ordinal()]++;
+		stats.textureUploads++;
+		stats.addBytesUploaded(target, getByteSize(pixels));
+		gl30.glTexImage3D(target, level, internalformat, width, height, depth, border, format, type, pixels);
+	}
+
+	@Override
+	public void glTexImage3D (final int target, final int level, final int internalformat, final int width, final int height,
+		final int depth, final int border, final int format, final int type, final int offset) {
+		stats.calls[GLEntryPoint.glTexImage3D.ordinal()]++;
+		stats.textureUploads++;
+		gl30.glTexImage3D(target, level, internalformat, width, height, depth, border, format, type, offset);
+	}
+
+	@Override
+	public void glTexSubImage3D (final int target, final int level, final int xoffset, final int yoffset, final int zoffset,
+		final int width, final int height, final int depth, final int format, final int type, final Buffer pixels) {
+		stats.calls[GLEntryPoint.glTexSubImage3D.ordinal()]++;
+		stats.textureUploads++;
+		stats.addBytesUploaded(target, getByteSize(pixels));
+		gl30.glTexSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, pixels);
+	}
+
+	@Override
+	public void glTexSubImage3D (final int target, final int level, final int xoffset, final int yoffset, final int zoffset,
+		final int width, final int height, final int depth, final int format, final int type, final int offset) {
+		stats.calls[GLEntryPoint.glTexSubImage3D.ordinal()]++;
+		stats.textureUploads++;
+		gl30.glTexSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, offset);
+	}
+
+	@Override
+	public void glCopyTexSubImage3D (final int target, final int level, final int xoffset, final int yoffset, final int zoffset,
+		final int x, final int y, final int width, final int height) {
+		stats.calls[GLEntryPoint.glCopyTexSubImage3D.ordinal()]++;
+		gl30.glCopyTexSubImage3D(target, level, xoffset, yoffset, zoffset, x, y, width, height);
+	}
+
+	@Override
+	public void glGenQueries (final int n, final int[] ids, final int offset) {
+		stats.calls[GLEntryPoint.glGenQueries.ordinal()]++;
+		gl30.glGenQueries(n, ids, offset);
+	}
+
+	@Override
+	public void glGenQueries (final int n, final IntBuffer ids) {
+		stats.calls[GLEntryPoint.glGenQueries.ordinal()]++;
+		gl30.glGenQueries(n, ids);
+	}
+
+	@Override
+	public void glDeleteQueries (final int n, final int[] ids, final int offset) {
+		stats.calls[GLEntryPoint.glDeleteQueries.ordinal()]++;
+		gl30.glDeleteQueries(n, ids, offset);
+	}
+
+	@Override
+	public void glDeleteQueries (final int n, final IntBuffer ids) {
+		stats.calls[GLEntryPoint.glDeleteQueries.ordinal()]++;
+		gl30.glDeleteQueries(n, ids);
+	}
+
+	@Override
+	public boolean glIsQuery (final int id) {
+		stats.calls[GLEntryPoint.glIsQuery.ordinal()]++;
+		return gl30.glIsQuery(id);
+	}
+
+	@Override
+	public void glBeginQuery (final int target, final int id) {
+		stats.calls[GLEntryPoint.glBeginQuery.ordinal()]++;
+		gl30.glBeginQuery(target, id);
+	}
+
+	@Override
+	public void glEndQuery (final int target) {
+		stats.calls[GLEntryPoint.glEndQuery.ordinal()]++;
+		gl30.glEndQuery(target);
+	}
+
+	@Override
+	public void glGetQueryiv (final int target, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetQueryiv.ordinal()]++;
+		gl30.glGetQueryiv(target, pname, params);
+	}
+
+	@Override
+	public void glGetQueryObjectuiv (final int id, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetQueryObjectuiv.ordinal()]++;
+		gl30.glGetQueryObjectuiv(id, pname, params);
+	}
+
+	@Override
+	public boolean glUnmapBuffer (final int target) {
+		stats.calls[GLEntryPoint.glUnmapBuffer.ordinal()]++;
+		return gl30.glUnmapBuffer(target);
+	}
+
+	@Override
+	public Buffer glGetBufferPointerv (final int target, final int pname) {
+		stats.calls[GLEntryPoint.glGetBufferPointerv.ordinal()]++;
+		return gl30.glGetBufferPointerv(target, pname);
+	}
+
+	@Override
+	public void glDrawBuffers (final int n, final IntBuffer bufs) {
+		stats.calls[GLEntryPoint.glDrawBuffers.ordinal()]++;
+		gl30.glDrawBuffers(n, bufs);
+	}
+
+	@Override
+	public void glUniformMatrix2x3fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix2x3fv.ordinal()]++;
+		gl30.glUniformMatrix2x3fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix3x2fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix3x2fv.ordinal()]++;
+		gl30.glUniformMatrix3x2fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix2x4fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix2x4fv.ordinal()]++;
+		gl30.glUniformMatrix2x4fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4x2fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix4x2fv.ordinal()]++;
+		gl30.glUniformMatrix4x2fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix3x4fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix3x4fv.ordinal()]++;
+		gl30.glUniformMatrix3x4fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glUniformMatrix4x3fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glUniformMatrix4x3fv.ordinal()]++;
+		gl30.glUniformMatrix4x3fv(location, count, transpose, value);
+	}
+
+	@Override
+	public void glBlitFramebuffer (final int srcX0, final int srcY0, final int srcX1, final int srcY1, final int dstX0,
+		final int dstY0, final int dstX1, final int dstY1, final int mask, final int filter) {
+		stats.calls[GLEntryPoint.glBlitFramebuffer.ordinal()]++;
+		gl30.glBlitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+	}
+
+	@Override
+	public void glRenderbufferStorageMultisample (final int target, final int samples, final int internalformat,
+		final int width, final int height) {
+		stats.calls[GLEntryPoint.glRenderbufferStorageMultisample.ordinal()]++;
+		gl30.glRenderbufferStorageMultisample(target, samples, internalformat, width, height);
+	}
+
+	@Override
+	public void glFramebufferTextureLayer (final int target, final int attachment, final int texture, final int level,
+		final int layer) {
+		stats.calls[GLEntryPoint.glFramebufferTextureLayer.ordinal()]++;
+		gl30.glFramebufferTextureLayer(target, attachment, texture, level, layer);
+	}
+
+	@Override
+	public void glFlushMappedBufferRange (final int target, final int offset, final int length) {
+		stats.calls[GLEntryPoint.glFlushMappedBufferRange.ordinal()]++;
+		gl30.glFlushMappedBufferRange(target, offset, length);
+	}
+
+	@Override
+	public void glBindVertexArray (final int array) {
+		stats.calls[GLEntryPoint.glBindVertexArray.ordinal()]++;
+		gl30.glBindVertexArray(array);
+	}
+
+	@Override
+	public void glDeleteVertexArrays (final int n, final int[] arrays, final int offset) {
+		stats.calls[GLEntryPoint.glDeleteVertexArrays.ordinal()]++;
+		gl30.glDeleteVertexArrays(n, arrays, offset);
+	}
+
+	@Override
+	public void glDeleteVertexArrays (final int n, final IntBuffer arrays) {
+		stats.calls[GLEntryPoint.glDeleteVertexArrays.ordinal()]++;
+		gl30.glDeleteVertexArrays(n, arrays);
+	}
+
+	@Override
+	public void glGenVertexArrays (final int n, final int[] arrays, final int offset) {
+		stats.calls[GLEntryPoint.glGenVertexArrays.ordinal()]++;
+		gl30.glGenVertexArrays(n, arrays, offset);
+	}
+
+	@Override
+	public void glGenVertexArrays (final int n, final IntBuffer arrays) {
+		stats.calls[GLEntryPoint.glGenVertexArrays.ordinal()]++;
+		gl30.glGenVertexArrays(n, arrays);
+	}
+
+	@Override
+	public boolean glIsVertexArray (final int array) {
+		stats.calls[GLEntryPoint.glIsVertexArray.ordinal()]++;
+		return gl30.glIsVertexArray(array);
+	}
+
+	@Override
+	public void glBeginTransformFeedback (final int primitiveMode) {
+		stats.calls[GLEntryPoint.glBeginTransformFeedback.ordinal()]++;
+		gl30.glBeginTransformFeedback(primitiveMode);
+	}
+
+	@Override
+	public void glEndTransformFeedback () {
+		stats.calls[GLEntryPoint.glEndTransformFeedback.ordinal()]++;
+		gl30.glEndTransformFeedback();
+	}
+
+	@Override
+	public void glBindBufferRange (final int target, final int index, final int buffer, final int offset, final int size) {
+		stats.calls[GLEntryPoint.glBindBufferRange.ordinal()]++;
+		gl30.glBindBufferRange(target, index, buffer, offset, size);
+	}
+
+	@Override
+	public void glBindBufferBase (final int target, final int index, final int buffer) {
+		stats.calls[GLEntryPoint.glBindBufferBase.ordinal()]++;
+		gl30.glBindBufferBase(target, index, buffer);
+	}
+
+	@Override
+	public void glTransformFeedbackVaryings (final int program, final String[] varyings, final int bufferMode) {
+		stats.calls[GLEntryPoint.glTransformFeedbackVaryings.ordinal()]++;
+		gl30.glTransformFeedbackVaryings(program, varyings, bufferMode);
+	}
+
+	@Override
+	public void glVertexAttribIPointer (final int index, final int size, final int type, final int stride, final int offset) {
+		stats.calls[GLEntryPoint.glVertexAttribIPointer.ordinal()]++;
+		gl30.glVertexAttribIPointer(index, size, type, stride, offset);
+	}
+
+	@Override
+	public void glGetVertexAttribIiv (final int index, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetVertexAttribIiv.ordinal()]++;
+		gl30.glGetVertexAttribIiv(index, pname, params);
+	}
+
+	@Override
+	public void glGetVertexAttribIuiv (final int index, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetVertexAttribIuiv.ordinal()]++;
+		gl30.glGetVertexAttribIuiv(index, pname, params);
+	}
+
+	@Override
+	public void glVertexAttribI4i (final int index, final int x, final int y, final int z, final int w) {
+		stats.calls[GLEntryPoint.glVertexAttribI4i.ordinal()]++;
+		gl30.glVertexAttribI4i(index, x, y, z, w);
+	}
+
+	@Override
+	public void glVertexAttribI4ui (final int index, final int x, final int y, final int z, final int w) {
+		stats.calls[GLEntryPoint.glVertexAttribI4ui.ordinal()]++;
+		gl30.glVertexAttribI4ui(index, x, y, z, w);
+	}
+
+	@Override
+	public void glGetUniformuiv (final int program, final int location, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetUniformuiv.ordinal()]++;
+		gl30.glGetUniformuiv(program, location, params);
+	}
+
+	@Override
+	public int glGetFragDataLocation (final int program, final String name) {
+		stats.calls[GLEntryPoint.glGetFragDataLocation.ordinal()]++;
+		return gl30.glGetFragDataLocation(program, name);
+	}
+
+	@Override
+	public void glUniform1uiv (final int location, final int count, final IntBuffer value) {
+		stats.calls[GLEntryPoint.glUniform1uiv.ordinal()]++;
+		gl30.glUniform1uiv(location, count, value);
+	}
+
+	@Override
+	public void glUniform3uiv (final int location, final int count, final IntBuffer value) {
+		stats.calls[GLEntryPoint.glUniform3uiv.ordinal()]++;
+		gl30.glUniform3uiv(location, count, value);
+	}
+
+	@Override
+	public void glUniform4uiv (final int location, final int count, final IntBuffer value) {
+		stats.calls[GLEntryPoint.glUniform4uiv.ordinal()]++;
+		gl30.glUniform4uiv(location, count, value);
+	}
+
+	@Override
+	public void glClearBufferiv (final int buffer, final int drawbuffer, final IntBuffer value) {
+		stats.calls[GLEntryPoint.glClearBufferiv.ordinal()]++;
+		gl30.glClearBufferiv(buffer, drawbuffer, value);
+	}
+
+	@Override
+	public void glClearBufferuiv (final int buffer, final int drawbuffer, final IntBuffer value) {
+		stats.calls[GLEntryPoint.glClearBufferuiv.ordinal()]++;
+		gl30.glClearBufferuiv(buffer, drawbuffer, value);
+	}
+
+	@Override
+	public void glClearBufferfv (final int buffer, final int drawbuffer, final FloatBuffer value) {
+		stats.calls[GLEntryPoint.glClearBufferfv.ordinal()]++;
+		gl30.glClearBufferfv(buffer, drawbuffer, value);
+	}
+
+	@Override
+	public void glClearBufferfi (final int buffer, final int drawbuffer, final float depth, final int stencil) {
+		stats.calls[GLEntryPoint.glClearBufferfi.ordinal()]++;
+		gl30.glClearBufferfi(buffer, drawbuffer, depth, stencil);
+	}
+
+	@Override
+	public String glGetStringi (final int name, final int index) {
+		stats.calls[GLEntryPoint.glGetStringi.ordinal()]++;
+		return gl30.glGetStringi(name, index);
+	}
+
+	@Override
+	public void glCopyBufferSubData (final int readTarget, final int writeTarget, final int readOffset, final int writeOffset,
+		final int size) {
+		stats.calls[GLEntryPoint.glCopyBufferSubData.ordinal()]++;
+		gl30.glCopyBufferSubData(readTarget, writeTarget, readOffset, writeOffset, size);
+	}
+
+	@Override
+	public void glGetUniformIndices (final int program, final String[] uniformNames, final IntBuffer uniformIndices) {
+		stats.calls[GLEntryPoint.glGetUniformIndices.ordinal()]++;
+		gl30.glGetUniformIndices(program, uniformNames, uniformIndices);
+	}
+
+	@Override
+	public void glGetActiveUniformsiv (final int program, final int uniformCount, final IntBuffer uniformIndices,
+		final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetActiveUniformsiv.ordinal()]++;
+		gl30.glGetActiveUniformsiv(program, uniformCount, uniformIndices, pname, params);
+	}
+
+	@Override
+	public int glGetUniformBlockIndex (final int program, final String uniformBlockName) {
+		stats.calls[GLEntryPoint.glGetUniformBlockIndex.ordinal()]++;
+		return gl30.glGetUniformBlockIndex(program, uniformBlockName);
+	}
+
+	@Override
+	public void glGetActiveUniformBlockiv (final int program, final int uniformBlockIndex, final int pname,
+		final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetActiveUniformBlockiv.ordinal()]++;
+		gl30.glGetActiveUniformBlockiv(program, uniformBlockIndex, pname, params);
+	}
+
+	@Override
+	public void glGetActiveUniformBlockName (final int program, final int uniformBlockIndex, final Buffer length,
+		final Buffer uniformBlockName) {
+		stats.calls[GLEntryPoint.glGetActiveUniformBlockName.ordinal()]++;
+		gl30.glGetActiveUniformBlockName(program, uniformBlockIndex, length, uniformBlockName);
+	}
+
+	@Override
+	public String glGetActiveUniformBlockName (final int program, final int uniformBlockIndex) {
+		stats.calls[GLEntryPoint.glGetActiveUniformBlockName.ordinal()]++;
+		return gl30.glGetActiveUniformBlockName(program, uniformBlockIndex);
+	}
+
+	@Override
+	public void glUniformBlockBinding (final int program, final int uniformBlockIndex, final int uniformBlockBinding) {
+		stats.calls[GLEntryPoint.glUniformBlockBinding.ordinal()]++;
+		gl30.glUniformBlockBinding(program, uniformBlockIndex, uniformBlockBinding);
+	}
+
+	@Override
+	public void glDrawArraysInstanced (final int mode, final int first, final int count, final int instanceCount) {
+		stats.calls[GLEntryPoint.glDrawArraysInstanced.ordinal()]++;
+		stats.drawCalls++;
+		stats.vertices += count * instanceCount;
+		gl30.glDrawArraysInstanced(mode, first, count, instanceCount);
+	}
+
+	@Override
+	public void glDrawElementsInstanced (final int mode, final int count, final int type, final int indicesOffset,
+		final int instanceCount) {
+		stats.calls[GLEntryPoint.glDrawElementsInstanced.ordinal()]++;
+		stats.drawCalls++;
+		stats.indices += count * instanceCount;
+		gl30.glDrawElementsInstanced(mode, count, type, indicesOffset, instanceCount);
+	}
+
+	@Override
+	public void glGetInteger64v (final int pname, final LongBuffer params) {
+		stats.calls[GLEntryPoint.glGetInteger64v.ordinal()]++;
+		gl30.glGetInteger64v(pname, params);
+	}
+
+	@Override
+	public void glGetBufferParameteri64v (final int target, final int pname, final LongBuffer params) {
+		stats.calls[GLEntryPoint.glGetBufferParameteri64v.ordinal()]++;
+		gl30.glGetBufferParameteri64v(target, pname, params);
+	}
+
+	@Override
+	public void glGenSamplers (final int count, final int[] samplers, final int offset) {
+		stats.calls[GLEntryPoint.glGenSamplers.ordinal()]++;
+		gl30.glGenSamplers(count, samplers, offset);
+	}
+
+	@Override
+	public void glGenSamplers (final int count, final IntBuffer samplers) {
+		stats.calls[GLEntryPoint.glGenSamplers.ordinal()]++;
+		gl30.glGenSamplers(count, samplers);
+	}
+
+	@Override
+	public void glDeleteSamplers (final int count, final int[] samplers, final int offset) {
+		stats.calls[GLEntryPoint.glDeleteSamplers.ordinal()]++;
+		gl30.glDeleteSamplers(count, samplers, offset);
+	}
+
+	@Override
+	public void glDeleteSamplers (final int count, final IntBuffer samplers) {
+		stats.calls[GLEntryPoint.glDeleteSamplers.ordinal()]++;
+		gl30.glDeleteSamplers(count, samplers);
+	}
+
+	@Override
+	public boolean glIsSampler (final int sampler) {
+		stats.calls[GLEntryPoint.glIsSampler.ordinal()]++;
+		return gl30.glIsSampler(sampler);
+	}
+
+	@Override
+	public void glBindSampler (final int unit, final int sampler) {
+		stats.calls[GLEntryPoint.glBindSampler.ordinal()]++;
+		gl30.glBindSampler(unit, sampler);
+	}
+
+	@Override
+	public void glSamplerParameteri (final int sampler, final int pname, final int param) {
+		stats.calls[GLEntryPoint.glSamplerParameteri.ordinal()]++;
+		gl30.glSamplerParameteri(sampler, pname, param);
+	}
+
+	@Override
+	public void glSamplerParameteriv (final int sampler, final int pname, final IntBuffer param) {
+		stats.calls[GLEntryPoint.glSamplerParameteriv.ordinal()]++;
+		gl30.glSamplerParameteriv(sampler, pname, param);
+	}
+
+	@Override
+	public void glSamplerParameterf (final int sampler, final int pname, final float param) {
+		stats.calls[GLEntryPoint.glSamplerParameterf.ordinal()]++;
+		gl30.glSamplerParameterf(sampler, pname, param);
+	}
+
+	@Override
+	public void glSamplerParameterfv (final int sampler, final int pname, final FloatBuffer param) {
+		stats.calls[GLEntryPoint.glSamplerParameterfv.ordinal()]++;
+		gl30.glSamplerParameterfv(sampler, pname, param);
+	}
+
+	@Override
+	public void glGetSamplerParameteriv (final int sampler, final int pname, final IntBuffer params) {
+		stats.calls[GLEntryPoint.glGetSamplerParameteriv.ordinal()]++;
+		gl30.glGetSamplerParameteriv(sampler, pname, params);
+	}
+
+	@Override
+	public void glGetSamplerParameterfv (final int sampler, final int pname, final FloatBuffer params) {
+		stats.calls[GLEntryPoint.glGetSamplerParameterfv.ordinal()]++;
+		gl30.glGetSamplerParameterfv(sampler, pname, params);
+	}
+
+	@Override
+	public void glVertexAttribDivisor (final int index, final int divisor) {
+		stats.calls[GLEntryPoint.glVertexAttribDivisor.ordinal()]++;
+		gl30.glVertexAttribDivisor(index, divisor);
+	}
+
+	@Override
+	public void glBindTransformFeedback (final int target, final int id) {
+		stats.calls[GLEntryPoint.glBindTransformFeedback.ordinal()]++;
+		gl30.glBindTransformFeedback(target, id);
+	}
+
+	@Override
+	public void glDeleteTransformFeedbacks (final int n, final int[] ids, final int offset) {
+		stats.calls[GLEntryPoint.glDeleteTransformFeedbacks.ordinal()]++;
+		gl30.glDeleteTransformFeedbacks(n, ids, offset);
+	}
+
+	@Override
+	public void glDeleteTransformFeedbacks (final int n, final IntBuffer ids) {
+		stats.calls[GLEntryPoint.glDeleteTransformFeedbacks.ordinal()]++;
+		gl30.glDeleteTransformFeedbacks(n, ids);
+	}
+
+	@Override
+	public void glGenTransformFeedbacks (final int n, final int[] ids, final int offset) {
+		stats.calls[GLEntryPoint.glGenTransformFeedbacks.ordinal()]++;
+		gl30.glGenTransformFeedbacks(n, ids, offset);
+	}
+
+	@Override
+	public void glGenTransformFeedbacks (final int n, final IntBuffer ids) {
+		stats.calls[GLEntryPoint.glGenTransformFeedbacks.ordinal()]++;
+		gl30.glGenTransformFeedbacks(n, ids);
+	}
+
+	@Override
+	public boolean glIsTransformFeedback (final int id) {
+		stats.calls[GLEntryPoint.glIsTransformFeedback.ordinal()]++;
+		return gl30.glIsTransformFeedback(id);
+	}
+
+	@Override
+	public void glPauseTransformFeedback () {
+		stats.calls[GLEntryPoint.glPauseTransformFeedback.ordinal()]++;
+		gl30.glPauseTransformFeedback();
+	}
+
+	@Override
+	public void glResumeTransformFeedback () {
+		stats.calls[GLEntryPoint.glResumeTransformFeedback.ordinal()]++;
+		gl30.glResumeTransformFeedback();
+	}
+
+	@Override
+	public void glProgramParameteri (final int program, final int pname, final int value) {
+		stats.calls[GLEntryPoint.glProgramParameteri.ordinal()]++;
+		gl30.glProgramParameteri(program, pname, value);
+	}
+
+	@Override
+	public void glInvalidateFramebuffer (final int target, final int numAttachments, final IntBuffer attachments) {
+		stats.calls[GLEntryPoint.glInvalidateFramebuffer.ordinal()]++;
+		gl30.glInvalidateFramebuffer(target, numAttachments, attachments);
+	}
+
+	@Override
+	public void glInvalidateSubFramebuffer (final int target, final int numAttachments, final IntBuffer attachments,
+		final int x, final int y, final int width, final int height) {
+		stats.calls[GLEntryPoint.glInvalidateSubFramebuffer.ordinal()]++;
+		gl30.glInvalidateSubFramebuffer(target, numAttachments, attachments, x, y, width, height);
+	}
+}
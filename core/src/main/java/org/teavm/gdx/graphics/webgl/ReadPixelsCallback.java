@@ -0,0 +1,9 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.Buffer;
+
+/** Receives pixels read with {@link TeaVMGL20#glReadPixelsAsync(int, int, int, int, int, int, Buffer, ReadPixelsCallback)}. */
+public interface ReadPixelsCallback {
+	/** @param pixels buffer passed to the read call, now filled with the pixels. */
+	void onPixelsRead (Buffer pixels);
+}
@@ -0,0 +1,274 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.webgl.WebGLProgram;
+import org.teavm.jso.webgl.WebGLShader;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/** Shares compiled shaders and linked programs between GL handles with identical sources. Shaders are keyed by their type and
+ * source, programs by the keys of their attached shaders and bound attribute locations. Each cached WebGL object counts the
+ * handles using it and should be deleted only once the last one is released.
+ * <p>
+ * Only keeps the bookkeeping: {@link TeaVMGL20} creates, compiles, links and deletes the WebGL objects. */
+public class ShaderCache {
+	private final ObjectMap<String, Entry<WebGLShader>> shaders = new ObjectMap<>();
+	private final ObjectMap<String, Entry<WebGLProgram>> programs = new ObjectMap<>();
+	private final IntIntMap shaderTypes = new IntIntMap();
+	private final IntMap<String> shaderSources = new IntMap<>();
+	/** Keys of the cache entries used by shader handles. */
+	private final IntMap<String> shaderKeys = new IntMap<>();
+	/** Keys of the cache entries used by program handles. */
+	private final IntMap<String> programKeys = new IntMap<>();
+	private final IntMap<IntArray> attachedShaders = new IntMap<>();
+	private final IntMap<IntArray> attributeIndices = new IntMap<>();
+	private final IntMap<Array<String>> attributeNames = new IntMap<>();
+
+	/** @param shader ID of a new shader.
+	 * @param type shader type. */
+	public void shaderCreated (final int shader, final int type) {
+		shaderTypes.put(shader, type);
+	}
+
+	/** @param shader shader ID.
+	 * @return type of the shader. */
+	public int getShaderType (final int shader) {
+		return shaderTypes.get(shader, 0);
+	}
+
+	/** @param shader shader ID.
+	 * @param source new source of the shader, applied when it is compiled. */
+	public void shaderSource (final int shader, final String source) {
+		shaderSources.put(shader, source);
+	}
+
+	/** @param shader shader ID.
+	 * @return last source set for the shader or null. */
+	public String getShaderSource (final int shader) {
+		return shaderSources.get(shader);
+	}
+
+	/** @param shader shader ID.
+	 * @return true if the WebGL shader of the handle is shared through the cache. */
+	public boolean isShaderCached (final int shader) {
+		return shaderKeys.containsKey(shader);
+	}
+
+	/** @param shader ID of a shader about to be compiled. Must not be cached.
+	 * @return compiled shader with the same type and source, now also used by the passed handle. Null if there is none. */
+	public WebGLShader acquireShader (final int shader) {
+		final String key = getShaderKey(shader);
+		final Entry<WebGLShader> entry = key == null ? null : shaders.get(key);
+		if (entry == null) {
+			return null;
+		}
+		entry.references++;
+		shaderKeys.put(shader, key);
+		return entry.object;
+	}
+
+	/** @param shader ID of a compiled shader.
+	 * @param compiled shader registered with the ID. Will be shared with shaders with the same type and source. */
+	public void addShader (final int shader, final WebGLShader compiled) {
+		final String key = getShaderKey(shader);
+		if (key != null) {
+			shaders.put(key, new Entry<>(compiled));
+			shaderKeys.put(shader, key);
+		}
+	}
+
+	private String getShaderKey (final int shader) {
+		final String source = shaderSources.get(shader);
+		return source == null ? null : shaderTypes.get(shader, 0) + ":" + source;
+	}
+
+	/** Stops sharing the WebGL shader of the handle, for example before it is compiled again.
+	 * @param shader shader ID.
+	 * @return true if the WebGL shader is still used by other handles, in which case the handle needs a new one. */
+	public boolean forgetShader (final int shader) {
+		final String key = shaderKeys.remove(shader);
+		return key != null && !release(shaders, key);
+	}
+
+	/** @param shader ID of a deleted shader.
+	 * @return true if its WebGL shader is no longer used by other handles and should be deleted. */
+	public boolean releaseShader (final int shader) {
+		shaderTypes.remove(shader, 0);
+		shaderSources.remove(shader);
+		final String key = shaderKeys.remove(shader);
+		return key == null || release(shaders, key);
+	}
+
+	/** @param program program ID.
+	 * @param shader ID of the attached shader. */
+	public void attachShader (final int program, final int shader) {
+		IntArray attached = attachedShaders.get(program);
+		if (attached == null) {
+			attached = new IntArray(2);
+			attachedShaders.put(program, attached);
+		}
+		attached.add(shader);
+	}
+
+	/** @param program program ID.
+	 * @param shader ID of the detached shader. */
+	public void detachShader (final int program, final int shader) {
+		final IntArray attached = attachedShaders.get(program);
+		if (attached != null) {
+			attached.removeValue(shader);
+		}
+	}
+
+	/** @param program program ID.
+	 * @return IDs of shaders attached to the program. Might be null. */
+	public IntArray getAttachedShaders (final int program) {
+		return attachedShaders.get(program);
+	}
+
+	/** @param program program ID.
+	 * @param index attribute location.
+	 * @param name attribute name. */
+	public void bindAttribLocation (final int program, final int index, final String name) {
+		IntArray indices = attributeIndices.get(program);
+		if (indices == null) {
+			indices = new IntArray(4);
+			attributeIndices.put(program, indices);
+			attributeNames.put(program, new Array<String>(4));
+		}
+		indices.add(index);
+		attributeNames.get(program).add(name);
+	}
+
+	/** @param program program ID.
+	 * @return locations bound to attributes of the program in binding order. Might be null. */
+	public IntArray getAttributeIndices (final int program) {
+		return attributeIndices.get(program);
+	}
+
+	/** @param program program ID.
+	 * @return names of attributes with bound locations in binding order. Might be null. */
+	public Array<String> getAttributeNames (final int program) {
+		return attributeNames.get(program);
+	}
+
+	/** @param program program ID.
+	 * @return true if the WebGL program of the handle is shared through the cache. */
+	public boolean isProgramCached (final int program) {
+		return programKeys.containsKey(program);
+	}
+
+	/** @param program ID of a program about to be linked. Must not be cached.
+	 * @return linked program with the same shaders and attribute bindings, now also used by the passed handle. Null if there is
+	 *         none. */
+	public WebGLProgram acquireProgram (final int program) {
+		final String key = getProgramKey(program);
+		final Entry<WebGLProgram> entry = key == null ? null : programs.get(key);
+		if (entry == null) {
+			return null;
+		}
+		entry.references++;
+		programKeys.put(program, key);
+		return entry.object;
+	}
+
+	/** @param program ID of a linked program.
+	 * @param linked program registered with the ID. Will be shared with programs with the same shaders and attribute
+	 *           bindings. */
+	public void addProgram (final int program, final WebGLProgram linked) {
+		final String key = getProgramKey(program);
+		if (key != null) {
+			programs.put(key, new Entry<>(linked));
+			programKeys.put(program, key);
+		}
+	}
+
+	/** @param program ID of a cached program.
+	 * @return ID of another handle sharing its WebGL program or 0 if there is none. */
+	public int findSharedProgram (final int program) {
+		final String key = programKeys.get(program);
+		if (key != null) {
+			for (final IntMap.Entry<String> entry : programKeys.entries()) {
+				if (entry.key != program && key.equals(entry.value)) {
+					return entry.key;
+				}
+			}
+		}
+		return 0;
+	}
+
+	private String getProgramKey (final int program) {
+		final IntArray attached = attachedShaders.get(program);
+		if (attached == null || attached.size == 0) {
+			return null;
+		}
+		final StringBuilder key = new StringBuilder();
+		for (int i = 0; i < attached.size; i++) {
+			final String shaderKey = shaderKeys.get(attached.get(i));
+			if (shaderKey == null) {
+				return null; // Not compiled through the cache.
+			}
+			key.append(shaderKey.length()).append(':').append(shaderKey);
+		}
+		final IntArray indices = attributeIndices.get(program);
+		if (indices != null) {
+			final Array<String> names = attributeNames.get(program);
+			for (int i = 0; i < indices.size; i++) {
+				key.append(indices.get(i)).append('=').append(names.get(i)).append(';');
+			}
+		}
+		return key.toString();
+	}
+
+	/** Stops sharing the WebGL program of the handle, for example before it is linked again.
+	 * @param program program ID.
+	 * @return true if the WebGL program is still used by other handles, in which case the handle needs a new one. */
+	public boolean forgetProgram (final int program) {
+		final String key = programKeys.remove(program);
+		return key != null && !release(programs, key);
+	}
+
+	/** @param program ID of a deleted program.
+	 * @return true if its WebGL program is no longer used by other handles and should be deleted. */
+	public boolean releaseProgram (final int program) {
+		attachedShaders.remove(program);
+		attributeIndices.remove(program);
+		attributeNames.remove(program);
+		final String key = programKeys.remove(program);
+		return key == null || release(programs, key);
+	}
+
+	/** @return true if the entry is no longer referenced and was removed. */
+	private static <T> boolean release (final ObjectMap<String, Entry<T>> entries, final String key) {
+		final Entry<T> entry = entries.get(key);
+		if (entry == null) {
+			return true;
+		}
+		if (--entry.references > 0) {
+			return false;
+		}
+		entries.remove(key);
+		return true;
+	}
+
+	/** @return amount of shared shaders. */
+	public int getShaderCount () {
+		return shaders.size;
+	}
+
+	/** @return amount of shared programs. */
+	public int getProgramCount () {
+		return programs.size;
+	}
+
+	private static class Entry<T> {
+		final T object;
+		int references = 1;
+
+		Entry (final T object) {
+			this.object = object;
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import org.teavm.gdx.lifecycle.FrameListener;
+import org.teavm.jso.typedarrays.ArrayBufferView;
+import org.teavm.jso.typedarrays.Float32Array;
+import org.teavm.jso.typedarrays.Float64Array;
+import org.teavm.jso.typedarrays.Int16Array;
+import org.teavm.jso.typedarrays.Int32Array;
+import org.teavm.jso.typedarrays.Int8Array;
+import org.teavm.jso.typedarrays.Uint16Array;
+import org.teavm.jso.typedarrays.Uint8Array;
+
+/** Stages buffers that are not backed by arrays (for example views created with {@link ByteBuffer#asFloatBuffer()}) before they
+ * are passed to WebGL. Keeps a grow-only scratch array per element type - TeaVM stores these in typed arrays - fills it with an
+ * NIO bulk get and returns a view over the filled range. Nothing is allocated once the scratch arrays are large enough.
+ * <p>
+ * Staged buffers expose no typed array to copy from, so TeaVM performs the bulk get element by element, decoding the byte order
+ * of views over byte buffers. Only array-backed buffers can be passed to WebGL without this copy.
+ * <p>
+ * Returned views share the scratch storage: they are valid only until the next staging call for the same element type, so
+ * they should be consumed by WebGL immediately. */
+public class StagingBuffers implements FrameListener {
+	/** Initial size of each scratch array. */
+	public static final int INITIAL_CAPACITY = 1024;
+
+	private float[] floats = new float[INITIAL_CAPACITY];
+	private short[] shorts = new short[INITIAL_CAPACITY];
+	private int[] ints = new int[INITIAL_CAPACITY];
+	private byte[] bytes = new byte[INITIAL_CAPACITY];
+	/** Created on first use, as double buffers are rarely passed to WebGL. */
+	private double[] doubles;
+	private int bytesStaged;
+	private int lastFrameBytesStaged;
+	private long totalBytesStaged;
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return view over the staged elements. */
+	public Float32Array stage (final FloatBuffer buffer) {
+		final int length = buffer.remaining();
+		if (length > floats.length) {
+			floats = new float[grow(floats.length, length)];
+		}
+		final int position = buffer.position();
+		buffer.get(floats, 0, length);
+		buffer.position(position);
+		count(length << 2);
+		return TypedArrays.floats(floats, 0, length);
+	}
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return view over the staged elements. */
+	public Float64Array stage (final DoubleBuffer buffer) {
+		final int length = buffer.remaining();
+		if (doubles == null || length > doubles.length) {
+			doubles = new double[grow(doubles == null ? INITIAL_CAPACITY : doubles.length, length)];
+		}
+		final int position = buffer.position();
+		buffer.get(doubles, 0, length);
+		buffer.position(position);
+		count(length << 3);
+		return TypedArrays.doubles(doubles, 0, length);
+	}
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return view over the staged elements. */
+	public Int16Array stage (final ShortBuffer buffer) {
+		final int length = stageShorts(buffer);
+		return TypedArrays.shorts(shorts, 0, length);
+	}
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return view over the staged elements, reinterpreted as unsigned values. */
+	public Uint16Array stageUnsigned (final ShortBuffer buffer) {
+		final int length = stageShorts(buffer);
+		return TypedArrays.unsignedShorts(shorts, 0, length);
+	}
+
+	private int stageShorts (final ShortBuffer buffer) {
+		final int length = buffer.remaining();
+		if (length > shorts.length) {
+			shorts = new short[grow(shorts.length, length)];
+		}
+		final int position = buffer.position();
+		buffer.get(shorts, 0, length);
+		buffer.position(position);
+		count(length << 1);
+		return length;
+	}
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return view over the staged elements. */
+	public Int32Array stage (final IntBuffer buffer) {
+		final int length = stageInts(buffer);
+		return TypedArrays.ints(ints, 0, length);
+	}
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return Uint32Array view over the staged elements, reinterpreted as unsigned values. */
+	public ArrayBufferView stageUnsigned (final IntBuffer buffer) {
+		final int length = stageInts(buffer);
+		return TypedArrays.unsignedInts(ints, 0, length);
+	}
+
+	private int stageInts (final IntBuffer buffer) {
+		final int length = buffer.remaining();
+		if (length > ints.length) {
+			ints = new int[grow(ints.length, length)];
+		}
+		final int position = buffer.position();
+		buffer.get(ints, 0, length);
+		buffer.position(position);
+		count(length << 2);
+		return length;
+	}
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return view over the staged elements. */
+	public Int8Array stage (final ByteBuffer buffer) {
+		final int length = stageBytes(buffer);
+		return TypedArrays.bytes(bytes, 0, length);
+	}
+
+	/** @param buffer its remaining elements will be staged. Position is not modified.
+	 * @return view over the staged elements, reinterpreted as unsigned values. */
+	public Uint8Array stageUnsigned (final ByteBuffer buffer) {
+		final int length = stageBytes(buffer);
+		return TypedArrays.unsignedBytes(bytes, 0, length);
+	}
+
+	private int stageBytes (final ByteBuffer buffer) {
+		final int length = buffer.remaining();
+		if (length > bytes.length) {
+			bytes = new byte[grow(bytes.length, length)];
+		}
+		final int position = buffer.position();
+		buffer.get(bytes, 0, length);
+		buffer.position(position);
+		count(length);
+		return length;
+	}
+
+	/** @param length amount of bytes that WebGL will read back.
+	 * @return view over the byte scratch array that read back data can be written to. Copy the data to its destination with
+	 *         {@link #unstage(ByteBuffer, int)}. */
+	public Uint8Array reserveUnsigned (final int length) {
+		if (length > bytes.length) {
+			bytes = new byte[grow(bytes.length, length)];
+		}
+		return TypedArrays.unsignedBytes(bytes, 0, length);
+	}
+
+	/** @param buffer receives the bytes written to the view returned by {@link #reserveUnsigned(int)} with an NIO bulk put,
+	 *           which TeaVM performs element by element. Position is not modified.
+	 * @param length amount of bytes to copy. */
+	public void unstage (final ByteBuffer buffer, final int length) {
+		final int position = buffer.position();
+		buffer.put(bytes, 0, length);
+		buffer.position(position);
+		count(length);
+	}
+
+	private static int grow (int capacity, final int required) {
+		while (capacity < required) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private void count (final int bytes) {
+		bytesStaged += bytes;
+		totalBytesStaged += bytes;
+	}
+
+	@Override
+	public void onFrameEnd () {
+		lastFrameBytesStaged = bytesStaged;
+		bytesStaged = 0;
+	}
+
+	/** @return amount of bytes staged since the current frame started. */
+	public int getBytesStaged () {
+		return bytesStaged;
+	}
+
+	/** @return amount of bytes staged during the previous frame. */
+	public int getLastFrameBytesStaged () {
+		return lastFrameBytesStaged;
+	}
+
+	/** @return amount of bytes staged since the staging buffers were created. */
+	public long getTotalBytesStaged () {
+		return totalBytesStaged;
+	}
+
+	/** @return current summed size of the scratch arrays in bytes. */
+	public int getCapacity () {
+		return (floats.length << 2) + (shorts.length << 1) + (ints.length << 2) + bytes.length
+			+ (doubles == null ? 0 : doubles.length << 3);
+	}
+}
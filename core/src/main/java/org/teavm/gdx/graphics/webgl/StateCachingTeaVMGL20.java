@@ -0,0 +1,394 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.IntBuffer;
+
+import org.teavm.jso.webgl.WebGLRenderingContext;
+
+/** Shadows commonly changed WebGL state and skips calls that would not change it. Each call to {@link WebGLRenderingContext}
+ * crosses the boundary between TeaVM-compiled code and the browser, while LibGDX utilities (like SpriteBatch or Stage) tend to
+ * reissue the same state on every flush.
+ * <p>
+ * Tracks bound 2D and cube map textures per texture unit, active texture unit, current program, array and element array buffer
+ * bindings, blending function and equation, enabled capabilities, depth, stencil and color masks, viewport and scissor. All
+ * state starts as unknown, so the first call of each kind always reaches WebGL. If WebGL state is modified directly through
+ * the context, {@link #invalidateState()} has to be called.
+ * <p>
+ * Keeps per-frame counters of tracked calls that were issued and elided. */
+public class StateCachingTeaVMGL20 extends TeaVMGL20 {
+	/** Marks state that has to be set regardless of the requested value. */
+	protected static final int UNKNOWN = -1;
+	/** Amount of texture units with tracked bindings. Calls for other units are never elided. */
+	protected static final int TRACKED_TEXTURE_UNITS = 32;
+	private static final int CAPABILITIES = 9;
+
+	private int activeTexture;
+	private final int[] textures2D = new int[TRACKED_TEXTURE_UNITS];
+	private final int[] texturesCubeMap = new int[TRACKED_TEXTURE_UNITS];
+	private int program;
+	private int arrayBuffer;
+	private int elementArrayBuffer;
+	private int blendSrcRgb, blendDstRgb, blendSrcAlpha, blendDstAlpha;
+	private int blendEquationRgb, blendEquationAlpha;
+	private final int[] capabilities = new int[CAPABILITIES];
+	private int depthMask;
+	private int stencilMask;
+	private int colorMask;
+	private int viewportX, viewportY, viewportWidth, viewportHeight;
+	private int scissorX, scissorY, scissorWidth, scissorHeight;
+
+	private int callsIssued;
+	private int callsElided;
+	private int lastFrameCallsIssued;
+	private int lastFrameCallsElided;
+
+	public StateCachingTeaVMGL20 (final WebGLRenderingContext gl) {
+		super(gl);
+		invalidateState();
+	}
+
+	/** Marks all shadowed state as unknown. Should be called after WebGL state was changed without using this object. */
+	public void invalidateState () {
+		activeTexture = UNKNOWN;
+		for (int i = 0; i < TRACKED_TEXTURE_UNITS; i++) {
+			textures2D[i] = UNKNOWN;
+			texturesCubeMap[i] = UNKNOWN;
+		}
+		program = UNKNOWN;
+		arrayBuffer = UNKNOWN;
+		elementArrayBuffer = UNKNOWN;
+		blendSrcRgb = blendDstRgb = blendSrcAlpha = blendDstAlpha = UNKNOWN;
+		blendEquationRgb = blendEquationAlpha = UNKNOWN;
+		for (int i = 0; i < CAPABILITIES; i++) {
+			capabilities[i] = UNKNOWN;
+		}
+		depthMask = UNKNOWN;
+		stencilMask = UNKNOWN;
+		colorMask = UNKNOWN;
+		viewportX = viewportY = viewportWidth = viewportHeight = UNKNOWN;
+		scissorX = scissorY = scissorWidth = scissorHeight = UNKNOWN;
+	}
+
+	/** Marks element array buffer binding as unknown. Should be called when a vertex array object is bound, as it stores its
+	 * own element array buffer binding. */
+	protected void invalidateElementArrayBuffer () {
+		elementArrayBuffer = UNKNOWN;
+	}
+
+	private boolean issue () {
+		callsIssued++;
+		return true;
+	}
+
+	private boolean elide () {
+		callsElided++;
+		return false;
+	}
+
+	@Override
+	public void onFrameEnd () {
+		super.onFrameEnd();
+		lastFrameCallsIssued = callsIssued;
+		lastFrameCallsElided = callsElided;
+		callsIssued = 0;
+		callsElided = 0;
+	}
+
+	/** @return amount of tracked calls passed to WebGL since the current frame started. */
+	public int getCallsIssued () {
+		return callsIssued;
+	}
+
+	/** @return amount of tracked calls skipped since the current frame started. */
+	public int getCallsElided () {
+		return callsElided;
+	}
+
+	/** @return amount of tracked calls passed to WebGL during the previous frame. */
+	public int getLastFrameCallsIssued () {
+		return lastFrameCallsIssued;
+	}
+
+	/** @return amount of tracked calls skipped during the previous frame. */
+	public int getLastFrameCallsElided () {
+		return lastFrameCallsElided;
+	}
+
+	/** @param cap GL capability.
+	 * @return index of the capability in the shadowed state or -1 if it is not tracked. */
+	private static int getCapabilityIndex (final int cap) {
+		switch (cap) {
+		case GL_BLEND:
+			return 0;
+		case GL_CULL_FACE:
+			return 1;
+		case GL_DEPTH_TEST:
+			return 2;
+		case GL_DITHER:
+			return 3;
+		case GL_POLYGON_OFFSET_FILL:
+			return 4;
+		case GL_SAMPLE_ALPHA_TO_COVERAGE:
+			return 5;
+		case GL_SAMPLE_COVERAGE:
+			return 6;
+		case GL_SCISSOR_TEST:
+			return 7;
+		case GL_STENCIL_TEST:
+			return 8;
+		default:
+			return -1;
+		}
+	}
+
+	@Override
+	public void glActiveTexture (final int texture) {
+		if (texture != activeTexture ? issue() : elide()) {
+			activeTexture = texture;
+			super.glActiveTexture(texture);
+		}
+	}
+
+	@Override
+	public void glBindTexture (final int target, final int texture) {
+		final int unit = activeTexture - GL_TEXTURE0;
+		final int[] bindings = target == GL_TEXTURE_2D ? textures2D : target == GL_TEXTURE_CUBE_MAP ? texturesCubeMap : null;
+		if (bindings == null || activeTexture == UNKNOWN || unit < 0 || unit >= TRACKED_TEXTURE_UNITS) {
+			super.glBindTexture(target, texture);
+		} else if (bindings[unit] != texture ? issue() : elide()) {
+			bindings[unit] = texture;
+			super.glBindTexture(target, texture);
+		} else {
+			getTextureMemory().textureUsed(texture); // Keeps textures bound across frames from being evicted first.
+		}
+	}
+
+	@Override
+	public void glDeleteTexture (final int id) {
+		forgetTexture(id);
+		super.glDeleteTexture(id);
+	}
+
+	@Override
+	public void glDeleteTextures (final int n, final IntBuffer textures) {
+		final int position = textures.position();
+		for (int i = 0; i < n; i++) {
+			forgetTexture(textures.get(position + i));
+		}
+		super.glDeleteTextures(n, textures);
+	}
+
+	/** @param id handle of a deleted texture. Might be reused by another texture, so its bindings become unknown. */
+	private void forgetTexture (final int id) {
+		for (int i = 0; i < TRACKED_TEXTURE_UNITS; i++) {
+			if (textures2D[i] == id) {
+				textures2D[i] = UNKNOWN;
+			}
+			if (texturesCubeMap[i] == id) {
+				texturesCubeMap[i] = UNKNOWN;
+			}
+		}
+	}
+
+	@Override
+	public void glUseProgram (final int program) {
+		if (program != this.program ? issue() : elide()) {
+			this.program = program;
+			super.glUseProgram(program);
+		}
+	}
+
+	@Override
+	public void glLinkProgram (final int program) {
+		if (program == this.program) {
+			this.program = UNKNOWN; // Linking the current program replaces its executable.
+		}
+		super.glLinkProgram(program);
+	}
+
+	@Override
+	public void glDeleteProgram (final int program) {
+		if (program == this.program) {
+			this.program = UNKNOWN;
+		}
+		super.glDeleteProgram(program);
+	}
+
+	@Override
+	public void glBindBuffer (final int target, final int buffer) {
+		if (target == GL_ARRAY_BUFFER) {
+			if (buffer != arrayBuffer ? issue() : elide()) {
+				arrayBuffer = buffer;
+				super.glBindBuffer(target, buffer);
+			}
+		} else if (target == GL_ELEMENT_ARRAY_BUFFER) {
+			if (buffer != elementArrayBuffer ? issue() : elide()) {
+				elementArrayBuffer = buffer;
+				super.glBindBuffer(target, buffer);
+			}
+		} else {
+			super.glBindBuffer(target, buffer);
+		}
+	}
+
+	@Override
+	public void glDeleteBuffer (final int id) {
+		forgetBuffer(id);
+		super.glDeleteBuffer(id);
+	}
+
+	@Override
+	public void glDeleteBuffers (final int n, final IntBuffer buffers) {
+		final int position = buffers.position();
+		for (int i = 0; i < n; i++) {
+			forgetBuffer(buffers.get(position + i));
+		}
+		super.glDeleteBuffers(n, buffers);
+	}
+
+	/** @param id handle of a deleted buffer. Might be reused by another buffer, so its bindings become unknown. */
+	private void forgetBuffer (final int id) {
+		if (arrayBuffer == id) {
+			arrayBuffer = UNKNOWN;
+		}
+		if (elementArrayBuffer == id) {
+			elementArrayBuffer = UNKNOWN;
+		}
+	}
+
+	@Override
+	public void glBindVertexArray (final int array) {
+		invalidateElementArrayBuffer();
+		super.glBindVertexArray(array);
+	}
+
+	@Override
+	public void glBlendFunc (final int sfactor, final int dfactor) {
+		if (sfactor != blendSrcRgb || dfactor != blendDstRgb || sfactor != blendSrcAlpha || dfactor != blendDstAlpha ? issue()
+			: elide()) {
+			blendSrcRgb = blendSrcAlpha = sfactor;
+			blendDstRgb = blendDstAlpha = dfactor;
+			super.glBlendFunc(sfactor, dfactor);
+		}
+	}
+
+	@Override
+	public void glBlendFuncSeparate (final int srcRGB, final int dstRGB, final int srcAlpha, final int dstAlpha) {
+		if (srcRGB != blendSrcRgb || dstRGB != blendDstRgb || srcAlpha != blendSrcAlpha || dstAlpha != blendDstAlpha ? issue()
+			: elide()) {
+			blendSrcRgb = srcRGB;
+			blendDstRgb = dstRGB;
+			blendSrcAlpha = srcAlpha;
+			blendDstAlpha = dstAlpha;
+			super.glBlendFuncSeparate(srcRGB, dstRGB, srcAlpha, dstAlpha);
+		}
+	}
+
+	@Override
+	public void glBlendEquation (final int mode) {
+		if (mode != blendEquationRgb || mode != blendEquationAlpha ? issue() : elide()) {
+			blendEquationRgb = blendEquationAlpha = mode;
+			super.glBlendEquation(mode);
+		}
+	}
+
+	@Override
+	public void glBlendEquationSeparate (final int modeRGB, final int modeAlpha) {
+		if (modeRGB != blendEquationRgb || modeAlpha != blendEquationAlpha ? issue() : elide()) {
+			blendEquationRgb = modeRGB;
+			blendEquationAlpha = modeAlpha;
+			super.glBlendEquationSeparate(modeRGB, modeAlpha);
+		}
+	}
+
+	@Override
+	public void glEnable (final int cap) {
+		final int index = getCapabilityIndex(cap);
+		if (index < 0) {
+			super.glEnable(cap);
+		} else if (capabilities[index] != 1 ? issue() : elide()) {
+			capabilities[index] = 1;
+			super.glEnable(cap);
+		}
+	}
+
+	@Override
+	public void glDisable (final int cap) {
+		final int index = getCapabilityIndex(cap);
+		if (index < 0) {
+			super.glDisable(cap);
+		} else if (capabilities[index] != 0 ? issue() : elide()) {
+			capabilities[index] = 0;
+			super.glDisable(cap);
+		}
+	}
+
+	@Override
+	public boolean glIsEnabled (final int cap) {
+		final int index = getCapabilityIndex(cap);
+		if (index >= 0 && capabilities[index] != UNKNOWN) {
+			return capabilities[index] == 1;
+		}
+		return super.glIsEnabled(cap);
+	}
+
+	@Override
+	public void glDepthMask (final boolean flag) {
+		final int mask = flag ? 1 : 0;
+		if (mask != depthMask ? issue() : elide()) {
+			depthMask = mask;
+			super.glDepthMask(flag);
+		}
+	}
+
+	@Override
+	public void glStencilMask (final int mask) {
+		// Stencil mask might be -1 (all bits set), which collides with UNKNOWN - such calls are never elided.
+		if (mask != stencilMask || mask == UNKNOWN ? issue() : elide()) {
+			stencilMask = mask;
+			super.glStencilMask(mask);
+		}
+	}
+
+	@Override
+	public void glStencilMaskSeparate (final int face, final int mask) {
+		if (face == GL_FRONT_AND_BACK) {
+			glStencilMask(mask);
+		} else {
+			stencilMask = UNKNOWN;
+			super.glStencilMaskSeparate(face, mask);
+		}
+	}
+
+	@Override
+	public void glColorMask (final boolean red, final boolean green, final boolean blue, final boolean alpha) {
+		final int mask = (red ? 1 : 0) | (green ? 2 : 0) | (blue ? 4 : 0) | (alpha ? 8 : 0);
+		if (mask != colorMask ? issue() : elide()) {
+			colorMask = mask;
+			super.glColorMask(red, green, blue, alpha);
+		}
+	}
+
+	@Override
+	public void glViewport (final int x, final int y, final int width, final int height) {
+		if (x != viewportX || y != viewportY || width != viewportWidth || height != viewportHeight || x == UNKNOWN
+			|| y == UNKNOWN ? issue() : elide()) {
+			viewportX = x;
+			viewportY = y;
+			viewportWidth = width;
+			viewportHeight = height;
+			super.glViewport(x, y, width, height);
+		}
+	}
+
+	@Override
+	public void glScissor (final int x, final int y, final int width, final int height) {
+		if (x != scissorX || y != scissorY || width != scissorWidth || height != scissorHeight || x == UNKNOWN
+			|| y == UNKNOWN ? issue() : elide()) {
+			scissorX = x;
+			scissorY = y;
+			scissorWidth = width;
+			scissorHeight = height;
+			super.glScissor(x, y, width, height);
+		}
+	}
+}
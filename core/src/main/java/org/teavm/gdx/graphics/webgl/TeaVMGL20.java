@@ -22,15 +22,19 @@ import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
-import java.util.HashMap;
-import java.util.Map;
 
+import org.teavm.gdx.lifecycle.FrameListener;
 import org.teavm.jso.JSBody;
+import org.teavm.jso.JSObject;
+import org.teavm.jso.dom.html.HTMLCanvasElement;
+import org.teavm.jso.dom.html.HTMLImageElement;
+import org.teavm.jso.typedarrays.ArrayBufferView;
 import org.teavm.jso.typedarrays.Float32Array;
 import org.teavm.jso.typedarrays.Float64Array;
 import org.teavm.jso.typedarrays.Int16Array;
 import org.teavm.jso.typedarrays.Int32Array;
 import org.teavm.jso.typedarrays.Int8Array;
+import org.teavm.jso.typedarrays.Uint16Array;
 import org.teavm.jso.typedarrays.Uint8Array;
 import org.teavm.jso.webgl.WebGLActiveInfo;
 import org.teavm.jso.webgl.WebGLBuffer;
@@ -43,60 +47,92 @@ import org.teavm.jso.webgl.WebGLTexture;
 import org.teavm.jso.webgl.WebGLUniformLocation;
 
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
 
 /** Default implementation of {@link GL20} for TeaVM applications. Wraps around WebGL.
  * @author Alexey Andreev */
-public class TeaVMGL20 implements GL20 {
+public class TeaVMGL20 implements GL20, FrameListener, TeaVMGLExtensions {
 	// Note: look for GdxRuntimeExceptions for missing features that might have to be fixed eventually.
-	private final Map<Integer, WebGLProgram> programs = new HashMap<>();
-	private int nextProgramId = 1;
-	private final Map<Integer, WebGLShader> shaders = new HashMap<>();
-	private int nextShaderId = 1;
-	private final Map<Integer, WebGLBuffer> buffers = new HashMap<>();
-	private int nextBufferId = 1;
-	private final Map<Integer, WebGLFramebuffer> frameBuffers = new HashMap<>();
-	private final int nextFrameBufferId = 1;
-	private final Map<Integer, WebGLRenderbuffer> renderBuffers = new HashMap<>();
-	private int nextRenderBufferId = 1;
-	private final Map<Integer, WebGLTexture> textures = new HashMap<>();
-	private int nextTextureId = 1;
-	private final Map<Integer, Map<Integer, WebGLUniformLocation>> uniforms = new HashMap<>();
-	private int nextUniformId = 1;
+	/** Shader and program parameter of KHR_parallel_shader_compile extension. */
+	public static final int GL_COMPLETION_STATUS_KHR = 0x91B1;
+
+	private final HandleTable<WebGLProgram> programs = new HandleTable<>();
+	private final HandleTable<WebGLShader> shaders = new HandleTable<>();
+	private final HandleTable<WebGLBuffer> buffers = new HandleTable<>();
+	private final HandleTable<WebGLFramebuffer> frameBuffers = new HandleTable<>();
+	private final HandleTable<WebGLRenderbuffer> renderBuffers = new HandleTable<>();
+	private final HandleTable<WebGLTexture> textures = new HandleTable<>();
+	private final HandleTable<WebGLVertexArrayObject> vertexArrays = new HandleTable<>();
+	private OESVertexArrayObject vertexArrayExtension;
+	private boolean vertexArrayExtensionQueried;
+	private ANGLEInstancedArrays instancingExtension;
+	private boolean instancingExtensionQueried;
+	private EXTDisjointTimerQuery timerQueryExtension;
+	private boolean timerQueryExtensionQueried;
+	private boolean[] textureCompressions;
+	private boolean parallelShaderCompileSupported;
+	private boolean parallelShaderCompileQueried;
+	private ShaderCache shaderCache;
+	private final IntMap<int[]> precompiledPrograms = new IntMap<>();
+	private UniformTable[] uniforms = new UniformTable[64];
+	private UniformTable currUniforms;
 	private int currProgram = 0;
+	private boolean uniformValuesCached;
+	private int packAlignment = 4;
 
-	private Float32Array floatBuffer = Float32Array.create(2000 * 20);
-	private Int32Array intBuffer = Int32Array.create(2000 * 6);
-	private Int16Array shortBuffer = Int16Array.create(2000 * 6);
-	private final float[] floatArray = new float[16000];
+	private final StagingBuffers stagingBuffers = new StagingBuffers();
+	private final UniformScratch uniformScratch = new UniformScratch();
+	private final ClientArrays clientArrays;
+	private final TextureMemory textureMemory;
+	private final VertexArrayObjectCaches vertexArrayObjectCaches = new VertexArrayObjectCaches();
 
 	protected final WebGLRenderingContext gl;
 
 	public TeaVMGL20 (final WebGLRenderingContext gl) {
-		this.gl = wrapContext(gl);
+		this(gl, true);
+	}
+
+	/** @param gl WebGL rendering context.
+	 * @param debugged if true and WebGLDebugUtils are available, the context is wrapped with a debug context. Pass false to use
+	 *           a stand-in context outside of the browser. */
+	protected TeaVMGL20 (final WebGLRenderingContext gl, final boolean debugged) {
+		this.gl = debugged ? wrapContext(gl) : gl;
 		this.gl.pixelStorei(WebGLRenderingContext.UNPACK_PREMULTIPLY_ALPHA_WEBGL, 0);
+		clientArrays = new ClientArrays(this, this.gl);
+		textureMemory = new TextureMemory(this, this.gl);
 	}
 
 	@JSBody(params = "context", script = "if (typeof(WebGLDebugUtils) == 'undefined') {" + "return context;" + "}"
 		+ "return WebGLDebugUtils.makeDebugContext(context);")
 	private static native WebGLRenderingContext wrapContext (WebGLRenderingContext context);
 
-	private void ensureCapacity (final FloatBuffer buffer) {
-		if (buffer.remaining() > floatBuffer.getLength()) {
-			floatBuffer = Float32Array.create(buffer.remaining());
-		}
+	/** @return manages scratch arrays used to upload buffers that are not backed by arrays. Keeps track of staged bytes. */
+	public StagingBuffers getStagingBuffers () {
+		return stagingBuffers;
 	}
 
-	private void ensureCapacity (final ShortBuffer buffer) {
-		if (buffer.remaining() > shortBuffer.getLength()) {
-			shortBuffer = Int16Array.create(buffer.remaining());
-		}
+	/** @return emulates client-side vertex and index arrays. Keeps track of uploaded bytes. */
+	public ClientArrays getClientArrays () {
+		return clientArrays;
 	}
 
-	private void ensureCapacity (final IntBuffer buffer) {
-		if (buffer.remaining() > intBuffer.getLength()) {
-			intBuffer = Int32Array.create(buffer.remaining());
-		}
+	/** @return estimates memory used by textures and enforces the texture memory budget. */
+	public TextureMemory getTextureMemory () {
+		return textureMemory;
+	}
+
+	/** @return state shared by vertex array object caches of vertex buffers using this context. */
+	public VertexArrayObjectCaches getVertexArrayObjectCaches () {
+		return vertexArrayObjectCaches;
+	}
+
+	@Override
+	public void onFrameEnd () {
+		stagingBuffers.onFrameEnd();
+		textureMemory.onFrameEnd();
 	}
 
 	public Float32Array copy (FloatBuffer buffer) {
@@ -195,26 +231,489 @@ public class TeaVMGL20 implements GL20 {
 		return result;
 	}
 
-	private int allocateUniformLocationId (final int program, final WebGLUniformLocation location) {
-		Map<Integer, WebGLUniformLocation> progUniforms = uniforms.get(program);
-		if (progUniforms == null) {
-			progUniforms = new HashMap<>();
-			uniforms.put(program, progUniforms);
+	/** @param buffer its remaining elements will be passed to WebGL.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. */
+	protected Float32Array toFloat32Array (final FloatBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.floats(buffer.array(), offset + buffer.position(), offset + buffer.limit());
 		}
-		// FIXME Check if uniform already stored.
-		final int id = nextUniformId++;
-		progUniforms.put(id, location);
-		return id;
+		return stagingBuffers.stage(buffer);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. */
+	protected Float64Array toFloat64Array (final DoubleBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.doubles(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+		}
+		return stagingBuffers.stage(buffer);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. */
+	protected Int16Array toInt16Array (final ShortBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.shorts(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+		}
+		return stagingBuffers.stage(buffer);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL as unsigned values.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. */
+	protected Uint16Array toUint16Array (final ShortBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.unsignedShorts(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+		}
+		return stagingBuffers.stageUnsigned(buffer);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. */
+	protected Int32Array toInt32Array (final IntBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.ints(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+		}
+		return stagingBuffers.stage(buffer);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. */
+	protected Int8Array toInt8Array (final ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.bytes(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+		}
+		return stagingBuffers.stage(buffer);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL as unsigned values.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. */
+	protected Uint8Array toUint8Array (final ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.unsignedBytes(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+		}
+		return stagingBuffers.stageUnsigned(buffer);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL as uniform or vertex attribute values.
+	 * @return reused scratch array filled with the remaining elements if there are few of them, a view or a staged copy
+	 *         otherwise. */
+	protected Float32Array toUniformFloats (final FloatBuffer buffer) {
+		if (uniformScratch.supports(buffer.remaining())) {
+			return uniformScratch.floats(buffer);
+		}
+		return toFloat32Array(buffer);
+	}
+
+	/** @param values will be passed to WebGL as uniform values.
+	 * @param offset index of the first passed value.
+	 * @param length amount of passed values.
+	 * @return reused scratch array filled with the values if there are few of them, a view over the array otherwise. */
+	protected Float32Array toUniformFloats (final float[] values, final int offset, final int length) {
+		if (uniformScratch.supports(length)) {
+			return uniformScratch.floats(values, offset, length);
+		}
+		return TypedArrays.floats(values, offset, offset + length);
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL as uniform values.
+	 * @return reused scratch array filled with the remaining elements if there are few of them, a view or a staged copy
+	 *         otherwise. */
+	protected Int32Array toUniformInts (final IntBuffer buffer) {
+		if (uniformScratch.supports(buffer.remaining())) {
+			return uniformScratch.ints(buffer);
+		}
+		return toInt32Array(buffer);
+	}
+
+	/** @param values will be passed to WebGL as uniform values.
+	 * @param offset index of the first passed value.
+	 * @param length amount of passed values.
+	 * @return reused scratch array filled with the values if there are few of them, a view over the array otherwise. */
+	protected Int32Array toUniformInts (final int[] values, final int offset, final int length) {
+		if (uniformScratch.supports(length)) {
+			return uniformScratch.ints(values, offset, length);
+		}
+		return TypedArrays.ints(values, offset, offset + length);
+	}
+
+	/** @param pixels its remaining elements will be passed to WebGL as texture data. Might be null.
+	 * @return view over the array backing the buffer if it has one, a staged copy of its remaining elements otherwise. Bytes and
+	 *         shorts are viewed as unsigned values. Null if the buffer is null, which allocates an uninitialized texture.
+	 * @throws GdxRuntimeException if the buffer type is not supported. */
+	protected ArrayBufferView toPixelArray (final Buffer pixels) {
+		if (pixels == null) {
+			return null;
+		} else if (pixels instanceof ByteBuffer) {
+			return toUint8Array((ByteBuffer)pixels);
+		} else if (pixels instanceof ShortBuffer) {
+			return toUint16Array((ShortBuffer)pixels);
+		} else if (pixels instanceof IntBuffer) {
+			return toInt32Array((IntBuffer)pixels);
+		} else if (pixels instanceof FloatBuffer) {
+			return toFloat32Array((FloatBuffer)pixels);
+		} else if (pixels instanceof DoubleBuffer) {
+			return toFloat64Array((DoubleBuffer)pixels);
+		}
+		throw new GdxRuntimeException("Can't copy pixels to texture");
+	}
+
+	/** @param data its remaining elements will be passed to WebGL.
+	 * @return view over the array backing the buffer if it has one, a copy of its remaining elements otherwise.
+	 * @throws GdxRuntimeException if the buffer type is not supported. */
+	protected ArrayBufferView toArrayBufferView (final Buffer data) {
+		if (data instanceof FloatBuffer) {
+			return toFloat32Array((FloatBuffer)data);
+		} else if (data instanceof ShortBuffer) {
+			return toInt16Array((ShortBuffer)data);
+		} else if (data instanceof IntBuffer) {
+			return toInt32Array((IntBuffer)data);
+		} else if (data instanceof ByteBuffer) {
+			return toInt8Array((ByteBuffer)data);
+		}
+		throw new GdxRuntimeException("Can only cope with FloatBuffer, ShortBuffer, IntBuffer and ByteBuffer at the moment");
+	}
+
+	/** @param uniformValuesCached if true, last value of each uniform location is cached and uploads of unchanged values are
+	 *           skipped. Projection and transform matrices are often set on each batch flush even if they did not change. */
+	public void setUniformValuesCached (final boolean uniformValuesCached) {
+		this.uniformValuesCached = uniformValuesCached;
+		for (final UniformTable table : uniforms) {
+			if (table != null) {
+				table.setCacheEnabled(uniformValuesCached);
+			}
+		}
+	}
+
+	/** @return true if uniform values are cached. */
+	public boolean isUniformValuesCached () {
+		return uniformValuesCached;
+	}
+
+	private UniformTable getUniformTable (final int program) {
+		if (program <= 0) {
+			return null;
+		}
+		if (program >= uniforms.length) {
+			final UniformTable[] grown = new UniformTable[Math.max(uniforms.length << 1, program + 1)];
+			System.arraycopy(uniforms, 0, grown, 0, uniforms.length);
+			uniforms = grown;
+		}
+		UniformTable table = uniforms[program];
+		if (table == null) {
+			table = new UniformTable(uniformValuesCached);
+			uniforms[program] = table;
+		}
+		return table;
+	}
+
+	private void setUniformTable (final int program, final UniformTable table) {
+		getUniformTable(program); // Grows the array if needed.
+		uniforms[program] = table;
+		if (program == currProgram) {
+			currUniforms = getUniformTable(program);
+		}
+	}
+
+	private int allocateUniformLocationId (final int program, final String name) {
+		final UniformTable table = getUniformTable(program);
+		final int id = table.getId(name);
+		if (id >= 0) {
+			return id;
+		}
+		return table.add(name, gl.getUniformLocation(programs.get(program), name));
+	}
+
+	/** @param program ID of the program that becomes current. Its uniform table will be used by uniform setters. */
+	protected void setCurrentProgram (final int program) {
+		currProgram = program;
+		currUniforms = getUniformTable(program);
+		vertexArrayObjectCaches.setProgram(program);
+	}
+
+	/** @return uniform locations of the current program. Might be null if no program is used. */
+	protected UniformTable getCurrentUniforms () {
+		return currUniforms;
+	}
+
+	/** @param program program ID.
+	 * @return WebGL program registered with the ID or null. */
+	protected WebGLProgram getWebGLProgram (final int program) {
+		return programs.get(program);
+	}
+
+	/** @param buffer buffer ID.
+	 * @return WebGL buffer registered with the ID or null. */
+	protected WebGLBuffer getWebGLBuffer (final int buffer) {
+		return buffers.get(buffer);
+	}
+
+	/** @param texture texture ID.
+	 * @return WebGL texture registered with the ID or null. */
+	protected WebGLTexture getWebGLTexture (final int texture) {
+		return textures.get(texture);
+	}
+
+	/** @param texture texture ID.
+	 * @param webGLTexture new WebGL texture registered with the ID, replacing an evicted one. */
+	protected void setWebGLTexture (final int texture, final WebGLTexture webGLTexture) {
+		textures.set(texture, webGLTexture);
+	}
+
+	/** @param location ID of a location of the current program. Its cached value is cleared.
+	 * @return WebGL location. */
+	protected WebGLUniformLocation getUniformLocation (final int location) {
+		if (currUniforms == null) {
+			return null;
+		}
+		currUniforms.invalidate(location);
+		return currUniforms.get(location);
+	}
+
+	/** @return OES_vertex_array_object extension or null if it is not supported by the browser. */
+	protected OESVertexArrayObject getVertexArrayExtension () {
+		if (!vertexArrayExtensionQueried) {
+			vertexArrayExtensionQueried = true;
+			vertexArrayExtension = (OESVertexArrayObject)gl.getExtension("OES_vertex_array_object");
+		}
+		return vertexArrayExtension;
+	}
+
+	@Override
+	public boolean isVertexArrayObjectSupported () {
+		return getVertexArrayExtension() != null;
+	}
+
+	@Override
+	public int glGenVertexArray () {
+		return vertexArrays.add(requireVertexArrayExtension().createVertexArrayOES());
+	}
+
+	@Override
+	public void glBindVertexArray (final int array) {
+		requireVertexArrayExtension().bindVertexArrayOES(vertexArrays.get(array));
+		clientArrays.vertexArrayBound(array);
+		vertexArrayObjectCaches.vertexArrayBound();
+	}
+
+	@Override
+	public void glDeleteVertexArray (final int array) {
+		requireVertexArrayExtension().deleteVertexArrayOES(vertexArrays.remove(array));
+	}
+
+	private OESVertexArrayObject requireVertexArrayExtension () {
+		final OESVertexArrayObject extension = getVertexArrayExtension();
+		if (extension == null) {
+			throw new GdxRuntimeException("Vertex array objects are not supported by the browser.");
+		}
+		return extension;
+	}
+
+	/** @param shadersCached if true, shaders with identical types and sources share a single compiled WebGL shader and programs
+	 *           with identical shaders and attribute bindings share a single linked WebGL program, including its uniform values.
+	 *           Sources are applied when the shaders are compiled, so shaders should be compiled before they are attached. Has
+	 *           to be set before any shader is created. */
+	public void setShadersCached (final boolean shadersCached) {
+		shaderCache = shadersCached ? new ShaderCache() : null;
+	}
+
+	/** @return shares compiled shaders and linked programs. Null if shaders are not cached. */
+	public ShaderCache getShaderCache () {
+		return shaderCache;
+	}
+
+	/** @return true if shader compilation and program linking status can be polled without blocking with
+	 *         {@link #isProgramReady(int)} and {@link #isShaderReady(int)}. Requires KHR_parallel_shader_compile extension. */
+	public boolean isParallelShaderCompileSupported () {
+		if (!parallelShaderCompileQueried) {
+			parallelShaderCompileQueried = true;
+			parallelShaderCompileSupported = gl.getExtension("KHR_parallel_shader_compile") != null;
+		}
+		return parallelShaderCompileSupported;
+	}
+
+	/** @param shader shader ID.
+	 * @return true if the shader compilation is finished and its status can be queried without blocking. Always true if
+	 *         {@link #isParallelShaderCompileSupported() parallel compilation is not supported}. */
+	public boolean isShaderReady (final int shader) {
+		return !isParallelShaderCompileSupported() || gl.getShaderParameterb(shaders.get(shader), GL_COMPLETION_STATUS_KHR);
+	}
+
+	/** @param program program ID.
+	 * @return true if the program linking is finished and its status can be queried without blocking. Always true if
+	 *         {@link #isParallelShaderCompileSupported() parallel compilation is not supported}. */
+	public boolean isProgramReady (final int program) {
+		return !isParallelShaderCompileSupported() || gl.getProgramParameterb(programs.get(program), GL_COMPLETION_STATUS_KHR);
+	}
+
+	/** Compiles and links a program without querying its status, so the browser can do it in the background. Allows to start
+	 * compiling all shaders of the application at once, for example on a loading screen that polls {@link #isProgramReady(int)}
+	 * each frame. If {@link #setShadersCached(boolean) shaders are cached}, shader programs created later with the same sources
+	 * reuse the results.
+	 * @param vertexSource complete source of the vertex shader.
+	 * @param fragmentSource complete source of the fragment shader.
+	 * @return ID of the program. Keeps its shaders alive, so it should be deleted with {@link #glDeleteProgram(int)} only
+	 *         after the shader programs using the same sources are created. Deleting it deletes its shaders as well. */
+	public int precompileProgram (final String vertexSource, final String fragmentSource) {
+		final int vertexShader = glCreateShader(GL20.GL_VERTEX_SHADER);
+		glShaderSource(vertexShader, vertexSource);
+		glCompileShader(vertexShader);
+		final int fragmentShader = glCreateShader(GL20.GL_FRAGMENT_SHADER);
+		glShaderSource(fragmentShader, fragmentSource);
+		glCompileShader(fragmentShader);
+		final int program = glCreateProgram();
+		glAttachShader(program, vertexShader);
+		glAttachShader(program, fragmentShader);
+		glLinkProgram(program);
+		precompiledPrograms.put(program, new int[] {vertexShader, fragmentShader});
+		return program;
+	}
+
+	/** @param program ID of a program that was forgotten by the shader cache, but whose WebGL program is still shared.
+	 * @return a new WebGL program with the same shaders and attribute bindings. */
+	private WebGLProgram createUnsharedProgram (final int program) {
+		final WebGLProgram glProgram = gl.createProgram();
+		final IntArray attached = shaderCache.getAttachedShaders(program);
+		if (attached != null) {
+			for (int i = 0; i < attached.size; i++) {
+				gl.attachShader(glProgram, shaders.get(attached.get(i)));
+			}
+		}
+		final IntArray indices = shaderCache.getAttributeIndices(program);
+		if (indices != null) {
+			final Array<String> names = shaderCache.getAttributeNames(program);
+			for (int i = 0; i < indices.size; i++) {
+				gl.bindAttribLocation(glProgram, indices.get(i), names.get(i));
+			}
+		}
+		return glProgram;
+	}
+
+	/** @return ANGLE_instanced_arrays extension or null if it is not supported by the browser. */
+	protected ANGLEInstancedArrays getInstancingExtension () {
+		if (!instancingExtensionQueried) {
+			instancingExtensionQueried = true;
+			instancingExtension = (ANGLEInstancedArrays)gl.getExtension("ANGLE_instanced_arrays");
+		}
+		return instancingExtension;
+	}
+
+	@Override
+	public boolean isInstancingSupported () {
+		return getInstancingExtension() != null;
+	}
+
+	@Override
+	public void glVertexAttribDivisor (final int index, final int divisor) {
+		requireInstancingExtension().vertexAttribDivisorANGLE(index, divisor);
+	}
+
+	@Override
+	public void glDrawArraysInstanced (final int mode, final int first, final int count, final int instanceCount) {
+		requireInstancingExtension().drawArraysInstancedANGLE(mode, first, count, instanceCount);
 	}
 
-	private WebGLUniformLocation getUniformLocation (final int location) {
-		return uniforms.get(currProgram).get(location);
+	@Override
+	public void glDrawElementsInstanced (final int mode, final int count, final int type, final int indicesOffset,
+		final int instanceCount) {
+		requireInstancingExtension().drawElementsInstancedANGLE(mode, count, type, indicesOffset, instanceCount);
+	}
+
+	private ANGLEInstancedArrays requireInstancingExtension () {
+		final ANGLEInstancedArrays extension = getInstancingExtension();
+		if (extension == null) {
+			throw new GdxRuntimeException("Instanced rendering is not supported by the browser.");
+		}
+		return extension;
+	}
+
+	/** @return EXT_disjoint_timer_query extension or null if it is not supported by the browser. */
+	protected EXTDisjointTimerQuery getTimerQueryExtension () {
+		if (!timerQueryExtensionQueried) {
+			timerQueryExtensionQueried = true;
+			timerQueryExtension = (EXTDisjointTimerQuery)gl.getExtension("EXT_disjoint_timer_query");
+		}
+		return timerQueryExtension;
+	}
+
+	@Override
+	public boolean isTimerQuerySupported () {
+		return getTimerQueryExtension() != null;
+	}
+
+	@Override
+	public JSObject createTimerQuery () {
+		return getTimerQueryExtension().createQueryEXT();
+	}
+
+	@Override
+	public void deleteTimerQuery (final JSObject query) {
+		getTimerQueryExtension().deleteQueryEXT(query);
+	}
+
+	@Override
+	public void beginTimerQuery (final JSObject query) {
+		getTimerQueryExtension().beginQueryEXT(EXTDisjointTimerQuery.TIME_ELAPSED_EXT, query);
+	}
+
+	@Override
+	public void endTimerQuery () {
+		getTimerQueryExtension().endQueryEXT(EXTDisjointTimerQuery.TIME_ELAPSED_EXT);
+	}
+
+	@Override
+	public boolean isTimerQueryAvailable (final JSObject query) {
+		return getTimerQueryExtension().getQueryObjectb(query, EXTDisjointTimerQuery.QUERY_RESULT_AVAILABLE_EXT);
+	}
+
+	@Override
+	public double getTimerQueryResult (final JSObject query) {
+		return getTimerQueryExtension().getQueryObjectd(query, EXTDisjointTimerQuery.QUERY_RESULT_EXT);
+	}
+
+	@Override
+	public boolean isGPUDisjoint () {
+		return getParameterb(gl, EXTDisjointTimerQuery.GPU_DISJOINT_EXT);
+	}
+
+	@JSBody(params = {"context", "pname"}, script = "return !!context.getParameter(pname);")
+	private static native boolean getParameterb (WebGLRenderingContext context, int pname);
+
+	/** Enables the WEBGL_compressed_texture_* extensions supported by the browser on first call. WebGL rejects compressed formats
+	 * until their extension is enabled.
+	 * @param compression family of compressed formats.
+	 * @return true if textures in the formats of the family can be uploaded. */
+	public boolean isTextureCompressionSupported (final TextureCompression compression) {
+		if (textureCompressions == null) {
+			final TextureCompression[] values = TextureCompression.values();
+			textureCompressions = new boolean[values.length];
+			for (final TextureCompression value : values) {
+				for (final String extension : value.getExtensions()) {
+					if (gl.getExtension(extension) != null) {
+						textureCompressions[value.ordinal()] = true;
+						break;
+					}
+				}
+			}
+		}
+		return textureCompressions[compression.ordinal()];
+	}
+
+	/** @param internalformat GL internal format of a texture.
+	 * @return true if the format is a compressed format supported by the browser. */
+	public boolean isCompressedFormatSupported (final int internalformat) {
+		final TextureCompression compression = TextureCompression.of(internalformat);
+		return compression != null && isTextureCompressionSupported(compression);
 	}
 
 	private int allocateShaderId (final WebGLShader shader) {
-		final int id = nextShaderId++;
-		shaders.put(id, shader);
-		return id;
+		return shaders.add(shader);
 	}
 
 	private void deallocateShaderId (final int id) {
@@ -222,20 +721,18 @@ public class TeaVMGL20 implements GL20 {
 	}
 
 	private int allocateProgramId (final WebGLProgram program) {
-		final int id = nextProgramId++;
-		programs.put(id, program);
-		return id;
+		return programs.add(program);
 	}
 
 	private void deallocateProgramId (final int id) {
-		uniforms.remove(id);
+		if (id > 0 && id < uniforms.length) {
+			uniforms[id] = null;
+		}
 		programs.remove(id);
 	}
 
 	private int allocateBufferId (final WebGLBuffer buffer) {
-		final int id = nextBufferId++;
-		buffers.put(id, buffer);
-		return id;
+		return buffers.add(buffer);
 	}
 
 	private void deallocateBufferId (final int id) {
@@ -243,9 +740,7 @@ public class TeaVMGL20 implements GL20 {
 	}
 
 	private int allocateFrameBufferId (final WebGLFramebuffer frameBuffer) {
-		final int id = nextBufferId++;
-		frameBuffers.put(id, frameBuffer);
-		return id;
+		return frameBuffers.add(frameBuffer);
 	}
 
 	private void deallocateFrameBufferId (final int id) {
@@ -253,9 +748,7 @@ public class TeaVMGL20 implements GL20 {
 	}
 
 	private int allocateRenderBufferId (final WebGLRenderbuffer renderBuffer) {
-		final int id = nextRenderBufferId++;
-		renderBuffers.put(id, renderBuffer);
-		return id;
+		return renderBuffers.add(renderBuffer);
 	}
 
 	private void deallocateRenderBufferId (final int id) {
@@ -263,9 +756,7 @@ public class TeaVMGL20 implements GL20 {
 	}
 
 	private int allocateTextureId (final WebGLTexture texture) {
-		final int id = nextTextureId++;
-		textures.put(id, texture);
-		return id;
+		return textures.add(texture);
 	}
 
 	private void deallocateTextureId (final int id) {
@@ -275,11 +766,17 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glActiveTexture (final int texture) {
 		gl.activeTexture(texture);
+		textureMemory.activeTexture(texture - GL_TEXTURE0);
 	}
 
 	@Override
 	public void glBindTexture (final int target, final int texture) {
-		gl.bindTexture(target, textures.get(texture));
+		textureMemory.textureBound(target, texture);
+		if (textureMemory.isEvicted(texture)) {
+			textureMemory.reload(target, texture);
+		} else {
+			gl.bindTexture(target, textures.get(texture));
+		}
 	}
 
 	@Override
@@ -315,25 +812,52 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glCompressedTexImage2D (final int target, final int level, final int internalformat, final int width,
 		final int height, final int border, final int imageSize, final Buffer data) {
-		throw new GdxRuntimeException("compressed textures not supported by WebGL backend.");
+		requireCompressedFormat(internalformat);
+		gl.compressedTexImage2D(target, level, internalformat, width, height, border, toCompressedData(data, imageSize));
+		textureMemory.compressedImageSpecified(target, level, imageSize);
 	}
 
 	@Override
 	public void glCompressedTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset,
 		final int width, final int height, final int format, final int imageSize, final Buffer data) {
-		throw new GdxRuntimeException("compressed textures not supported by WebGL backend.");
+		requireCompressedFormat(format);
+		gl.compressedTexSubImage2D(target, level, xoffset, yoffset, width, height, format, toCompressedData(data, imageSize));
+	}
+
+	private void requireCompressedFormat (final int format) {
+		if (!isCompressedFormatSupported(format)) {
+			throw new GdxRuntimeException("Compressed texture format 0x" + Integer.toHexString(format)
+				+ " is not supported by the browser.");
+		}
+	}
+
+	/** @param data compressed texture data.
+	 * @param imageSize amount of bytes to upload, starting at the current position of the buffer.
+	 * @return unsigned byte view over the data. */
+	private ArrayBufferView toCompressedData (final Buffer data, final int imageSize) {
+		if (!(data instanceof ByteBuffer)) {
+			throw new GdxRuntimeException("Compressed texture data must be passed in a ByteBuffer.");
+		}
+		final ByteBuffer buffer = (ByteBuffer)data;
+		final int limit = buffer.limit();
+		buffer.limit(Math.min(limit, buffer.position() + imageSize));
+		final ArrayBufferView view = toUint8Array(buffer);
+		buffer.limit(limit);
+		return view;
 	}
 
 	@Override
 	public void glCopyTexImage2D (final int target, final int level, final int internalformat, final int x, final int y,
 		final int width, final int height, final int border) {
 		gl.copyTexImage2D(target, level, internalformat, x, y, width, height, border);
+		textureMemory.imageSpecified(target, level, width, height, internalformat, GL_UNSIGNED_BYTE, null);
 	}
 
 	@Override
 	public void glCopyTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset, final int x,
 		final int y, final int width, final int height) {
 		gl.copyTexSubImage2D(target, level, xoffset, yoffset, x, y, width, height);
+		textureMemory.imageModified(target);
 	}
 
 	@Override
@@ -348,6 +872,7 @@ public class TeaVMGL20 implements GL20 {
 			final WebGLTexture texture = this.textures.get(id);
 			deallocateTextureId(id);
 			gl.deleteTexture(texture);
+			textureMemory.textureDeleted(id);
 		}
 	}
 
@@ -356,6 +881,7 @@ public class TeaVMGL20 implements GL20 {
 		final WebGLTexture texture = textures.get(id);
 		deallocateTextureId(id);
 		gl.deleteTexture(texture);
+		textureMemory.textureDeleted(id);
 	}
 
 	@Override
@@ -380,13 +906,25 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glDrawArrays (final int mode, final int first, final int count) {
+		if (clientArrays.isActive()) {
+			clientArrays.prepare(first + count);
+		}
 		gl.drawArrays(mode, first, count);
 	}
 
+	/** If an element array buffer is bound, the position of the indices buffer is treated as an offset into it, as libGDX meshes
+	 * do. Otherwise the indices are uploaded to a streaming buffer. */
 	@Override
 	public void glDrawElements (final int mode, final int count, final int type, final Buffer indices) {
-		gl.drawElements(mode, count, type, indices.position());
-		// FIXME This is assuming WebGL supports client side buffers...
+		if (clientArrays.isActive()) {
+			clientArrays.prepare(-1);
+		}
+		if (clientArrays.isElementArrayBufferBound()) {
+			gl.drawElements(mode, count, type, indices.position() * getElementSize(indices));
+		} else {
+			gl.drawElements(mode, count, type, clientArrays.uploadIndices(indices, count, type));
+			clientArrays.restoreElementArrayBuffer();
+		}
 	}
 
 	@Override
@@ -411,9 +949,11 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glGenTextures (final int n, final IntBuffer textures) {
-		final WebGLTexture texture = gl.createTexture();
-		final int id = allocateTextureId(texture);
-		textures.put(id);
+		for (int i = 0; i < n; i++) {
+			final WebGLTexture texture = gl.createTexture();
+			final int id = allocateTextureId(texture);
+			textures.put(id);
+		}
 	}
 
 	@Override
@@ -473,6 +1013,9 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glPixelStorei (final int pname, final int param) {
 		gl.pixelStorei(pname, param);
+		if (pname == GL_PACK_ALIGNMENT) {
+			packAlignment = param;
+		}
 	}
 
 	@Override
@@ -480,29 +1023,114 @@ public class TeaVMGL20 implements GL20 {
 		gl.polygonOffset(factor, units);
 	}
 
+	/** Reads pixels into the buffer starting at its current position. Position of the buffer is advanced past the read data.
+	 * @see GL20#glReadPixels(int, int, int, int, int, int, Buffer) */
 	@Override
 	public void glReadPixels (final int x, final int y, final int width, final int height, final int format, final int type,
 		final Buffer pixels) {
-		// verify request
-		if (format != WebGLRenderingContext.RGBA || type != WebGLRenderingContext.UNSIGNED_BYTE) {
-			throw new GdxRuntimeException(
-			"Only format RGBA and type UNSIGNED_BYTE are currently supported for glReadPixels(...).");
+		final int length = getReadbackLength(width, height, format, type, pixels);
+		gl.readPixels(x, y, width, height, format, type, toReadbackView(pixels, length));
+		finishReadback(pixels, length);
+		pixels.position(pixels.position() + length / getElementSize(pixels));
+	}
+
+	/** Reads pixels and passes them to the callback. WebGL1 cannot read pixels without stalling, so the callback is invoked
+	 * immediately; {@link TeaVMGL30} delivers the pixels a frame or two later without blocking.
+	 * @param x window x coordinate of the first pixel.
+	 * @param y window y coordinate of the first pixel.
+	 * @param width width of the rectangle.
+	 * @param height height of the rectangle.
+	 * @param format pixel format, for example {@link GL20#GL_RGBA}.
+	 * @param type pixel type, for example {@link GL20#GL_UNSIGNED_BYTE}.
+	 * @param pixels receives the pixels starting at its current position. Should not be modified until the callback is
+	 *           invoked. Position is not modified.
+	 * @param callback invoked once the pixels are written to the buffer. */
+	public void glReadPixelsAsync (final int x, final int y, final int width, final int height, final int format,
+		final int type, final Buffer pixels, final ReadPixelsCallback callback) {
+		final int position = pixels.position();
+		glReadPixels(x, y, width, height, format, type, pixels);
+		pixels.position(position);
+		callback.onPixelsRead(pixels);
+	}
+
+	/** @param width width of the read rectangle.
+	 * @param height height of the read rectangle.
+	 * @param format pixel format.
+	 * @param type pixel type.
+	 * @param pixels will receive the pixels.
+	 * @return amount of bytes WebGL writes with the current pack alignment, limited to the remaining space of the buffer. */
+	protected int getReadbackLength (final int width, final int height, final int format, final int type,
+		final Buffer pixels) {
+		final int components;
+		switch (format) {
+		case GL_ALPHA:
+		case GL_LUMINANCE:
+			components = 1;
+			break;
+		case GL_LUMINANCE_ALPHA:
+			components = 2;
+			break;
+		case GL_RGB:
+			components = 3;
+			break;
+		default:
+			components = 4;
 		}
-		if (!(pixels instanceof ByteBuffer)) {
-			throw new GdxRuntimeException("Inputed pixels buffer needs to be of type ByteBuffer for glReadPixels(...).");
+		final int pixelSize;
+		switch (type) {
+		case GL_UNSIGNED_SHORT_5_6_5:
+		case GL_UNSIGNED_SHORT_4_4_4_4:
+		case GL_UNSIGNED_SHORT_5_5_5_1:
+			pixelSize = 2;
+			break;
+		case GL_FLOAT:
+			pixelSize = components << 2;
+			break;
+		default:
+			pixelSize = components;
 		}
+		final int rowLength = width * pixelSize;
+		final int alignedRowLength = (rowLength + packAlignment - 1) / packAlignment * packAlignment;
+		final int length = height <= 0 ? 0 : alignedRowLength * (height - 1) + rowLength;
+		return Math.min(length, pixels.remaining() * getElementSize(pixels));
+	}
+
+	/** @param buffer NIO buffer.
+	 * @return size of a single element of the buffer in bytes. */
+	protected static int getElementSize (final Buffer buffer) {
+		if (buffer instanceof ByteBuffer) {
+			return 1;
+		} else if (buffer instanceof ShortBuffer) {
+			return 2;
+		} else if (buffer instanceof DoubleBuffer) {
+			return 8;
+		}
+		return 4;
+	}
+
+	/** @param pixels will receive read back data starting at its current position.
+	 * @param length amount of bytes that will be read back.
+	 * @return view over the array backing the buffer if it has one, a view over a reused scratch array otherwise. In the latter
+	 *         case, {@link #finishReadback(Buffer, int)} copies the data to the buffer. */
+	protected ArrayBufferView toReadbackView (final Buffer pixels, final int length) {
+		if (pixels.hasArray()) {
+			// WebGL2 getBufferSubData fills the whole view, so it cannot span past the read data.
+			final int limit = pixels.limit();
+			pixels.limit(pixels.position() + length / getElementSize(pixels));
+			final ArrayBufferView view = toPixelArray(pixels);
+			pixels.limit(limit);
+			return view;
+		} else if (pixels instanceof ByteBuffer) {
+			return stagingBuffers.reserveUnsigned(length);
+		}
+		throw new GdxRuntimeException("Pixels can be read only into ByteBuffers or buffers backed by arrays.");
+	}
 
-		// create new ArrayBufferView (4 bytes per pixel)
-		final int size = 4 * width * height;
-		final Uint8Array buffer = Uint8Array.create(size);
-
-		// read bytes to ArrayBufferView
-		gl.readPixels(x, y, width, height, format, type, buffer);
-
-		// copy ArrayBufferView to our pixels array
-		final ByteBuffer pixelsByte = (ByteBuffer)pixels;
-		for (int i = 0; i < size; i++) {
-			pixelsByte.put((byte)buffer.get(i));
+	/** @param pixels buffer passed to {@link #toReadbackView(Buffer, int)}, after the returned view was filled.
+	 * @param length amount of read back bytes. */
+	protected void finishReadback (final Buffer pixels, final int length) {
+		if (!pixels.hasArray()) {
+			stagingBuffers.unstage((ByteBuffer)pixels, length);
 		}
 	}
 
@@ -529,42 +1157,53 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glTexImage2D (final int target, final int level, final int internalformat, final int width, final int height,
 		final int border, final int format, final int type, final Buffer pixels) {
-		if (pixels instanceof ByteBuffer) {
-			gl.texImage2D(target, level, internalformat, width, height, border, format, type, copyU((ByteBuffer)pixels));
-		} else if (pixels instanceof ShortBuffer) {
-			gl.texImage2D(target, level, internalformat, width, height, border, format, type, copy((ShortBuffer)pixels));
-		} else if (pixels instanceof IntBuffer) {
-			gl.texImage2D(target, level, internalformat, width, height, border, format, type, copy((IntBuffer)pixels));
-		} else if (pixels instanceof FloatBuffer) {
-			gl.texImage2D(target, level, internalformat, width, height, border, format, type, copy((FloatBuffer)pixels));
-		} else if (pixels instanceof DoubleBuffer) {
-			gl.texImage2D(target, level, internalformat, width, height, border, format, type, copy((DoubleBuffer)pixels));
+		final HTMLCanvasElement canvas = internalformat == format ? getCanvasSource(pixels, width, height, format, type) : null;
+		if (canvas != null) {
+			gl.texImage2D(target, level, internalformat, format, type, canvas);
 		} else {
-			throw new GdxRuntimeException("Can't copy pixels to texture");
+			gl.texImage2D(target, level, internalformat, width, height, border, format, type, toPixelArray(pixels));
 		}
+		textureMemory.imageSpecified(target, level, width, height, format, type, null);
 	}
 
 	@Override
 	public void glTexParameterf (final int target, final int pname, final float param) {
 		gl.texParameterf(target, pname, param);
+		textureMemory.parameterSet(target, pname, param);
 	}
 
 	@Override
 	public void glTexSubImage2D (final int target, final int level, final int xoffset, final int yoffset, final int width,
 		final int height, final int format, final int type, final Buffer pixels) {
-		if (pixels instanceof ByteBuffer) {
-			gl.texSubImage2D(target, level, xoffset, yoffset, width, height, format, type, copy((ByteBuffer)pixels));
-		} else if (pixels instanceof ShortBuffer) {
-			gl.texImage2D(target, level, xoffset, yoffset, width, height, format, type, copy((ShortBuffer)pixels));
-		} else if (pixels instanceof IntBuffer) {
-			gl.texImage2D(target, level, xoffset, yoffset, width, height, format, type, copy((IntBuffer)pixels));
-		} else if (pixels instanceof FloatBuffer) {
-			gl.texImage2D(target, level, xoffset, yoffset, width, height, format, type, copy((FloatBuffer)pixels));
-		} else if (pixels instanceof DoubleBuffer) {
-			gl.texImage2D(target, level, xoffset, yoffset, width, height, format, type, copy((DoubleBuffer)pixels));
+		final HTMLCanvasElement canvas = getCanvasSource(pixels, width, height, format, type);
+		if (canvas != null) {
+			gl.texSubImage2D(target, level, xoffset, yoffset, format, type, canvas);
 		} else {
-			throw new GdxRuntimeException("Can't copy pixels to texture");
+			gl.texSubImage2D(target, level, xoffset, yoffset, width, height, format, type, toPixelArray(pixels));
+		}
+		textureMemory.imageModified(target);
+	}
+
+	@Override
+	public void glTexImage2D (final int target, final int level, final int internalformat, final int format, final int type,
+		final HTMLImageElement image) {
+		gl.texImage2D(target, level, internalformat, format, type, image);
+		textureMemory.imageSpecified(target, level, image.getWidth(), image.getHeight(), format, type,
+			internalformat == format ? image : null);
+	}
+
+	/** @param pixels texture data.
+	 * @param width width of the uploaded image.
+	 * @param height height of the uploaded image.
+	 * @param format pixel format.
+	 * @param type pixel type.
+	 * @return canvas registered in {@link PixelSources} as the source of the pixels if it can be uploaded instead of them. */
+	private static HTMLCanvasElement getCanvasSource (final Buffer pixels, final int width, final int height, final int format,
+		final int type) {
+		if (format != GL20.GL_RGBA || type != GL20.GL_UNSIGNED_BYTE) {
+			return null;
 		}
+		return PixelSources.getCanvas(pixels, width, height);
 	}
 
 	@Override
@@ -577,17 +1216,24 @@ public class TeaVMGL20 implements GL20 {
 		final WebGLProgram glProgram = programs.get(program);
 		final WebGLShader glShader = shaders.get(shader);
 		gl.attachShader(glProgram, glShader);
+		if (shaderCache != null) {
+			shaderCache.attachShader(program, shader);
+		}
 	}
 
 	@Override
 	public void glBindAttribLocation (final int program, final int index, final String name) {
 		final WebGLProgram glProgram = programs.get(program);
 		gl.bindAttribLocation(glProgram, index, name);
+		if (shaderCache != null) {
+			shaderCache.bindAttribLocation(program, index, name);
+		}
 	}
 
 	@Override
 	public void glBindBuffer (final int target, final int buffer) {
 		gl.bindBuffer(target, buffers.get(buffer));
+		clientArrays.bufferBound(target, buffer);
 	}
 
 	@Override
@@ -622,32 +1268,16 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glBufferData (final int target, final int size, final Buffer data, final int usage) {
-		if (data instanceof FloatBuffer) {
-			gl.bufferData(target, copy((FloatBuffer)data), usage);
-		} else if (data instanceof ShortBuffer) {
-			gl.bufferData(target, copy((ShortBuffer)data), usage);
-		} else if (data instanceof IntBuffer) {
-			gl.bufferData(target, copy((IntBuffer)data), usage);
-		} else if (data instanceof ByteBuffer) {
-			gl.bufferData(target, copy((ByteBuffer)data), usage);
+		if (data == null) {
+			gl.bufferData(target, size, usage);
 		} else {
-			throw new GdxRuntimeException("Can only cope with FloatBuffer and ShortBuffer at the moment");
+			gl.bufferData(target, toArrayBufferView(data), usage);
 		}
 	}
 
 	@Override
 	public void glBufferSubData (final int target, final int offset, final int size, final Buffer data) {
-		if (data instanceof FloatBuffer) {
-			gl.bufferSubData(target, offset, copy((FloatBuffer)data));
-		} else if (data instanceof ShortBuffer) {
-			gl.bufferSubData(target, offset, copy((ShortBuffer)data));
-		} else if (data instanceof IntBuffer) {
-			gl.bufferSubData(target, offset, copy((IntBuffer)data));
-		} else if (data instanceof ByteBuffer) {
-			gl.bufferSubData(target, offset, copy((ByteBuffer)data));
-		} else {
-			throw new GdxRuntimeException("Can only cope with FloatBuffer and ShortBuffer at the moment");
-		}
+		gl.bufferSubData(target, offset, toArrayBufferView(data));
 	}
 
 	@Override
@@ -657,8 +1287,26 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glCompileShader (final int shader) {
+		if (shaderCache == null) {
+			gl.compileShader(shaders.get(shader));
+			return;
+		}
+		if (shaderCache.forgetShader(shader)) {
+			// Compiled again while its previous result is shared.
+			shaders.set(shader, gl.createShader(shaderCache.getShaderType(shader)));
+		}
+		final WebGLShader cached = shaderCache.acquireShader(shader);
+		if (cached != null) {
+			gl.deleteShader(shaders.set(shader, cached));
+			return;
+		}
 		final WebGLShader glShader = shaders.get(shader);
+		final String source = shaderCache.getShaderSource(shader);
+		if (source != null) {
+			gl.shaderSource(glShader, source);
+		}
 		gl.compileShader(glShader);
+		shaderCache.addShader(shader, glShader);
 	}
 
 	@Override
@@ -670,7 +1318,11 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public int glCreateShader (final int type) {
 		final WebGLShader shader = gl.createShader(type);
-		return allocateShaderId(shader);
+		final int id = allocateShaderId(shader);
+		if (shaderCache != null) {
+			shaderCache.shaderCreated(id, type);
+		}
+		return id;
 	}
 
 	@Override
@@ -680,6 +1332,8 @@ public class TeaVMGL20 implements GL20 {
 			final WebGLBuffer buffer = this.buffers.get(id);
 			deallocateBufferId(id);
 			gl.deleteBuffer(buffer);
+			clientArrays.bufferDeleted(id);
+			vertexArrayObjectCaches.bufferDeleted(id);
 		}
 	}
 
@@ -688,6 +1342,8 @@ public class TeaVMGL20 implements GL20 {
 		final WebGLBuffer buffer = buffers.get(id);
 		deallocateBufferId(id);
 		gl.deleteBuffer(buffer);
+		clientArrays.bufferDeleted(id);
+		vertexArrayObjectCaches.bufferDeleted(id);
 	}
 
 	@Override
@@ -711,7 +1367,16 @@ public class TeaVMGL20 implements GL20 {
 	public void glDeleteProgram (final int program) {
 		final WebGLProgram prog = programs.get(program);
 		deallocateProgramId(program);
-		gl.deleteProgram(prog);
+		if (shaderCache == null || shaderCache.releaseProgram(program)) {
+			gl.deleteProgram(prog);
+		}
+		final int[] precompiledShaders = precompiledPrograms.remove(program);
+		if (precompiledShaders != null) {
+			for (final int shader : precompiledShaders) {
+				glDeleteShader(shader);
+			}
+		}
+		vertexArrayObjectCaches.programDeleted(program);
 	}
 
 	@Override
@@ -735,27 +1400,37 @@ public class TeaVMGL20 implements GL20 {
 	public void glDeleteShader (final int shader) {
 		final WebGLShader sh = shaders.get(shader);
 		deallocateShaderId(shader);
-		gl.deleteShader(sh);
+		if (shaderCache == null || shaderCache.releaseShader(shader)) {
+			gl.deleteShader(sh);
+		}
 	}
 
 	@Override
 	public void glDetachShader (final int program, final int shader) {
 		gl.detachShader(programs.get(program), shaders.get(shader));
+		if (shaderCache != null) {
+			shaderCache.detachShader(program, shader);
+		}
 	}
 
 	@Override
 	public void glDisableVertexAttribArray (final int index) {
 		gl.disableVertexAttribArray(index);
+		clientArrays.setEnabled(index, false);
 	}
 
 	@Override
 	public void glDrawElements (final int mode, final int count, final int type, final int indices) {
+		if (clientArrays.isActive()) {
+			clientArrays.prepare(-1);
+		}
 		gl.drawElements(mode, count, type, indices);
 	}
 
 	@Override
 	public void glEnableVertexAttribArray (final int index) {
 		gl.enableVertexAttribArray(index);
+		clientArrays.setEnabled(index, true);
 	}
 
 	@Override
@@ -788,6 +1463,7 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glGenerateMipmap (final int target) {
 		gl.generateMipmap(target);
+		textureMemory.mipmapGenerated(target);
 	}
 
 	@Override
@@ -875,7 +1551,8 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glGetProgramiv (final int program, final int pname, final IntBuffer params) {
-		if (pname == GL20.GL_DELETE_STATUS || pname == GL20.GL_LINK_STATUS || pname == GL20.GL_VALIDATE_STATUS) {
+		if (pname == GL20.GL_DELETE_STATUS || pname == GL20.GL_LINK_STATUS || pname == GL20.GL_VALIDATE_STATUS
+			|| pname == GL_COMPLETION_STATUS_KHR) {
 			final boolean result = gl.getProgramParameterb(programs.get(program), pname);
 			params.put(result ? GL20.GL_TRUE : GL20.GL_FALSE);
 		} else {
@@ -895,7 +1572,7 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glGetShaderiv (final int shader, final int pname, final IntBuffer params) {
-		if (pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_DELETE_STATUS) {
+		if (pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_DELETE_STATUS || pname == GL_COMPLETION_STATUS_KHR) {
 			final boolean result = gl.getShaderParameterb(shaders.get(shader), pname);
 			params.put(result ? GL20.GL_TRUE : GL20.GL_FALSE);
 		} else {
@@ -937,8 +1614,7 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public int glGetUniformLocation (final int program, final String name) {
-		final WebGLUniformLocation location = gl.getUniformLocation(programs.get(program), name);
-		return allocateUniformLocationId(program, location);
+		return allocateUniformLocationId(program, name);
 	}
 
 	@Override
@@ -993,7 +1669,28 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glLinkProgram (final int program) {
+		if (shaderCache != null) {
+			if (shaderCache.forgetProgram(program)) {
+				// Linked again while its previous result is shared.
+				programs.set(program, createUnsharedProgram(program));
+				setUniformTable(program, null);
+			}
+			final WebGLProgram cached = shaderCache.acquireProgram(program);
+			if (cached != null) {
+				gl.deleteProgram(programs.set(program, cached));
+				// Uniform locations and values belong to the WebGL program.
+				setUniformTable(program, getUniformTable(shaderCache.findSharedProgram(program)));
+				return;
+			}
+		}
+		final UniformTable table = getUniformTable(program);
+		if (table != null) {
+			table.clear(); // Linking invalidates locations and resets values.
+		}
 		gl.linkProgram(programs.get(program));
+		if (shaderCache != null) {
+			shaderCache.addProgram(program, programs.get(program));
+		}
 	}
 
 	@Override
@@ -1019,7 +1716,11 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glShaderSource (final int shader, final String source) {
-		gl.shaderSource(shaders.get(shader), source);
+		if (shaderCache == null) {
+			gl.shaderSource(shaders.get(shader), source);
+		} else {
+			shaderCache.shaderSource(shader, source);
+		}
 	}
 
 	@Override
@@ -1039,71 +1740,79 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glTexParameterfv (final int target, final int pname, final FloatBuffer params) {
-		gl.texParameterf(target, pname, params.get());
+		final float param = params.get();
+		gl.texParameterf(target, pname, param);
+		textureMemory.parameterSet(target, pname, param);
 	}
 
 	@Override
 	public void glTexParameteri (final int target, final int pname, final int param) {
 		gl.texParameterf(target, pname, param);
+		textureMemory.parameterSet(target, pname, param);
 	}
 
 	@Override
 	public void glTexParameteriv (final int target, final int pname, final IntBuffer params) {
-		gl.texParameterf(target, pname, params.get());
+		final int param = params.get();
+		gl.texParameterf(target, pname, param);
+		textureMemory.parameterSet(target, pname, param);
 	}
 
 	@Override
 	public void glUniform1f (final int location, final float x) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform1f(loc, x);
+		if (currUniforms != null && currUniforms.update(location, x)) {
+			gl.uniform1f(currUniforms.get(location), x);
+		}
 	}
 
 	@Override
 	public void glUniform1fv (final int location, final int count, final FloatBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform1fv(loc, copy(v));
+		gl.uniform1fv(loc, toUniformFloats(v));
 	}
 
 	@Override
 	public void glUniform1fv (final int location, final int count, final float[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform1fv(loc, v);
+		gl.uniform1fv(loc, toUniformFloats(v, offset, count * 1));
 	}
 
 	@Override
 	public void glUniform1i (final int location, final int x) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform1i(loc, x);
+		if (currUniforms != null && currUniforms.update(location, x)) {
+			gl.uniform1i(currUniforms.get(location), x);
+		}
 	}
 
 	@Override
 	public void glUniform1iv (final int location, final int count, final IntBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform1iv(loc, copy(v));
+		gl.uniform1iv(loc, toUniformInts(v));
 	}
 
 	@Override
 	public void glUniform1iv (final int location, final int count, final int[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform1iv(loc, v);
+		gl.uniform1iv(loc, toUniformInts(v, offset, count * 1));
 	}
 
 	@Override
 	public void glUniform2f (final int location, final float x, final float y) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform2f(loc, x, y);
+		if (currUniforms != null && currUniforms.update(location, x, y)) {
+			gl.uniform2f(currUniforms.get(location), x, y);
+		}
 	}
 
 	@Override
 	public void glUniform2fv (final int location, final int count, final FloatBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform2fv(loc, copy(v));
+		gl.uniform2fv(loc, toUniformFloats(v));
 	}
 
 	@Override
 	public void glUniform2fv (final int location, final int count, final float[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform2fv(loc, v);
+		gl.uniform2fv(loc, toUniformFloats(v, offset, count * 2));
 	}
 
 	@Override
@@ -1115,31 +1824,32 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glUniform2iv (final int location, final int count, final IntBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform2iv(loc, copy(v));
+		gl.uniform2iv(loc, toUniformInts(v));
 	}
 
 	@Override
 	public void glUniform2iv (final int location, final int count, final int[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform2iv(loc, v);
+		gl.uniform2iv(loc, toUniformInts(v, offset, count * 2));
 	}
 
 	@Override
 	public void glUniform3f (final int location, final float x, final float y, final float z) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform3f(loc, x, y, z);
+		if (currUniforms != null && currUniforms.update(location, x, y, z)) {
+			gl.uniform3f(currUniforms.get(location), x, y, z);
+		}
 	}
 
 	@Override
 	public void glUniform3fv (final int location, final int count, final FloatBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform3fv(loc, copy(v));
+		gl.uniform3fv(loc, toUniformFloats(v));
 	}
 
 	@Override
 	public void glUniform3fv (final int location, final int count, final float[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform3fv(loc, v);
+		gl.uniform3fv(loc, toUniformFloats(v, offset, count * 3));
 	}
 
 	@Override
@@ -1151,31 +1861,32 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glUniform3iv (final int location, final int count, final IntBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform3iv(loc, copy(v));
+		gl.uniform3iv(loc, toUniformInts(v));
 	}
 
 	@Override
 	public void glUniform3iv (final int location, final int count, final int[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform3iv(loc, v);
+		gl.uniform3iv(loc, toUniformInts(v, offset, count * 3));
 	}
 
 	@Override
 	public void glUniform4f (final int location, final float x, final float y, final float z, final float w) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform4f(loc, x, y, z, w);
+		if (currUniforms != null && currUniforms.update(location, x, y, z, w)) {
+			gl.uniform4f(currUniforms.get(location), x, y, z, w);
+		}
 	}
 
 	@Override
 	public void glUniform4fv (final int location, final int count, final FloatBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform4fv(loc, copy(v));
+		gl.uniform4fv(loc, toUniformFloats(v));
 	}
 
 	@Override
 	public void glUniform4fv (final int location, final int count, final float[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform4fv(loc, v);
+		gl.uniform4fv(loc, toUniformFloats(v, offset, count * 4));
 	}
 
 	@Override
@@ -1187,57 +1898,61 @@ public class TeaVMGL20 implements GL20 {
 	@Override
 	public void glUniform4iv (final int location, final int count, final IntBuffer v) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform4iv(loc, copy(v));
+		gl.uniform4iv(loc, toUniformInts(v));
 	}
 
 	@Override
 	public void glUniform4iv (final int location, final int count, final int[] v, final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniform4iv(loc, v);
+		gl.uniform4iv(loc, toUniformInts(v, offset, count * 4));
 	}
 
 	@Override
 	public void glUniformMatrix2fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniformMatrix2fv(loc, transpose, copy(value));
+		gl.uniformMatrix2fv(loc, transpose, toUniformFloats(value));
 	}
 
 	@Override
 	public void glUniformMatrix2fv (final int location, final int count, final boolean transpose, final float[] value,
 		final int offset) {
 		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniformMatrix2fv(loc, transpose, value);
+		gl.uniformMatrix2fv(loc, transpose, toUniformFloats(value, offset, count * 4));
 	}
 
 	@Override
 	public void glUniformMatrix3fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniformMatrix3fv(loc, transpose, copy(value));
+		if (currUniforms != null && currUniforms.updateMatrix(location, transpose, value)) {
+			gl.uniformMatrix3fv(currUniforms.get(location), transpose, toUniformFloats(value));
+		}
 	}
 
 	@Override
 	public void glUniformMatrix3fv (final int location, final int count, final boolean transpose, final float[] value,
 		final int offset) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniformMatrix3fv(loc, transpose, value);
+		if (currUniforms != null && currUniforms.updateMatrix(location, transpose, value, offset, count * 9)) {
+			gl.uniformMatrix3fv(currUniforms.get(location), transpose, toUniformFloats(value, offset, count * 9));
+		}
 	}
 
 	@Override
 	public void glUniformMatrix4fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniformMatrix4fv(loc, transpose, copy(value));
+		if (currUniforms != null && currUniforms.updateMatrix(location, transpose, value)) {
+			gl.uniformMatrix4fv(currUniforms.get(location), transpose, toUniformFloats(value));
+		}
 	}
 
 	@Override
 	public void glUniformMatrix4fv (final int location, final int count, final boolean transpose, final float[] value,
 		final int offset) {
-		final WebGLUniformLocation loc = getUniformLocation(location);
-		gl.uniformMatrix4fv(loc, transpose, value);
+		if (currUniforms != null && currUniforms.updateMatrix(location, transpose, value, offset, count * 16)) {
+			gl.uniformMatrix4fv(currUniforms.get(location), transpose, toUniformFloats(value, offset, count * 16));
+		}
 	}
 
 	@Override
 	public void glUseProgram (final int program) {
-		currProgram = program;
+		setCurrentProgram(program);
 		gl.useProgram(programs.get(program));
 	}
 
@@ -1253,7 +1968,7 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glVertexAttrib1fv (final int indx, final FloatBuffer values) {
-		gl.vertexAttrib1fv(indx, copy(values));
+		gl.vertexAttrib1fv(indx, toUniformFloats(values));
 	}
 
 	@Override
@@ -1263,7 +1978,7 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glVertexAttrib2fv (final int indx, final FloatBuffer values) {
-		gl.vertexAttrib2fv(indx, copy(values));
+		gl.vertexAttrib2fv(indx, toUniformFloats(values));
 	}
 
 	@Override
@@ -1273,7 +1988,7 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glVertexAttrib3fv (final int indx, final FloatBuffer values) {
-		gl.vertexAttrib3fv(indx, copy(values));
+		gl.vertexAttrib3fv(indx, toUniformFloats(values));
 	}
 
 	@Override
@@ -1283,18 +1998,19 @@ public class TeaVMGL20 implements GL20 {
 
 	@Override
 	public void glVertexAttrib4fv (final int indx, final FloatBuffer values) {
-		gl.vertexAttrib4fv(indx, copy(values));
+		gl.vertexAttrib4fv(indx, toUniformFloats(values));
 	}
 
 	@Override
 	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
 		final Buffer ptr) {
-		throw new GdxRuntimeException("not implemented, vertex arrays aren't support in WebGL it seems");
+		clientArrays.setPointer(indx, size, type, normalized, stride, ptr);
 	}
 
 	@Override
 	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
 		final int ptr) {
 		gl.vertexAttribPointer(indx, size, type, normalized, stride, ptr);
+		clientArrays.clearPointer(indx);
 	}
 }
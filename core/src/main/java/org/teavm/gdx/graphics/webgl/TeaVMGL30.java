@@ -0,0 +1,924 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+import org.teavm.jso.JSObject;
+import org.teavm.jso.typedarrays.ArrayBufferView;
+import org.teavm.jso.webgl.WebGLBuffer;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+
+/** {@link GL30} implementation on top of a WebGL2 context. Supports vertex array objects, instanced draws, uniform buffer
+ * objects, multiple render targets, 3D textures, samplers, queries, transform feedback and framebuffer blits.
+ * <p>
+ * WebGL2 cannot map buffers, so {@link #glMapBufferRange(int, int, int, int)} is emulated with a client-side copy of the mapped
+ * range that is uploaded with bufferSubData on {@link #glFlushMappedBufferRange(int, int, int)} or {@link #glUnmapBuffer(int)}.
+ * Ranges mapped for reading are filled with getBufferSubData, which stalls the pipeline.
+ * <p>
+ * {@link #glReadPixelsAsync(int, int, int, int, int, int, Buffer, ReadPixelsCallback)} reads pixels into a pixel pack buffer
+ * and delivers them once a fence placed after the read is signaled, checked at the end of each frame. */
+public class TeaVMGL30 extends TeaVMGL20 implements GL30 {
+	private final HandleTable<WebGLVertexArrayObject> vertexArrays = new HandleTable<>();
+	private final HandleTable<WebGLQuery> queries = new HandleTable<>();
+	private final HandleTable<WebGLSampler> samplers = new HandleTable<>();
+	private final HandleTable<WebGLTransformFeedback> transformFeedbacks = new HandleTable<>();
+	private final IntMap<MappedRange> mappedRanges = new IntMap<>();
+	private final Array<PendingReadback> pendingReadbacks = new Array<>();
+	private final Array<WebGLBuffer> packBuffers = new Array<>();
+	private int boundPackBuffer;
+	private boolean timerQueryExtensionQueried;
+	private boolean timerQueryExtensionSupported;
+
+	protected final WebGL2RenderingContext gl2;
+
+	public TeaVMGL30 (final WebGL2RenderingContext gl) {
+		super(gl);
+		gl2 = (WebGL2RenderingContext)this.gl;
+	}
+
+	/** @param buffer its remaining elements will be passed to WebGL as unsigned values.
+	 * @return Uint32Array view over the array backing the buffer if it has one, a staged copy of its remaining elements
+	 *         otherwise. */
+	protected ArrayBufferView toUint32Array (final IntBuffer buffer) {
+		if (buffer.hasArray()) {
+			final int offset = buffer.arrayOffset();
+			return TypedArrays.unsignedInts(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+		}
+		return getStagingBuffers().stageUnsigned(buffer);
+	}
+
+	private static int[] toIntArray (final IntBuffer buffer, final int length) {
+		final int[] array = new int[length];
+		final int position = buffer.position();
+		buffer.get(array);
+		buffer.position(position);
+		return array;
+	}
+
+	@Override
+	public void onFrameEnd () {
+		super.onFrameEnd();
+		if (pendingReadbacks.size > 0) {
+			pollReadbacks();
+		}
+	}
+
+	@Override
+	public void glReadPixelsAsync (final int x, final int y, final int width, final int height, final int format,
+		final int type, final Buffer pixels, final ReadPixelsCallback callback) {
+		final int length = getReadbackLength(width, height, format, type, pixels);
+		final WebGLBuffer packBuffer = packBuffers.size > 0 ? packBuffers.pop() : gl2.createBuffer();
+		gl2.bindBuffer(GL30.GL_PIXEL_PACK_BUFFER, packBuffer);
+		gl2.bufferData(GL30.GL_PIXEL_PACK_BUFFER, length, GL30.GL_STREAM_READ);
+		gl2.readPixels(x, y, width, height, format, type, 0);
+		restorePackBuffer();
+		final WebGLSync sync = gl2.fenceSync(GL30.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+		gl2.flush();
+		pendingReadbacks.add(new PendingReadback(packBuffer, sync, pixels, length, callback));
+	}
+
+	/** Delivers pixels of asynchronous reads whose fences are signaled, in the order of the reads. Called at the end of each
+	 * frame. */
+	public void pollReadbacks () {
+		int delivered = 0;
+		while (delivered < pendingReadbacks.size) {
+			final PendingReadback readback = pendingReadbacks.get(delivered);
+			if (gl2.clientWaitSync(readback.sync, 0, 0) == GL30.GL_TIMEOUT_EXPIRED) {
+				break;
+			}
+			gl2.deleteSync(readback.sync);
+			gl2.bindBuffer(GL30.GL_PIXEL_PACK_BUFFER, readback.packBuffer);
+			gl2.getBufferSubData(GL30.GL_PIXEL_PACK_BUFFER, 0, toReadbackView(readback.pixels, readback.length));
+			restorePackBuffer();
+			finishReadback(readback.pixels, readback.length);
+			packBuffers.add(readback.packBuffer);
+			delivered++;
+		}
+		// Each read is removed before its callback is invoked, so callbacks can request further reads.
+		for (int index = 0; index < delivered; index++) {
+			final PendingReadback readback = pendingReadbacks.removeIndex(0);
+			readback.callback.onPixelsRead(readback.pixels);
+		}
+	}
+
+	/** Binds the pixel pack buffer bound by the application before an asynchronous read used its own buffer. */
+	private void restorePackBuffer () {
+		gl2.bindBuffer(GL30.GL_PIXEL_PACK_BUFFER, getWebGLBuffer(boundPackBuffer));
+	}
+
+	@Override
+	public void glBindBuffer (final int target, final int buffer) {
+		super.glBindBuffer(target, buffer);
+		if (target == GL30.GL_PIXEL_PACK_BUFFER) {
+			boundPackBuffer = buffer;
+		}
+	}
+
+	@Override
+	public void glGetIntegerv (final int pname, final IntBuffer params) {
+		switch (pname) {
+		case GL30.GL_NUM_EXTENSIONS:
+			params.put(0, gl.getSupportedExtensionArray().length);
+			break;
+		case GL30.GL_MAX_3D_TEXTURE_SIZE:
+		case GL30.GL_MAX_ARRAY_TEXTURE_LAYERS:
+		case GL30.GL_MAX_COLOR_ATTACHMENTS:
+		case GL30.GL_MAX_COMBINED_UNIFORM_BLOCKS:
+		case GL30.GL_MAX_DRAW_BUFFERS:
+		case GL30.GL_MAX_ELEMENTS_INDICES:
+		case GL30.GL_MAX_ELEMENTS_VERTICES:
+		case GL30.GL_MAX_FRAGMENT_INPUT_COMPONENTS:
+		case GL30.GL_MAX_FRAGMENT_UNIFORM_BLOCKS:
+		case GL30.GL_MAX_FRAGMENT_UNIFORM_COMPONENTS:
+		case GL30.GL_MAX_PROGRAM_TEXEL_OFFSET:
+		case GL30.GL_MAX_SAMPLES:
+		case GL30.GL_MAX_TEXTURE_LOD_BIAS:
+		case GL30.GL_MAX_TRANSFORM_FEEDBACK_INTERLEAVED_COMPONENTS:
+		case GL30.GL_MAX_TRANSFORM_FEEDBACK_SEPARATE_ATTRIBS:
+		case GL30.GL_MAX_TRANSFORM_FEEDBACK_SEPARATE_COMPONENTS:
+		case GL30.GL_MAX_UNIFORM_BUFFER_BINDINGS:
+		case GL30.GL_MAX_VARYING_COMPONENTS:
+		case GL30.GL_MAX_VERTEX_OUTPUT_COMPONENTS:
+		case GL30.GL_MAX_VERTEX_UNIFORM_BLOCKS:
+		case GL30.GL_MAX_VERTEX_UNIFORM_COMPONENTS:
+		case GL30.GL_MIN_PROGRAM_TEXEL_OFFSET:
+		case GL30.GL_PACK_ROW_LENGTH:
+		case GL30.GL_PACK_SKIP_PIXELS:
+		case GL30.GL_PACK_SKIP_ROWS:
+		case GL30.GL_READ_BUFFER:
+		case GL30.GL_UNIFORM_BUFFER_OFFSET_ALIGNMENT:
+		case GL30.GL_UNPACK_IMAGE_HEIGHT:
+		case GL30.GL_UNPACK_ROW_LENGTH:
+		case GL30.GL_UNPACK_SKIP_IMAGES:
+		case GL30.GL_UNPACK_SKIP_PIXELS:
+		case GL30.GL_UNPACK_SKIP_ROWS:
+			params.put(0, gl.getParameteri(pname));
+			break;
+		default:
+			super.glGetIntegerv(pname, params);
+		}
+	}
+
+	@Override
+	public void glReadBuffer (final int mode) {
+		gl2.readBuffer(mode);
+	}
+
+	@Override
+	public void glDrawBuffers (final int n, final IntBuffer bufs) {
+		gl2.drawBuffers(toIntArray(bufs, n));
+	}
+
+	@Override
+	public void glDrawRangeElements (final int mode, final int start, final int end, final int count, final int type,
+		final Buffer indices) {
+		final ClientArrays clientArrays = getClientArrays();
+		if (clientArrays.isActive()) {
+			clientArrays.prepare(end + 1);
+		}
+		if (clientArrays.isElementArrayBufferBound()) {
+			gl2.drawRangeElements(mode, start, end, count, type, indices.position() * getElementSize(indices));
+		} else {
+			gl2.drawRangeElements(mode, start, end, count, type, clientArrays.uploadIndices(indices, count, type));
+			clientArrays.restoreElementArrayBuffer();
+		}
+	}
+
+	@Override
+	public void glDrawRangeElements (final int mode, final int start, final int end, final int count, final int type,
+		final int offset) {
+		gl2.drawRangeElements(mode, start, end, count, type, offset);
+	}
+
+	@Override
+	public boolean isInstancingSupported () {
+		return true;
+	}
+
+	@Override
+	public boolean isTimerQuerySupported () {
+		if (!timerQueryExtensionQueried) {
+			timerQueryExtensionQueried = true;
+			timerQueryExtensionSupported = gl2.getExtension("EXT_disjoint_timer_query_webgl2") != null;
+		}
+		return timerQueryExtensionSupported;
+	}
+
+	@Override
+	public JSObject createTimerQuery () {
+		return gl2.createQuery();
+	}
+
+	@Override
+	public void deleteTimerQuery (final JSObject query) {
+		gl2.deleteQuery((WebGLQuery)query);
+	}
+
+	@Override
+	public void beginTimerQuery (final JSObject query) {
+		gl2.beginQuery(EXTDisjointTimerQuery.TIME_ELAPSED_EXT, (WebGLQuery)query);
+	}
+
+	@Override
+	public void endTimerQuery () {
+		gl2.endQuery(EXTDisjointTimerQuery.TIME_ELAPSED_EXT);
+	}
+
+	@Override
+	public boolean isTimerQueryAvailable (final JSObject query) {
+		return gl2.getQueryParameterb((WebGLQuery)query, GL30.GL_QUERY_RESULT_AVAILABLE);
+	}
+
+	@Override
+	public double getTimerQueryResult (final JSObject query) {
+		return gl2.getQueryParameterd((WebGLQuery)query, GL30.GL_QUERY_RESULT);
+	}
+
+	@Override
+	public boolean isGPUDisjoint () {
+		return gl2.getParameterb(EXTDisjointTimerQuery.GPU_DISJOINT_EXT);
+	}
+
+	@Override
+	public void glDrawArraysInstanced (final int mode, final int first, final int count, final int instanceCount) {
+		gl2.drawArraysInstanced(mode, first, count, instanceCount);
+	}
+
+	@Override
+	public void glDrawElementsInstanced (final int mode, final int count, final int type, final int indicesOffset,
+		final int instanceCount) {
+		gl2.drawElementsInstanced(mode, count, type, indicesOffset, instanceCount);
+	}
+
+	@Override
+	public void glVertexAttribDivisor (final int index, final int divisor) {
+		gl2.vertexAttribDivisor(index, divisor);
+	}
+
+	/** Sets up a client-side vertex array emulated just like with {@link TeaVMGL20}. Deprecated by {@link GL30}, as client-side
+	 * arrays are not a part of the core OpenGL ES 3.0 profile; prefer vertex buffer objects. */
+	@Deprecated
+	@Override
+	public void glVertexAttribPointer (final int indx, final int size, final int type, final boolean normalized, final int stride,
+		final Buffer ptr) {
+		super.glVertexAttribPointer(indx, size, type, normalized, stride, ptr);
+	}
+
+	@Override
+	public void glVertexAttribIPointer (final int index, final int size, final int type, final int stride, final int offset) {
+		gl2.vertexAttribIPointer(index, size, type, stride, offset);
+	}
+
+	@Override
+	public void glVertexAttribI4i (final int index, final int x, final int y, final int z, final int w) {
+		gl2.vertexAttribI4i(index, x, y, z, w);
+	}
+
+	@Override
+	public void glVertexAttribI4ui (final int index, final int x, final int y, final int z, final int w) {
+		gl2.vertexAttribI4ui(index, x, y, z, w);
+	}
+
+	@Override
+	public void glGetVertexAttribIiv (final int index, final int pname, final IntBuffer params) {
+		switch (pname) {
+		case GL20.GL_CURRENT_VERTEX_ATTRIB:
+			final int[] values = gl2.getVertexAttribArray(index, pname);
+			for (int i = 0; i < values.length; i++) {
+				params.put(i, values[i]);
+			}
+			break;
+		case GL20.GL_VERTEX_ATTRIB_ARRAY_ENABLED:
+		case GL20.GL_VERTEX_ATTRIB_ARRAY_NORMALIZED:
+		case GL30.GL_VERTEX_ATTRIB_ARRAY_INTEGER:
+			params.put(0, gl2.getVertexAttribb(index, pname) ? GL20.GL_TRUE : GL20.GL_FALSE);
+			break;
+		case GL20.GL_VERTEX_ATTRIB_ARRAY_BUFFER_BINDING:
+			throw new GdxRuntimeException("glGetVertexAttribIiv does not support buffer binding queries in WebGL backend.");
+		default:
+			params.put(0, gl2.getVertexAttribi(index, pname));
+		}
+	}
+
+	@Override
+	public void glGetVertexAttribIuiv (final int index, final int pname, final IntBuffer params) {
+		glGetVertexAttribIiv(index, pname, params);
+	}
+
+	// Textures:
+
+	@Override
+	public void glTexImage3D (final int target, final int level, final int internalformat, final int width, final int height,
+		final int depth, final int border, final int format, final int type, final Buffer pixels) {
+		gl2.texImage3D(target, level, internalformat, width, height, depth, border, format, type, toPixelArray(pixels));
+	}
+
+	@Override
+	public void glTexImage3D (final int target, final int level, final int internalformat, final int width, final int height,
+		final int depth, final int border, final int format, final int type, final int offset) {
+		gl2.texImage3D(target, level, internalformat, width, height, depth, border, format, type, offset);
+	}
+
+	@Override
+	public void glTexSubImage3D (final int target, final int level, final int xoffset, final int yoffset, final int zoffset,
+		final int width, final int height, final int depth, final int format, final int type, final Buffer pixels) {
+		gl2.texSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, toPixelArray(pixels));
+	}
+
+	@Override
+	public void glTexSubImage3D (final int target, final int level, final int xoffset, final int yoffset, final int zoffset,
+		final int width, final int height, final int depth, final int format, final int type, final int offset) {
+		gl2.texSubImage3D(target, level, xoffset, yoffset, zoffset, width, height, depth, format, type, offset);
+	}
+
+	@Override
+	public void glCopyTexSubImage3D (final int target, final int level, final int xoffset, final int yoffset, final int zoffset,
+		final int x, final int y, final int width, final int height) {
+		gl2.copyTexSubImage3D(target, level, xoffset, yoffset, zoffset, x, y, width, height);
+	}
+
+	// Buffers:
+
+	@Override
+	public void glBindBufferBase (final int target, final int index, final int buffer) {
+		gl2.bindBufferBase(target, index, getWebGLBuffer(buffer));
+	}
+
+	@Override
+	public void glBindBufferRange (final int target, final int index, final int buffer, final int offset, final int size) {
+		gl2.bindBufferRange(target, index, getWebGLBuffer(buffer), offset, size);
+	}
+
+	@Override
+	public void glCopyBufferSubData (final int readTarget, final int writeTarget, final int readOffset, final int writeOffset,
+		final int size) {
+		gl2.copyBufferSubData(readTarget, writeTarget, readOffset, writeOffset, size);
+	}
+
+	@Override
+	public void glGetBufferParameteri64v (final int target, final int pname, final LongBuffer params) {
+		params.put(0, (long)gl2.getBufferParameterd(target, pname));
+	}
+
+	@Override
+	public void glGetInteger64v (final int pname, final LongBuffer params) {
+		params.put(0, (long)gl2.getParameterd(pname));
+	}
+
+	/** Emulates buffer mapping, which is not available in WebGL2. The returned buffer is a client-side copy of the range; it is
+	 * uploaded to the GL buffer on {@link #glFlushMappedBufferRange(int, int, int)} if {@link GL30#GL_MAP_FLUSH_EXPLICIT_BIT} is
+	 * set, or on {@link #glUnmapBuffer(int)} otherwise. The range is filled with the current buffer content only if
+	 * {@link GL30#GL_MAP_READ_BIT} is set.
+	 * @param target buffer target.
+	 * @param offset offset of the range in bytes.
+	 * @param length length of the range in bytes.
+	 * @param access GL30 map access bits.
+	 * @return buffer representing the mapped range. Reused by the following mappings of the target with the same or smaller
+	 *         length. */
+	public ByteBuffer glMapBufferRange (final int target, final int offset, final int length, final int access) {
+		if (mappedRanges.containsKey(target) && mappedRanges.get(target).mapped) {
+			throw new GdxRuntimeException("Buffer bound to " + target + " is already mapped.");
+		}
+		MappedRange range = mappedRanges.get(target);
+		if (range == null || range.data.capacity() < length) {
+			range = new MappedRange(length);
+			mappedRanges.put(target, range);
+		}
+		range.map(offset, length, access);
+		if ((access & GL30.GL_MAP_READ_BIT) != 0) {
+			gl2.getBufferSubData(target, offset, toUint8Array(range.data));
+		}
+		return range.data;
+	}
+
+	@Override
+	public void glFlushMappedBufferRange (final int target, final int offset, final int length) {
+		final MappedRange range = getMappedRange(target);
+		final ByteBuffer data = range.data;
+		final int position = data.position();
+		final int limit = data.limit();
+		data.limit(offset + length);
+		data.position(offset);
+		gl2.bufferSubData(target, range.offset + offset, toUint8Array(data));
+		data.limit(limit);
+		data.position(position);
+	}
+
+	@Override
+	public boolean glUnmapBuffer (final int target) {
+		final MappedRange range = getMappedRange(target);
+		if ((range.access & GL30.GL_MAP_WRITE_BIT) != 0 && (range.access & GL30.GL_MAP_FLUSH_EXPLICIT_BIT) == 0) {
+			glFlushMappedBufferRange(target, 0, range.length);
+		}
+		range.mapped = false;
+		return true;
+	}
+
+	@Override
+	public Buffer glGetBufferPointerv (final int target, final int pname) {
+		if (pname != GL30.GL_BUFFER_MAP_POINTER) {
+			throw new GdxRuntimeException("glGetBufferPointerv supports only GL_BUFFER_MAP_POINTER in WebGL backend.");
+		}
+		final MappedRange range = mappedRanges.get(target);
+		return range != null && range.mapped ? range.data : null;
+	}
+
+	private MappedRange getMappedRange (final int target) {
+		final MappedRange range = mappedRanges.get(target);
+		if (range == null || !range.mapped) {
+			throw new GdxRuntimeException("Buffer bound to " + target + " is not mapped.");
+		}
+		return range;
+	}
+
+	// Framebuffers and renderbuffers:
+
+	@Override
+	public void glBlitFramebuffer (final int srcX0, final int srcY0, final int srcX1, final int srcY1, final int dstX0,
+		final int dstY0, final int dstX1, final int dstY1, final int mask, final int filter) {
+		gl2.blitFramebuffer(srcX0, srcY0, srcX1, srcY1, dstX0, dstY0, dstX1, dstY1, mask, filter);
+	}
+
+	@Override
+	public void glRenderbufferStorageMultisample (final int target, final int samples, final int internalformat,
+		final int width, final int height) {
+		gl2.renderbufferStorageMultisample(target, samples, internalformat, width, height);
+	}
+
+	@Override
+	public void glFramebufferTextureLayer (final int target, final int attachment, final int texture, final int level,
+		final int layer) {
+		gl2.framebufferTextureLayer(target, attachment, getWebGLTexture(texture), level, layer);
+	}
+
+	@Override
+	public void glInvalidateFramebuffer (final int target, final int numAttachments, final IntBuffer attachments) {
+		gl2.invalidateFramebuffer(target, toIntArray(attachments, numAttachments));
+	}
+
+	@Override
+	public void glInvalidateSubFramebuffer (final int target, final int numAttachments, final IntBuffer attachments,
+		final int x, final int y, final int width, final int height) {
+		gl2.invalidateSubFramebuffer(target, toIntArray(attachments, numAttachments), x, y, width, height);
+	}
+
+	@Override
+	public void glClearBufferiv (final int buffer, final int drawbuffer, final IntBuffer value) {
+		gl2.clearBufferiv(buffer, drawbuffer, toInt32Array(value));
+	}
+
+	@Override
+	public void glClearBufferuiv (final int buffer, final int drawbuffer, final IntBuffer value) {
+		gl2.clearBufferuiv(buffer, drawbuffer, toUint32Array(value));
+	}
+
+	@Override
+	public void glClearBufferfv (final int buffer, final int drawbuffer, final FloatBuffer value) {
+		gl2.clearBufferfv(buffer, drawbuffer, toFloat32Array(value));
+	}
+
+	@Override
+	public void glClearBufferfi (final int buffer, final int drawbuffer, final float depth, final int stencil) {
+		gl2.clearBufferfi(buffer, drawbuffer, depth, stencil);
+	}
+
+	// Vertex array objects:
+
+	@Override
+	public boolean isVertexArrayObjectSupported () {
+		return true;
+	}
+
+	@Override
+	public int glGenVertexArray () {
+		return vertexArrays.add(gl2.createVertexArray());
+	}
+
+	@Override
+	public void glBindVertexArray (final int array) {
+		gl2.bindVertexArray(vertexArrays.get(array));
+		getClientArrays().vertexArrayBound(array);
+		getVertexArrayObjectCaches().vertexArrayBound();
+	}
+
+	@Override
+	public void glDeleteVertexArray (final int array) {
+		gl2.deleteVertexArray(vertexArrays.remove(array));
+	}
+
+	@Override
+	public void glGenVertexArrays (final int n, final int[] arrays, final int offset) {
+		for (int i = 0; i < n; i++) {
+			arrays[offset + i] = glGenVertexArray();
+		}
+	}
+
+	@Override
+	public void glGenVertexArrays (final int n, final IntBuffer arrays) {
+		for (int i = 0; i < n; i++) {
+			arrays.put(glGenVertexArray());
+		}
+	}
+
+	@Override
+	public void glDeleteVertexArrays (final int n, final int[] arrays, final int offset) {
+		for (int i = 0; i < n; i++) {
+			glDeleteVertexArray(arrays[offset + i]);
+		}
+	}
+
+	@Override
+	public void glDeleteVertexArrays (final int n, final IntBuffer arrays) {
+		for (int i = 0; i < n; i++) {
+			glDeleteVertexArray(arrays.get());
+		}
+	}
+
+	@Override
+	public boolean glIsVertexArray (final int array) {
+		return gl2.isVertexArray(vertexArrays.get(array));
+	}
+
+	// Queries:
+
+	@Override
+	public void glGenQueries (final int n, final int[] ids, final int offset) {
+		for (int i = 0; i < n; i++) {
+			ids[offset + i] = queries.add(gl2.createQuery());
+		}
+	}
+
+	@Override
+	public void glGenQueries (final int n, final IntBuffer ids) {
+		for (int i = 0; i < n; i++) {
+			ids.put(queries.add(gl2.createQuery()));
+		}
+	}
+
+	@Override
+	public void glDeleteQueries (final int n, final int[] ids, final int offset) {
+		for (int i = 0; i < n; i++) {
+			gl2.deleteQuery(queries.remove(ids[offset + i]));
+		}
+	}
+
+	@Override
+	public void glDeleteQueries (final int n, final IntBuffer ids) {
+		for (int i = 0; i < n; i++) {
+			gl2.deleteQuery(queries.remove(ids.get()));
+		}
+	}
+
+	@Override
+	public boolean glIsQuery (final int id) {
+		return gl2.isQuery(queries.get(id));
+	}
+
+	@Override
+	public void glBeginQuery (final int target, final int id) {
+		gl2.beginQuery(target, queries.get(id));
+	}
+
+	@Override
+	public void glEndQuery (final int target) {
+		gl2.endQuery(target);
+	}
+
+	@Override
+	public void glGetQueryiv (final int target, final int pname, final IntBuffer params) {
+		if (pname != GL30.GL_CURRENT_QUERY) {
+			throw new GdxRuntimeException("glGetQueryiv supports only GL_CURRENT_QUERY in WebGL backend.");
+		}
+		params.put(0, queries.find(gl2.getQuery(target, pname)));
+	}
+
+	@Override
+	public void glGetQueryObjectuiv (final int id, final int pname, final IntBuffer params) {
+		final WebGLQuery query = queries.get(id);
+		if (pname == GL30.GL_QUERY_RESULT_AVAILABLE) {
+			params.put(0, gl2.getQueryParameterb(query, pname) ? GL20.GL_TRUE : GL20.GL_FALSE);
+		} else {
+			params.put(0, gl2.getQueryParameteri(query, pname));
+		}
+	}
+
+	// Samplers:
+
+	@Override
+	public void glGenSamplers (final int count, final int[] samplers, final int offset) {
+		for (int i = 0; i < count; i++) {
+			samplers[offset + i] = this.samplers.add(gl2.createSampler());
+		}
+	}
+
+	@Override
+	public void glGenSamplers (final int count, final IntBuffer samplers) {
+		for (int i = 0; i < count; i++) {
+			samplers.put(this.samplers.add(gl2.createSampler()));
+		}
+	}
+
+	@Override
+	public void glDeleteSamplers (final int count, final int[] samplers, final int offset) {
+		for (int i = 0; i < count; i++) {
+			gl2.deleteSampler(this.samplers.remove(samplers[offset + i]));
+		}
+	}
+
+	@Override
+	public void glDeleteSamplers (final int count, final IntBuffer samplers) {
+		for (int i = 0; i < count; i++) {
+			gl2.deleteSampler(this.samplers.remove(samplers.get()));
+		}
+	}
+
+	@Override
+	public boolean glIsSampler (final int sampler) {
+		return gl2.isSampler(samplers.get(sampler));
+	}
+
+	@Override
+	public void glBindSampler (final int unit, final int sampler) {
+		gl2.bindSampler(unit, samplers.get(sampler));
+	}
+
+	@Override
+	public void glSamplerParameteri (final int sampler, final int pname, final int param) {
+		gl2.samplerParameteri(samplers.get(sampler), pname, param);
+	}
+
+	@Override
+	public void glSamplerParameteriv (final int sampler, final int pname, final IntBuffer param) {
+		gl2.samplerParameteri(samplers.get(sampler), pname, param.get(param.position()));
+	}
+
+	@Override
+	public void glSamplerParameterf (final int sampler, final int pname, final float param) {
+		gl2.samplerParameterf(samplers.get(sampler), pname, param);
+	}
+
+	@Override
+	public void glSamplerParameterfv (final int sampler, final int pname, final FloatBuffer param) {
+		gl2.samplerParameterf(samplers.get(sampler), pname, param.get(param.position()));
+	}
+
+	@Override
+	public void glGetSamplerParameteriv (final int sampler, final int pname, final IntBuffer params) {
+		params.put(0, gl2.getSamplerParameteri(samplers.get(sampler), pname));
+	}
+
+	@Override
+	public void glGetSamplerParameterfv (final int sampler, final int pname, final FloatBuffer params) {
+		params.put(0, gl2.getSamplerParameterf(samplers.get(sampler), pname));
+	}
+
+	// Transform feedback:
+
+	@Override
+	public void glGenTransformFeedbacks (final int n, final int[] ids, final int offset) {
+		for (int i = 0; i < n; i++) {
+			ids[offset + i] = transformFeedbacks.add(gl2.createTransformFeedback());
+		}
+	}
+
+	@Override
+	public void glGenTransformFeedbacks (final int n, final IntBuffer ids) {
+		for (int i = 0; i < n; i++) {
+			ids.put(transformFeedbacks.add(gl2.createTransformFeedback()));
+		}
+	}
+
+	@Override
+	public void glDeleteTransformFeedbacks (final int n, final int[] ids, final int offset) {
+		for (int i = 0; i < n; i++) {
+			gl2.deleteTransformFeedback(transformFeedbacks.remove(ids[offset + i]));
+		}
+	}
+
+	@Override
+	public void glDeleteTransformFeedbacks (final int n, final IntBuffer ids) {
+		for (int i = 0; i < n; i++) {
+			gl2.deleteTransformFeedback(transformFeedbacks.remove(ids.get()));
+		}
+	}
+
+	@Override
+	public boolean glIsTransformFeedback (final int id) {
+		return gl2.isTransformFeedback(transformFeedbacks.get(id));
+	}
+
+	@Override
+	public void glBindTransformFeedback (final int target, final int id) {
+		gl2.bindTransformFeedback(target, transformFeedbacks.get(id));
+	}
+
+	@Override
+	public void glBeginTransformFeedback (final int primitiveMode) {
+		gl2.beginTransformFeedback(primitiveMode);
+	}
+
+	@Override
+	public void glEndTransformFeedback () {
+		gl2.endTransformFeedback();
+	}
+
+	@Override
+	public void glPauseTransformFeedback () {
+		gl2.pauseTransformFeedback();
+	}
+
+	@Override
+	public void glResumeTransformFeedback () {
+		gl2.resumeTransformFeedback();
+	}
+
+	@Override
+	public void glTransformFeedbackVaryings (final int program, final String[] varyings, final int bufferMode) {
+		gl2.transformFeedbackVaryings(getWebGLProgram(program), varyings, bufferMode);
+	}
+
+	// Programs and uniforms:
+
+	/** Not supported: WebGL2 links programs without parameters.
+	 * @throws GdxRuntimeException always. */
+	@Override
+	public void glProgramParameteri (final int program, final int pname, final int value) {
+		throw new GdxRuntimeException("glProgramParameteri not supported by WebGL backend.");
+	}
+
+	@Override
+	public int glGetFragDataLocation (final int program, final String name) {
+		return gl2.getFragDataLocation(getWebGLProgram(program), name);
+	}
+
+	@Override
+	public String glGetStringi (final int name, final int index) {
+		if (name != GL20.GL_EXTENSIONS) {
+			throw new GdxRuntimeException("glGetStringi supports only GL_EXTENSIONS in WebGL backend.");
+		}
+		return gl.getSupportedExtensionArray()[index];
+	}
+
+	/** Not supported: WebGL2 returns uniform values as JavaScript objects that are not read back by this implementation.
+	 * @throws GdxRuntimeException always. */
+	@Override
+	public void glGetUniformuiv (final int program, final int location, final IntBuffer params) {
+		throw new GdxRuntimeException("glGetUniformuiv not supported by WebGL backend.");
+	}
+
+	@Override
+	public void glUniform1uiv (final int location, final int count, final IntBuffer value) {
+		gl2.uniform1uiv(getUniformLocation(location), toUint32Array(value));
+	}
+
+	@Override
+	public void glUniform3uiv (final int location, final int count, final IntBuffer value) {
+		gl2.uniform3uiv(getUniformLocation(location), toUint32Array(value));
+	}
+
+	@Override
+	public void glUniform4uiv (final int location, final int count, final IntBuffer value) {
+		gl2.uniform4uiv(getUniformLocation(location), toUint32Array(value));
+	}
+
+	@Override
+	public void glUniformMatrix2x3fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		gl2.uniformMatrix2x3fv(getUniformLocation(location), transpose, toUniformFloats(value));
+	}
+
+	@Override
+	public void glUniformMatrix3x2fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		gl2.uniformMatrix3x2fv(getUniformLocation(location), transpose, toUniformFloats(value));
+	}
+
+	@Override
+	public void glUniformMatrix2x4fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		gl2.uniformMatrix2x4fv(getUniformLocation(location), transpose, toUniformFloats(value));
+	}
+
+	@Override
+	public void glUniformMatrix4x2fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		gl2.uniformMatrix4x2fv(getUniformLocation(location), transpose, toUniformFloats(value));
+	}
+
+	@Override
+	public void glUniformMatrix3x4fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		gl2.uniformMatrix3x4fv(getUniformLocation(location), transpose, toUniformFloats(value));
+	}
+
+	@Override
+	public void glUniformMatrix4x3fv (final int location, final int count, final boolean transpose, final FloatBuffer value) {
+		gl2.uniformMatrix4x3fv(getUniformLocation(location), transpose, toUniformFloats(value));
+	}
+
+	@Override
+	public void glGetUniformIndices (final int program, final String[] uniformNames, final IntBuffer uniformIndices) {
+		final int[] indices = gl2.getUniformIndices(getWebGLProgram(program), uniformNames);
+		for (int i = 0; i < indices.length; i++) {
+			uniformIndices.put(uniformIndices.position() + i, indices[i]);
+		}
+	}
+
+	@Override
+	public void glGetActiveUniformsiv (final int program, final int uniformCount, final IntBuffer uniformIndices,
+		final int pname, final IntBuffer params) {
+		final int[] values = gl2.getActiveUniforms(getWebGLProgram(program), toIntArray(uniformIndices, uniformCount), pname);
+		for (int i = 0; i < values.length; i++) {
+			params.put(params.position() + i, values[i]);
+		}
+	}
+
+	@Override
+	public int glGetUniformBlockIndex (final int program, final String uniformBlockName) {
+		return gl2.getUniformBlockIndex(getWebGLProgram(program), uniformBlockName);
+	}
+
+	@Override
+	public void glGetActiveUniformBlockiv (final int program, final int uniformBlockIndex, final int pname,
+		final IntBuffer params) {
+		if (pname == GL30.GL_UNIFORM_BLOCK_ACTIVE_UNIFORM_INDICES) {
+			final int[] indices = gl2.getActiveUniformBlockParameterArray(getWebGLProgram(program), uniformBlockIndex, pname);
+			for (int i = 0; i < indices.length; i++) {
+				params.put(params.position() + i, indices[i]);
+			}
+		} else {
+			params.put(params.position(),
+				gl2.getActiveUniformBlockParameteri(getWebGLProgram(program), uniformBlockIndex, pname));
+		}
+	}
+
+	@Override
+	public void glGetActiveUniformBlockName (final int program, final int uniformBlockIndex, final Buffer length,
+		final Buffer uniformBlockName) {
+		final String name = glGetActiveUniformBlockName(program, uniformBlockIndex);
+		if (length instanceof IntBuffer) {
+			((IntBuffer)length).put(length.position(), name.length());
+		}
+		if (uniformBlockName instanceof ByteBuffer) {
+			final ByteBuffer buffer = (ByteBuffer)uniformBlockName;
+			final int position = buffer.position();
+			for (int i = 0; i < name.length() && position + i < buffer.limit(); i++) {
+				buffer.put(position + i, (byte)name.charAt(i));
+			}
+		}
+	}
+
+	@Override
+	public String glGetActiveUniformBlockName (final int program, final int uniformBlockIndex) {
+		return gl2.getActiveUniformBlockName(getWebGLProgram(program), uniformBlockIndex);
+	}
+
+	@Override
+	public void glUniformBlockBinding (final int program, final int uniformBlockIndex, final int uniformBlockBinding) {
+		gl2.uniformBlockBinding(getWebGLProgram(program), uniformBlockIndex, uniformBlockBinding);
+	}
+
+	/** Asynchronous pixel read waiting for its fence. */
+	private static class PendingReadback {
+		private final WebGLBuffer packBuffer;
+		private final WebGLSync sync;
+		private final Buffer pixels;
+		private final int length;
+		private final ReadPixelsCallback callback;
+
+		PendingReadback (final WebGLBuffer packBuffer, final WebGLSync sync, final Buffer pixels, final int length,
+			final ReadPixelsCallback callback) {
+			this.packBuffer = packBuffer;
+			this.sync = sync;
+			this.pixels = pixels;
+			this.length = length;
+			this.callback = callback;
+		}
+	}
+
+	/** Client-side copy of a mapped buffer range. */
+	private static class MappedRange {
+		private final ByteBuffer data;
+		private int offset;
+		private int length;
+		private int access;
+		private boolean mapped;
+
+		MappedRange (final int capacity) {
+			data = ByteBuffer.allocate(capacity).order(ByteOrder.nativeOrder());
+		}
+
+		void map (final int offset, final int length, final int access) {
+			this.offset = offset;
+			this.length = length;
+			this.access = access;
+			data.clear();
+			data.limit(length);
+			mapped = true;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+import org.teavm.jso.dom.html.HTMLImageElement;
+
+/** GL calls provided by TeaVM GL implementations on top of {@link com.badlogic.gdx.graphics.GL20}: vertex array objects,
+ * instanced rendering and timer queries backed by WebGL1 extensions or WebGL2, and direct image uploads. Implemented by
+ * {@link TeaVMGL20} and by {@link ProfilingGL20}, which counts the calls before passing them to the wrapped implementation.
+ * Internal users should obtain it with {@link org.teavm.gdx.graphics.TeaVMGraphics#getGLExtensions()}, so their calls are
+ * profiled. */
+public interface TeaVMGLExtensions {
+	/** @return true if vertex array objects can be used through {@link #glGenVertexArray()} and {@link #glBindVertexArray(int)}.
+	 *         WebGL1 supports them through OES_vertex_array_object extension. */
+	boolean isVertexArrayObjectSupported ();
+
+	/** @return ID of a new vertex array object.
+	 * @see #isVertexArrayObjectSupported() */
+	int glGenVertexArray ();
+
+	/** @param array ID of the vertex array object to bind. 0 binds the default vertex array object.
+	 * @see #isVertexArrayObjectSupported() */
+	void glBindVertexArray (int array);
+
+	/** @param array ID of the vertex array object to delete.
+	 * @see #isVertexArrayObjectSupported() */
+	void glDeleteVertexArray (int array);
+
+	/** @return true if instanced rendering can be used through {@link #glVertexAttribDivisor(int, int)},
+	 *         {@link #glDrawArraysInstanced(int, int, int, int)} and {@link #glDrawElementsInstanced(int, int, int, int, int)}.
+	 *         WebGL1 supports it through ANGLE_instanced_arrays extension. */
+	boolean isInstancingSupported ();
+
+	/** @param index vertex attribute index.
+	 * @param divisor amount of instances that share each value of the attribute. 0 advances the attribute per vertex.
+	 * @see #isInstancingSupported() */
+	void glVertexAttribDivisor (int index, int divisor);
+
+	/** @param mode primitive type.
+	 * @param first index of the first vertex.
+	 * @param count amount of vertices drawn per instance.
+	 * @param instanceCount amount of instances.
+	 * @see #isInstancingSupported() */
+	void glDrawArraysInstanced (int mode, int first, int count, int instanceCount);
+
+	/** @param mode primitive type.
+	 * @param count amount of indices drawn per instance.
+	 * @param type type of the indices.
+	 * @param indicesOffset offset of the first index in the element array buffer in bytes.
+	 * @param instanceCount amount of instances.
+	 * @see #isInstancingSupported() */
+	void glDrawElementsInstanced (int mode, int count, int type, int indicesOffset, int instanceCount);
+
+	/** Uploads a decoded image without reading its pixels back to Java.
+	 * @param target texture target.
+	 * @param level mipmap level.
+	 * @param internalformat internal format of the texture. Must match the format with WebGL1.
+	 * @param format pixel format.
+	 * @param type pixel type.
+	 * @param image loaded image. */
+	void glTexImage2D (int target, int level, int internalformat, int format, int type, HTMLImageElement image);
+
+	/** @return true if GPU time can be measured with {@link GPUTimer}. WebGL1 supports it through EXT_disjoint_timer_query
+	 *         extension. */
+	boolean isTimerQuerySupported ();
+
+	/** @return a new query measuring elapsed GPU time.
+	 * @see #isTimerQuerySupported() */
+	JSObject createTimerQuery ();
+
+	/** @param query will be deleted. */
+	void deleteTimerQuery (JSObject query);
+
+	/** @param query will measure GPU time of the following commands. Only one query can be active at a time. */
+	void beginTimerQuery (JSObject query);
+
+	/** Ends the active timer query. */
+	void endTimerQuery ();
+
+	/** @param query ended timer query.
+	 * @return true if its result can be read without blocking. */
+	boolean isTimerQueryAvailable (JSObject query);
+
+	/** @param query ended timer query with an available result.
+	 * @return measured GPU time in nanoseconds. */
+	double getTimerQueryResult (JSObject query);
+
+	/** @return true if a GPU event, like a frequency change, made results of recent timer queries unreliable. Clears the flag. */
+	boolean isGPUDisjoint ();
+}
@@ -0,0 +1,63 @@
+package org.teavm.gdx.graphics.webgl;
+
+/** Families of compressed texture formats available through WEBGL_compressed_texture_* extensions. Each family is enabled by
+ * the first extension name supported by the browser, including the vendor-prefixed ones. */
+public enum TextureCompression {
+	/** DXT1, DXT3 and DXT5. Usually supported by desktop GPUs. */
+	S3TC(
+		new String[] {"WEBGL_compressed_texture_s3tc", "WEBKIT_WEBGL_compressed_texture_s3tc", "MOZ_WEBGL_compressed_texture_s3tc"},
+		0x83F0, 0x83F1, 0x83F2, 0x83F3),
+	/** ETC2 and EAC. Supported by most mobile GPUs with WebGL2. */
+	ETC(new String[] {"WEBGL_compressed_texture_etc"}, 0x9270, 0x9271, 0x9272, 0x9273, 0x9274, 0x9275, 0x9276, 0x9277, 0x9278,
+		0x9279),
+	/** ETC1 RGB. Supported by most mobile GPUs. */
+	ETC1(new String[] {"WEBGL_compressed_texture_etc1"}, 0x8D64),
+	/** ASTC LDR with all block sizes. Supported by recent mobile GPUs. */
+	ASTC(new String[] {"WEBGL_compressed_texture_astc"}, 0x93B0, 0x93B1, 0x93B2, 0x93B3, 0x93B4, 0x93B5, 0x93B6, 0x93B7, 0x93B8,
+		0x93B9, 0x93BA, 0x93BB, 0x93BC, 0x93BD, 0x93D0, 0x93D1, 0x93D2, 0x93D3, 0x93D4, 0x93D5, 0x93D6, 0x93D7, 0x93D8, 0x93D9,
+		0x93DA, 0x93DB, 0x93DC, 0x93DD),
+	/** PVRTC 2 and 4 bits per pixel. Supported by PowerVR GPUs of iOS devices. */
+	PVRTC(new String[] {"WEBGL_compressed_texture_pvrtc", "WEBKIT_WEBGL_compressed_texture_pvrtc"}, 0x8C00, 0x8C01, 0x8C02,
+		0x8C03);
+
+	public static final int GL_COMPRESSED_RGB_S3TC_DXT1_EXT = 0x83F0;
+	public static final int GL_COMPRESSED_RGBA_S3TC_DXT1_EXT = 0x83F1;
+	public static final int GL_COMPRESSED_RGBA_S3TC_DXT3_EXT = 0x83F2;
+	public static final int GL_COMPRESSED_RGBA_S3TC_DXT5_EXT = 0x83F3;
+	public static final int GL_COMPRESSED_RGB_ETC1_WEBGL = 0x8D64;
+
+	private final String[] extensions;
+	private final int[] formats;
+
+	private TextureCompression (final String[] extensions, final int... formats) {
+		this.extensions = extensions;
+		this.formats = formats;
+	}
+
+	/** @return names of the WebGL extensions enabling this family, starting with the standard one. */
+	public String[] getExtensions () {
+		return extensions;
+	}
+
+	/** @param internalFormat GL internal format of a texture.
+	 * @return true if the format belongs to this family. */
+	public boolean contains (final int internalFormat) {
+		for (final int format : formats) {
+			if (format == internalFormat) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** @param internalFormat GL internal format of a texture.
+	 * @return family of the compressed format or null if the format is unknown or not compressed. */
+	public static TextureCompression of (final int internalFormat) {
+		for (final TextureCompression compression : values()) {
+			if (compression.contains(internalFormat)) {
+				return compression;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,435 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.dom.html.HTMLImageElement;
+import org.teavm.jso.webgl.WebGLRenderingContext;
+import org.teavm.jso.webgl.WebGLTexture;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.utils.IntFloatMap;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+
+/** Estimates GPU memory used by textures from the size, format and mipmap levels of each upload. Keeps track of the total,
+ * its peak and the amount of memory allocated and freed during the last frame.
+ * <p>
+ * Optionally enforces a memory budget: once it is exceeded, the least recently bound textures are evicted, as long as they
+ * are 2D textures uploaded from preloaded images and were not bound during the current frame. An evicted texture keeps its
+ * handle and is uploaded again from the same image, with the same parameters and mipmaps, on its next bind. */
+public class TextureMemory {
+	/** Highest amount of tracked mipmap levels. */
+	public static final int MAX_LEVELS = 16;
+	/** Highest amount of tracked texture units. */
+	public static final int MAX_UNITS = 32;
+	private static final int FACES = 6;
+
+	private final TeaVMGL20 owner;
+	private final WebGLRenderingContext gl;
+	private final IntMap<Entry> entries = new IntMap<>();
+	private final int[] bound2D = new int[MAX_UNITS];
+	private final int[] boundCubeMap = new int[MAX_UNITS];
+	private int activeUnit;
+	private long frame;
+	private long bytes;
+	private long peakBytes;
+	private long budget;
+	private int frameAllocated;
+	private int frameFreed;
+	private int lastFrameAllocated;
+	private int lastFrameFreed;
+	private int evictions;
+	private int reloads;
+
+	public TextureMemory (final TeaVMGL20 owner, final WebGLRenderingContext gl) {
+		this.owner = owner;
+		this.gl = gl;
+	}
+
+	/** @param budget highest amount of bytes that textures should use. Least recently bound textures uploaded from images are
+	 *           evicted when it is exceeded. 0 turns the budget off. */
+	public void setBudget (final long budget) {
+		this.budget = budget;
+		enforceBudget();
+	}
+
+	/** @return highest amount of bytes that textures should use. 0 if there is no budget. */
+	public long getBudget () {
+		return budget;
+	}
+
+	/** @return estimated amount of bytes used by all textures. */
+	public long getBytes () {
+		return bytes;
+	}
+
+	/** @return highest estimated amount of bytes used by all textures at once. */
+	public long getPeakBytes () {
+		return peakBytes;
+	}
+
+	/** @return amount of textures with allocated storage, not counting evicted ones. */
+	public int getTextureCount () {
+		int count = 0;
+		for (final Entry entry : entries.values()) {
+			if (!entry.evicted && entry.bytes > 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/** @param texture texture ID.
+	 * @return estimated amount of bytes used by the texture. 0 if it is unknown or evicted. */
+	public int getBytes (final int texture) {
+		final Entry entry = entries.get(texture);
+		return entry == null || entry.evicted ? 0 : entry.bytes;
+	}
+
+	/** @return amount of bytes allocated for textures during the last finished frame. */
+	public int getFrameBytesAllocated () {
+		return lastFrameAllocated;
+	}
+
+	/** @return amount of bytes freed by deleted, resized or evicted textures during the last finished frame. */
+	public int getFrameBytesFreed () {
+		return lastFrameFreed;
+	}
+
+	/** @return amount of textures evicted because of the budget. */
+	public int getEvictions () {
+		return evictions;
+	}
+
+	/** @return amount of evicted textures uploaded again on bind. */
+	public int getReloads () {
+		return reloads;
+	}
+
+	/** Invoked at the end of each frame. Textures bound during the finished frame become available for eviction. */
+	public void onFrameEnd () {
+		frame++;
+		lastFrameAllocated = frameAllocated;
+		lastFrameFreed = frameFreed;
+		frameAllocated = 0;
+		frameFreed = 0;
+		enforceBudget();
+	}
+
+	/** @param unit index of the active texture unit, starting with 0 for GL_TEXTURE0. */
+	public void activeTexture (final int unit) {
+		activeUnit = unit;
+	}
+
+	/** @param texture texture ID.
+	 * @return true if the texture was evicted and has to be reloaded with {@link #reload(int, int)} when bound. */
+	public boolean isEvicted (final int texture) {
+		final Entry entry = entries.get(texture);
+		return entry != null && entry.evicted;
+	}
+
+	/** @param target texture target.
+	 * @param texture ID of the texture bound to the target of the active unit. */
+	public void textureBound (final int target, final int texture) {
+		if (activeUnit >= 0 && activeUnit < MAX_UNITS) {
+			if (target == GL20.GL_TEXTURE_2D) {
+				bound2D[activeUnit] = texture;
+			} else if (target == GL20.GL_TEXTURE_CUBE_MAP) {
+				boundCubeMap[activeUnit] = texture;
+			}
+		}
+		textureUsed(texture);
+	}
+
+	/** @param texture ID of a texture that is used during the current frame without being bound again, for example because a
+	 *           redundant bind was skipped. Delays its eviction. */
+	public void textureUsed (final int texture) {
+		final Entry entry = entries.get(texture);
+		if (entry != null) {
+			entry.lastBound = frame;
+		}
+	}
+
+	/** @param texture ID of a deleted texture. */
+	public void textureDeleted (final int texture) {
+		final Entry entry = entries.remove(texture);
+		if (entry != null && !entry.evicted) {
+			free(entry.bytes);
+		}
+		for (int unit = 0; unit < MAX_UNITS; unit++) {
+			if (bound2D[unit] == texture) {
+				bound2D[unit] = 0;
+			}
+			if (boundCubeMap[unit] == texture) {
+				boundCubeMap[unit] = 0;
+			}
+		}
+	}
+
+	/** @param target texture target, a cube map face for cube maps.
+	 * @param level mipmap level.
+	 * @param width width of the level.
+	 * @param height height of the level.
+	 * @param format pixel format.
+	 * @param type pixel type.
+	 * @param image source image if the whole level was uploaded from a preloaded image. Allows to reload the texture after
+	 *           eviction. */
+	public void imageSpecified (final int target, final int level, final int width, final int height, final int format,
+		final int type, final HTMLImageElement image) {
+		final Entry entry = getBoundEntry(target);
+		if (entry == null) {
+			return;
+		}
+		if (level == 0) {
+			entry.width = width;
+			entry.height = height;
+			entry.pixelSize = getPixelSize(format, type);
+			// Only 2D textures are reloaded: a cube map would need the images of all its faces.
+			entry.image = target == GL20.GL_TEXTURE_2D ? image : null;
+			entry.format = format;
+			entry.type = type;
+			entry.mipmapped = false;
+		} else if (image == null) {
+			entry.image = null;
+		}
+		setLevelSize(entry, getFace(target), level, width * height * getPixelSize(format, type));
+	}
+
+	/** @param target texture target, a cube map face for cube maps.
+	 * @param level mipmap level.
+	 * @param imageSize amount of bytes of the compressed level. */
+	public void compressedImageSpecified (final int target, final int level, final int imageSize) {
+		final Entry entry = getBoundEntry(target);
+		if (entry != null) {
+			entry.image = null;
+			entry.pixelSize = 0;
+			setLevelSize(entry, getFace(target), level, imageSize);
+		}
+	}
+
+	/** @param target target of a texture modified in place, for example with glTexSubImage2D. It will not be reloaded from its
+	 *           image, as the image no longer matches its content. */
+	public void imageModified (final int target) {
+		final Entry entry = getBoundEntry(target);
+		if (entry != null) {
+			entry.image = null;
+		}
+	}
+
+	/** @param target target of a texture with generated mipmaps. */
+	public void mipmapGenerated (final int target) {
+		final Entry entry = getBoundEntry(target);
+		if (entry == null || entry.pixelSize == 0) {
+			return;
+		}
+		entry.mipmapped = true;
+		final int faces = target == GL20.GL_TEXTURE_CUBE_MAP ? FACES : 1;
+		for (int face = 0; face < faces; face++) {
+			int width = entry.width;
+			int height = entry.height;
+			for (int level = 1; level < MAX_LEVELS && (width > 1 || height > 1); level++) {
+				width = Math.max(1, width >> 1);
+				height = Math.max(1, height >> 1);
+				setLevelSize(entry, face, level, width * height * entry.pixelSize);
+			}
+		}
+	}
+
+	/** @param target texture target.
+	 * @param pname parameter name.
+	 * @param param parameter value. Restored when the texture is reloaded. */
+	public void parameterSet (final int target, final int pname, final int param) {
+		final Entry entry = getBoundEntry(target);
+		if (entry != null) {
+			entry.floatParameters.remove(pname, 0f);
+			entry.intParameters.put(pname, param);
+		}
+	}
+
+	/** @param target texture target.
+	 * @param pname parameter name.
+	 * @param param parameter value. Restored when the texture is reloaded. */
+	public void parameterSet (final int target, final int pname, final float param) {
+		final Entry entry = getBoundEntry(target);
+		if (entry != null) {
+			entry.intParameters.remove(pname, 0);
+			entry.floatParameters.put(pname, param);
+		}
+	}
+
+	/** Uploads an evicted texture again. Its new WebGL texture is registered with the same ID and bound to the target.
+	 * @param target texture target.
+	 * @param texture ID of an evicted texture. */
+	public void reload (final int target, final int texture) {
+		final Entry entry = entries.get(texture);
+		final WebGLTexture glTexture = gl.createTexture();
+		owner.setWebGLTexture(texture, glTexture);
+		gl.bindTexture(target, glTexture);
+		for (final IntIntMap.Entry parameter : entry.intParameters.entries()) {
+			gl.texParameteri(target, parameter.key, parameter.value);
+		}
+		for (final IntFloatMap.Entry parameter : entry.floatParameters.entries()) {
+			gl.texParameterf(target, parameter.key, parameter.value);
+		}
+		gl.texImage2D(target, 0, entry.format, entry.format, entry.type, entry.image);
+		if (entry.mipmapped) {
+			gl.generateMipmap(target);
+		}
+		entry.evicted = false;
+		entry.lastBound = frame;
+		allocate(entry.bytes);
+		reloads++;
+		enforceBudget();
+	}
+
+	private Entry getBoundEntry (final int target) {
+		if (activeUnit < 0 || activeUnit >= MAX_UNITS) {
+			return null;
+		}
+		final int texture = target == GL20.GL_TEXTURE_2D ? bound2D[activeUnit]
+			: isCubeMapFace(target) || target == GL20.GL_TEXTURE_CUBE_MAP ? boundCubeMap[activeUnit] : 0;
+		if (texture == 0) {
+			return null;
+		}
+		Entry entry = entries.get(texture);
+		if (entry == null) {
+			entry = new Entry();
+			entry.lastBound = frame;
+			entries.put(texture, entry);
+		}
+		return entry;
+	}
+
+	private static boolean isCubeMapFace (final int target) {
+		return target >= GL20.GL_TEXTURE_CUBE_MAP_POSITIVE_X && target <= GL20.GL_TEXTURE_CUBE_MAP_NEGATIVE_Z;
+	}
+
+	private static int getFace (final int target) {
+		return isCubeMapFace(target) ? target - GL20.GL_TEXTURE_CUBE_MAP_POSITIVE_X : 0;
+	}
+
+	private void setLevelSize (final Entry entry, final int face, final int level, final int size) {
+		if (level < 0 || level >= MAX_LEVELS) {
+			return;
+		}
+		final int index = face * MAX_LEVELS + level;
+		final int previous = entry.levelSizes[index];
+		entry.levelSizes[index] = size;
+		entry.bytes += size - previous;
+		if (entry.evicted) {
+			entry.evicted = false; // Respecified storage replaces the evicted one.
+			allocate(entry.bytes);
+		} else {
+			free(previous);
+			allocate(size);
+		}
+		enforceBudget();
+	}
+
+	private void allocate (final int size) {
+		bytes += size;
+		frameAllocated += size;
+		if (bytes > peakBytes) {
+			peakBytes = bytes;
+		}
+	}
+
+	private void free (final int size) {
+		bytes -= size;
+		frameFreed += size;
+	}
+
+	private void enforceBudget () {
+		while (budget > 0 && bytes > budget) {
+			int victim = 0;
+			Entry victimEntry = null;
+			for (final IntMap.Entry<Entry> entry : entries.entries()) {
+				final Entry candidate = entry.value;
+				if (isEvictable(entry.key, candidate)
+					&& (victimEntry == null || candidate.lastBound < victimEntry.lastBound)) {
+					victim = entry.key;
+					victimEntry = candidate;
+				}
+			}
+			if (victimEntry == null) {
+				return; // Everything else is in use or cannot be reloaded.
+			}
+			gl.deleteTexture(owner.getWebGLTexture(victim));
+			victimEntry.evicted = true;
+			free(victimEntry.bytes);
+			evictions++;
+		}
+	}
+
+	private boolean isEvictable (final int texture, final Entry entry) {
+		if (entry.evicted || entry.image == null || entry.bytes == 0 || entry.lastBound >= frame) {
+			return false;
+		}
+		for (int unit = 0; unit < MAX_UNITS; unit++) {
+			if (bound2D[unit] == texture || boundCubeMap[unit] == texture) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** @param format pixel format.
+	 * @param type pixel type.
+	 * @return estimated amount of bytes per pixel. */
+	public static int getPixelSize (final int format, final int type) {
+		switch (type) {
+		case GL20.GL_UNSIGNED_SHORT_5_6_5:
+		case GL20.GL_UNSIGNED_SHORT_4_4_4_4:
+		case GL20.GL_UNSIGNED_SHORT_5_5_5_1:
+			return 2;
+		case GL30.GL_UNSIGNED_INT_24_8:
+		case GL30.GL_UNSIGNED_INT_2_10_10_10_REV:
+		case GL30.GL_UNSIGNED_INT_10F_11F_11F_REV:
+		case GL30.GL_UNSIGNED_INT_5_9_9_9_REV:
+			return 4;
+		case GL20.GL_SHORT:
+		case GL20.GL_UNSIGNED_SHORT:
+		case GL30.GL_HALF_FLOAT:
+		case 0x8D61: // HALF_FLOAT_OES
+			return getComponents(format) * 2;
+		case GL20.GL_INT:
+		case GL20.GL_UNSIGNED_INT:
+		case GL20.GL_FLOAT:
+			return getComponents(format) * 4;
+		default:
+			return getComponents(format);
+		}
+	}
+
+	private static int getComponents (final int format) {
+		switch (format) {
+		case GL20.GL_LUMINANCE_ALPHA:
+		case GL30.GL_RG:
+		case GL30.GL_RG_INTEGER:
+			return 2;
+		case GL20.GL_RGB:
+		case GL30.GL_RGB_INTEGER:
+			return 3;
+		case GL20.GL_RGBA:
+		case GL30.GL_RGBA_INTEGER:
+			return 4;
+		default:
+			return 1;
+		}
+	}
+
+	private static class Entry {
+		final int[] levelSizes = new int[FACES * MAX_LEVELS];
+		final IntIntMap intParameters = new IntIntMap();
+		final IntFloatMap floatParameters = new IntFloatMap();
+		int bytes;
+		int width;
+		int height;
+		int pixelSize;
+		long lastBound;
+		boolean evicted;
+		boolean mipmapped;
+		HTMLImageElement image;
+		int format;
+		int type;
+	}
+}
@@ -0,0 +1,35 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.io.IOException;
+
+import org.teavm.codegen.SourceWriter;
+import org.teavm.javascript.spi.Generator;
+import org.teavm.javascript.spi.GeneratorContext;
+import org.teavm.model.MethodReference;
+
+/** Generates {@link TypedArrays} methods. Relies on TeaVM keeping primitive array content in the "data" typed array. */
+public class TypedArrayNativeGenerator implements Generator {
+	@Override
+	public void generate (final GeneratorContext context, final SourceWriter writer, final MethodReference methodRef)
+		throws IOException {
+		final String array = context.getParameterName(1);
+		final String begin = context.getParameterName(2);
+		final String end = context.getParameterName(3);
+		final String name = methodRef.getName();
+		if (name.equals("unsignedBytes")) {
+			writer.append("var data = " + array + ".data;").softNewLine();
+			writer.append("return new Uint8Array(data.buffer, data.byteOffset + " + begin + ", " + end + " - " + begin + ");")
+				.softNewLine();
+		} else if (name.equals("unsignedShorts")) {
+			writer.append("var data = " + array + ".data;").softNewLine();
+			writer.append("return new Uint16Array(data.buffer, data.byteOffset + (" + begin + " << 1), " + end + " - " + begin
+				+ ");").softNewLine();
+		} else if (name.equals("unsignedInts")) {
+			writer.append("var data = " + array + ".data;").softNewLine();
+			writer.append("return new Uint32Array(data.buffer, data.byteOffset + (" + begin + " << 2), " + end + " - " + begin
+				+ ");").softNewLine();
+		} else {
+			writer.append("return " + array + ".data.subarray(" + begin + ", " + end + ");").softNewLine();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.javascript.spi.GeneratedBy;
+import org.teavm.jso.JSBody;
+import org.teavm.jso.typedarrays.ArrayBufferView;
+import org.teavm.jso.typedarrays.Float32Array;
+import org.teavm.jso.typedarrays.Float64Array;
+import org.teavm.jso.typedarrays.Int16Array;
+import org.teavm.jso.typedarrays.Int32Array;
+import org.teavm.jso.typedarrays.Int8Array;
+import org.teavm.jso.typedarrays.Uint16Array;
+import org.teavm.jso.typedarrays.Uint8Array;
+
+/** Bridges Java primitive arrays and JS typed arrays. TeaVM stores primitive arrays in typed arrays, so these methods return
+ * views over the storage of the passed array rather than copies: any modification of the array is visible through the view and
+ * vice versa. Views can be passed straight to WebGL.
+ * <p>
+ * All methods expect the range to be validated by the caller; begin is inclusive, end is exclusive. */
+public final class TypedArrays {
+	private TypedArrays () {
+	}
+
+	/** @param array its storage will be viewed.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Int8Array bytes (byte[] array, int begin, int end);
+
+	/** @param array its storage will be viewed. Bytes are reinterpreted as unsigned, as expected by texture uploads.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Uint8Array unsignedBytes (byte[] array, int begin, int end);
+
+	/** @param array its storage will be viewed.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Int16Array shorts (short[] array, int begin, int end);
+
+	/** @param array its storage will be viewed. Shorts are reinterpreted as unsigned, as expected by packed texture formats.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Uint16Array unsignedShorts (short[] array, int begin, int end);
+
+	/** @param array its storage will be viewed.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Uint16Array chars (char[] array, int begin, int end);
+
+	/** @param array its storage will be viewed.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Int32Array ints (int[] array, int begin, int end);
+
+	/** @param array its storage will be viewed. Ints are reinterpreted as unsigned, as expected by WebGL2 unsigned uniforms.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return Uint32Array view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native ArrayBufferView unsignedInts (int[] array, int begin, int end);
+
+	/** @param array its storage will be viewed.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Float32Array floats (float[] array, int begin, int end);
+
+	/** @param array its storage will be viewed.
+	 * @param begin index of the first viewed element.
+	 * @param end index after the last viewed element.
+	 * @return view over the chosen range of the array. */
+	@GeneratedBy(TypedArrayNativeGenerator.class)
+	public static native Float64Array doubles (double[] array, int begin, int end);
+
+	/** Copies raw bytes of one view into another with a single bulk set, regardless of their element types.
+	 * @param source copied view.
+	 * @param target written starting with its first byte. Must be at least as long as the source in bytes. */
+	@JSBody(params = {"source", "target"}, script = "new Uint8Array(target.buffer, target.byteOffset, source.byteLength)"
+		+ ".set(new Uint8Array(source.buffer, source.byteOffset, source.byteLength));")
+	public static native void copy (ArrayBufferView source, ArrayBufferView target);
+}
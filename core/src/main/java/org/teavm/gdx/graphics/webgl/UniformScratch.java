@@ -0,0 +1,97 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import org.teavm.jso.typedarrays.Float32Array;
+import org.teavm.jso.typedarrays.Int32Array;
+
+/** Reusable typed arrays for small uniform and vertex attribute uploads. WebGL derives the amount of uploaded values from the
+ * length of the passed array, so a separate array is kept for each length (4 floats for vec4, 9 for mat3, 16 for mat4 and so
+ * on). Arrays are created on first use and then refilled element by element, so repeated uploads allocate nothing.
+ * <p>
+ * Returned arrays are shared: they are valid only until the next call requesting the same length, so they should be consumed
+ * by WebGL immediately. */
+public class UniformScratch {
+	/** Uploads longer than this amount of elements are not handled by the scratch arrays. */
+	public static final int MAX_LENGTH = 256;
+
+	private final Float32Array[] floatArrays = new Float32Array[MAX_LENGTH + 1];
+	private final Int32Array[] intArrays = new Int32Array[MAX_LENGTH + 1];
+
+	/** @param length amount of uploaded elements.
+	 * @return true if the scratch arrays can handle an upload of this size. */
+	public boolean supports (final int length) {
+		return length > 0 && length <= MAX_LENGTH;
+	}
+
+	/** @param length amount of elements. Must be {@link #supports(int) supported}.
+	 * @return shared array with exactly this amount of elements. Content is undefined. */
+	public Float32Array floats (final int length) {
+		Float32Array array = floatArrays[length];
+		if (array == null) {
+			array = floatArrays[length] = Float32Array.create(length);
+		}
+		return array;
+	}
+
+	/** @param length amount of elements. Must be {@link #supports(int) supported}.
+	 * @return shared array with exactly this amount of elements. Content is undefined. */
+	public Int32Array ints (final int length) {
+		Int32Array array = intArrays[length];
+		if (array == null) {
+			array = intArrays[length] = Int32Array.create(length);
+		}
+		return array;
+	}
+
+	/** @param values will be copied.
+	 * @param offset index of the first copied value.
+	 * @param length amount of copied values. Must be {@link #supports(int) supported}.
+	 * @return shared array filled with the values. */
+	public Float32Array floats (final float[] values, final int offset, final int length) {
+		final Float32Array array = floats(length);
+		for (int index = 0; index < length; index++) {
+			array.set(index, values[offset + index]);
+		}
+		return array;
+	}
+
+	/** @param values will be copied.
+	 * @param offset index of the first copied value.
+	 * @param length amount of copied values. Must be {@link #supports(int) supported}.
+	 * @return shared array filled with the values. */
+	public Int32Array ints (final int[] values, final int offset, final int length) {
+		final Int32Array array = ints(length);
+		for (int index = 0; index < length; index++) {
+			array.set(index, values[offset + index]);
+		}
+		return array;
+	}
+
+	/** @param buffer its remaining elements will be copied. Position is not modified. Amount of remaining elements must be
+	 *           {@link #supports(int) supported}.
+	 * @return shared array filled with the remaining elements. */
+	public Float32Array floats (final FloatBuffer buffer) {
+		final int position = buffer.position();
+		final int length = buffer.limit() - position;
+		final Float32Array array = floats(length);
+		for (int index = 0; index < length; index++) {
+			array.set(index, buffer.get(position + index));
+		}
+		return array;
+	}
+
+	/** @param buffer its remaining elements will be copied. Position is not modified. Amount of remaining elements must be
+	 *           {@link #supports(int) supported}.
+	 * @return shared array filled with the remaining elements. */
+	public Int32Array ints (final IntBuffer buffer) {
+		final int position = buffer.position();
+		final int length = buffer.limit() - position;
+		final Int32Array array = ints(length);
+		for (int index = 0; index < length; index++) {
+			array.set(index, buffer.get(position + index));
+		}
+		return array;
+	}
+}
@@ -0,0 +1,273 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.nio.FloatBuffer;
+
+import org.teavm.jso.webgl.WebGLUniformLocation;
+
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/** Stores uniform locations of a single program. Each uniform name is assigned a single dense ID, so repeated location queries
+ * do not create new IDs. Optionally caches last values set for each location, allowing to skip uploads of unchanged values.
+ * Has to be cleared each time the program is linked, as linking invalidates both locations and values. */
+public class UniformTable {
+	private static final int UNKNOWN = 0;
+	private static final int INT = -1;
+
+	private final ObjectIntMap<String> ids = new ObjectIntMap<>();
+	private WebGLUniformLocation[] locations = new WebGLUniformLocation[16];
+	private int size;
+	// Value cache: sizes[id] is the amount of cached floats, INT if an int is cached or UNKNOWN.
+	private boolean cacheEnabled;
+	private int[] sizes = new int[16];
+	private int[] intValues = new int[16];
+	private float[][] floatValues = new float[16][];
+
+	/** @param cacheEnabled if true, uniform values will be cached. */
+	public UniformTable (final boolean cacheEnabled) {
+		this.cacheEnabled = cacheEnabled;
+	}
+
+	/** @param cacheEnabled if true, uniform values will be cached. Clears all cached values. */
+	public void setCacheEnabled (final boolean cacheEnabled) {
+		this.cacheEnabled = cacheEnabled;
+		invalidateValues();
+	}
+
+	/** @param name name of the uniform.
+	 * @return ID of the uniform location or -1 if the name was not queried yet. */
+	public int getId (final String name) {
+		return ids.get(name, -1);
+	}
+
+	/** @param name name of the uniform.
+	 * @param location WebGL location of the uniform. Might be null if the uniform is not active.
+	 * @return a new ID of the location. */
+	public int add (final String name, final WebGLUniformLocation location) {
+		final int id = size++;
+		if (id == locations.length) {
+			final int capacity = id << 1;
+			final WebGLUniformLocation[] grownLocations = new WebGLUniformLocation[capacity];
+			System.arraycopy(locations, 0, grownLocations, 0, id);
+			locations = grownLocations;
+			final int[] grownSizes = new int[capacity];
+			System.arraycopy(sizes, 0, grownSizes, 0, id);
+			sizes = grownSizes;
+			final int[] grownInts = new int[capacity];
+			System.arraycopy(intValues, 0, grownInts, 0, id);
+			intValues = grownInts;
+			final float[][] grownFloats = new float[capacity][];
+			System.arraycopy(floatValues, 0, grownFloats, 0, id);
+			floatValues = grownFloats;
+		}
+		locations[id] = location;
+		ids.put(name, id);
+		return id;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @return WebGL uniform location or null if the ID is invalid or the uniform is not active. */
+	public WebGLUniformLocation get (final int id) {
+		if (id < 0 || id >= size) {
+			return null;
+		}
+		return locations[id];
+	}
+
+	/** Removes all locations and values. Should be called after linking the program. */
+	public void clear () {
+		for (int i = 0; i < size; i++) {
+			locations[i] = null;
+			sizes[i] = UNKNOWN;
+		}
+		ids.clear();
+		size = 0;
+	}
+
+	/** Clears all cached values. */
+	public void invalidateValues () {
+		for (int i = 0; i < size; i++) {
+			sizes[i] = UNKNOWN;
+		}
+	}
+
+	/** @param id ID of a uniform location that was set without going through the cache. Its cached value is cleared. */
+	public void invalidate (final int id) {
+		if (id >= 0 && id < size) {
+			sizes[id] = UNKNOWN;
+		}
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param value will be set.
+	 * @return true if the value has to be uploaded. False if it matches the cached value. Updates the cache. */
+	public boolean update (final int id, final int value) {
+		if (!cacheEnabled || id < 0 || id >= size) {
+			return true;
+		}
+		if (sizes[id] == INT && intValues[id] == value) {
+			return false;
+		}
+		sizes[id] = INT;
+		intValues[id] = value;
+		return true;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param x will be set.
+	 * @return true if the value has to be uploaded. False if it matches the cached value. Updates the cache. */
+	public boolean update (final int id, final float x) {
+		if (!cacheEnabled || id < 0 || id >= size) {
+			return true;
+		}
+		final float[] values = getValues(id, 1);
+		if (sizes[id] == 1 && values[0] == x) {
+			return false;
+		}
+		sizes[id] = 1;
+		values[0] = x;
+		return true;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param x will be set.
+	 * @param y will be set.
+	 * @return true if the value has to be uploaded. False if it matches the cached value. Updates the cache. */
+	public boolean update (final int id, final float x, final float y) {
+		if (!cacheEnabled || id < 0 || id >= size) {
+			return true;
+		}
+		final float[] values = getValues(id, 2);
+		if (sizes[id] == 2 && values[0] == x && values[1] == y) {
+			return false;
+		}
+		sizes[id] = 2;
+		values[0] = x;
+		values[1] = y;
+		return true;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param x will be set.
+	 * @param y will be set.
+	 * @param z will be set.
+	 * @return true if the value has to be uploaded. False if it matches the cached value. Updates the cache. */
+	public boolean update (final int id, final float x, final float y, final float z) {
+		if (!cacheEnabled || id < 0 || id >= size) {
+			return true;
+		}
+		final float[] values = getValues(id, 3);
+		if (sizes[id] == 3 && values[0] == x && values[1] == y && values[2] == z) {
+			return false;
+		}
+		sizes[id] = 3;
+		values[0] = x;
+		values[1] = y;
+		values[2] = z;
+		return true;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param x will be set.
+	 * @param y will be set.
+	 * @param z will be set.
+	 * @param w will be set.
+	 * @return true if the value has to be uploaded. False if it matches the cached value. Updates the cache. */
+	public boolean update (final int id, final float x, final float y, final float z, final float w) {
+		if (!cacheEnabled || id < 0 || id >= size) {
+			return true;
+		}
+		final float[] values = getValues(id, 4);
+		if (sizes[id] == 4 && values[0] == x && values[1] == y && values[2] == z && values[3] == w) {
+			return false;
+		}
+		sizes[id] = 4;
+		values[0] = x;
+		values[1] = y;
+		values[2] = z;
+		values[3] = w;
+		return true;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param source contains the values that will be set.
+	 * @param offset index of the first value.
+	 * @param length amount of set values.
+	 * @return true if the values have to be uploaded. False if they match the cached values. Updates the cache. */
+	public boolean update (final int id, final float[] source, final int offset, final int length) {
+		if (!cacheEnabled || id < 0 || id >= size) {
+			return true;
+		}
+		final float[] values = getValues(id, length);
+		boolean changed = sizes[id] != length;
+		for (int i = 0; i < length; i++) {
+			final float value = source[offset + i];
+			if (values[i] != value) {
+				values[i] = value;
+				changed = true;
+			}
+		}
+		sizes[id] = length;
+		return changed;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param source its remaining values will be set. Position is not modified.
+	 * @return true if the values have to be uploaded. False if they match the cached values. Updates the cache. */
+	public boolean update (final int id, final FloatBuffer source) {
+		if (!cacheEnabled || id < 0 || id >= size) {
+			return true;
+		}
+		final int offset = source.position();
+		final int length = source.remaining();
+		final float[] values = getValues(id, length);
+		boolean changed = sizes[id] != length;
+		for (int i = 0; i < length; i++) {
+			final float value = source.get(offset + i);
+			if (values[i] != value) {
+				values[i] = value;
+				changed = true;
+			}
+		}
+		sizes[id] = length;
+		return changed;
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param transpose whether the matrix is transposed. Transposed matrices are not cached, as the cache does not keep the
+	 *           flag.
+	 * @param source contains the matrix values that will be set.
+	 * @param offset index of the first value.
+	 * @param length amount of set values.
+	 * @return true if the matrix has to be uploaded. False if it matches the cached values. Updates the cache. */
+	public boolean updateMatrix (final int id, final boolean transpose, final float[] source, final int offset,
+		final int length) {
+		if (transpose) {
+			invalidate(id);
+			return true;
+		}
+		return update(id, source, offset, length);
+	}
+
+	/** @param id ID of the uniform location.
+	 * @param transpose whether the matrix is transposed. Transposed matrices are not cached, as the cache does not keep the
+	 *           flag.
+	 * @param source its remaining values will be set. Position is not modified.
+	 * @return true if the matrix has to be uploaded. False if it matches the cached values. Updates the cache. */
+	public boolean updateMatrix (final int id, final boolean transpose, final FloatBuffer source) {
+		if (transpose) {
+			invalidate(id);
+			return true;
+		}
+		return update(id, source);
+	}
+
+	private float[] getValues (final int id, final int length) {
+		float[] values = floatValues[id];
+		if (values == null || values.length < length) {
+			values = new float[Math.max(length, 4)];
+			floatValues[id] = values;
+			sizes[id] = UNKNOWN;
+		}
+		return values;
+	}
+}
@@ -0,0 +1,162 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.gdx.TeaVMApplication;
+import org.teavm.gdx.graphics.TeaVMGraphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntMap.Values;
+
+/** Keeps vertex array objects of a single vertex buffer: one per GL program, each recording the attribute setup and the element
+ * array buffer binding on first use. Binding the vertex buffer for a known program becomes a single glBindVertexArray call.
+ * Used by the vertex and index array emulators.
+ * <p>
+ * Objects are keyed by the ID of the current program rather than by shader programs, so the cache does not keep them alive.
+ * Objects recorded for a program are deleted along with the program - see {@link VertexArrayObjectCaches}. */
+public class VertexArrayObjectCache {
+	private final TeaVMGLExtensions gl;
+	private final VertexArrayObjectCaches caches;
+	private final IntMap<VertexArrayObject> objects = new IntMap<>();
+	private VertexArrayObject current;
+
+	/** @param gl used to manage vertex array objects.
+	 * @param caches state shared by caches of the GL context. */
+	public VertexArrayObjectCache (final TeaVMGLExtensions gl, final VertexArrayObjectCaches caches) {
+		this.gl = gl;
+		this.caches = caches;
+	}
+
+	/** @return a new cache if vertex array objects are turned on in the configuration and supported by the current GL
+	 *         implementation, null otherwise. */
+	public static VertexArrayObjectCache create () {
+		if (!(Gdx.app instanceof TeaVMApplication) || !(Gdx.graphics instanceof TeaVMGraphics)
+			|| !((TeaVMApplication)Gdx.app).getConfiguration().isVertexArrayObjectsUsed()) {
+			return null;
+		}
+		final TeaVMGraphics graphics = (TeaVMGraphics)Gdx.graphics;
+		final TeaVMGLExtensions gl = graphics.getGLExtensions();
+		final VertexArrayObjectCaches caches = getCaches();
+		if (gl != null && caches != null && gl.isVertexArrayObjectSupported()) {
+			return new VertexArrayObjectCache(gl, caches);
+		}
+		return null;
+	}
+
+	private static VertexArrayObjectCaches getCaches () {
+		if (!(Gdx.graphics instanceof TeaVMGraphics)) {
+			return null;
+		}
+		final GL20 gl = ((TeaVMGraphics)Gdx.graphics).getGLImplementation();
+		return gl instanceof TeaVMGL20 ? ((TeaVMGL20)gl).getVertexArrayObjectCaches() : null;
+	}
+
+	/** @param locations attribute locations passed to the vertex buffer or null.
+	 * @param offset offset of vertex data in the GL buffer in bytes.
+	 * @return true if the vertex array object of the current program is bound and already has attributes recorded for the
+	 *         same locations array and offset. If false, the caller must set up the attributes while the vertex array object is
+	 *         bound. If no program is used, the default vertex array object is bound and false is returned. */
+	public boolean bind (final int[] locations, final int offset) {
+		final int program = caches.getProgram();
+		if (program == 0) {
+			unbind();
+			return false;
+		}
+		VertexArrayObject object = objects.get(program);
+		if (object == null) {
+			if (objects.size == 0) {
+				caches.add(this);
+			}
+			object = new VertexArrayObject(gl.glGenVertexArray());
+			objects.put(program, object);
+		}
+		gl.glBindVertexArray(object.handle);
+		current = object;
+		caches.setBound(this);
+		if (object.recorded && object.locations == locations && object.offset == offset) {
+			return true;
+		}
+		object.recorded = true;
+		object.locations = locations;
+		object.offset = offset;
+		return false;
+	}
+
+	/** Binds the default vertex array object. */
+	public void unbind () {
+		gl.glBindVertexArray(0);
+		current = null;
+	}
+
+	/** @param buffer ID of the element array buffer to bind.
+	 * @return true if a vertex array object of a cache is currently bound. The buffer is then bound only if it is not already
+	 *         recorded by the vertex array object, so it should not be unbound afterwards. If false, nothing is done. */
+	public static boolean bindElementArrayBuffer (final int buffer) {
+		final VertexArrayObjectCaches caches = getCaches();
+		final VertexArrayObjectCache bound = caches == null ? null : caches.getBound();
+		if (bound == null || bound.current == null) {
+			return false;
+		}
+		final VertexArrayObject object = bound.current;
+		if (object.elementArrayBuffer != buffer) {
+			object.elementArrayBuffer = buffer;
+			Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, buffer);
+		}
+		return true;
+	}
+
+	/** @param program ID of a deleted program. Its vertex array object is deleted. */
+	void programDeleted (final int program) {
+		final VertexArrayObject object = objects.remove(program);
+		if (object == null) {
+			return;
+		}
+		if (object == current) {
+			if (caches.getBound() == this) {
+				unbind(); // Deleting the bound vertex array object would bind the default one anyway.
+			}
+			current = null;
+		}
+		gl.glDeleteVertexArray(object.handle);
+		if (objects.size == 0) {
+			caches.remove(this);
+		}
+	}
+
+	/** @param buffer ID of a deleted buffer. It is forgotten by the vertex array objects that recorded it, so a new buffer
+	 *           reusing the ID is bound again. */
+	void bufferDeleted (final int buffer) {
+		for (final Values<VertexArrayObject> values = objects.values(); values.hasNext();) {
+			final VertexArrayObject object = values.next();
+			if (object.elementArrayBuffer == buffer) {
+				object.elementArrayBuffer = 0;
+			}
+		}
+	}
+
+	/** Deletes all vertex array objects. They will be recreated on the next binds. */
+	public void dispose () {
+		if (caches.getBound() == this) {
+			unbind();
+		}
+		for (final Values<VertexArrayObject> values = objects.values(); values.hasNext();) {
+			gl.glDeleteVertexArray(values.next().handle);
+		}
+		objects.clear();
+		current = null;
+		caches.remove(this);
+	}
+
+	/** Vertex array object with the state it recorded. */
+	private static class VertexArrayObject {
+		private final int handle;
+		private boolean recorded;
+		private int[] locations;
+		private int offset;
+		private int elementArrayBuffer;
+
+		VertexArrayObject (final int handle) {
+			this.handle = handle;
+		}
+	}
+}
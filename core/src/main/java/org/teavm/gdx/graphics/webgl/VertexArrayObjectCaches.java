@@ -0,0 +1,71 @@
+package org.teavm.gdx.graphics.webgl;
+
+import com.badlogic.gdx.utils.Array;
+
+/** State of {@link VertexArrayObjectCache}s shared within a single GL context: the current program, the cache whose vertex
+ * array object is bound and the caches holding vertex array objects. Owned and updated by {@link TeaVMGL20}, which releases
+ * vertex array objects recorded for a program once the program is deleted. */
+public class VertexArrayObjectCaches {
+	private final Array<VertexArrayObjectCache> caches = new Array<>(false, 16);
+	private VertexArrayObjectCache bound;
+	private int program;
+
+	/** @return ID of the current program. 0 if no program is used. */
+	public int getProgram () {
+		return program;
+	}
+
+	/** @param program ID of the program that becomes current. */
+	public void setProgram (final int program) {
+		this.program = program;
+	}
+
+	/** @return cache whose vertex array object is currently bound or null. */
+	public VertexArrayObjectCache getBound () {
+		return bound;
+	}
+
+	/** @param bound cache whose vertex array object was just bound. */
+	void setBound (final VertexArrayObjectCache bound) {
+		this.bound = bound;
+	}
+
+	/** Invoked when any vertex array object is bound. Caches mark themselves as bound after binding their objects. */
+	public void vertexArrayBound () {
+		bound = null;
+	}
+
+	/** @param cache started holding vertex array objects. */
+	void add (final VertexArrayObjectCache cache) {
+		caches.add(cache);
+	}
+
+	/** @param cache no longer holds any vertex array objects. */
+	void remove (final VertexArrayObjectCache cache) {
+		caches.removeValue(cache, true);
+		if (bound == cache) {
+			bound = null;
+		}
+	}
+
+	/** @return amount of caches currently holding vertex array objects. */
+	public int getSize () {
+		return caches.size;
+	}
+
+	/** @param buffer ID of a deleted buffer. Vertex array objects stop treating it as their recorded element array buffer, as
+	 *           its ID can be reused by a new buffer. */
+	public void bufferDeleted (final int buffer) {
+		for (int index = 0; index < caches.size; index++) {
+			caches.get(index).bufferDeleted(buffer);
+		}
+	}
+
+	/** @param program ID of a deleted program. Vertex array objects recorded for it are deleted. */
+	public void programDeleted (final int program) {
+		// Iterating backwards, as caches without remaining objects remove themselves.
+		for (int index = caches.size - 1; index >= 0; index--) {
+			caches.get(index).programDeleted(program);
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSMethod;
+import org.teavm.jso.typedarrays.ArrayBufferView;
+import org.teavm.jso.typedarrays.Float32Array;
+import org.teavm.jso.typedarrays.Int32Array;
+import org.teavm.jso.webgl.WebGLBuffer;
+import org.teavm.jso.webgl.WebGLProgram;
+import org.teavm.jso.webgl.WebGLRenderingContext;
+import org.teavm.jso.webgl.WebGLTexture;
+import org.teavm.jso.webgl.WebGLUniformLocation;
+
+/** WebGL2 rendering context, obtained with canvas.getContext("webgl2"). Contains only the methods used by {@link TeaVMGL30},
+ * as TeaVM JSO APIs do not provide WebGL2 bindings. */
+public interface WebGL2RenderingContext extends WebGLRenderingContext {
+	void readBuffer (int src);
+
+	void drawBuffers (int[] buffers);
+
+	void drawRangeElements (int mode, int start, int end, int count, int type, int offset);
+
+	void drawArraysInstanced (int mode, int first, int count, int instanceCount);
+
+	void drawElementsInstanced (int mode, int count, int type, int offset, int instanceCount);
+
+	void vertexAttribDivisor (int index, int divisor);
+
+	void vertexAttribIPointer (int index, int size, int type, int stride, int offset);
+
+	void vertexAttribI4i (int index, int x, int y, int z, int w);
+
+	void vertexAttribI4ui (int index, int x, int y, int z, int w);
+
+	@JSMethod("getVertexAttrib")
+	int getVertexAttribi (int index, int pname);
+
+	@JSMethod("getVertexAttrib")
+	boolean getVertexAttribb (int index, int pname);
+
+	@JSMethod("getVertexAttrib")
+	int[] getVertexAttribArray (int index, int pname);
+
+	// Textures:
+
+	void texImage3D (int target, int level, int internalformat, int width, int height, int depth, int border, int format,
+		int type, ArrayBufferView pixels);
+
+	void texImage3D (int target, int level, int internalformat, int width, int height, int depth, int border, int format,
+		int type, int offset);
+
+	void texSubImage3D (int target, int level, int xoffset, int yoffset, int zoffset, int width, int height, int depth,
+		int format, int type, ArrayBufferView pixels);
+
+	void texSubImage3D (int target, int level, int xoffset, int yoffset, int zoffset, int width, int height, int depth,
+		int format, int type, int offset);
+
+	void copyTexSubImage3D (int target, int level, int xoffset, int yoffset, int zoffset, int x, int y, int width, int height);
+
+	// Buffers:
+
+	void bindBufferBase (int target, int index, WebGLBuffer buffer);
+
+	void bindBufferRange (int target, int index, WebGLBuffer buffer, int offset, int size);
+
+	void copyBufferSubData (int readTarget, int writeTarget, int readOffset, int writeOffset, int size);
+
+	void getBufferSubData (int target, int srcByteOffset, ArrayBufferView dstBuffer);
+
+	void readPixels (int x, int y, int width, int height, int format, int type, int offset);
+
+	WebGLSync fenceSync (int condition, int flags);
+
+	int clientWaitSync (WebGLSync sync, int flags, int timeout);
+
+	void deleteSync (WebGLSync sync);
+
+	// Framebuffers and renderbuffers:
+
+	void blitFramebuffer (int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1, int mask,
+		int filter);
+
+	void renderbufferStorageMultisample (int target, int samples, int internalformat, int width, int height);
+
+	void framebufferTextureLayer (int target, int attachment, WebGLTexture texture, int level, int layer);
+
+	void invalidateFramebuffer (int target, int[] attachments);
+
+	void invalidateSubFramebuffer (int target, int[] attachments, int x, int y, int width, int height);
+
+	void clearBufferiv (int buffer, int drawbuffer, Int32Array values);
+
+	void clearBufferuiv (int buffer, int drawbuffer, ArrayBufferView values);
+
+	void clearBufferfv (int buffer, int drawbuffer, Float32Array values);
+
+	void clearBufferfi (int buffer, int drawbuffer, float depth, int stencil);
+
+	// Vertex array objects:
+
+	WebGLVertexArrayObject createVertexArray ();
+
+	void deleteVertexArray (WebGLVertexArrayObject vertexArray);
+
+	boolean isVertexArray (WebGLVertexArrayObject vertexArray);
+
+	void bindVertexArray (WebGLVertexArrayObject vertexArray);
+
+	// Queries:
+
+	WebGLQuery createQuery ();
+
+	void deleteQuery (WebGLQuery query);
+
+	boolean isQuery (WebGLQuery query);
+
+	void beginQuery (int target, WebGLQuery query);
+
+	void endQuery (int target);
+
+	WebGLQuery getQuery (int target, int pname);
+
+	@JSMethod("getQueryParameter")
+	int getQueryParameteri (WebGLQuery query, int pname);
+
+	@JSMethod("getQueryParameter")
+	boolean getQueryParameterb (WebGLQuery query, int pname);
+
+	@JSMethod("getQueryParameter")
+	double getQueryParameterd (WebGLQuery query, int pname);
+
+	// Samplers:
+
+	WebGLSampler createSampler ();
+
+	void deleteSampler (WebGLSampler sampler);
+
+	boolean isSampler (WebGLSampler sampler);
+
+	void bindSampler (int unit, WebGLSampler sampler);
+
+	void samplerParameteri (WebGLSampler sampler, int pname, int param);
+
+	void samplerParameterf (WebGLSampler sampler, int pname, float param);
+
+	@JSMethod("getSamplerParameter")
+	int getSamplerParameteri (WebGLSampler sampler, int pname);
+
+	@JSMethod("getSamplerParameter")
+	float getSamplerParameterf (WebGLSampler sampler, int pname);
+
+	// Transform feedback:
+
+	WebGLTransformFeedback createTransformFeedback ();
+
+	void deleteTransformFeedback (WebGLTransformFeedback transformFeedback);
+
+	boolean isTransformFeedback (WebGLTransformFeedback transformFeedback);
+
+	void bindTransformFeedback (int target, WebGLTransformFeedback transformFeedback);
+
+	void beginTransformFeedback (int primitiveMode);
+
+	void endTransformFeedback ();
+
+	void pauseTransformFeedback ();
+
+	void resumeTransformFeedback ();
+
+	void transformFeedbackVaryings (WebGLProgram program, String[] varyings, int bufferMode);
+
+	// Uniforms:
+
+	int getFragDataLocation (WebGLProgram program, String name);
+
+	void uniform1uiv (WebGLUniformLocation location, ArrayBufferView data);
+
+	void uniform3uiv (WebGLUniformLocation location, ArrayBufferView data);
+
+	void uniform4uiv (WebGLUniformLocation location, ArrayBufferView data);
+
+	void uniformMatrix2x3fv (WebGLUniformLocation location, boolean transpose, Float32Array data);
+
+	void uniformMatrix3x2fv (WebGLUniformLocation location, boolean transpose, Float32Array data);
+
+	void uniformMatrix2x4fv (WebGLUniformLocation location, boolean transpose, Float32Array data);
+
+	void uniformMatrix4x2fv (WebGLUniformLocation location, boolean transpose, Float32Array data);
+
+	void uniformMatrix3x4fv (WebGLUniformLocation location, boolean transpose, Float32Array data);
+
+	void uniformMatrix4x3fv (WebGLUniformLocation location, boolean transpose, Float32Array data);
+
+	int[] getUniformIndices (WebGLProgram program, String[] uniformNames);
+
+	int[] getActiveUniforms (WebGLProgram program, int[] uniformIndices, int pname);
+
+	int getUniformBlockIndex (WebGLProgram program, String uniformBlockName);
+
+	@JSMethod("getActiveUniformBlockParameter")
+	int getActiveUniformBlockParameteri (WebGLProgram program, int uniformBlockIndex, int pname);
+
+	@JSMethod("getActiveUniformBlockParameter")
+	int[] getActiveUniformBlockParameterArray (WebGLProgram program, int uniformBlockIndex, int pname);
+
+	String getActiveUniformBlockName (WebGLProgram program, int uniformBlockIndex);
+
+	void uniformBlockBinding (WebGLProgram program, int uniformBlockIndex, int uniformBlockBinding);
+
+	// Parameters:
+
+	@JSMethod("getParameter")
+	double getParameterd (int pname);
+
+	@JSMethod("getParameter")
+	boolean getParameterb (int pname);
+
+	@JSMethod("getBufferParameter")
+	double getBufferParameterd (int target, int pname);
+}
@@ -0,0 +1,7 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+
+/** WebGL2 query object. See {@link WebGL2RenderingContext}. */
+public interface WebGLQuery extends JSObject {
+}
@@ -0,0 +1,7 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+
+/** WebGL2 sampler object. See {@link WebGL2RenderingContext}. */
+public interface WebGLSampler extends JSObject {
+}
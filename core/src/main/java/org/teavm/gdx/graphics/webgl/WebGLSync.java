@@ -0,0 +1,7 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+
+/** WebGL2 fence sync object. See {@link WebGL2RenderingContext}. */
+public interface WebGLSync extends JSObject {
+}
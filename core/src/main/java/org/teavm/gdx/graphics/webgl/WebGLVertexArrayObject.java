@@ -0,0 +1,8 @@
+package org.teavm.gdx.graphics.webgl;
+
+import org.teavm.jso.JSObject;
+
+/** WebGL2 or OES_vertex_array_object vertex array object. See {@link WebGL2RenderingContext} and
+ * {@link OESVertexArrayObject}. */
+public interface WebGLVertexArrayObject extends JSObject {
+}
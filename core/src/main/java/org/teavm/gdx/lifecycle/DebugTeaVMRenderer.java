@@ -2,10 +2,12 @@
 package org.teavm.gdx.lifecycle;
 
 import org.teavm.gdx.TeaVMApplication;
+import org.teavm.gdx.graphics.webgl.GPUTimer;
 
 import com.badlogic.gdx.ApplicationListener;
 
-/** Additionally to managing application's main loop, this renderer keeps track of current frame ID and FPS value.
+/** Additionally to managing application's main loop, this renderer keeps track of current frame ID and FPS value. If GPU timing
+ * is turned on in the configuration, it also reports GPU time of the frames.
  * @author MJ */
 public class DebugTeaVMRenderer extends TeaVMRenderer {
 	private long frameId;
@@ -28,6 +30,21 @@ public class DebugTeaVMRenderer extends TeaVMRenderer {
 		return fps;
 	}
 
+	/** @return GPU time of the most recent frame with available results in milliseconds. Results arrive a few frames late. -1 if
+	 *         GPU timing is not turned on, not supported or no results are available yet. */
+	public float getGPUFrameTime () {
+		final GPUTimer gpuTimer = getGPUTimer();
+		return gpuTimer == null ? -1f : gpuTimer.getFrameTime();
+	}
+
+	/** @param scope name of a scope opened with {@link GPUTimer#begin(String)}.
+	 * @return GPU time of the scope in the most recent frame with available results in milliseconds. -1 if GPU timing is not
+	 *         turned on or not supported. */
+	public float getGPUScopeTime (final String scope) {
+		final GPUTimer gpuTimer = getGPUTimer();
+		return gpuTimer == null ? -1f : gpuTimer.getScopeTime(scope);
+	}
+
 	@Override
 	protected void loop () {
 		super.loop();
@@ -0,0 +1,8 @@
+package org.teavm.gdx.lifecycle;
+
+/** Implemented by GL objects that need to know about frame boundaries, for example to reset per-frame counters. If the current
+ * {@link com.badlogic.gdx.Gdx#gl20} implements this interface, {@link TeaVMRenderer} notifies it after each render call. */
+public interface FrameListener {
+	/** Invoked after the application listener finished rendering the current frame. */
+	void onFrameEnd ();
+}
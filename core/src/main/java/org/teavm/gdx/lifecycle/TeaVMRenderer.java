@@ -2,10 +2,13 @@
 package org.teavm.gdx.lifecycle;
 
 import org.teavm.gdx.TeaVMApplication;
+import org.teavm.gdx.graphics.TeaVMGraphics;
+import org.teavm.gdx.graphics.webgl.GPUTimer;
 import org.teavm.gdx.input.ResettableInput;
 import org.teavm.jso.JSBody;
 
 import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.utils.Array;
 
 /** Default {@link Renderer} implementation for TeaVM applications. Manages main loop. Note that it always reports 0 for every
@@ -20,6 +23,7 @@ public class TeaVMRenderer implements Renderer {
 	private float deltaTime;
 	private double lastRender;
 	private int timerId;
+	private GPUTimer gpuTimer;
 	private final AnimationFrame callback = this::loop;
 
 	/** @param application will be rendered. Its {@link ApplicationListener} will be notified about lifecycle events. */
@@ -58,6 +62,7 @@ public class TeaVMRenderer implements Renderer {
 
 	@Override
 	public void start () {
+		gpuTimer = Gdx.graphics instanceof TeaVMGraphics ? ((TeaVMGraphics)Gdx.graphics).getGPUTimer() : null;
 		lastRender = now();
 		timerId = requestAnimationFrame(callback);
 	}
@@ -93,11 +98,31 @@ public class TeaVMRenderer implements Renderer {
 			}
 			runnablesToInvoke.clear();
 		}
-		listener.render();
+		if (gpuTimer != null) {
+			gpuTimer.beginFrame();
+			listener.render();
+			gpuTimer.endFrame();
+		} else {
+			listener.render();
+		}
+		endFrame();
 		input.reset();
 		timerId = requestAnimationFrame(callback);
 	}
 
+	/** Invoked after each render call. Notifies current GL implementation about the end of the frame if it is a
+	 * {@link FrameListener}. */
+	protected void endFrame () {
+		if (Gdx.gl20 instanceof FrameListener) {
+			((FrameListener)Gdx.gl20).onFrameEnd();
+		}
+	}
+
+	/** @return measures GPU time of rendered frames. Null if GPU timing is not turned on or not supported. */
+	protected GPUTimer getGPUTimer () {
+		return gpuTimer;
+	}
+
 	@Override
 	public void postRunnable (final Runnable runnable) {
 		runnables.add(runnable);
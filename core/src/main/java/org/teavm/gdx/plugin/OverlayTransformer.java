@@ -7,6 +7,9 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -78,20 +81,39 @@ public class OverlayTransformer implements ClassHolderTransformer {
 		final List<MethodDescriptor> descList = new ArrayList<>();
 		descList.add(new MethodDescriptor("freeMemory", ByteBuffer.class, void.class));
 		descList.add(new MethodDescriptor("newDisposableByteBuffer", int.class, ByteBuffer.class));
+		descList.add(new MethodDescriptor("newByteBuffer", int.class, ByteBuffer.class));
+		descList.add(new MethodDescriptor("newFloatBuffer", int.class, FloatBuffer.class));
+		descList.add(new MethodDescriptor("newShortBuffer", int.class, ShortBuffer.class));
+		descList.add(new MethodDescriptor("newIntBuffer", int.class, IntBuffer.class));
 		descList.add(new MethodDescriptor("copyJni", float[].class, Buffer.class, int.class, int.class, void.class));
+		for (final Class<?> source : new Class<?>[] {float[].class, short[].class, int[].class, byte[].class, char[].class,
+			long[].class, double[].class, Buffer.class}) {
+			descList.add(new MethodDescriptor("copyJni", source, int.class, Buffer.class, int.class, int.class, void.class));
+		}
 		replaceMethods(cls, BufferUtilsEmulator.class, innerSource, descList);
 	}
 
 	private static void transformMatrix (final ClassHolder cls, final ClassReaderSource innerSource) {
 		final List<MethodDescriptor> descList = new ArrayList<>();
 		descList.add(new MethodDescriptor("inv", float[].class, boolean.class));
+		descList.add(new MethodDescriptor("det", float[].class, float.class));
 		descList.add(new MethodDescriptor("mul", float[].class, float[].class, void.class));
+		descList.add(new MethodDescriptor("mulVec", float[].class, float[].class, void.class));
+		descList.add(new MethodDescriptor("mulVec", float[].class, float[].class, int.class, int.class, int.class, void.class));
+		descList.add(new MethodDescriptor("prj", float[].class, float[].class, void.class));
 		descList.add(new MethodDescriptor("prj", float[].class, float[].class, int.class, int.class, int.class, void.class));
+		descList.add(new MethodDescriptor("rot", float[].class, float[].class, void.class));
+		descList.add(new MethodDescriptor("rot", float[].class, float[].class, int.class, int.class, int.class, void.class));
 		replaceMethods(cls, Matrix4Emulator.class, innerSource, descList);
 		final ClassReader emuClass = innerSource.get(Matrix4Emulator.class.getName());
 		cls.addMethod(ModelUtils.copyMethod(emuClass.getMethod(new MethodDescriptor("matrix4_det", float[].class, float.class))));
-		cls.addMethod(ModelUtils.copyMethod(
-			emuClass.getMethod(new MethodDescriptor("matrix4_proj", float[].class, float[].class, int.class, void.class))));
+		cls.addMethod(ModelUtils.copyMethod(emuClass.getMethod(
+			new MethodDescriptor("matrix4_mul", float[].class, int.class, float[].class, int.class, float[].class, int.class,
+				void.class))));
+		for (final String name : new String[] {"matrix4_proj", "matrix4_mulVec", "matrix4_rot"}) {
+			cls.addMethod(ModelUtils.copyMethod(
+				emuClass.getMethod(new MethodDescriptor(name, float[].class, float[].class, int.class, void.class))));
+		}
 	}
 
 	private static void transformTextureData (final ClassHolder cls, final ClassReaderSource innerSource) {
@@ -0,0 +1,50 @@
+package org.teavm.gdx.emu;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+public class BufferUtilsEmulatorTest {
+	@Test
+	public void testByteBuffersCopyRawBytes () {
+		final ByteBuffer src = ByteBuffer.allocateDirect(8).order(ByteOrder.BIG_ENDIAN);
+		src.putInt(0, 0x01020304).putInt(4, 0x05060708);
+		final ByteBuffer dst = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		BufferUtilsEmulator.put(src, 2, dst, 1, 4);
+
+		assertEquals(0, dst.get(0));
+		assertEquals(3, dst.get(1));
+		assertEquals(6, dst.get(4));
+		assertEquals(0, dst.get(5));
+		assertEquals(0, dst.position());
+	}
+
+	@Test
+	public void testFloatsToByteBuffer () {
+		final FloatBuffer src = ByteBuffer.allocateDirect(12).order(ByteOrder.BIG_ENDIAN).asFloatBuffer();
+		src.put(0, 1f).put(1, 2f).put(2, 3f);
+		final ByteBuffer dst = ByteBuffer.allocate(12).order(ByteOrder.BIG_ENDIAN);
+		BufferUtilsEmulator.put(src, 4, dst, 0, 8);
+
+		assertEquals(2f, dst.getFloat(0), 0f);
+		assertEquals(3f, dst.getFloat(4), 0f);
+		assertEquals(0f, dst.getFloat(8), 0f);
+	}
+
+	@Test
+	public void testFloatBuffers () {
+		final FloatBuffer src = FloatBuffer.wrap(new float[] {1f, 2f, 3f});
+		final FloatBuffer dst = ByteBuffer.allocateDirect(12).asFloatBuffer();
+		dst.limit(1);
+		BufferUtilsEmulator.put(src, 0, dst, 4, 8);
+
+		assertEquals(1, dst.limit());
+		dst.clear();
+		assertEquals(1f, dst.get(1), 0f);
+		assertEquals(2f, dst.get(2), 0f);
+	}
+}
@@ -0,0 +1,81 @@
+package org.teavm.gdx.graphics.webgl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Creates stand-ins of GL interfaces that record each call as "name(arguments)". Calls return default primitive values and
+ * null references. */
+class CallRecorder implements InvocationHandler {
+	private final List<String> calls = new ArrayList<>();
+
+	/** @param type interface to implement.
+	 * @return a new stand-in recording calls in this recorder. */
+	<T> T create (final Class<T> type) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, this));
+	}
+
+	/** @return recorded calls in order. */
+	List<String> getCalls () {
+		return calls;
+	}
+
+	/** Removes recorded calls. */
+	void clear () {
+		calls.clear();
+	}
+
+	@Override
+	public Object invoke (final Object proxy, final Method method, final Object[] args) {
+		if (method.getDeclaringClass() == Object.class) {
+			switch (method.getName()) {
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			default:
+				return "CallRecorder";
+			}
+		}
+		calls.add(method.getName() + "(" + format(args) + ")");
+		return getDefault(method.getReturnType());
+	}
+
+	private static String format (final Object[] args) {
+		if (args == null) {
+			return "";
+		}
+		final StringBuilder builder = new StringBuilder();
+		for (final Object arg : args) {
+			if (builder.length() > 0) {
+				builder.append(", ");
+			}
+			builder.append(arg instanceof float[] ? Arrays.toString((float[])arg) : String.valueOf(arg));
+		}
+		return builder.toString();
+	}
+
+	private static Object getDefault (final Class<?> type) {
+		if (type == boolean.class) {
+			return false;
+		} else if (type == int.class) {
+			return 0;
+		} else if (type == float.class) {
+			return 0f;
+		} else if (type == double.class) {
+			return 0d;
+		} else if (type == long.class) {
+			return 0L;
+		} else if (type == short.class) {
+			return (short)0;
+		} else if (type == byte.class) {
+			return (byte)0;
+		} else if (type == char.class) {
+			return (char)0;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,48 @@
+package org.teavm.gdx.graphics.webgl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.teavm.jso.webgl.WebGLRenderingContext;
+
+import com.badlogic.gdx.graphics.GL20;
+
+public class ClientArraysTest {
+	private ClientArrays clientArrays;
+
+	@Before
+	public void setUp () {
+		final CallRecorder recorder = new CallRecorder();
+		clientArrays = new TeaVMGL20(recorder.create(WebGLRenderingContext.class), false).getClientArrays();
+	}
+
+	@Test
+	public void testDefaultVertexArrayStateIsRestored () {
+		clientArrays.setEnabled(0, true);
+		clientArrays.setPointer(0, 2, GL20.GL_FLOAT, false, 0, ByteBuffer.allocate(32));
+		clientArrays.bufferBound(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+		clientArrays.vertexArrayBound(1);
+		assertFalse(clientArrays.isActive());
+		assertTrue(clientArrays.isElementArrayBufferBound());
+
+		clientArrays.vertexArrayBound(0);
+		assertTrue(clientArrays.isActive());
+		assertFalse(clientArrays.isElementArrayBufferBound());
+	}
+
+	@Test
+	public void testVertexArrayObjectStateIsNotKept () {
+		clientArrays.vertexArrayBound(1);
+		clientArrays.setPointer(0, 2, GL20.GL_FLOAT, false, 0, ByteBuffer.allocate(32));
+		clientArrays.bufferBound(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+		clientArrays.vertexArrayBound(2);
+		assertFalse(clientArrays.isActive());
+		assertTrue(clientArrays.isElementArrayBufferBound());
+	}
+}
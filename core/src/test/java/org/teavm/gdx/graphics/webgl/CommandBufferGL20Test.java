@@ -0,0 +1,106 @@
+package org.teavm.gdx.graphics.webgl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.teavm.jso.webgl.WebGLRenderingContext;
+
+import com.badlogic.gdx.graphics.GL20;
+
+public class CommandBufferGL20Test {
+	private CallRecorder recorder;
+	private ReplayingGL20 gl;
+
+	@Before
+	public void setUp () {
+		recorder = new CallRecorder();
+		gl = new ReplayingGL20(recorder.create(WebGLRenderingContext.class));
+		recorder.clear();
+	}
+
+	@Test
+	public void testCallsAreRecorded () {
+		gl.glEnable(GL20.GL_BLEND);
+		gl.glViewport(0, 0, 640, 480);
+
+		assertTrue(recorder.getCalls().isEmpty());
+		assertEquals(2, gl.getCommands().getCommandCount());
+	}
+
+	@Test
+	public void testFlush () {
+		gl.glClearColor(0f, 0f, 0f, 1f);
+		gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		gl.flush();
+
+		assertEquals(Arrays.asList("clearColor(0.0, 0.0, 0.0, 1.0)", "clear(" + GL20.GL_COLOR_BUFFER_BIT + ")"),
+			recorder.getCalls());
+		assertTrue(gl.getCommands().isEmpty());
+		assertEquals(1, gl.executions);
+	}
+
+	@Test
+	public void testEmptyFlushIsSkipped () {
+		gl.flush();
+
+		assertEquals(0, gl.executions);
+	}
+
+	@Test
+	public void testGetErrorFlushesFirst () {
+		gl.glEnable(GL20.GL_DEPTH_TEST);
+		gl.glGetError();
+
+		assertEquals(Arrays.asList("enable(" + GL20.GL_DEPTH_TEST + ")", "getError()"), recorder.getCalls());
+	}
+
+	@Test
+	public void testIsEnabledFlushesFirst () {
+		gl.glEnable(GL20.GL_CULL_FACE);
+		gl.glIsEnabled(GL20.GL_CULL_FACE);
+
+		assertEquals(Arrays.asList("enable(" + GL20.GL_CULL_FACE + ")", "isEnabled(" + GL20.GL_CULL_FACE + ")"),
+			recorder.getCalls());
+	}
+
+	@Test
+	public void testFinishFlushesFirst () {
+		gl.glDepthFunc(GL20.GL_LEQUAL);
+		gl.glFinish();
+
+		assertEquals(Arrays.asList("depthFunc(" + GL20.GL_LEQUAL + ")", "finish()"), recorder.getCalls());
+	}
+
+	@Test
+	public void testFrameEndFlushes () {
+		gl.glViewport(0, 0, 1, 1);
+		gl.glDisable(GL20.GL_BLEND);
+		gl.onFrameEnd();
+
+		assertEquals(Arrays.asList("viewport(0, 0, 1, 1)", "disable(" + GL20.GL_BLEND + ")"), recorder.getCalls());
+		assertEquals(1, gl.getLastFrameFlushes());
+		assertEquals(2, gl.getLastFrameCommands());
+	}
+
+	/** Replays flushed commands on a plain {@link TeaVMGL20} using the same context instead of the generated dispatch
+	 * function, which is available only in the browser. */
+	private static class ReplayingGL20 extends CommandBufferGL20 {
+		private final TeaVMGL20 target;
+		private int executions;
+
+		ReplayingGL20 (final WebGLRenderingContext gl) {
+			super(gl, false);
+			target = new TeaVMGL20(gl, false);
+		}
+
+		@Override
+		protected void execute (final GLCommandBuffer commands) {
+			executions++;
+			commands.replay(target);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package org.teavm.gdx.graphics.webgl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.GL20;
+
+public class GLCommandBufferTest {
+	@Test
+	public void testIntArgumentsFollowOpcode () {
+		final GLCommandBuffer commands = new GLCommandBuffer();
+		commands.viewport(1, 2, 3, 4);
+		commands.enable(GL20.GL_BLEND);
+		commands.blendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		commands.colorMask(true, false, true, false);
+		commands.drawElements(GL20.GL_TRIANGLES, 6, GL20.GL_UNSIGNED_SHORT, 12);
+
+		assertArrayEquals(new int[] {GLCommandBuffer.VIEWPORT, 1, 2, 3, 4, //
+			GLCommandBuffer.ENABLE, GL20.GL_BLEND, //
+			GLCommandBuffer.BLEND_FUNC, GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, //
+			GLCommandBuffer.COLOR_MASK, 1, 0, 1, 0, //
+			GLCommandBuffer.DRAW_ELEMENTS, GL20.GL_TRIANGLES, 6, GL20.GL_UNSIGNED_SHORT, 12},
+			Arrays.copyOf(commands.getInts(), commands.getIntCount()));
+		assertEquals(5, commands.getCommandCount());
+		assertEquals(0, commands.getFloatCount());
+		assertEquals(0, commands.getObjectCount());
+	}
+
+	@Test
+	public void testFloatArgumentsGoToFloatStream () {
+		final GLCommandBuffer commands = new GLCommandBuffer();
+		commands.clearColor(0.1f, 0.2f, 0.3f, 0.4f);
+		commands.lineWidth(2f);
+
+		assertArrayEquals(new int[] {GLCommandBuffer.CLEAR_COLOR, GLCommandBuffer.LINE_WIDTH},
+			Arrays.copyOf(commands.getInts(), commands.getIntCount()));
+		assertArrayEquals(new float[] {0.1f, 0.2f, 0.3f, 0.4f, 2f}, Arrays.copyOf(commands.getFloats(), commands.getFloatCount()),
+			0f);
+	}
+
+	@Test
+	public void testObjectsGoToSideTable () {
+		final GLCommandBuffer commands = new GLCommandBuffer();
+		final Object texture = new Object();
+		final Object location = new Object();
+		commands.bindTexture(GL20.GL_TEXTURE_2D, 7, texture);
+		commands.uniform1f(3, location, 0.5f);
+
+		assertArrayEquals(new int[] {GLCommandBuffer.BIND_TEXTURE, GL20.GL_TEXTURE_2D, 7, GLCommandBuffer.UNIFORM_1F, 3},
+			Arrays.copyOf(commands.getInts(), commands.getIntCount()));
+		assertArrayEquals(new float[] {0.5f}, Arrays.copyOf(commands.getFloats(), commands.getFloatCount()), 0f);
+		assertEquals(2, commands.getObjectCount());
+		assertSame(texture, commands.getObjects()[0]);
+		assertSame(location, commands.getObjects()[1]);
+	}
+
+	@Test
+	public void testUniformMatrixLayout () {
+		final GLCommandBuffer commands = new GLCommandBuffer();
+		final float[] values = new float[20];
+		for (int index = 0; index < values.length; index++) {
+			values[index] = index;
+		}
+		commands.uniformMatrixfv(GLCommandBuffer.UNIFORM_MATRIX_4FV, 5, null, false, values, 2, 16);
+		final FloatBuffer buffer = FloatBuffer.wrap(values, 11, 9);
+		commands.uniformMatrixfv(GLCommandBuffer.UNIFORM_MATRIX_3FV, 6, null, true, buffer);
+
+		assertArrayEquals(new int[] {GLCommandBuffer.UNIFORM_MATRIX_4FV, 5, 0, 16, GLCommandBuffer.UNIFORM_MATRIX_3FV, 6, 1, 9},
+			Arrays.copyOf(commands.getInts(), commands.getIntCount()));
+		assertEquals(25, commands.getFloatCount());
+		assertArrayEquals(Arrays.copyOfRange(values, 2, 18), Arrays.copyOfRange(commands.getFloats(), 0, 16), 0f);
+		assertArrayEquals(Arrays.copyOfRange(values, 11, 20), Arrays.copyOfRange(commands.getFloats(), 16, 25), 0f);
+		assertEquals(11, buffer.position());
+	}
+
+	@Test
+	public void testStreamsGrow () {
+		final GLCommandBuffer commands = new GLCommandBuffer();
+		final int amount = GLCommandBuffer.INITIAL_CAPACITY;
+		for (int index = 0; index < amount; index++) {
+			commands.bindBuffer(GL20.GL_ARRAY_BUFFER, index, index);
+			commands.lineWidth(index);
+		}
+
+		assertEquals(amount * 2, commands.getCommandCount());
+		assertEquals(amount * 4, commands.getIntCount());
+		assertEquals(amount, commands.getFloatCount());
+		assertEquals(amount, commands.getObjectCount());
+		assertTrue(commands.getInts().length >= amount * 4);
+		final int last = amount - 1;
+		assertEquals(last, commands.getInts()[last * 4 + 2]);
+		assertEquals(last, commands.getFloats()[last], 0f);
+		assertEquals(last, commands.getObjects()[last]);
+	}
+
+	@Test
+	public void testClear () {
+		final GLCommandBuffer commands = new GLCommandBuffer();
+		commands.useProgram(1, new Object());
+		commands.clearColor(0f, 0f, 0f, 1f);
+		commands.clear();
+
+		assertTrue(commands.isEmpty());
+		assertEquals(0, commands.getCommandCount());
+		assertEquals(0, commands.getIntCount());
+		assertEquals(0, commands.getFloatCount());
+		assertEquals(0, commands.getObjectCount());
+		assertNull(commands.getObjects()[0]);
+	}
+
+	@Test
+	public void testReplay () {
+		final GLCommandBuffer commands = new GLCommandBuffer();
+		commands.activeTexture(GL20.GL_TEXTURE1);
+		commands.bindTexture(GL20.GL_TEXTURE_2D, 7, new Object());
+		commands.useProgram(2, new Object());
+		commands.uniform1i(3, new Object(), 1);
+		commands.uniform4f(4, new Object(), 1f, 2f, 3f, 4f);
+		commands.depthMask(false);
+		commands.clearColor(0.5f, 0.5f, 0.5f, 1f);
+		commands.clear(GL20.GL_COLOR_BUFFER_BIT);
+		commands.vertexAttribPointer(0, 2, GL20.GL_FLOAT, true, 8, 16);
+		commands.drawArrays(GL20.GL_TRIANGLES, 0, 3);
+		final CallRecorder recorder = new CallRecorder();
+		commands.replay(recorder.create(GL20.class));
+
+		assertEquals(Arrays.asList("glActiveTexture(" + GL20.GL_TEXTURE1 + ")", //
+			"glBindTexture(" + GL20.GL_TEXTURE_2D + ", 7)", //
+			"glUseProgram(2)", //
+			"glUniform1i(3, 1)", //
+			"glUniform4f(4, 1.0, 2.0, 3.0, 4.0)", //
+			"glDepthMask(false)", //
+			"glClearColor(0.5, 0.5, 0.5, 1.0)", //
+			"glClear(" + GL20.GL_COLOR_BUFFER_BIT + ")", //
+			"glVertexAttribPointer(0, 2, " + GL20.GL_FLOAT + ", true, 8, 16)", //
+			"glDrawArrays(" + GL20.GL_TRIANGLES + ", 0, 3)"), recorder.getCalls());
+		assertEquals(10, commands.getCommandCount());
+	}
+}
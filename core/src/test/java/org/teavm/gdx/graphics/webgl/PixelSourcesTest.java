@@ -0,0 +1,68 @@
+package org.teavm.gdx.graphics.webgl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.teavm.jso.canvas.CanvasRenderingContext2D;
+import org.teavm.jso.canvas.ImageData;
+import org.teavm.jso.dom.html.HTMLCanvasElement;
+
+public class PixelSourcesTest {
+	private CallRecorder recorder;
+	private HTMLCanvasElement canvas;
+	private CanvasRenderingContext2D context;
+	private ImageData imageData;
+	private ByteBuffer pixels;
+
+	@Before
+	public void setUp () {
+		recorder = new CallRecorder();
+		canvas = new CallRecorder().create(HTMLCanvasElement.class);
+		context = recorder.create(CanvasRenderingContext2D.class);
+		imageData = new CallRecorder().create(ImageData.class);
+		pixels = ByteBuffer.allocate(0);
+	}
+
+	@After
+	public void tearDown () {
+		PixelSources.unregister(pixels);
+	}
+
+	@Test
+	public void testUploadPutsPixelsBack () {
+		PixelSources.register(pixels, canvas, context, imageData);
+
+		assertSame(canvas, PixelSources.getCanvas(pixels, 0, 0));
+		assertEquals(1, recorder.getCalls().size());
+		assertTrue(recorder.getCalls().get(0).startsWith("putImageData("));
+	}
+
+	@Test
+	public void testSizeMismatch () {
+		PixelSources.register(pixels, canvas, context, imageData);
+
+		assertNull(PixelSources.getCanvas(pixels, 1, 1));
+		assertTrue(recorder.getCalls().isEmpty());
+	}
+
+	@Test
+	public void testBuffersAreComparedByIdentity () {
+		final ByteBuffer equal = ByteBuffer.allocate(0);
+		PixelSources.register(pixels, canvas, context, imageData);
+		PixelSources.register(pixels, canvas, context, imageData);
+
+		assertEquals(1, PixelSources.getSize());
+		assertNull(PixelSources.getCanvas(equal, 0, 0));
+		PixelSources.unregister(equal);
+		assertEquals(1, PixelSources.getSize());
+		PixelSources.unregister(pixels);
+		assertEquals(0, PixelSources.getSize());
+	}
+}
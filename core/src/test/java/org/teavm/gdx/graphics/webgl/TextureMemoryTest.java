@@ -0,0 +1,56 @@
+package org.teavm.gdx.graphics.webgl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.teavm.jso.dom.html.HTMLImageElement;
+import org.teavm.jso.webgl.WebGLRenderingContext;
+
+import com.badlogic.gdx.graphics.GL20;
+
+public class TextureMemoryTest {
+	private TextureMemory memory;
+	private HTMLImageElement image;
+
+	@Before
+	public void setUp () {
+		final CallRecorder recorder = new CallRecorder();
+		memory = new TeaVMGL20(recorder.create(WebGLRenderingContext.class), false).getTextureMemory();
+		image = recorder.create(HTMLImageElement.class);
+	}
+
+	@Test
+	public void testUsedTextureIsEvictedLast () {
+		upload(GL20.GL_TEXTURE_2D, GL20.GL_TEXTURE_2D, 1);
+		upload(GL20.GL_TEXTURE_2D, GL20.GL_TEXTURE_2D, 2);
+		memory.onFrameEnd();
+		memory.textureUsed(1);
+		memory.onFrameEnd();
+		memory.setBudget(1024);
+
+		assertFalse(memory.isEvicted(1));
+		assertTrue(memory.isEvicted(2));
+		assertEquals(1, memory.getEvictions());
+	}
+
+	@Test
+	public void testCubeMapIsNotEvicted () {
+		for (int face = 0; face < 6; face++) {
+			upload(GL20.GL_TEXTURE_CUBE_MAP, GL20.GL_TEXTURE_CUBE_MAP_POSITIVE_X + face, 3);
+		}
+		memory.onFrameEnd();
+		memory.setBudget(1);
+
+		assertFalse(memory.isEvicted(3));
+		assertEquals(6 * 1024, memory.getBytes(3));
+	}
+
+	private void upload (final int target, final int imageTarget, final int texture) {
+		memory.textureBound(target, texture);
+		memory.imageSpecified(imageTarget, 0, 16, 16, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, image);
+		memory.textureBound(target, 0);
+	}
+}
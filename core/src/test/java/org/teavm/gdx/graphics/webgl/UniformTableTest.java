@@ -0,0 +1,21 @@
+package org.teavm.gdx.graphics.webgl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class UniformTableTest {
+	@Test
+	public void testTransposedMatrixBypassesCache () {
+		final UniformTable uniforms = new UniformTable(true);
+		final int id = uniforms.add("u_matrix", null);
+		final float[] matrix = new float[16];
+
+		assertTrue(uniforms.updateMatrix(id, false, matrix, 0, 16));
+		assertFalse(uniforms.updateMatrix(id, false, matrix, 0, 16));
+		assertTrue(uniforms.updateMatrix(id, true, matrix, 0, 16));
+		assertTrue(uniforms.updateMatrix(id, false, matrix, 0, 16));
+		assertFalse(uniforms.updateMatrix(id, false, matrix, 0, 16));
+	}
+}
@@ -0,0 +1,100 @@
+package org.teavm.gdx.graphics.webgl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class VertexArrayObjectCacheTest {
+	private CallRecorder recorder;
+	private VertexArrayObjectCaches caches;
+	private VertexArrayObjectCache cache;
+
+	@Before
+	public void setUp () {
+		recorder = new CallRecorder();
+		caches = new VertexArrayObjectCaches();
+		cache = new VertexArrayObjectCache(recorder.create(TeaVMGLExtensions.class), caches);
+	}
+
+	@Test
+	public void testBindRecordsOnce () {
+		final int[] locations = {0, 1};
+		caches.setProgram(3);
+
+		assertFalse(cache.bind(locations, 0));
+		assertTrue(cache.bind(locations, 0));
+		assertFalse(cache.bind(locations, 16));
+		assertSame(cache, caches.getBound());
+		assertEquals(1, caches.getSize());
+	}
+
+	@Test
+	public void testBindWithoutProgram () {
+		assertFalse(cache.bind(null, 0));
+
+		assertEquals(Arrays.asList("glBindVertexArray(0)"), recorder.getCalls());
+		assertEquals(0, caches.getSize());
+	}
+
+	@Test
+	public void testProgramDeletion () {
+		caches.setProgram(3);
+		cache.bind(null, 0);
+		caches.setProgram(4);
+		cache.bind(null, 0);
+		recorder.clear();
+		caches.programDeleted(3);
+
+		assertEquals(Arrays.asList("glDeleteVertexArray(0)"), recorder.getCalls());
+		assertSame(cache, caches.getBound());
+		assertEquals(1, caches.getSize());
+
+		recorder.clear();
+		caches.programDeleted(4);
+
+		assertEquals(Arrays.asList("glBindVertexArray(0)", "glDeleteVertexArray(0)"), recorder.getCalls());
+		assertEquals(0, caches.getSize());
+	}
+
+	@Test
+	public void testBoundCacheIsPerContext () {
+		final VertexArrayObjectCaches otherCaches = new VertexArrayObjectCaches();
+		final VertexArrayObjectCache other = new VertexArrayObjectCache(recorder.create(TeaVMGLExtensions.class),
+			otherCaches);
+		caches.setProgram(1);
+		otherCaches.setProgram(1);
+		cache.bind(null, 0);
+		other.bind(null, 0);
+
+		assertSame(cache, caches.getBound());
+		assertSame(other, otherCaches.getBound());
+	}
+
+	@Test
+	public void testForeignBindClearsBoundCache () {
+		caches.setProgram(1);
+		cache.bind(null, 0);
+		caches.vertexArrayBound();
+
+		assertNull(caches.getBound());
+	}
+
+	@Test
+	public void testDispose () {
+		caches.setProgram(1);
+		cache.bind(null, 0);
+		recorder.clear();
+		cache.dispose();
+
+		assertEquals(Arrays.asList("glBindVertexArray(0)", "glDeleteVertexArray(0)"), recorder.getCalls());
+		assertNull(caches.getBound());
+		assertEquals(0, caches.getSize());
+	}
+}